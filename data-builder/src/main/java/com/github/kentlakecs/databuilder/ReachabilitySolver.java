@@ -0,0 +1,226 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jackson Brienen
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.kentlakecs.databuilder;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.github.kentlakecs.data.*;
+import com.github.kentlakecs.data.util.StateSpace;
+
+/**
+ * Checks that the ending grids of a {@link VisualLesson} can be reached from its starting grids using only its allowed methods,
+ * by a breadth first search of every state Falco can reach.
+ * <p>
+ * States are packed into a single long by a {@link StateSpace}, which decides the tiles needing balls placed or taken or painting
+ * the same way as the hints given to students. Grids are compared as by {@link Grid#equals(Object)}.
+ * <p>
+ * Each level of the search is expanded in parallel, new states being claimed in a shared lock free hash table,
+ * until the ending grid is found, every state has been searched, or the maximum number of states is reached.
+ *
+ * @author Jackson Brienen
+ * @version 1.0
+ */
+public final class ReachabilitySolver {
+
+    /**
+     * The maximum number of states searched by {@link #ReachabilitySolver()}
+     */
+    public static final int DEFAULT_MAX_STATES = 1 << 22;
+
+    /* Frontiers smaller than this are expanded on the calling thread */
+    private static final int CHUNK = 4096;
+
+    private final ExecutorService executor;
+    private final int maxStates;
+
+    /**
+     * Constructs a new {@link ReachabilitySolver} expanding states in the common {@link ForkJoinPool}
+     * and searching at most {@value #DEFAULT_MAX_STATES} states
+     */
+    public ReachabilitySolver() {
+        this(ForkJoinPool.commonPool(), DEFAULT_MAX_STATES);
+    }
+
+    /**
+     * Constructs a new {@link ReachabilitySolver}
+     * @param executor the {@link ExecutorService} states are expanded in
+     * @param maxStates the maximum number of states searched, which bounds the memory used at around 40 bytes per state
+     */
+    public ReachabilitySolver(ExecutorService executor, int maxStates) {
+        if(maxStates < 1 || maxStates > 1 << 28) {
+            throw new IllegalArgumentException("Argument maxStates must be between 1 and 2^28");
+        }
+        this.executor = executor;
+        this.maxStates = maxStates;
+    }
+
+    /**
+     * Solves each starting grid of the given {@link VisualLesson} against its ending grid, the single ending grid if there is only one
+     * @param lesson the {@link VisualLesson} to check
+     * @return the {@link Solution} for each starting grid
+     * @throws InterruptedException if interrupted while searching
+     */
+    public Solution[] solve(VisualLesson lesson) throws InterruptedException {
+        Grid[] starting = lesson.getStartingGrids(), ending = lesson.getEndingGrids();
+        Solution[] solutions = new Solution[starting.length];
+        for(int i = 0; i < starting.length; i++) {
+            solutions[i] = solve(starting[i], ending.length == 1 ? ending[0] : ending[i], lesson.getAllowedMethods());
+        }
+        return solutions;
+    }
+
+    /**
+     * Searches for a shortest sequence of the allowed actions leading from one {@link Grid} to another
+     * @param start the starting {@link Grid}
+     * @param end the ending {@link Grid}
+     * @param allowed the {@link Method}s which may be used, those which do not change the grid being ignored
+     * @return the {@link Solution}
+     * @throws InterruptedException if interrupted while searching
+     */
+    public Solution solve(Grid start, Grid end, Method[] allowed) throws InterruptedException {
+        StateSpace space = new StateSpace(start, end, allowed);
+        if(!space.isPossible()) {
+            return new Solution(Solution.Status.UNREACHABLE, null, 0);
+        }
+        if(!space.isPacked()) {
+            return new Solution(Solution.Status.TOO_LARGE, null, 0);
+        }
+        long startState = space.getStart(), goalState = space.getGoal();
+
+        Expander expander = new Expander(space);
+        // Sized by the number of states there could be, so that small searches do not allocate a table for the maximum
+        StateTable table = new StateTable((int)Math.min(maxStates, space.getBound()));
+        table.add(startState, -1, (byte)-1);
+        long[] frontier = {startState};
+        boolean found = startState == goalState;
+        while(!found && frontier.length > 0) {
+            if(Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            frontier = expandLevel(expander, table, frontier);
+            if(expander.full.get()) {
+                return new Solution(Solution.Status.TOO_LARGE, null, table.size());
+            }
+            found = expander.found.get();
+        }
+        if(!found) {
+            return new Solution(Solution.Status.UNREACHABLE, null, table.size());
+        }
+
+        List<Method> actions = new ArrayList<>();
+        Method[] values = Method.values();
+        for(int slot = table.find(goalState); table.action(slot) >= 0; slot = table.find(table.parent(slot))) {
+            actions.add(values[table.action(slot)]);
+        }
+        Collections.reverse(actions);
+        return new Solution(Solution.Status.REACHABLE, actions.toArray(new Method[0]), table.size());
+    }
+
+    /**
+     * Expands every state of a level, splitting it between tasks if it is large enough
+     * @return the states of the next level
+     */
+    private long[] expandLevel(Expander expander, StateTable table, long[] frontier) throws InterruptedException {
+        if(frontier.length < CHUNK * 2) {
+            return expander.expand(table, frontier, 0, frontier.length);
+        }
+        List<Callable<long[]>> tasks = new ArrayList<>();
+        for(int from = 0; from < frontier.length; from += CHUNK) {
+            int f = from, to = Math.min(from + CHUNK, frontier.length);
+            tasks.add(() -> expander.expand(table, frontier, f, to));
+        }
+        List<long[]> parts = new ArrayList<>(tasks.size());
+        int total = 0;
+        try {
+            for(Future<long[]> future: executor.invokeAll(tasks)) {
+                long[] part = future.get();
+                parts.add(part);
+                total += part.length;
+            }
+        } catch(ExecutionException e) {
+            if(e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException)e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+        long[] next = new long[total];
+        int at = 0;
+        for(long[] part: parts) {
+            System.arraycopy(part, 0, next, at, part.length);
+            at += part.length;
+        }
+        return next;
+    }
+
+    /**
+     * The transitions of one search, shared by the tasks expanding its levels
+     */
+    private static final class Expander {
+
+        private final StateSpace space;
+        private final long goal;
+        private final AtomicBoolean found = new AtomicBoolean(), full = new AtomicBoolean();
+
+        Expander(StateSpace space) {
+            this.space = space;
+            goal = space.getGoal();
+        }
+
+        /**
+         * Expands the states of the frontier within the given range
+         * @return the states added to the table
+         */
+        long[] expand(StateTable table, long[] frontier, int from, int to) {
+            long[] next = new long[Math.max(16, (to - from) * 2)];
+            long[] candidates = new long[StateSpace.MAX_ACTIONS];
+            byte[] actions = new byte[StateSpace.MAX_ACTIONS];
+            int count = 0;
+            for(int k = from; k < to && !found.get() && !full.get(); k++) {
+                long s = frontier[k];
+                int n = space.expand(s, candidates, actions);
+                for(int c = 0; c < n; c++) {
+                    int added = table.add(candidates[c], s, actions[c]);
+                    if(added < 0) {
+                        full.set(true);
+                        break;
+                    }
+                    if(added > 0) {
+                        if(count == next.length) {
+                            next = Arrays.copyOf(next, count * 2);
+                        }
+                        next[count++] = candidates[c];
+                        if(candidates[c] == goal) {
+                            found.set(true);
+                        }
+                    }
+                }
+            }
+            return Arrays.copyOf(next, count);
+        }
+
+    }
+
+}
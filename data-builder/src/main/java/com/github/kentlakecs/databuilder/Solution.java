@@ -0,0 +1,96 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jackson Brienen
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.kentlakecs.databuilder;
+
+import com.github.kentlakecs.data.Method;
+
+/**
+ * The result of searching for a sequence of actions leading from a starting grid to an ending grid, see {@link ReachabilitySolver}
+ *
+ * @author Jackson Brienen
+ * @version 1.0
+ */
+public final class Solution {
+
+    /**
+     * The outcome of a search
+     */
+    public enum Status {
+        /** A shortest sequence of actions was found */
+        REACHABLE,
+        /** Every reachable state was searched without finding the ending grid */
+        UNREACHABLE,
+        /** The search was stopped upon reaching the maximum number of states, the ending grid may or may not be reachable */
+        TOO_LARGE
+    }
+
+    private final Status status;
+    private final Method[] actions;
+    private final int states;
+
+    Solution(Status status, Method[] actions, int states) {
+        this.status = status;
+        this.actions = actions;
+        this.states = states;
+    }
+
+    /**
+     * @return The {@link Status} of the search
+     */
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * @return true if the ending grid is reachable
+     */
+    public boolean isReachable() {
+        return status == Status.REACHABLE;
+    }
+
+    /**
+     * Each {@link Method#PAINT} paints Falco's tile the color it has in the ending grid
+     * @return A copy of the shortest sequence of actions leading to the ending grid, or null if none was found
+     */
+    public Method[] getActions() {
+        return actions == null ? null : actions.clone();
+    }
+
+    /**
+     * @return The number of distinct states searched
+     */
+    public int getStates() {
+        return states;
+    }
+
+    @Override
+    public String toString() {
+        switch(status) {
+            case REACHABLE: return "Reachable in " + actions.length + " action(s)";
+            case UNREACHABLE: return "Unreachable, searched " + states + " state(s)";
+            default: return "Too large to search, stopped after " + states + " state(s)";
+        }
+    }
+
+}
@@ -0,0 +1,137 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jackson Brienen
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.kentlakecs.databuilder;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import com.github.kentlakecs.data.util.DataUtils;
+
+/**
+ * Fixed capacity open addressing hash set of states, which may be added to by many threads at once without locking.
+ * <p>
+ * A state is a non negative long. Each state is stored along with the state it was reached from and the action taken, written only by
+ * the thread which claimed the slot, so they may be read by any thread once the additions made in a breadth first level are complete.
+ *
+ * @author Jackson Brienen
+ * @version 1.0
+ */
+final class StateTable {
+
+    private static final long EMPTY = -1;
+
+    private final int capacity, mask;
+    private final AtomicLongArray keys;
+    private final long[] parents;
+    private final byte[] actions;
+    private final AtomicInteger size = new AtomicInteger();
+
+    /**
+     * Constructs a new {@link StateTable}
+     * @param capacity the maximum number of states, the table being kept at most half full
+     */
+    StateTable(int capacity) {
+        this.capacity = capacity;
+        int slots = Integer.highestOneBit(Math.max(capacity, 1) * 2 - 1) << 1;
+        mask = slots - 1;
+        keys = new AtomicLongArray(slots);
+        for(int i = 0; i < slots; i++) {
+            keys.lazySet(i, EMPTY);
+        }
+        parents = new long[slots];
+        actions = new byte[slots];
+    }
+
+    /**
+     * Adds a state if it is not already present
+     * @param state the state, greater than or equal to 0
+     * @param parent the state it was reached from
+     * @param action the action taken from the parent
+     * @return 1 if the state was added, 0 if it was already present, or -1 if the table is full
+     */
+    int add(long state, long parent, byte action) {
+        int i = (int)DataUtils.mix(state) & mask;
+        while(true) {
+            long k = keys.get(i);
+            if(k == state) {
+                return 0;
+            }
+            if(k == EMPTY) {
+                if(size.get() >= capacity) {
+                    return -1;
+                }
+                if(keys.compareAndSet(i, EMPTY, state)) {
+                    size.incrementAndGet();
+                    parents[i] = parent;
+                    actions[i] = action;
+                    return 1;
+                }
+                continue;
+            }
+            i = (i + 1) & mask;
+        }
+    }
+
+    /**
+     * @param state a state in the table
+     * @return the slot of the state, or -1 if it is not present
+     */
+    int find(long state) {
+        int i = (int)DataUtils.mix(state) & mask;
+        while(true) {
+            long k = keys.get(i);
+            if(k == state) {
+                return i;
+            }
+            if(k == EMPTY) {
+                return -1;
+            }
+            i = (i + 1) & mask;
+        }
+    }
+
+    /**
+     * @param slot the slot of a state
+     * @return the state it was reached from
+     */
+    long parent(int slot) {
+        return parents[slot];
+    }
+
+    /**
+     * @param slot the slot of a state
+     * @return the action taken to reach it
+     */
+    byte action(int slot) {
+        return actions[slot];
+    }
+
+    /**
+     * @return The number of states added
+     */
+    int size() {
+        return size.get();
+    }
+
+}
@@ -51,4 +51,11 @@ public interface CodeLesson extends Lesson {
      */
     String getTest();
 
+    /**
+     * @return The {@link TestTable} of cases the user written method is run against, or null if the lesson is tested by {@link #getTest()} alone
+     */
+    default TestTable getTestTable() {
+        return null;
+    }
+
 }
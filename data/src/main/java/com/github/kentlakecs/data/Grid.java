@@ -23,7 +23,7 @@
  */
 package com.github.kentlakecs.data;
 
-import java.util.Arrays;
+import com.github.kentlakecs.data.util.DataUtils;
 
 /**
  * A Grid made up of {@link Tile}s for use in a {@link VisualLesson}
@@ -32,9 +32,11 @@ import java.util.Arrays;
  * @version 1.0
  */
 public abstract class Grid {
+
+    private static final Direction[] DIRECTIONS = Direction.values();
     
     /**
-     * @return The {@link Tile}s which make up this Grid
+     * @return The {@link Tile}s which make up this Grid, indexed as {@code getTiles()[y][x]}
      */
     public abstract Tile[][] getTiles();
 
@@ -58,14 +60,113 @@ public abstract class Grid {
      */
     public abstract Direction getPlayerDirection();
 
+    /**
+     * @param x the x coordinate of the {@link Tile}
+     * @param y the y coordinate of the {@link Tile}
+     * @param direction the side of the {@link Tile}
+     * @return true if the {@link Tile} at the given coordinates has a barrier on the given side; otherwise false
+     */
+    public boolean barrierAt(int x, int y, Direction direction) {
+        Tile t = getTiles()[y][x];
+        switch(direction) {
+            case TOP: return t.getBarrierTop();
+            case RIGHT: return t.getBarrierRight();
+            case BOTTOM: return t.getBarrierBottom();
+            case LEFT: return t.getBarrierLeft();
+        }
+        return false;
+    }
+
+    /**
+     * @param x the x coordinate of the {@link Tile}
+     * @param y the y coordinate of the {@link Tile}
+     * @return the number of balls on the {@link Tile} at the given coordinates
+     */
+    public int ballsAt(int x, int y) {
+        return getTiles()[y][x].getBalls();
+    }
+
+    /**
+     * @param x the x coordinate of the {@link Tile}
+     * @param y the y coordinate of the {@link Tile}
+     * @return true if the {@link Tile} at the given coordinates has a color; false if it uses {@link Tile#DEFAULT_ARGB}
+     */
+    public boolean hasColorAt(int x, int y) {
+        return getTiles()[y][x].hasColor();
+    }
+
+    /**
+     * @param x the x coordinate of the {@link Tile}
+     * @param y the y coordinate of the {@link Tile}
+     * @return the packed ARGB value of the background color of the {@link Tile} at the given coordinates
+     * @see Tile#getArgb()
+     */
+    public int colorAt(int x, int y) {
+        return getTiles()[y][x].getArgb();
+    }
+
+    /**
+     * Generates a 64 bit hash of the size, player and every cell of this Grid.
+     * The hash is the exclusive or of {@link DataUtils#cellHash(int, int, int, int)} for each cell and {@link DataUtils#playerHash(int, int, int, Direction)},
+     * allowing implementations to compute it once or update it incrementally. Equal Grids always have equal hashes.
+     * @return The content hash of this Grid
+     */
+    public long contentHash() {
+        int size = getSize();
+        long h = DataUtils.playerHash(size, getPlayerX(), getPlayerY(), getPlayerDirection());
+        Tile[][] tiles = getTiles();
+        for(int y = 0, i = 0; y < size; y++) {
+            for(int x = 0; x < size; x++, i++) {
+                Tile t = tiles[y][x];
+                h ^= DataUtils.cellHash(i, t.getBarriers(), t.getBalls(), t.getArgb());
+            }
+        }
+        return h;
+    }
+
+    /**
+     * @return a hash code derived from {@link #contentHash()}
+     */
+    @Override
+    public int hashCode() {
+        long h = contentHash();
+        return (int)(h ^ (h >>> 32));
+    }
+
+    /**
+     * Compares the size, player, and {@link Tile} at every coordinate, rejecting Grids with differing {@link #contentHash()}s first
+     * @param o the object to compare to
+     * @return true if o is an equal Grid
+     */
+    @Override
     public boolean equals(Object o) {
+        if(o == this) {
+            return true;
+        }
         if(o instanceof Grid) {
             Grid g = (Grid)o;
-            return getSize() == g.getSize()                 &&
-                    Arrays.equals(getTiles(), g.getTiles()) &&
-                    getPlayerX() == g.getPlayerX()          &&
-                    getPlayerY() == g.getPlayerY()          &&
-                    getPlayerDirection() == g.getPlayerDirection();
+            int size = getSize();
+            if(size != g.getSize()                              ||
+                    getPlayerX() != g.getPlayerX()              ||
+                    getPlayerY() != g.getPlayerY()              ||
+                    getPlayerDirection() != g.getPlayerDirection() ||
+                    contentHash() != g.contentHash()) {
+                return false;
+            }
+
+            for(int y = 0; y < size; y++) {
+                for(int x = 0; x < size; x++) {
+                    if(ballsAt(x, y) != g.ballsAt(x, y) || colorAt(x, y) != g.colorAt(x, y)) {
+                        return false;
+                    }
+                    for(Direction d: DIRECTIONS) {
+                        if(barrierAt(x, y, d) != g.barrierAt(x, y, d)) {
+                            return false;
+                        }
+                    }
+                }
+            }
+            return true;
         }
         return false;
     }
@@ -23,6 +23,9 @@
  */
 package com.github.kentlakecs.data;
 
+import com.github.kentlakecs.data.util.DataUtils;
+import com.github.kentlakecs.data.util.Fingerprint;
+
 /**
  * Interface for a basic Lesson, will be extended by either {@link CodeLesson} or {@link VisualLesson}
  * @author Jackson Brienen
@@ -48,4 +51,13 @@ public interface Lesson {
      */
     String getDescription();
 
+    /**
+     * A content fingerprint of this Lesson, equal for any two Lessons with equal contents regardless of implementation.
+     * Implementations may cache the result, but must return a new value once their contents change.
+     * @return The {@link Fingerprint} of this Lesson
+     */
+    default Fingerprint getFingerprint() {
+        return DataUtils.fingerprint(this);
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,293 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jackson Brienen
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.kentlakecs.data;
+
+import java.util.Arrays;
+
+import com.github.kentlakecs.data.factory.DataFactory;
+import com.github.kentlakecs.data.util.DataUtils;
+
+/**
+ * Immutable {@link Grid} stored as parallel primitive arrays rather than a {@link Tile}[][] object graph.
+ * Each cell is a single byte holding its barriers and whether it has a color, with ball counts and packed ARGB colors in separate arrays
+ * which are only allocated if any {@link Tile} has balls or a color.
+ * Cells are stored row by row, the cell for (x, y) being at index {@code y * size + x}.
+ * The {@link Tile}[][] returned by {@link #getTiles()} is created on first use, and {@link #contentHash()} is computed once on construction.
+ * 
+ * @author Jackson Brienen
+ * @version 1.0
+ */
+public final class PackedGrid extends Grid {
+
+    /**
+     * Cell bits, a barrier's bit being {@code 1 << direction.getValue()}
+     */
+    public static final int BARRIER_TOP = 1 << 0,
+                            BARRIER_RIGHT = 1 << 1,
+                            BARRIER_BOTTOM = 1 << 2,
+                            BARRIER_LEFT = 1 << 3,
+                            COLORED = 1 << 4;
+
+    private final int size, playerX, playerY;
+    private final Direction playerDirection;
+    private final byte[] cells;
+    private final int[] balls, colors;
+    private final long hash;
+    private volatile Tile[][] tiles;
+
+    /**
+     * Constructs a new {@link PackedGrid} from the given {@link Tile}s
+     * @param tiles The tiles which make up the grid, indexed as {@code tiles[y][x]}
+     * @param size The size of the grid such that {@code tiles.length == size && tiles[0].length == size} is true
+     * @param playerX The x coordinate of the player
+     * @param playerY The y coordinate of the player
+     * @param playerDirection The direction the player is facing
+     */
+    public PackedGrid(Tile[][] tiles, int size, int playerX, int playerY, Direction playerDirection) {
+        if(tiles.length != size || tiles[0].length != size) {
+            throw new IllegalArgumentException("The tiles array must have a row and column count the same as size");
+        }
+
+        this.size = size;
+        this.playerX = playerX;
+        this.playerY = playerY;
+        this.playerDirection = playerDirection;
+
+        cells = new byte[size * size];
+        int[] balls = null, colors = null;
+        for(int y = 0, i = 0; y < size; y++) {
+            if(tiles[y].length != size) {
+                throw new IllegalArgumentException("The tiles array must have a row and column count the same as size");
+            }
+            for(int x = 0; x < size; x++, i++) {
+                Tile t = tiles[y][x];
+                int cell = (t.getBarrierTop() ? BARRIER_TOP : 0)        |
+                            (t.getBarrierRight() ? BARRIER_RIGHT : 0)   |
+                            (t.getBarrierBottom() ? BARRIER_BOTTOM : 0) |
+                            (t.getBarrierLeft() ? BARRIER_LEFT : 0);
+                if(t.hasColor()) {
+                    if(colors == null) {
+                        colors = new int[cells.length];
+                        Arrays.fill(colors, Tile.DEFAULT_ARGB);
+                    }
+                    colors[i] = t.getArgb();
+                    cell |= COLORED;
+                }
+                if(t.getBalls() != 0) {
+                    if(balls == null) {
+                        balls = new int[cells.length];
+                    }
+                    balls[i] = t.getBalls();
+                }
+                cells[i] = (byte)cell;
+            }
+        }
+        this.balls = balls;
+        this.colors = colors;
+        hash = computeHash();
+    }
+
+    /**
+     * Constructs a new {@link PackedGrid} from copies of the given arrays
+     * @param size The size of the grid
+     * @param cells The barrier and {@link #COLORED} bits of each cell, of length {@code size * size}
+     * @param balls The number of balls in each cell, of length {@code size * size}, or null if no cell has balls
+     * @param colors The ARGB color of each cell, of length {@code size * size}, or null if no cell is {@link #COLORED}. Cells which are not {@link #COLORED} are ignored
+     * @param playerX The x coordinate of the player
+     * @param playerY The y coordinate of the player
+     * @param playerDirection The direction the player is facing
+     */
+    public PackedGrid(int size, byte[] cells, int[] balls, int[] colors, int playerX, int playerY, Direction playerDirection) {
+        if(size < 1) {
+            throw new IllegalArgumentException("Argument size must be greater than or equal to 1");
+        }
+        if(cells.length != size * size || (balls != null && balls.length != cells.length) || (colors != null && colors.length != cells.length)) {
+            throw new IllegalArgumentException("The cell arrays must be of length size * size");
+        }
+
+        this.size = size;
+        this.playerX = playerX;
+        this.playerY = playerY;
+        this.playerDirection = playerDirection;
+        this.cells = cells.clone();
+        this.balls = balls == null ? null : balls.clone();
+        this.colors = colors == null ? null : colors.clone();
+        if(colors != null) {
+            for(int i = 0; i < cells.length; i++) {
+                if((cells[i] & COLORED) == 0) {
+                    this.colors[i] = Tile.DEFAULT_ARGB;
+                }
+            }
+        }
+        hash = computeHash();
+    }
+
+    private long computeHash() {
+        long h = DataUtils.playerHash(size, playerX, playerY, playerDirection);
+        for(int i = 0; i < cells.length; i++) {
+            h ^= DataUtils.cellHash(i, cells[i], balls == null ? 0 : balls[i], (cells[i] & COLORED) != 0 ? colors[i] : Tile.DEFAULT_ARGB);
+        }
+        return h;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Tile[][] getTiles() {
+        Tile[][] t = tiles;
+        if(t == null) {
+            DataFactory df = DataFactory.getInstance();
+            t = new Tile[size][size];
+            for(int y = 0, i = 0; y < size; y++) {
+                for(int x = 0; x < size; x++, i++) {
+                    int cell = cells[i];
+                    t[y][x] = df.tile(
+                        (cell & COLORED) != 0,
+                        (cell & COLORED) != 0 ? colors[i] : Tile.DEFAULT_ARGB,
+                        (cell & BARRIER_TOP) != 0,
+                        (cell & BARRIER_RIGHT) != 0,
+                        (cell & BARRIER_BOTTOM) != 0,
+                        (cell & BARRIER_LEFT) != 0,
+                        balls == null ? 0 : balls[i]);
+                }
+            }
+            tiles = t;
+        }
+        return t;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getPlayerX() {
+        return playerX;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getPlayerY() {
+        return playerY;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Direction getPlayerDirection() {
+        return playerDirection;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean barrierAt(int x, int y, Direction direction) {
+        return (cells[index(x, y)] & (1 << direction.getValue())) != 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int ballsAt(int x, int y) {
+        int i = index(x, y);
+        return balls == null ? 0 : balls[i];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean hasColorAt(int x, int y) {
+        return (cells[index(x, y)] & COLORED) != 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int colorAt(int x, int y) {
+        int i = index(x, y);
+        return (cells[i] & COLORED) != 0 ? colors[i] : Tile.DEFAULT_ARGB;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The hash is computed once on construction.
+     */
+    @Override
+    public long contentHash() {
+        return hash;
+    }
+
+    /**
+     * @param x the x coordinate of a cell
+     * @param y the y coordinate of a cell
+     * @return the barrier and {@link #COLORED} bits of the cell at the given coordinates
+     */
+    public int cellAt(int x, int y) {
+        return cells[index(x, y)];
+    }
+
+    /**
+     * Copies every cell into the given arrays, each of length {@code size * size} and indexed as {@code y * size + x}
+     * @param cells receives the barrier and {@link #COLORED} bits of each cell
+     * @param balls receives the number of balls in each cell
+     * @param colors receives the ARGB color of each cell, {@link Tile#DEFAULT_ARGB} for cells which are not {@link #COLORED}
+     */
+    public void copyTo(byte[] cells, int[] balls, int[] colors) {
+        System.arraycopy(this.cells, 0, cells, 0, this.cells.length);
+        if(this.balls == null) {
+            Arrays.fill(balls, 0, this.cells.length, 0);
+        } else {
+            System.arraycopy(this.balls, 0, balls, 0, this.balls.length);
+        }
+        if(this.colors == null) {
+            Arrays.fill(colors, 0, this.cells.length, Tile.DEFAULT_ARGB);
+        } else {
+            System.arraycopy(this.colors, 0, colors, 0, this.colors.length);
+        }
+    }
+
+    private int index(int x, int y) {
+        if(x < 0 || x >= size || y < 0 || y >= size) {
+            throw new IndexOutOfBoundsException(String.format("(%d, %d) is outside of a grid of size %d", x, y, size));
+        }
+        return y * size + x;
+    }
+
+}
@@ -56,4 +56,8 @@ public abstract class Parameter {
         return false;
     }
 
+    public int hashCode() {
+        return getType().hashCode() * 31 + getName().hashCode();
+    }
+
 }
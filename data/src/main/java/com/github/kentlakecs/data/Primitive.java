@@ -31,30 +31,32 @@ package com.github.kentlakecs.data;
  */
 public enum Primitive {
 
-    STRING("String"),
-    STRING_ARRAY("String[]"),
-    CHAR("char"),
-    CHAR_ARRAY("char[]"),
-    BYTE("byte"),
-    BYTE_ARRAY("byte[]"),
-    SHORT("short"),
-    SHORT_ARRAY("short[]"),
-    INT("int"),
-    INT_ARRAY("int[]"),
-    LONG("long"),
-    LONG_ARRAY("long[]"),
-    FLOAT("float"),
-    FLOAT_ARRAY("float[]"),
-    DOUBLE("double"),
-    DOUBLE_ARRAY("double[]"),
-    BOOLEAN("boolean"),
-    BOOLEAN_ARRAY("boolean[]"),
-    VOID("void");
+    STRING("String", String.class),
+    STRING_ARRAY("String[]", String[].class),
+    CHAR("char", char.class),
+    CHAR_ARRAY("char[]", char[].class),
+    BYTE("byte", byte.class),
+    BYTE_ARRAY("byte[]", byte[].class),
+    SHORT("short", short.class),
+    SHORT_ARRAY("short[]", short[].class),
+    INT("int", int.class),
+    INT_ARRAY("int[]", int[].class),
+    LONG("long", long.class),
+    LONG_ARRAY("long[]", long[].class),
+    FLOAT("float", float.class),
+    FLOAT_ARRAY("float[]", float[].class),
+    DOUBLE("double", double.class),
+    DOUBLE_ARRAY("double[]", double[].class),
+    BOOLEAN("boolean", boolean.class),
+    BOOLEAN_ARRAY("boolean[]", boolean[].class),
+    VOID("void", void.class);
 
     private final String value;
+    private final Class<?> type;
 
-    private Primitive(String value) {
+    private Primitive(String value, Class<?> type) {
         this.value = value;
+        this.type = type;
     }
 
     /**
@@ -64,6 +66,13 @@ public enum Primitive {
         return value;
     }
 
+    /**
+     * @return The Java class of the given Primitive, such as {@code int.class} for {@link #INT} and {@code void.class} for {@link #VOID}
+     */
+    public Class<?> getType() {
+        return type;
+    }
+
     /**
      * @return The String value for the given Primitive
      */
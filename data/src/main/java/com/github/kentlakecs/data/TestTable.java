@@ -0,0 +1,302 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jackson Brienen
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.kentlakecs.data;
+
+import java.lang.reflect.Array;
+import java.util.Arrays;
+
+import com.github.kentlakecs.data.util.DataUtils;
+import com.github.kentlakecs.data.util.Fingerprint;
+
+/**
+ * Test cases for a {@link CodeLesson}, each being the arguments passed to the user written method and the value it is expected to return.
+ * <p>
+ * Cases are stored by column, one column per parameter and one for the expected values, each column being an array of the
+ * {@link Primitive#getType()} of its type with one element per case. An {@link Primitive#INT} column is an {@code int[]} and an
+ * {@link Primitive#INT_ARRAY} column is an {@code int[][]}, so no value is boxed. There is no expected column when the return type is {@link Primitive#VOID},
+ * such cases only check that the method returns normally.
+ * <p>
+ * A TestTable is immutable, the arrays given to and returned by it must not be modified.
+ *
+ * @author Jackson Brienen
+ * @version 1.0
+ */
+public final class TestTable {
+
+    private final Primitive[] parameterTypes;
+    private final Primitive returnType;
+    private final Object[] arguments;
+    private final Object expected;
+    private final int size;
+    private Fingerprint fingerprint;
+
+    /**
+     * Constructs a new {@link TestTable} from its columns
+     * @param parameterTypes the {@link Primitive} type of each parameter, none of which may be {@link Primitive#VOID}
+     * @param returnType the {@link Primitive} return type
+     * @param size the number of cases
+     * @param arguments one column per parameter, each an array of the parameter's type with a length of size
+     * @param expected an array of the return type with a length of size, or null if the return type is {@link Primitive#VOID}
+     * @throws IllegalArgumentException if any column does not match its type or size
+     */
+    public TestTable(Primitive[] parameterTypes, Primitive returnType, int size, Object[] arguments, Object expected) {
+        if(size < 0) {
+            throw new IllegalArgumentException("Argument size must be greater than or equal to 0");
+        }
+        if(parameterTypes.length != arguments.length) {
+            throw new IllegalArgumentException("Expected " + parameterTypes.length + " argument columns, found " + arguments.length);
+        }
+        for(int i = 0; i < parameterTypes.length; i++) {
+            if(parameterTypes[i] == Primitive.VOID) {
+                throw new IllegalArgumentException("Parameter " + i + " cannot be of type void");
+            }
+            checkColumn(parameterTypes[i], arguments[i], size, "Argument column " + i);
+        }
+        if(returnType == Primitive.VOID) {
+            if(expected != null) {
+                throw new IllegalArgumentException("Expected column must be null for a void return type");
+            }
+        } else {
+            checkColumn(returnType, expected, size, "Expected column");
+        }
+
+        this.parameterTypes = parameterTypes.clone();
+        this.returnType = returnType;
+        this.size = size;
+        this.arguments = arguments.clone();
+        this.expected = expected;
+    }
+
+    private static void checkColumn(Primitive type, Object column, int size, String name) {
+        if(column == null || column.getClass() != columnType(type)) {
+            throw new IllegalArgumentException(name + " must be a " + type.getValue() + "[]");
+        }
+        if(Array.getLength(column) != size) {
+            throw new IllegalArgumentException(name + " must have a length of " + size + ", found " + Array.getLength(column));
+        }
+    }
+
+    /**
+     * @param type a {@link Primitive} type other than {@link Primitive#VOID}
+     * @return the class of a column of the type, such as {@code int[].class} for {@link Primitive#INT}
+     */
+    public static Class<?> columnType(Primitive type) {
+        return Array.newInstance(type.getType(), 0).getClass();
+    }
+
+    /**
+     * @return The number of cases
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return The number of parameters
+     */
+    public int getParameterCount() {
+        return parameterTypes.length;
+    }
+
+    /**
+     * @param parameter the index of a parameter
+     * @return the {@link Primitive} type of the parameter
+     */
+    public Primitive getParameterType(int parameter) {
+        return parameterTypes[parameter];
+    }
+
+    /**
+     * @return The {@link Primitive} return type
+     */
+    public Primitive getReturnType() {
+        return returnType;
+    }
+
+    /**
+     * @param parameter the index of a parameter
+     * @return the column of arguments passed as the parameter, see {@link #columnType(Primitive)}
+     */
+    public Object getArguments(int parameter) {
+        return arguments[parameter];
+    }
+
+    /**
+     * @return The column of expected values, see {@link #columnType(Primitive)}, or null if the return type is {@link Primitive#VOID}
+     */
+    public Object getExpected() {
+        return expected;
+    }
+
+    /**
+     * Gets a single argument, boxing it if it is primitive, intended for displaying a case
+     * @param parameter the index of a parameter
+     * @param row the index of a case
+     * @return the argument
+     */
+    public Object getArgument(int parameter, int row) {
+        return Array.get(arguments[parameter], row);
+    }
+
+    /**
+     * Gets a single expected value, boxing it if it is primitive, intended for displaying a case
+     * @param row the index of a case
+     * @return the expected value, or null if the return type is {@link Primitive#VOID}
+     */
+    public Object getExpected(int row) {
+        return expected == null ? null : Array.get(expected, row);
+    }
+
+    /**
+     * @return The {@link Fingerprint} of the types and every value of this table
+     */
+    public Fingerprint getFingerprint() {
+        Fingerprint f = fingerprint;
+        return f == null ? fingerprint = DataUtils.fingerprint(this) : f;
+    }
+
+    /**
+     * Compares the types and every value of the two tables, rejecting those with differing {@link #getFingerprint()}s first.
+     * Floating point values are compared by their bits.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if(o == this) {
+            return true;
+        }
+        if(o instanceof TestTable) {
+            TestTable t = (TestTable)o;
+            return getFingerprint().equals(t.getFingerprint())          &&
+                    size == t.size                                      &&
+                    returnType == t.returnType                          &&
+                    Arrays.equals(parameterTypes, t.parameterTypes)     &&
+                    Arrays.deepEquals(arguments, t.arguments)           &&
+                    Arrays.deepEquals(new Object[]{expected}, new Object[]{t.expected});
+        }
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        return getFingerprint().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "TestTable[" + Arrays.toString(parameterTypes) + " -> " + returnType + ", " + size + " cases]";
+    }
+
+    /**
+     * Builds a {@link TestTable} one case at a time, intended for authoring lessons
+     */
+    public static final class Builder {
+
+        private final Primitive[] parameterTypes;
+        private final Primitive returnType;
+        private final Object[] arguments;
+        private Object expected;
+        private int size, capacity = 8;
+
+        /**
+         * Constructs a new empty {@link Builder}
+         * @param parameterTypes the {@link Primitive} type of each parameter
+         * @param returnType the {@link Primitive} return type
+         */
+        public Builder(Primitive[] parameterTypes, Primitive returnType) {
+            this.parameterTypes = parameterTypes.clone();
+            this.returnType = returnType;
+            arguments = new Object[parameterTypes.length];
+            for(int i = 0; i < arguments.length; i++) {
+                arguments[i] = Array.newInstance(parameterTypes[i].getType(), capacity);
+            }
+            expected = returnType == Primitive.VOID ? null : Array.newInstance(returnType.getType(), capacity);
+        }
+
+        /**
+         * Constructs a new empty {@link Builder} for the method of the given {@link CodeLesson}
+         * @param cl a {@link CodeLesson}
+         */
+        public Builder(CodeLesson cl) {
+            this(DataUtils.parameterTypes(cl.getParameters()), cl.getReturnType());
+        }
+
+        /**
+         * Adds a case
+         * @param expectedValue the value expected to be returned, boxed if primitive, ignored if the return type is {@link Primitive#VOID}
+         * @param args the arguments, boxed if primitive
+         * @return this {@link Builder}
+         * @throws IllegalArgumentException if the number or types of the values do not match
+         */
+        public Builder add(Object expectedValue, Object... args) {
+            if(args.length != arguments.length) {
+                throw new IllegalArgumentException("Expected " + arguments.length + " arguments, found " + args.length);
+            }
+            if(size == capacity) {
+                capacity *= 2;
+                for(int i = 0; i < arguments.length; i++) {
+                    arguments[i] = resize(arguments[i], capacity);
+                }
+                expected = expected == null ? null : resize(expected, capacity);
+            }
+            for(int i = 0; i < args.length; i++) {
+                set(arguments[i], args[i], parameterTypes[i]);
+            }
+            if(expected != null) {
+                set(expected, expectedValue, returnType);
+            }
+            size++;
+            return this;
+        }
+
+        private void set(Object column, Object value, Primitive type) {
+            if(value == null && type.getType().isPrimitive()) {
+                throw new IllegalArgumentException("A " + type.getValue() + " value cannot be null");
+            }
+            try {
+                Array.set(column, size, value);
+            } catch(IllegalArgumentException e) {
+                throw new IllegalArgumentException("Value " + value + " is not a " + type.getValue(), e);
+            }
+        }
+
+        private static Object resize(Object column, int length) {
+            Object resized = Array.newInstance(column.getClass().getComponentType(), length);
+            System.arraycopy(column, 0, resized, 0, Math.min(length, Array.getLength(column)));
+            return resized;
+        }
+
+        /**
+         * @return The {@link TestTable} of every case added
+         */
+        public TestTable build() {
+            Object[] columns = new Object[arguments.length];
+            for(int i = 0; i < columns.length; i++) {
+                columns[i] = resize(arguments[i], size);
+            }
+            return new TestTable(parameterTypes, returnType, size, columns, expected == null ? null : resize(expected, size));
+        }
+
+    }
+
+}
@@ -26,23 +26,48 @@ package com.github.kentlakecs.data;
 import java.awt.Color;
 
 /**
- * Interface to represent a Tile with a {@link Grid}
+ * Interface to represent a Tile with a {@link Grid}.
+ * Colors are held as packed ARGB values, the {@link Color} returned by {@link #getColor()} and {@link #getBackgroundColor()} being cached by each Tile
+ * until its color changes, so drawing a tile does not allocate.
  * 
  * @author Jackson Brienen
  * @version 1.0
  */
 public abstract class Tile {
     
+    /**
+     * The packed ARGB value of the default color which should be used if no color is supplied, an opaque light gray
+     */
+    public static final int DEFAULT_ARGB = 0xFFC0C0C0;
+
     /**
      * The default color which should be used if no color is supplied
+     * @deprecated use {@link #DEFAULT_ARGB}, this is the same color
+     */
+    @Deprecated
+    public static final Color DEFAULT_COLOR = new Color(DEFAULT_ARGB, true);
+
+    /* The color last returned for this Tile, replaced once the tile's color no longer matches it */
+    private transient volatile Color color;
+
+    /**
+     * @return true if this Tile has a background color; false if it uses {@link Tile#DEFAULT_ARGB}
+     */
+    public abstract boolean hasColor();
+
+    /**
+     * @return The packed ARGB background color of the Tile, {@link Tile#DEFAULT_ARGB} if {@link #hasColor()} is false
      */
-    public static Color DEFAULT_COLOR = Color.LIGHT_GRAY;
+    public abstract int getArgb();
 
     /**
-     * The nullable background color. If this is null {@link Tile#getBackgroundColor()} will return {@link Tile#DEFAULT_COLOR}
+     * The nullable background color, from {@link #getArgb()} for use by the UI.
+     * If this is null {@link Tile#getBackgroundColor()} will return the default color.
      * @return The background Color of the Tile
      */
-    public abstract Color getColor();
+    public Color getColor() {
+        return hasColor() ? getBackgroundColor() : null;
+    }
 
     /**
      * @return true if a top barrier is present; otherwise false
@@ -70,23 +95,41 @@ public abstract class Tile {
     public abstract int getBalls();
 
     /**
-     * @return The background Color of the Tile
+     * @return the barriers of this Tile as bits, the bit for each barrier being {@code 1 << direction.getValue()}
      */
+    public int getBarriers() {
+        return (getBarrierTop() ? 1 : 0)        |
+                (getBarrierRight() ? 2 : 0)     |
+                (getBarrierBottom() ? 4 : 0)    |
+                (getBarrierLeft() ? 8 : 0);
+    }
+
+    /**
+     * @return The background Color of the Tile, from {@link #getArgb()} for use by the UI
+     */
+    @SuppressWarnings("deprecation")
     public final Color getBackgroundColor() {
-        return getColor() == null ? DEFAULT_COLOR : getColor();
+        int argb = getArgb();
+        Color c = color;
+        if(c == null || c.getRGB() != argb) {
+            c = argb == DEFAULT_ARGB ? DEFAULT_COLOR : new Color(argb, true);
+            color = c;
+        }
+        return c;
     }
 
     public boolean equals(Object o) {
         if(o instanceof Tile) {
             Tile t = (Tile)o;
-            return getBackgroundColor().equals(t.getBackgroundColor())  && 
-                    getBarrierTop() == t.getBarrierTop()                &&
-                    getBarrierRight() == t.getBarrierRight()            &&
-                    getBarrierBottom() == t.getBarrierBottom()          &&
-                    getBarrierLeft() == t.getBarrierLeft()              &&
-                    getBalls() == t.getBalls();
+            return getBarriers() == t.getBarriers()     &&
+                    getBalls() == t.getBalls()          &&
+                    getArgb() == t.getArgb();
         }
         return false;
     }
 
+    public int hashCode() {
+        return (getArgb() * 31 + getBalls()) * 31 + getBarriers();
+    }
+
 }
@@ -23,6 +23,9 @@
  */
 package com.github.kentlakecs.data;
 
+import com.github.kentlakecs.data.util.DataUtils;
+import com.github.kentlakecs.data.util.Fingerprint;
+
 /**
  * An interface representing a collection of Lessons
  * 
@@ -41,4 +44,13 @@ public interface Unit {
      */
     Lesson[] getLessons();
 
+    /**
+     * A content fingerprint of this Unit, equal for any two Units with equal contents regardless of implementation.
+     * Implementations may cache the result, but must return a new value once their contents change.
+     * @return The {@link Fingerprint} of this Unit
+     */
+    default Fingerprint getFingerprint() {
+        return DataUtils.fingerprint(this);
+    }
+
 }
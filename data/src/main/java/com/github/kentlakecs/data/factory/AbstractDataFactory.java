@@ -44,7 +44,8 @@ public interface AbstractDataFactory {
 
     /**
      * Constructs a {@link Tile} with the given parameters
-     * @param c the background color of the tile
+     * @param colored true if the tile has a background color; false if it uses {@link Tile#DEFAULT_ARGB}
+     * @param argb the packed ARGB background color of the tile, ignored if colored is false
      * @param barrierTop boolean representing if a upper barrier is present
      * @param barrierRight boolean representing if a right barrier is present
      * @param barrierBottom boolean representing if a lower barrier is present
@@ -52,7 +53,22 @@ public interface AbstractDataFactory {
      * @param balls the number of balls present on the tile, should be >= 0
      * @return A newly constructed {@link Tile}
      */
-    Tile tile(Color c, boolean barrierTop, boolean barrierRight, boolean barrierBottom, boolean barrierLeft, int balls);
+    Tile tile(boolean colored, int argb, boolean barrierTop, boolean barrierRight, boolean barrierBottom, boolean barrierLeft, int balls);
+
+    /**
+     * Constructs a {@link Tile} with the given parameters, for use by the UI
+     * @param c the nullable background color of the tile
+     * @param barrierTop boolean representing if a upper barrier is present
+     * @param barrierRight boolean representing if a right barrier is present
+     * @param barrierBottom boolean representing if a lower barrier is present
+     * @param barrierLeft boolean representing if a left barrier is present
+     * @param balls the number of balls present on the tile, should be >= 0
+     * @return A newly constructed {@link Tile}
+     * @see #tile(boolean, int, boolean, boolean, boolean, boolean, int)
+     */
+    default Tile tile(Color c, boolean barrierTop, boolean barrierRight, boolean barrierBottom, boolean barrierLeft, int balls) {
+        return tile(c != null, c == null ? Tile.DEFAULT_ARGB : c.getRGB(), barrierTop, barrierRight, barrierBottom, barrierLeft, balls);
+    }
 
     /**
      * Constructs a {@link Grid}
@@ -88,8 +104,25 @@ public interface AbstractDataFactory {
      * @param returnType The primitive type (or void) that the user's method should return
      * @param test A method written that returns a boolean that tests the user written method
      * @return A newly constructed {@link CodeLesson}
+     * @see #codeLesson(String, String, String, String, Parameter[], Primitive, String, TestTable)
+     */
+    default CodeLesson codeLesson(String name, String startingCode, String description, String methodName, Parameter[] parameters, Primitive returnType, String test) {
+        return codeLesson(name, startingCode, description, methodName, parameters, returnType, test, null);
+    }
+
+    /**
+     * Constructs a {@link CodeLesson}
+     * @param name The name of the lesson
+     * @param startingCode The starting code given to the user for this lesson
+     * @param description A description of the lesson
+     * @param methodName The name of the method the user will write
+     * @param parameters The parameters passed to the methed the user will write
+     * @param returnType The primitive type (or void) that the user's method should return
+     * @param test A method written that returns a boolean that tests the user written method
+     * @param testTable The nullable {@link TestTable} of cases the user's method is run against, its types matching the parameters and return type
+     * @return A newly constructed {@link CodeLesson}
      */
-    CodeLesson codeLesson(String name, String startingCode, String description, String methodName, Parameter[] parameters, Primitive returnType, String test);
+    CodeLesson codeLesson(String name, String startingCode, String description, String methodName, Parameter[] parameters, Primitive returnType, String test, TestTable testTable);
 
     /**
      * Constructs a {@link Unit}
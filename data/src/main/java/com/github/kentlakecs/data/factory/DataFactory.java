@@ -23,15 +23,17 @@
  */
 package com.github.kentlakecs.data.factory;
 
-import java.awt.Color;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.github.kentlakecs.data.*;
 import com.github.kentlakecs.data.util.DataUtils;
+import com.github.kentlakecs.data.util.Fingerprint;
 
 /**
- * Singleton class used to construct immuatable instances of the data classes
+ * Singleton class used to construct immuatable instances of the data classes.
+ * Constructed lessons and units compute their {@link Fingerprint} once, when it is first requested.
  * 
  * @author Jackson Brienen
  * @version 1.0
@@ -40,6 +42,29 @@ public final class DataFactory implements AbstractDataFactory {
 
     private static DataFactory INSTANCE;
 
+    /**
+     * Uncolored tiles with fewer balls than this are preallocated
+     */
+    private static final int COMMON_BALLS = 16;
+
+    /**
+     * The maximum number of uncommon tile states cached
+     */
+    private static final int CACHE_LIMIT = 4096;
+
+    /**
+     * Uncolored tiles indexed by {@code balls << 4 | barriers}
+     */
+    private static final Tile[] COMMON_TILES = new Tile[COMMON_BALLS << 4];
+
+    static {
+        for(int i = 0; i < COMMON_TILES.length; i++) {
+            COMMON_TILES[i] = new ImmutableTile(false, 0, i & 0xF, i >> 4);
+        }
+    }
+
+    private final ConcurrentHashMap<Long, Tile> tileCache = new ConcurrentHashMap<>();
+
     public static DataFactory getInstance() {
         return INSTANCE == null ? INSTANCE = new DataFactory() : INSTANCE;
     }
@@ -69,39 +94,38 @@ public final class DataFactory implements AbstractDataFactory {
 
     /**
      * {@inheritDoc}
+     * <p>
+     * Tiles are immutable and interned, equal arguments will generally return the same instance.
+     * Uncolored tiles with fewer than {@value #COMMON_BALLS} balls are preallocated, other tiles are cached up to {@value #CACHE_LIMIT} distinct states.
      */
     @Override
-    public Tile tile(Color c, boolean barrierTop, boolean barrierRight, boolean barrierBottom, boolean barrierLeft, int balls) {
+    public Tile tile(boolean colored, int argb, boolean barrierTop, boolean barrierRight, boolean barrierBottom, boolean barrierLeft, int balls) {
         if(balls < 0) {
             throw new IllegalArgumentException("Argument balls must be a value >= 0");
         }
 
-        return new Tile() {
-            public Color getColor() {
-                return c;
-            }
-
-            public boolean getBarrierTop() {
-                return barrierTop;
-            }
-
-            public boolean getBarrierRight() {
-                return barrierRight;
-            }
-
-            public boolean getBarrierBottom() {
-                return barrierBottom;
-            }
+        int barriers = (barrierTop ? 1 : 0) | (barrierRight ? 2 : 0) | (barrierBottom ? 4 : 0) | (barrierLeft ? 8 : 0);
+        if(!colored && balls < COMMON_BALLS) {
+            return COMMON_TILES[balls << 4 | barriers];
+        }
 
-            public boolean getBarrierLeft() {
-                return barrierLeft;
-            }
+        if(balls >= 1 << 27) {
+            return new ImmutableTile(colored, argb, barriers, balls);
+        }
 
-            public int getBalls() {
-                return balls;
+        // [63-32] argb, [31] colored, [30-27] barriers, [26-0] balls
+        long key = (colored ? (long)argb << 32 | 1L << 31 : 0) | (long)barriers << 27 | balls;
+        Tile t = tileCache.get(key);
+        if(t == null) {
+            t = new ImmutableTile(colored, argb, barriers, balls);
+            if(tileCache.size() < CACHE_LIMIT) {
+                Tile prev = tileCache.putIfAbsent(key, t);
+                if(prev != null) {
+                    t = prev;
+                }
             }
-
-        };
+        }
+        return t;
     }
 
     /**
@@ -113,29 +137,7 @@ public final class DataFactory implements AbstractDataFactory {
             throw new IllegalArgumentException("The tiles array must have a row and column count the same as size");
         }
 
-        return new Grid() {
-
-            public Tile[][] getTiles() {
-                return tiles;
-            }
-
-            public int getSize() {
-                return size;
-            }
-
-            public int getPlayerX() {
-                return playerX;
-            }
-
-            public int getPlayerY() {
-                return playerY;
-            }
-
-            public Direction getPlayerDirection() {
-                return direction;
-            }
-
-        };
+        return new PackedGrid(tiles, size, playerX, playerY, direction);
     }
 
     /**
@@ -153,6 +155,8 @@ public final class DataFactory implements AbstractDataFactory {
         
         return new VisualLesson() {
 
+            private Fingerprint fingerprint;
+
             public String getName() {
                 return name;
             }
@@ -181,6 +185,11 @@ public final class DataFactory implements AbstractDataFactory {
                 return endingGrids;
             }
 
+            public Fingerprint getFingerprint() {
+                Fingerprint f = fingerprint;
+                return f == null ? fingerprint = DataUtils.fingerprint(this) : f;
+            }
+
             public boolean equals(Object o) {
                 if(o instanceof VisualLesson) {
                     return DataUtils.equals(this, (VisualLesson)o);
@@ -188,6 +197,10 @@ public final class DataFactory implements AbstractDataFactory {
                 return false;
             }
 
+            public int hashCode() {
+                return getFingerprint().hashCode();
+            }
+
             public String toString() {
                 return getName();
             }
@@ -199,7 +212,7 @@ public final class DataFactory implements AbstractDataFactory {
      * {@inheritDoc}
      */
     @Override
-    public CodeLesson codeLesson(String name, String startingCode, String description, String methodName, Parameter[] parameters, Primitive returnType, String test) {
+    public CodeLesson codeLesson(String name, String startingCode, String description, String methodName, Parameter[] parameters, Primitive returnType, String test, TestTable testTable) {
         if(methodName.equals("test")) {
             throw new IllegalArgumentException("Argument methodName cannot be of value 'test'");
         }
@@ -211,9 +224,12 @@ public final class DataFactory implements AbstractDataFactory {
             }
             parameterNames.add(p.getName());
         }
+        DataUtils.checkTestTable(testTable, parameters, returnType);
         
         return new CodeLesson() {
 
+            private Fingerprint fingerprint;
+
             public String getName() {
                 return name;
             }
@@ -242,6 +258,15 @@ public final class DataFactory implements AbstractDataFactory {
                 return test;
             }
 
+            public TestTable getTestTable() {
+                return testTable;
+            }
+
+            public Fingerprint getFingerprint() {
+                Fingerprint f = fingerprint;
+                return f == null ? fingerprint = DataUtils.fingerprint(this) : f;
+            }
+
             public boolean equals(Object o) {
                 if(o instanceof CodeLesson) {
                     return DataUtils.equals(this, (CodeLesson)o);
@@ -249,6 +274,10 @@ public final class DataFactory implements AbstractDataFactory {
                 return false;
             }
 
+            public int hashCode() {
+                return getFingerprint().hashCode();
+            }
+
             public String toString() {
                 return getName();
             }
@@ -272,6 +301,8 @@ public final class DataFactory implements AbstractDataFactory {
 
         return new Unit() {
 
+            private Fingerprint fingerprint;
+
             public String getName() {
                 return name;
             }
@@ -280,6 +311,11 @@ public final class DataFactory implements AbstractDataFactory {
                 return lessons;
             }
 
+            public Fingerprint getFingerprint() {
+                Fingerprint f = fingerprint;
+                return f == null ? fingerprint = DataUtils.fingerprint(this) : f;
+            }
+
             public boolean equals(Object o) {
                 if(o instanceof Unit) {
                     return DataUtils.equals(this, (Unit)o);
@@ -287,11 +323,66 @@ public final class DataFactory implements AbstractDataFactory {
                 return false;
             }
 
+            public int hashCode() {
+                return getFingerprint().hashCode();
+            }
+
             public String toString() {
                 return getName();
             }
             
         };
     }
+
+    /**
+     * Immutable {@link Tile} shared between every {@link Grid} using the same state
+     */
+    private static final class ImmutableTile extends Tile {
+
+        private final boolean colored;
+        private final int argb;
+        private final byte barriers;
+        private final int balls;
+
+        ImmutableTile(boolean colored, int argb, int barriers, int balls) {
+            this.colored = colored;
+            this.argb = colored ? argb : DEFAULT_ARGB;
+            this.barriers = (byte)barriers;
+            this.balls = balls;
+        }
+
+        public boolean hasColor() {
+            return colored;
+        }
+
+        public int getArgb() {
+            return argb;
+        }
+
+        public boolean getBarrierTop() {
+            return (barriers & 1) != 0;
+        }
+
+        public boolean getBarrierRight() {
+            return (barriers & 2) != 0;
+        }
+
+        public boolean getBarrierBottom() {
+            return (barriers & 4) != 0;
+        }
+
+        public boolean getBarrierLeft() {
+            return (barriers & 8) != 0;
+        }
+
+        public int getBalls() {
+            return balls;
+        }
+
+        public int getBarriers() {
+            return barriers;
+        }
+
+    }
     
 }
@@ -0,0 +1,174 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jackson Brienen
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.kentlakecs.data.io;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.function.IntFunction;
+
+import com.github.kentlakecs.data.factory.AbstractDataFactory;
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.*;
+
+/**
+ * Generic streaming {@link TypeAdapter} that takes in a {@link AbstractDataFactory} to instantiate read objects.
+ * Unlike a {@link Deserializer} or {@link com.google.gson.JsonSerializer}, no {@link com.google.gson.JsonElement} tree is built;
+ * objects are read from {@link JsonReader} tokens and written as {@link JsonWriter} tokens directly.
+ *
+ * @author Jackson Brienen
+ * @version 1.0
+ */
+abstract class Adapter<T> extends TypeAdapter<T> {
+
+    protected AbstractDataFactory adf;
+
+    /**
+     * Constructs a new {@link Adapter}
+     * @param adf the {@link AbstractDataFactory} used to instantiate read objects, it is not used when writing
+     */
+    public Adapter(AbstractDataFactory adf) {
+        this.adf = adf;
+    }
+
+    /**
+     * Functional interface used to read a single element of a Json array
+     */
+    @FunctionalInterface
+    protected interface ElementReader<E> {
+        E read(JsonReader in) throws IOException;
+    }
+
+    /**
+     * Functional interface used to write a single element of a Json array
+     */
+    @FunctionalInterface
+    protected interface ElementWriter<E> {
+        void write(JsonWriter out, E value) throws IOException;
+    }
+
+    /**
+     * Reads a Json array, or null, using the given {@link ElementReader} for each element
+     * @param in the {@link JsonReader} positioned at the array
+     * @param reader the {@link ElementReader} used to read each element
+     * @param generator function used to create an array of the resulting length
+     * @return the read array, or null if a Json null was read
+     * @throws IOException if reading errors occur
+     */
+    protected static <E> E[] readArray(JsonReader in, ElementReader<E> reader, IntFunction<E[]> generator) throws IOException {
+        if(in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+
+        ArrayList<E> list = new ArrayList<>();
+        in.beginArray();
+        while(in.hasNext()) {
+            list.add(reader.read(in));
+        }
+        in.endArray();
+        return list.toArray(generator.apply(list.size()));
+    }
+
+    /**
+     * Writes the given array as a Json array, or a Json null if the array is null
+     * @param out the {@link JsonWriter} to write to
+     * @param values the array to write
+     * @param writer the {@link ElementWriter} used to write each element
+     * @throws IOException if writing errors occur
+     */
+    protected static <E> void writeArray(JsonWriter out, E[] values, ElementWriter<E> writer) throws IOException {
+        if(values == null) {
+            out.nullValue();
+            return;
+        }
+
+        out.beginArray();
+        for(E value: values) {
+            writer.write(out, value);
+        }
+        out.endArray();
+    }
+
+    /**
+     * Writes an enum constant by its name, matching the default Gson enum serialization
+     * @param out the {@link JsonWriter} to write to
+     * @param value the enum constant to write, may be null
+     * @throws IOException if writing errors occur
+     */
+    protected static void writeEnum(JsonWriter out, Enum<?> value) throws IOException {
+        out.value(value == null ? null : value.name());
+    }
+
+    /**
+     * Reads a String, or null
+     * @param in the {@link JsonReader} positioned at the String
+     * @return the read String, or null if a Json null was read
+     * @throws IOException if reading errors occur
+     */
+    protected static String readString(JsonReader in) throws IOException {
+        if(in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        return in.nextString();
+    }
+
+    /**
+     * Reads an enum constant serialized by its name, or null
+     * @param in the {@link JsonReader} positioned at the enum name
+     * @param type the class of the enum
+     * @return the read enum constant, or null if a Json null was read
+     * @throws IOException if reading errors occur
+     * @throws JsonParseException if the name does not match a constant of the given enum
+     */
+    protected static <E extends Enum<E>> E readEnum(JsonReader in, Class<E> type) throws IOException {
+        String name = readString(in);
+        if(name == null) {
+            return null;
+        }
+
+        try {
+            return Enum.valueOf(type, name);
+        } catch(IllegalArgumentException e) {
+            throw new JsonParseException("Unknown " + type.getSimpleName() + " '" + name + "' at " + in.getPath(), e);
+        }
+    }
+
+    /**
+     * Ensures a required property was present within the read object
+     * @param value the read value, null if the property was not present
+     * @param property the name of the property
+     * @param in the {@link JsonReader} used, for error reporting
+     * @return value
+     * @throws JsonParseException if value is null
+     */
+    protected static <V> V require(V value, String property, JsonReader in) {
+        if(value == null) {
+            throw new JsonParseException("Missing property '" + property + "' in object ending at " + in.getPath());
+        }
+        return value;
+    }
+
+}
@@ -0,0 +1,127 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jackson Brienen
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.kentlakecs.data.io;
+
+import java.io.*;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+import com.github.kentlakecs.data.*;
+import com.github.kentlakecs.data.factory.*;
+
+/**
+ * Reader class to read in {@link Unit} arrays written by {@link BinaryDataWriter}
+ * 
+ * @author Jackson Brienen
+ * @version 1.0
+ * @see DataReader
+ */
+public final class BinaryDataReader {
+
+    private final AbstractDataFactory adf;
+
+    /**
+     * Constructs a new {@link BinaryDataReader} with the {@link DataFactory} singleton instance as the {@link AbstractDataFactory}
+     * @see BinaryDataReader#BinaryDataReader(AbstractDataFactory)
+     */
+    public BinaryDataReader() {
+        this(DataFactory.getInstance());
+    }
+
+    /**
+     * Constructs a new {@link BinaryDataReader} using the given {@link AbstractDataFactory} to instantiate objects
+     * @param adf a {@link AbstractDataFactory} used to instantiate objects
+     */
+    public BinaryDataReader(AbstractDataFactory adf) {
+        this.adf = adf;
+    }
+
+    /**
+     * Reads in a binary file that was written by {@link BinaryDataWriter} and decodes it to a {@link Unit} array
+     * @param f a binary curriculum file
+     * @return a {@link Unit}[]
+     * @throws IOException if file or reading errors occur, or the file is not a valid binary curriculum file
+     */
+    public Unit[] read(File f) throws IOException {
+        ByteBuffer buf;
+        try(FileChannel fc = FileChannel.open(f.toPath(), StandardOpenOption.READ)) {
+            buf = ByteBuffer.allocate((int)fc.size());
+            while(buf.hasRemaining() && fc.read(buf) >= 0);
+        }
+        buf.flip();
+
+        BinaryDecoder dec = new BinaryDecoder(buf, adf);
+        try {
+            dec.readHeader();
+            return dec.readUnits();
+        } catch(BufferUnderflowException e) {
+            throw new IOException("Truncated binary curriculum file '" + f + "'", e);
+        }
+    }
+
+    /**
+     * Decodes a single {@link Lesson} encoded by {@link BinaryDataWriter#encode(Lesson)}
+     * @param buf a {@link ByteBuffer} positioned at the lesson, it is left positioned after it
+     * @return the decoded {@link Lesson}
+     * @throws IOException if the bytes are not a valid lesson
+     */
+    public Lesson decodeLesson(ByteBuffer buf) throws IOException {
+        try {
+            return new BinaryDecoder(buf, adf).readLesson();
+        } catch(BufferUnderflowException e) {
+            throw new IOException("Truncated lesson", e);
+        }
+    }
+
+    /**
+     * Decodes a single {@link Grid} encoded by {@link BinaryDataWriter#encode(Grid)}
+     * @param buf a {@link ByteBuffer} positioned at the grid, it is left positioned after it
+     * @return the decoded {@link Grid}
+     * @throws IOException if the bytes are not a valid grid
+     */
+    public Grid decodeGrid(ByteBuffer buf) throws IOException {
+        try {
+            return new BinaryDecoder(buf, adf).readGrid();
+        } catch(BufferUnderflowException e) {
+            throw new IOException("Truncated grid", e);
+        }
+    }
+
+    /**
+     * Decodes a single {@link TestTable} encoded by {@link BinaryDataWriter#encode(TestTable)}
+     * @param buf a {@link ByteBuffer} positioned at the table, it is left positioned after it
+     * @return the decoded {@link TestTable}
+     * @throws IOException if the bytes are not a valid table
+     */
+    public TestTable decodeTestTable(ByteBuffer buf) throws IOException {
+        try {
+            return new BinaryDecoder(buf, adf).readTestTable();
+        } catch(BufferUnderflowException e) {
+            throw new IOException("Truncated test table", e);
+        }
+    }
+
+}
@@ -0,0 +1,89 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jackson Brienen
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.kentlakecs.data.io;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+
+import com.github.kentlakecs.data.*;
+
+/**
+ * Writer class to write {@link Unit} arrays in the compact binary curriculum format to be read in by {@link BinaryDataReader}
+ * 
+ * @author Jackson Brienen
+ * @version 1.0
+ * @see DataWriter
+ */
+public final class BinaryDataWriter {
+
+    /**
+     * Writes the given {@link Unit}[] in the binary format to a given {@link File}
+     * @param f a binary curriculum file
+     * @param u a {@link Unit}[]
+     * @throws IOException if file or writing errors occur
+     */
+    public void write(File f, Unit[] u) throws IOException {
+        BinaryEncoder enc = new BinaryEncoder();
+        enc.writeHeader();
+        enc.writeUnits(u);
+        try(FileOutputStream fos = new FileOutputStream(f)) {
+            enc.writeTo(fos);
+        }
+    }
+
+    /**
+     * Encodes a single {@link Lesson} without the file header, for sending within another protocol.
+     * The bytes are only readable by {@link BinaryDataReader#decodeLesson(ByteBuffer)} of the same format version.
+     * @param l a {@link CodeLesson} or {@link VisualLesson}
+     * @return the encoded bytes
+     */
+    public byte[] encode(Lesson l) {
+        BinaryEncoder enc = new BinaryEncoder();
+        enc.writeLesson(l);
+        return enc.toByteArray();
+    }
+
+    /**
+     * Encodes a single {@link Grid} without the file header, see {@link #encode(Lesson)}
+     * @param g a {@link Grid}
+     * @return the encoded bytes
+     */
+    public byte[] encode(Grid g) {
+        BinaryEncoder enc = new BinaryEncoder();
+        enc.writeGrid(g);
+        return enc.toByteArray();
+    }
+
+    /**
+     * Encodes a single {@link TestTable} along with its types without the file header, see {@link #encode(Lesson)}
+     * @param t a {@link TestTable}
+     * @return the encoded bytes
+     */
+    public byte[] encode(TestTable t) {
+        BinaryEncoder enc = new BinaryEncoder();
+        enc.writeTestTable(t);
+        return enc.toByteArray();
+    }
+
+}
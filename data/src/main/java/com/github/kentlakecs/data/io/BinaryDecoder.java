@@ -0,0 +1,383 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jackson Brienen
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.kentlakecs.data.io;
+
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import com.github.kentlakecs.data.*;
+import com.github.kentlakecs.data.factory.AbstractDataFactory;
+import com.github.kentlakecs.data.util.DataUtils;
+
+import static com.github.kentlakecs.data.io.BinaryFormat.*;
+
+/**
+ * Decodes data classes from the binary curriculum format described by {@link BinaryFormat}, instantiating them via an {@link AbstractDataFactory}
+ *
+ * @author Jackson Brienen
+ * @version 1.0
+ */
+class BinaryDecoder {
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+    private static final Method[] METHODS = Method.values();
+    private static final Primitive[] PRIMITIVES = Primitive.values();
+
+    private final ByteBuffer buf;
+    private final AbstractDataFactory adf;
+
+    /**
+     * Constructs a new {@link BinaryDecoder}
+     * @param buf the {@link ByteBuffer} to decode from, starting at its current position
+     * @param adf DataFactory used to instantiate decoded objects
+     */
+    public BinaryDecoder(ByteBuffer buf, AbstractDataFactory adf) {
+        this.buf = buf;
+        this.adf = adf;
+    }
+
+    /**
+     * @return The {@link ByteBuffer} decoded from
+     */
+    public ByteBuffer buffer() {
+        return buf;
+    }
+
+    /**
+     * Reads and validates the format header
+     * @throws IOException if the magic number or version do not match
+     */
+    public void readHeader() throws IOException {
+        readHeader(MAGIC);
+    }
+
+    /**
+     * Reads and validates the format header with the given magic number
+     * @param magic either {@link BinaryFormat#MAGIC} or {@link BinaryFormat#INDEXED_MAGIC}
+     * @throws IOException if the magic number or version do not match
+     */
+    public void readHeader(int magic) throws IOException {
+        if(buf.remaining() < 5 || buf.getInt() != magic) {
+            throw new IOException("Not a binary curriculum file");
+        }
+        byte version = buf.get();
+        if(version != VERSION) {
+            throw new IOException("Unsupported binary curriculum version " + version + ", expected " + VERSION);
+        }
+    }
+
+    /**
+     * Reads an unsigned LEB128 varint
+     * @return the read value
+     * @throws IOException if the varint is malformed
+     */
+    public int readVarint() throws IOException {
+        int v = 0;
+        for(int shift = 0; shift < 35; shift += 7) {
+            byte b = buf.get();
+            v |= (b & 0x7F) << shift;
+            if(b >= 0) {
+                if(v < 0) {
+                    break;
+                }
+                return v;
+            }
+        }
+        throw new IOException("Malformed varint at position " + buf.position());
+    }
+
+    /**
+     * Reads a nullable String written by {@link BinaryEncoder#writeString(String)}
+     * @return the read String or null
+     * @throws IOException if decoding errors occur
+     */
+    public String readString() throws IOException {
+        int len = readVarint() - 1;
+        if(len < 0) {
+            return null;
+        }
+        if(len > buf.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        String s;
+        if(buf.hasArray()) {
+            s = new String(buf.array(), buf.arrayOffset() + buf.position(), len, StandardCharsets.UTF_8);
+            buf.position(buf.position() + len);
+        } else {
+            byte[] b = new byte[len];
+            buf.get(b);
+            s = new String(b, StandardCharsets.UTF_8);
+        }
+        return s;
+    }
+
+    /**
+     * Reads a {@link Unit}[] written by {@link BinaryEncoder#writeUnits(Unit[])}
+     * @return the read {@link Unit}[]
+     * @throws IOException if decoding errors occur
+     */
+    public Unit[] readUnits() throws IOException {
+        Unit[] units = new Unit[readVarint()];
+        for(int i = 0; i < units.length; i++) {
+            units[i] = readUnit();
+        }
+        return units;
+    }
+
+    /**
+     * Reads a {@link Unit} written by {@link BinaryEncoder#writeUnit(Unit)}
+     * @return the read {@link Unit}
+     * @throws IOException if decoding errors occur
+     */
+    public Unit readUnit() throws IOException {
+        String name = readString();
+        Lesson[] lessons = new Lesson[readVarint()];
+        for(int i = 0; i < lessons.length; i++) {
+            lessons[i] = readLesson();
+        }
+        return adf.unit(name, lessons);
+    }
+
+    /**
+     * Reads a {@link Lesson} written by {@link BinaryEncoder#writeLesson(Lesson)}
+     * @return the read {@link CodeLesson} or {@link VisualLesson}
+     * @throws IOException if decoding errors occur
+     */
+    public Lesson readLesson() throws IOException {
+        byte kind = buf.get();
+        if(kind != CODE_LESSON && kind != VISUAL_LESSON) {
+            throw new IOException("Unknown lesson kind " + kind + " at position " + (buf.position() - 1));
+        }
+
+        String name = readString();
+        String description = readString();
+        String startingCode = readString();
+
+        if(kind == VISUAL_LESSON) {
+            Method[] allowedMethods = new Method[readVarint()];
+            for(int i = 0; i < allowedMethods.length; i++) {
+                allowedMethods[i] = constant(METHODS, buf.get());
+            }
+            String[] requiredStrings = new String[readVarint()];
+            for(int i = 0; i < requiredStrings.length; i++) {
+                requiredStrings[i] = readString();
+            }
+            Grid[] startingGrids = readGrids();
+            Grid[] endingGrids = readGrids();
+            return adf.visualLesson(name, startingCode, description, allowedMethods, requiredStrings, startingGrids, endingGrids);
+        }
+
+        String methodName = readString();
+        Parameter[] parameters = new Parameter[readVarint()];
+        for(int i = 0; i < parameters.length; i++) {
+            Primitive type = constant(PRIMITIVES, buf.get());
+            parameters[i] = adf.parameter(type, readString());
+        }
+        Primitive returnType = constant(PRIMITIVES, buf.get());
+        String test = readString();
+        TestTable table = buf.get() == 0 ? null : readTestTableCases(DataUtils.parameterTypes(parameters), returnType);
+        return adf.codeLesson(name, startingCode, description, methodName, parameters, returnType, test, table);
+    }
+
+    /**
+     * Reads a {@link TestTable} written by {@link BinaryEncoder#writeTestTable(TestTable)}
+     * @return the read {@link TestTable}
+     * @throws IOException if decoding errors occur
+     */
+    public TestTable readTestTable() throws IOException {
+        Primitive[] parameterTypes = new Primitive[readVarint()];
+        for(int i = 0; i < parameterTypes.length; i++) {
+            parameterTypes[i] = constant(PRIMITIVES, buf.get());
+        }
+        return readTestTableCases(parameterTypes, constant(PRIMITIVES, buf.get()));
+    }
+
+    private TestTable readTestTableCases(Primitive[] parameterTypes, Primitive returnType) throws IOException {
+        int size = readVarint();
+        Object[] arguments = new Object[parameterTypes.length];
+        for(int i = 0; i < arguments.length; i++) {
+            arguments[i] = readColumn(parameterTypes[i], size);
+        }
+        Object expected = returnType == Primitive.VOID ? null : readColumn(returnType, size);
+        try {
+            return new TestTable(parameterTypes, returnType, size, arguments, expected);
+        } catch(IllegalArgumentException e) {
+            throw new IOException("Invalid test table: " + e.getMessage(), e);
+        }
+    }
+
+    private Object readColumn(Primitive type, int size) throws IOException {
+        switch(type) {
+            case STRING: {
+                String[] a = new String[size];
+                for(int i = 0; i < size; i++) {
+                    a[i] = readString();
+                }
+                return a;
+            }
+            case CHAR: {
+                char[] a = new char[size];
+                for(int i = 0; i < size; i++) {
+                    a[i] = buf.getChar();
+                }
+                return a;
+            }
+            case BYTE: {
+                byte[] a = new byte[size];
+                buf.get(a);
+                return a;
+            }
+            case SHORT: {
+                short[] a = new short[size];
+                for(int i = 0; i < size; i++) {
+                    a[i] = buf.getShort();
+                }
+                return a;
+            }
+            case INT: {
+                int[] a = new int[size];
+                for(int i = 0; i < size; i++) {
+                    a[i] = buf.getInt();
+                }
+                return a;
+            }
+            case LONG: {
+                long[] a = new long[size];
+                for(int i = 0; i < size; i++) {
+                    a[i] = buf.getLong();
+                }
+                return a;
+            }
+            case FLOAT: {
+                float[] a = new float[size];
+                for(int i = 0; i < size; i++) {
+                    a[i] = buf.getFloat();
+                }
+                return a;
+            }
+            case DOUBLE: {
+                double[] a = new double[size];
+                for(int i = 0; i < size; i++) {
+                    a[i] = buf.getDouble();
+                }
+                return a;
+            }
+            case BOOLEAN: {
+                boolean[] a = new boolean[size];
+                for(int i = 0; i < size; i++) {
+                    a[i] = buf.get() != 0;
+                }
+                return a;
+            }
+            case VOID:
+                throw new IOException("A column cannot be of type void");
+            default: {
+                Primitive component = DataUtils.componentType(type);
+                Object[] a = (Object[])Array.newInstance(type.getType(), size);
+                for(int i = 0; i < size; i++) {
+                    int length = readVarint() - 1;
+                    if(length > buf.remaining()) {
+                        throw new BufferUnderflowException();
+                    }
+                    a[i] = length < 0 ? null : readColumn(component, length);
+                }
+                return a;
+            }
+        }
+    }
+
+    private Grid[] readGrids() throws IOException {
+        Grid[] grids = new Grid[readVarint()];
+        for(int i = 0; i < grids.length; i++) {
+            grids[i] = readGrid();
+        }
+        return grids;
+    }
+
+    /**
+     * Reads a {@link Grid} written by {@link BinaryEncoder#writeGrid(Grid)}
+     * @return the read {@link Grid}
+     * @throws IOException if decoding errors occur
+     */
+    public Grid readGrid() throws IOException {
+        int size = readVarint();
+        int playerX = readVarint();
+        int playerY = readVarint();
+        Direction direction = constant(DIRECTIONS, buf.get());
+        byte flags = buf.get();
+        int cells = size * size;
+
+        // index 0 represents no color
+        int[] palette = {Tile.DEFAULT_ARGB};
+        if((flags & GRID_HAS_COLORS) != 0) {
+            palette = new int[readVarint() + 1];
+            palette[0] = Tile.DEFAULT_ARGB;
+            for(int i = 1; i < palette.length; i++) {
+                palette[i] = buf.getInt();
+            }
+        }
+
+        byte[] barriers = new byte[(cells + 1) / 2];
+        buf.get(barriers);
+
+        int[] colors = new int[cells];
+        if((flags & GRID_HAS_COLORS) != 0) {
+            for(int i = 0; i < cells; i++) {
+                colors[i] = readVarint();
+                if(colors[i] >= palette.length) {
+                    throw new IOException("Palette index " + colors[i] + " out of range at position " + buf.position());
+                }
+            }
+        }
+
+        Tile[][] tiles = new Tile[size][size];
+        boolean hasBalls = (flags & GRID_HAS_BALLS) != 0;
+        for(int r = 0, i = 0; r < size; r++) {
+            for(int c = 0; c < size; c++, i++) {
+                int b = barriers[i >> 1] >> ((i & 1) << 2);
+                tiles[r][c] = adf.tile(
+                    colors[i] != 0,
+                    palette[colors[i]],
+                    (b & BARRIER_TOP) != 0,
+                    (b & BARRIER_RIGHT) != 0,
+                    (b & BARRIER_BOTTOM) != 0,
+                    (b & BARRIER_LEFT) != 0,
+                    hasBalls ? readVarint() : 0);
+            }
+        }
+
+        return adf.grid(tiles, size, playerX, playerY, direction);
+    }
+
+    private <E> E constant(E[] values, byte ordinal) throws IOException {
+        if(ordinal < 0 || ordinal >= values.length) {
+            throw new IOException("Unknown " + values.getClass().getComponentType().getSimpleName() + " ordinal " + ordinal + " at position " + (buf.position() - 1));
+        }
+        return values[ordinal];
+    }
+
+}
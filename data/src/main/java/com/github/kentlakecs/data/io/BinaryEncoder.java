@@ -0,0 +1,416 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jackson Brienen
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.kentlakecs.data.io;
+
+import java.io.*;
+import java.lang.reflect.Array;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+
+import com.github.kentlakecs.data.*;
+import com.github.kentlakecs.data.util.DataUtils;
+
+import static com.github.kentlakecs.data.io.BinaryFormat.*;
+
+/**
+ * Encodes data classes in to the binary curriculum format described by {@link BinaryFormat}, growing an internal byte buffer as needed
+ *
+ * @author Jackson Brienen
+ * @version 1.0
+ */
+class BinaryEncoder {
+
+    private byte[] buf;
+    private int pos;
+
+    /* Reused between grids to build the color palette */
+    private final HashMap<Integer, Integer> palette = new HashMap<>();
+
+    /**
+     * Constructs a new {@link BinaryEncoder}
+     */
+    public BinaryEncoder() {
+        buf = new byte[8192];
+    }
+
+    /**
+     * @return The number of bytes written so far
+     */
+    public int position() {
+        return pos;
+    }
+
+    /**
+     * @return A copy of the bytes written so far
+     */
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buf, pos);
+    }
+
+    /**
+     * Writes the encoded bytes to the given {@link OutputStream}
+     * @param out an {@link OutputStream}
+     * @throws IOException if writing errors occur
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        out.write(buf, 0, pos);
+    }
+
+    private void ensure(int n) {
+        if(pos + n > buf.length) {
+            buf = Arrays.copyOf(buf, Math.max(buf.length * 2, pos + n));
+        }
+    }
+
+    /**
+     * Writes the low 8 bits of the given value
+     * @param b a byte value
+     */
+    public void writeByte(int b) {
+        ensure(1);
+        buf[pos++] = (byte)b;
+    }
+
+    /**
+     * Writes a 4 byte big-endian int
+     * @param v an int value
+     */
+    public void writeInt(int v) {
+        ensure(4);
+        buf[pos++] = (byte)(v >>> 24);
+        buf[pos++] = (byte)(v >>> 16);
+        buf[pos++] = (byte)(v >>> 8);
+        buf[pos++] = (byte)v;
+    }
+
+    /**
+     * Writes a 2 byte big-endian short
+     * @param v a short or char value
+     */
+    public void writeShort(int v) {
+        ensure(2);
+        buf[pos++] = (byte)(v >>> 8);
+        buf[pos++] = (byte)v;
+    }
+
+    /**
+     * Writes an 8 byte big-endian long
+     * @param v a long value
+     */
+    public void writeLong(long v) {
+        writeInt((int)(v >>> 32));
+        writeInt((int)v);
+    }
+
+    /**
+     * Writes an unsigned LEB128 varint
+     * @param v a value >= 0
+     */
+    public void writeVarint(int v) {
+        if(v < 0) {
+            throw new IllegalArgumentException("Varint values must be >= 0: " + v);
+        }
+        ensure(5);
+        while((v & ~0x7F) != 0) {
+            buf[pos++] = (byte)((v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        buf[pos++] = (byte)v;
+    }
+
+    /**
+     * Writes a nullable String as its UTF-8 length + 1 followed by the UTF-8 bytes
+     * @param s a String or null
+     */
+    public void writeString(String s) {
+        if(s == null) {
+            writeVarint(0);
+            return;
+        }
+        byte[] b = s.getBytes(StandardCharsets.UTF_8);
+        writeVarint(b.length + 1);
+        ensure(b.length);
+        System.arraycopy(b, 0, buf, pos, b.length);
+        pos += b.length;
+    }
+
+    /**
+     * Writes the format header
+     */
+    public void writeHeader() {
+        writeHeader(MAGIC);
+    }
+
+    /**
+     * Writes the format header with the given magic number
+     * @param magic either {@link BinaryFormat#MAGIC} or {@link BinaryFormat#INDEXED_MAGIC}
+     */
+    public void writeHeader(int magic) {
+        writeInt(magic);
+        writeByte(VERSION);
+    }
+
+    /**
+     * Writes the given {@link Unit}[] preceded by its length
+     * @param units a {@link Unit}[]
+     */
+    public void writeUnits(Unit[] units) {
+        writeVarint(units.length);
+        for(Unit u: units) {
+            writeUnit(u);
+        }
+    }
+
+    /**
+     * Writes the given {@link Unit} and its {@link Lesson}s
+     * @param u a {@link Unit}
+     */
+    public void writeUnit(Unit u) {
+        writeString(u.getName());
+        Lesson[] lessons = u.getLessons();
+        writeVarint(lessons.length);
+        for(Lesson l: lessons) {
+            writeLesson(l);
+        }
+    }
+
+    /**
+     * Writes the given {@link CodeLesson} or {@link VisualLesson} preceded by its kind tag
+     * @param l a {@link CodeLesson} or {@link VisualLesson}
+     * @throws IllegalArgumentException if l is neither a {@link CodeLesson} or {@link VisualLesson}
+     */
+    public void writeLesson(Lesson l) {
+        if(l instanceof VisualLesson) {
+            writeByte(VISUAL_LESSON);
+        } else if(l instanceof CodeLesson) {
+            writeByte(CODE_LESSON);
+        } else {
+            throw new IllegalArgumentException("Unknown Lesson type '" + l.getClass().getName() + "'");
+        }
+
+        writeString(l.getName());
+        writeString(l.getDescription());
+        writeString(l.getStartingCode());
+
+        if(l instanceof VisualLesson) {
+            VisualLesson vl = (VisualLesson)l;
+            Method[] methods = vl.getAllowedMethods();
+            writeVarint(methods.length);
+            for(Method m: methods) {
+                writeByte(m.ordinal());
+            }
+            String[] required = vl.getRequiredStrings();
+            writeVarint(required.length);
+            for(String s: required) {
+                writeString(s);
+            }
+            writeGrids(vl.getStartingGrids());
+            writeGrids(vl.getEndingGrids());
+        } else {
+            CodeLesson cl = (CodeLesson)l;
+            writeString(cl.getMethodName());
+            Parameter[] parameters = cl.getParameters();
+            writeVarint(parameters.length);
+            for(Parameter p: parameters) {
+                writeByte(p.getType().ordinal());
+                writeString(p.getName());
+            }
+            writeByte(cl.getReturnType().ordinal());
+            writeString(cl.getTest());
+            TestTable table = cl.getTestTable();
+            writeByte(table == null ? 0 : 1);
+            if(table != null) {
+                writeTestTableCases(table);
+            }
+        }
+    }
+
+    /**
+     * Writes the given {@link TestTable} preceded by its types, for a table outside of a {@link CodeLesson}
+     * @param table a {@link TestTable}
+     */
+    public void writeTestTable(TestTable table) {
+        writeVarint(table.getParameterCount());
+        for(int i = 0; i < table.getParameterCount(); i++) {
+            writeByte(table.getParameterType(i).ordinal());
+        }
+        writeByte(table.getReturnType().ordinal());
+        writeTestTableCases(table);
+    }
+
+    private void writeTestTableCases(TestTable table) {
+        writeVarint(table.size());
+        for(int i = 0; i < table.getParameterCount(); i++) {
+            writeColumn(table.getParameterType(i), table.getArguments(i));
+        }
+        if(table.getExpected() != null) {
+            writeColumn(table.getReturnType(), table.getExpected());
+        }
+    }
+
+    private void writeColumn(Primitive type, Object column) {
+        switch(type) {
+            case STRING:
+                for(String v: (String[])column) {
+                    writeString(v);
+                }
+                break;
+            case CHAR:
+                for(char v: (char[])column) {
+                    writeShort(v);
+                }
+                break;
+            case BYTE:
+                for(byte v: (byte[])column) {
+                    writeByte(v);
+                }
+                break;
+            case SHORT:
+                for(short v: (short[])column) {
+                    writeShort(v);
+                }
+                break;
+            case INT:
+                for(int v: (int[])column) {
+                    writeInt(v);
+                }
+                break;
+            case LONG:
+                for(long v: (long[])column) {
+                    writeLong(v);
+                }
+                break;
+            case FLOAT:
+                for(float v: (float[])column) {
+                    writeInt(Float.floatToRawIntBits(v));
+                }
+                break;
+            case DOUBLE:
+                for(double v: (double[])column) {
+                    writeLong(Double.doubleToRawLongBits(v));
+                }
+                break;
+            case BOOLEAN:
+                for(boolean v: (boolean[])column) {
+                    writeByte(v ? 1 : 0);
+                }
+                break;
+            case VOID:
+                break;
+            default:
+                Primitive component = DataUtils.componentType(type);
+                for(Object row: (Object[])column) {
+                    if(row == null) {
+                        writeVarint(0);
+                    } else {
+                        writeVarint(Array.getLength(row) + 1);
+                        writeColumn(component, row);
+                    }
+                }
+        }
+    }
+
+    private void writeGrids(Grid[] grids) {
+        writeVarint(grids.length);
+        for(Grid g: grids) {
+            writeGrid(g);
+        }
+    }
+
+    /**
+     * Writes the given {@link Grid}, building a palette of the colors used by its {@link Tile}s.
+     * The grid is read through its per cell accessors, so a {@link PackedGrid} is never expanded in to {@link Tile}s.
+     * @param g a {@link Grid}
+     */
+    public void writeGrid(Grid g) {
+        int size = g.getSize();
+
+        // Palette index 0 is reserved for tiles without a color
+        palette.clear();
+        int[] colors = new int[size * size];
+        boolean hasBalls = false;
+        for(int r = 0, i = 0; r < size; r++) {
+            for(int c = 0; c < size; c++, i++) {
+                if(g.hasColorAt(c, r)) {
+                    int argb = g.colorAt(c, r);
+                    Integer index = palette.get(argb);
+                    if(index == null) {
+                        index = palette.size() + 1;
+                        palette.put(argb, index);
+                    }
+                    colors[i] = index;
+                }
+                hasBalls |= g.ballsAt(c, r) != 0;
+            }
+        }
+
+        writeVarint(size);
+        writeVarint(g.getPlayerX());
+        writeVarint(g.getPlayerY());
+        writeByte(g.getPlayerDirection().ordinal());
+        writeByte((palette.isEmpty() ? 0 : GRID_HAS_COLORS) | (hasBalls ? GRID_HAS_BALLS : 0));
+
+        if(!palette.isEmpty()) {
+            int[] argb = new int[palette.size()];
+            palette.forEach((rgb, index) -> argb[index - 1] = rgb);
+            writeVarint(argb.length);
+            for(int rgb: argb) {
+                writeInt(rgb);
+            }
+        }
+
+        int cells = size * size;
+        ensure((cells + 1) / 2);
+        for(int i = 0; i < cells; i += 2) {
+            int b = barriers(g, i % size, i / size);
+            if(i + 1 < cells) {
+                b |= barriers(g, (i + 1) % size, (i + 1) / size) << 4;
+            }
+            buf[pos++] = (byte)b;
+        }
+
+        if(!palette.isEmpty()) {
+            for(int i = 0; i < cells; i++) {
+                writeVarint(colors[i]);
+            }
+        }
+
+        if(hasBalls) {
+            for(int r = 0; r < size; r++) {
+                for(int c = 0; c < size; c++) {
+                    writeVarint(g.ballsAt(c, r));
+                }
+            }
+        }
+    }
+
+    private static int barriers(Grid g, int x, int y) {
+        return (g.barrierAt(x, y, Direction.TOP) ? BARRIER_TOP : 0)         |
+                (g.barrierAt(x, y, Direction.RIGHT) ? BARRIER_RIGHT : 0)    |
+                (g.barrierAt(x, y, Direction.BOTTOM) ? BARRIER_BOTTOM : 0)  |
+                (g.barrierAt(x, y, Direction.LEFT) ? BARRIER_LEFT : 0);
+    }
+
+}
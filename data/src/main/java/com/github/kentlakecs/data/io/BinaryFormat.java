@@ -0,0 +1,85 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jackson Brienen
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.kentlakecs.data.io;
+
+/**
+ * Constants describing the binary curriculum format read by {@link BinaryDataReader} and written by {@link BinaryDataWriter}.
+ * <p>
+ * A file starts with the 4 byte {@link #MAGIC} followed by a single {@link #VERSION} byte.
+ * Counts and lengths are unsigned LEB128 varints, Strings are a varint of the UTF-8 length + 1 (0 being null) followed by the bytes,
+ * enums are stored as their ordinal, and colors are stored once per {@link com.github.kentlakecs.data.Grid} in a palette of 4 byte ARGB values.
+ * The barriers of two tiles are packed in to each byte, the first tile of a pair in the low nibble.
+ * <p>
+ * A {@link com.github.kentlakecs.data.CodeLesson} ends with a byte which is 1 if it has a {@link com.github.kentlakecs.data.TestTable},
+ * followed by the varint number of cases, each argument column and then the expected column, the column types being those of the lesson.
+ * Numbers are stored big-endian at their full width, booleans as a byte, and each row of an array column as a varint of its length + 1 (0 being null)
+ * followed by its elements.
+ * <p>
+ * The indexed container read by {@link IndexedDataReader} starts with {@link #INDEXED_MAGIC} and the version, followed by each encoded lesson.
+ * After the lessons is the index: for each unit its name and lesson count, then for each lesson its name, kind and 4 byte offset.
+ * The file ends with the 4 byte offset of the index and {@link #INDEXED_MAGIC} again, allowing the index to be found without reading the lessons.
+ *
+ * @author Jackson Brienen
+ * @version 1.0
+ */
+final class BinaryFormat {
+
+    private BinaryFormat() {}
+
+    /**
+     * The first 4 bytes of every binary curriculum file, "FCUR" in ASCII
+     */
+    static final int MAGIC = 0x46435552;
+
+    /**
+     * The first and last 4 bytes of every indexed curriculum file, "FCIX" in ASCII
+     */
+    static final int INDEXED_MAGIC = 0x46434958;
+
+    /**
+     * The size of the indexed curriculum trailer, the index offset followed by {@link #INDEXED_MAGIC}
+     */
+    static final int INDEXED_TRAILER = 8;
+
+    /**
+     * The current version of the format, incremented whenever the layout or an enum's constant order changes
+     */
+    static final byte VERSION = 2;
+
+    /**
+     * Lesson kind tags
+     */
+    static final byte CODE_LESSON = 0, VISUAL_LESSON = 1;
+
+    /**
+     * Grid flags, set when any tile in the grid has a color or any balls respectively
+     */
+    static final byte GRID_HAS_COLORS = 1, GRID_HAS_BALLS = 2;
+
+    /**
+     * Barrier bits within a tile's nibble
+     */
+    static final int BARRIER_TOP = 1, BARRIER_RIGHT = 2, BARRIER_BOTTOM = 4, BARRIER_LEFT = 8;
+
+}
@@ -46,7 +46,8 @@ class CodeLessonDeserializer extends Deserializer<CodeLesson> {
                                 PARAMETERS = "parameters",
                                 RETURN_TYPE = "returnType",
                                 STARTING_CODE = "startingCode",
-                                TEST = "test";
+                                TEST = "test",
+                                TEST_TABLE = "testTable";
     /**
      * Constructs a new {@link CodeLessonDeserializer}
      * @param adf DataFactory to be used to instantiate objects when {@link #deserialize(JsonElement, Type, JsonDeserializationContext)} is called
@@ -74,7 +75,8 @@ class CodeLessonDeserializer extends Deserializer<CodeLesson> {
             o.get(METHOD_NAME).getAsString(),
             context.deserialize(o.get(PARAMETERS), Parameter[].class), 
             context.deserialize(o.get(RETURN_TYPE), Primitive.class), 
-            o.get(TEST).getAsString());
+            o.get(TEST).getAsString(),
+            context.deserialize(o.get(TEST_TABLE), TestTable.class));
     }
     
 }
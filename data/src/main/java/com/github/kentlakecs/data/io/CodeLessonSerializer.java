@@ -46,7 +46,8 @@ class CodeLessonSerializer implements JsonSerializer<CodeLesson> {
                                 PARAMETERS = "parameters",
                                 RETURN_TYPE = "returnType",
                                 STARTING_CODE = "startingCode",
-                                TEST = "test";
+                                TEST = "test",
+                                TEST_TABLE = "testTable";
 
     /**
      * Creates a {@link JsonElement} representing the given {@link CodeLesson}
@@ -70,6 +71,9 @@ class CodeLessonSerializer implements JsonSerializer<CodeLesson> {
         o.add(PARAMETERS, context.serialize(src.getParameters(), Parameter[].class));
         o.add(RETURN_TYPE, context.serialize(src.getReturnType()));
         o.addProperty(TEST, src.getTest());
+        if(src.getTestTable() != null) {
+            o.add(TEST_TABLE, context.serialize(src.getTestTable(), TestTable.class));
+        }
 
         return o;
     }
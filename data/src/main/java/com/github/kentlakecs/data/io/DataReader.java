@@ -28,6 +28,7 @@ import java.io.*;
 import com.github.kentlakecs.data.*;
 import com.github.kentlakecs.data.factory.*;
 import com.google.gson.*;
+import com.google.gson.stream.JsonReader;
 
 /**
  * Reader class to Read in {@link Unit} arrays written by {@link DataWriter}
@@ -37,7 +38,29 @@ import com.google.gson.*;
  */
 public final class DataReader {
 
+    /**
+     * The method used to parse the Json file
+     */
+    public enum Mode {
+        /**
+         * Each element is parsed in to a {@link JsonElement} tree before being instantiated
+         */
+        TREE,
+        /**
+         * Elements are instantiated straight from the {@link JsonReader} tokens without building a {@link JsonElement} tree
+         */
+        STREAMING,
+        /**
+         * Only {@link Unit} and {@link Lesson} names are read, the remainder of each {@link Lesson} is read from the file on first access.
+         * The file must remain unchanged while the returned {@link Lesson}s are in use.
+         */
+        LAZY
+    }
+
+    private final Mode mode;
+    private final AbstractDataFactory adf;
     private final Gson gson;
+    private final UnitAdapter unitAdapter;
 
     /**
      * Constructs a new {@link DataReader} with the {@link DataFactory} singleton instance as the {@link AbstractDataFactory}
@@ -52,6 +75,27 @@ public final class DataReader {
      * @param adf a {@link AbstractDataFactory} used to instantiate objects
      */
     public DataReader(AbstractDataFactory adf) {
+        this(adf, Mode.TREE);
+    }
+
+    /**
+     * Constructs a new {@link DataReader} with the {@link DataFactory} singleton instance as the {@link AbstractDataFactory}
+     * @param mode the {@link Mode} used to parse the Json file
+     * @see DataReader#DataReader(AbstractDataFactory, Mode)
+     */
+    public DataReader(Mode mode) {
+        this(DataFactory.getInstance(), mode);
+    }
+
+    /**
+     * Constructs a new {@link DataReader} using the given {@link AbstractDataFactory} to instantiate objects
+     * @param adf a {@link AbstractDataFactory} used to instantiate objects
+     * @param mode the {@link Mode} used to parse the Json file
+     */
+    public DataReader(AbstractDataFactory adf, Mode mode) {
+        this.mode = mode;
+        this.adf = adf;
+        unitAdapter = new UnitAdapter(adf);
         gson = new GsonBuilder()
             .registerTypeAdapter(Unit.class, new UnitDeserializer(adf))
             .registerTypeAdapter(Lesson.class, new LessonDeserializer(adf))
@@ -60,6 +104,7 @@ public final class DataReader {
             .registerTypeAdapter(Tile.class, new TileDeserializer(adf))
             .registerTypeAdapter(CodeLesson.class, new CodeLessonDeserializer(adf))
             .registerTypeAdapter(Parameter.class, new ParameterDeserializer(adf))
+            .registerTypeAdapter(TestTable.class, new TestTableAdapter(adf))
             .create();
     }
 
@@ -70,9 +115,23 @@ public final class DataReader {
      * @throws IOException if file or reading errors occur
      */
     public Unit[] read(File f) throws IOException {
+        if(mode == Mode.LAZY) {
+            return new JsonLessonSource(f, adf).readUnits();
+        }
+
         try(BufferedReader br = new BufferedReader(new FileReader(f))) {
+            if(mode == Mode.STREAMING) {
+                return unitAdapter.readUnits(new JsonReader(br));
+            }
             return gson.fromJson(br, Unit[].class);
         }
     }
 
+    /**
+     * @return The {@link Mode} used by this {@link DataReader}
+     */
+    public Mode getMode() {
+        return mode;
+    }
+
 }
@@ -25,7 +25,9 @@ package com.github.kentlakecs.data.io;
 
 import java.io.*;
 import com.github.kentlakecs.data.*;
+import com.github.kentlakecs.data.factory.DataFactory;
 import com.google.gson.*;
+import com.google.gson.stream.JsonWriter;
 
 /**
  * Writer class to write in json for {@link Unit} arrays to be read in by {@link DataReader}
@@ -34,13 +36,40 @@ import com.google.gson.*;
  * @version 1.0
  */
 public final class DataWriter {
+
+    /**
+     * The method used to generate the Json file
+     */
+    public enum Mode {
+        /**
+         * Each element is converted in to a {@link JsonElement} tree before being written
+         */
+        TREE,
+        /**
+         * Elements are written straight to a {@link JsonWriter} without building a {@link JsonElement} tree
+         */
+        STREAMING
+    }
     
+    private final Mode mode;
     private final Gson gson;
+    private final UnitAdapter unitAdapter;
 
     /**
      * Constraucts a new {@link DataWriter}
      */
     public DataWriter() {
+        this(Mode.TREE);
+    }
+
+    /**
+     * Constructs a new {@link DataWriter}
+     * @param mode the {@link Mode} used to generate the Json file
+     */
+    public DataWriter(Mode mode) {
+        this.mode = mode;
+        // the factory is only used when reading, the adapters write directly from the data class getters
+        unitAdapter = new UnitAdapter(DataFactory.getInstance());
         gson = new GsonBuilder()
             .registerTypeHierarchyAdapter(Unit.class, new UnitSerializer())
             .registerTypeHierarchyAdapter(VisualLesson.class, new VisualLessonSerializer())
@@ -48,6 +77,7 @@ public final class DataWriter {
             .registerTypeHierarchyAdapter(Tile.class, new TileSerializer())
             .registerTypeHierarchyAdapter(CodeLesson.class, new CodeLessonSerializer())
             .registerTypeHierarchyAdapter(Parameter.class, new ParameterSerializer())
+            .registerTypeAdapter(TestTable.class, new TestTableAdapter(DataFactory.getInstance()))
             .create();
     }
 
@@ -58,9 +88,23 @@ public final class DataWriter {
      * @throws IOException if file or writing errors occur
      */
     public void write(File f, Unit[] u) throws IOException {
-        try(FileWriter fw = new FileWriter(f)) {
-            gson.toJson(u, Unit[].class, fw);
+        try(BufferedWriter bw = new BufferedWriter(new FileWriter(f))) {
+            if(mode == Mode.STREAMING) {
+                // newJsonWriter applies the same escaping and null handling used by gson.toJson
+                JsonWriter jw = gson.newJsonWriter(bw);
+                unitAdapter.writeUnits(jw, u);
+                jw.flush();
+            } else {
+                gson.toJson(u, Unit[].class, bw);
+            }
         }
     }
 
+    /**
+     * @return The {@link Mode} used by this {@link DataWriter}
+     */
+    public Mode getMode() {
+        return mode;
+    }
+
 }
@@ -0,0 +1,115 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jackson Brienen
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.kentlakecs.data.io;
+
+import java.io.IOException;
+import com.github.kentlakecs.data.*;
+import com.github.kentlakecs.data.factory.AbstractDataFactory;
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.*;
+
+/**
+ * Streaming {@link Adapter} to read and write {@link Grid}s using the same Json schema as {@link GridSerializer}
+ * 
+ * @author Jackson Brienen
+ * @version 1.0
+ */
+class GridAdapter extends Adapter<Grid> {
+
+    /**
+     * Constant Grid Json Property names used for {@link JsonReader#nextName()} and {@link JsonWriter#name(String)}
+     */
+    private static final String TILES = "tiles",
+                                SIZE = "size",
+                                PLAYER_X = "playerX",
+                                PLAYER_Y = "playerY",
+                                PLAYER_DIRECTION = "playerDirection";
+
+    private final TileAdapter tileAdapter;
+
+    /**
+     * Constructs a new {@link GridAdapter}
+     * @param adf DataFactory to be used to instantiate objects when {@link #read(JsonReader)} is called
+     */
+    public GridAdapter(AbstractDataFactory adf) {
+        super(adf);
+        tileAdapter = new TileAdapter(adf);
+    }
+
+    /**
+     * Reads a {@link Grid} that has been serialized via the {@link GridSerializer}.
+     * Instantiating the {@link Grid} and its {@link Tile}s via the given {@link AbstractDataFactory}
+     * @param in a {@link JsonReader} positioned at a {@link Grid} object
+     * @return a read {@link Grid}
+     */
+    @Override
+    public Grid read(JsonReader in) throws IOException {
+        Tile[][] tiles = null;
+        int size = -1, playerX = -1, playerY = -1;
+        Direction direction = null;
+
+        in.beginObject();
+        while(in.hasNext()) {
+            switch(in.nextName()) {
+                case TILES: tiles = readArray(in, r -> readArray(r, tileAdapter::read, Tile[]::new), Tile[][]::new); break;
+                case SIZE: size = in.nextInt(); break;
+                case PLAYER_X: playerX = in.nextInt(); break;
+                case PLAYER_Y: playerY = in.nextInt(); break;
+                case PLAYER_DIRECTION: direction = readEnum(in, Direction.class); break;
+                default: in.skipValue();
+            }
+        }
+        in.endObject();
+
+        if(size < 0 || playerX < 0 || playerY < 0) {
+            throw new JsonParseException("Missing or invalid Grid property in object ending at " + in.getPath());
+        }
+
+        return adf.grid(require(tiles, TILES, in), size, playerX, playerY, require(direction, PLAYER_DIRECTION, in));
+    }
+
+    /**
+     * Writes the given {@link Grid} with the same properties as {@link GridSerializer}
+     * @param out the {@link JsonWriter} to write to
+     * @param src a {@link Grid}
+     */
+    @Override
+    public void write(JsonWriter out, Grid src) throws IOException {
+        if(src == null) {
+            out.nullValue();
+            return;
+        }
+
+        out.beginObject();
+        out.name(TILES);
+        writeArray(out, src.getTiles(), (w, row) -> writeArray(w, row, tileAdapter::write));
+        out.name(SIZE).value(src.getSize());
+        out.name(PLAYER_X).value(src.getPlayerX());
+        out.name(PLAYER_Y).value(src.getPlayerY());
+        out.name(PLAYER_DIRECTION);
+        writeEnum(out, src.getPlayerDirection());
+        out.endObject();
+    }
+
+}
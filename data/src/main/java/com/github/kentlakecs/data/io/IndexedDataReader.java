@@ -0,0 +1,230 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jackson Brienen
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.kentlakecs.data.io;
+
+import java.io.*;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+
+import com.github.kentlakecs.data.*;
+import com.github.kentlakecs.data.factory.*;
+
+import static com.github.kentlakecs.data.io.BinaryFormat.*;
+
+/**
+ * Random access reader for files written by {@link IndexedDataWriter}.
+ * The file is memory mapped and only its index is read when opened, individual {@link Lesson}s are decoded on demand.
+ * {@link Unit}s and the {@link Lesson}s within each are looked up by name, so names must be unique.
+ * Instances are safe to be shared between threads.
+ * 
+ * @author Jackson Brienen
+ * @version 1.0
+ * @see BinaryDataReader
+ */
+public final class IndexedDataReader {
+
+    private final File file;
+    private final ByteBuffer buf;
+    private final AbstractDataFactory adf;
+
+    private final String[] unitNames;
+    private final String[][] lessonNames;
+    private final byte[][] lessonKinds;
+    private final int[][] lessonOffsets;
+    private final HashMap<String, Integer> units;
+    private final HashMap<String, Integer>[] lessons;
+
+    /**
+     * Opens an indexed curriculum file with the {@link DataFactory} singleton instance as the {@link AbstractDataFactory}
+     * @param f an indexed curriculum file
+     * @throws IOException if file or reading errors occur, or the file is not a valid indexed curriculum file or has duplicate names
+     * @see IndexedDataReader#IndexedDataReader(File, AbstractDataFactory)
+     */
+    public IndexedDataReader(File f) throws IOException {
+        this(f, DataFactory.getInstance());
+    }
+
+    /**
+     * Opens an indexed curriculum file using the given {@link AbstractDataFactory} to instantiate objects
+     * @param f an indexed curriculum file
+     * @param adf a {@link AbstractDataFactory} used to instantiate objects
+     * @throws IOException if file or reading errors occur, or the file is not a valid indexed curriculum file or has duplicate names
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public IndexedDataReader(File f, AbstractDataFactory adf) throws IOException {
+        this.file = f;
+        this.adf = adf;
+
+        try(FileChannel fc = FileChannel.open(f.toPath(), StandardOpenOption.READ)) {
+            // the mapping remains valid after the channel is closed
+            buf = fc.map(FileChannel.MapMode.READ_ONLY, 0, fc.size());
+        }
+
+        try {
+            new BinaryDecoder(buf.duplicate(), adf).readHeader(INDEXED_MAGIC);
+
+            int end = buf.limit() - INDEXED_TRAILER;
+            if(end < 0 || buf.getInt(end + 4) != INDEXED_MAGIC) {
+                throw new IOException("Missing index in indexed curriculum file '" + f + "'");
+            }
+
+            ByteBuffer index = buf.duplicate();
+            index.position(buf.getInt(end));
+            BinaryDecoder dec = new BinaryDecoder(index, adf);
+
+            int count = dec.readVarint();
+            unitNames = new String[count];
+            lessonNames = new String[count][];
+            lessonKinds = new byte[count][];
+            lessonOffsets = new int[count][];
+            units = new HashMap<>();
+            lessons = new HashMap[count];
+
+            for(int i = 0; i < count; i++) {
+                unitNames[i] = dec.readString();
+                if(units.put(unitNames[i], i) != null) {
+                    throw new IOException("Duplicate unit '" + unitNames[i] + "' in indexed curriculum file '" + f + "'");
+                }
+
+                int lessonCount = dec.readVarint();
+                lessonNames[i] = new String[lessonCount];
+                lessonKinds[i] = new byte[lessonCount];
+                lessonOffsets[i] = new int[lessonCount];
+                lessons[i] = new HashMap<>();
+                for(int j = 0; j < lessonCount; j++) {
+                    lessonNames[i][j] = dec.readString();
+                    lessonKinds[i][j] = index.get();
+                    lessonOffsets[i][j] = index.getInt();
+                    if(lessons[i].put(lessonNames[i][j], j) != null) {
+                        throw new IOException("Duplicate lesson '" + lessonNames[i][j] + "' in unit '" + unitNames[i] + "' of indexed curriculum file '" + f + "'");
+                    }
+                }
+            }
+        } catch(BufferUnderflowException | IllegalArgumentException e) {
+            throw new IOException("Corrupt index in indexed curriculum file '" + f + "'", e);
+        }
+    }
+
+    /**
+     * @return The names of the {@link Unit}s within the file, in order
+     */
+    public String[] getUnitNames() {
+        return unitNames.clone();
+    }
+
+    /**
+     * @param unit the name of a {@link Unit}
+     * @return The names of the {@link Lesson}s within the given {@link Unit}, in order, or null if no such {@link Unit} exists
+     */
+    public String[] getLessonNames(String unit) {
+        Integer u = units.get(unit);
+        return u == null ? null : lessonNames[u].clone();
+    }
+
+    /**
+     * Decodes a single {@link Lesson}
+     * @param unit the name of the {@link Unit} containing the {@link Lesson}
+     * @param lesson the name of the {@link Lesson}
+     * @return the decoded {@link CodeLesson} or {@link VisualLesson}, or null if no such {@link Lesson} exists
+     * @throws IOException if the {@link Lesson} could not be decoded
+     */
+    public Lesson readLesson(String unit, String lesson) throws IOException {
+        Integer u = units.get(unit);
+        if(u == null) {
+            return null;
+        }
+        Integer l = lessons[u].get(lesson);
+        return l == null ? null : readLesson(lessonOffsets[u][l]);
+    }
+
+    /**
+     * Decodes a single {@link Unit} and all of its {@link Lesson}s
+     * @param unit the name of the {@link Unit}
+     * @return the decoded {@link Unit}, or null if no such {@link Unit} exists
+     * @throws IOException if the {@link Unit} could not be decoded
+     */
+    public Unit readUnit(String unit) throws IOException {
+        Integer u = units.get(unit);
+        return u == null ? null : readUnit(u);
+    }
+
+    /**
+     * Decodes every {@link Unit} within the file
+     * @return a {@link Unit}[]
+     * @throws IOException if the {@link Unit}s could not be decoded
+     */
+    public Unit[] readUnits() throws IOException {
+        Unit[] u = new Unit[unitNames.length];
+        for(int i = 0; i < u.length; i++) {
+            u[i] = readUnit(i);
+        }
+        return u;
+    }
+
+    /**
+     * Creates every {@link Unit} within the file populated with lightweight {@link Lesson} handles.
+     * Each handle holds only its name and offset, decoding the full {@link Lesson} on first access of any other property.
+     * @return a {@link Unit}[] instantiated via the {@link AbstractDataFactory}
+     */
+    public Unit[] readLazyUnits() {
+        LessonSource source = offset -> readLesson((int)offset);
+        Unit[] u = new Unit[unitNames.length];
+        for(int i = 0; i < u.length; i++) {
+            Lesson[] l = new Lesson[lessonOffsets[i].length];
+            for(int j = 0; j < l.length; j++) {
+                l[j] = LazyLesson.of(lessonNames[i][j], lessonKinds[i][j] == VISUAL_LESSON, lessonOffsets[i][j], source);
+            }
+            u[i] = adf.unit(unitNames[i], l);
+        }
+        return u;
+    }
+
+    private Unit readUnit(int u) throws IOException {
+        Lesson[] l = new Lesson[lessonOffsets[u].length];
+        for(int i = 0; i < l.length; i++) {
+            l[i] = readLesson(lessonOffsets[u][i]);
+        }
+        return adf.unit(unitNames[u], l);
+    }
+
+    /**
+     * Decodes the {@link Lesson} at the given offset
+     * @param offset the position of an encoded {@link Lesson} from the index
+     * @return the decoded {@link Lesson}
+     * @throws IOException if the {@link Lesson} could not be decoded
+     */
+    Lesson readLesson(int offset) throws IOException {
+        ByteBuffer dup = buf.duplicate();
+        try {
+            dup.position(offset);
+            return new BinaryDecoder(dup, adf).readLesson();
+        } catch(BufferUnderflowException | IllegalArgumentException e) {
+            throw new IOException("Corrupt lesson at offset " + offset + " in indexed curriculum file '" + file + "'", e);
+        }
+    }
+
+}
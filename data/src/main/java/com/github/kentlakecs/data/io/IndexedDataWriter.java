@@ -0,0 +1,97 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jackson Brienen
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.kentlakecs.data.io;
+
+import java.io.*;
+import java.util.HashSet;
+import java.util.Set;
+
+import com.github.kentlakecs.data.*;
+
+import static com.github.kentlakecs.data.io.BinaryFormat.*;
+
+/**
+ * Writer class to write {@link Unit} arrays in the indexed binary curriculum format to be read in by {@link IndexedDataReader}.
+ * As the reader looks up {@link Unit}s and {@link Lesson}s by name, unit names and the lesson names within each unit must be unique.
+ * 
+ * @author Jackson Brienen
+ * @version 1.0
+ * @see BinaryDataWriter
+ */
+public final class IndexedDataWriter {
+
+    /**
+     * Writes the given {@link Unit}[] in the indexed binary format to a given {@link File}
+     * @param f an indexed curriculum file
+     * @param u a {@link Unit}[]
+     * @throws IOException if file or writing errors occur, or a name is duplicated, in which case nothing is written
+     */
+    public void write(File f, Unit[] u) throws IOException {
+        Set<String> units = new HashSet<>();
+        for(Unit unit: u) {
+            if(!units.add(unit.getName())) {
+                throw new IOException("Duplicate unit '" + unit.getName() + "'");
+            }
+            Set<String> lessons = new HashSet<>();
+            for(Lesson l: unit.getLessons()) {
+                if(!lessons.add(l.getName())) {
+                    throw new IOException("Duplicate lesson '" + l.getName() + "' in unit '" + unit.getName() + "'");
+                }
+            }
+        }
+
+        BinaryEncoder enc = new BinaryEncoder();
+        enc.writeHeader(INDEXED_MAGIC);
+
+        int[][] offsets = new int[u.length][];
+        for(int i = 0; i < u.length; i++) {
+            Lesson[] lessons = u[i].getLessons();
+            offsets[i] = new int[lessons.length];
+            for(int j = 0; j < lessons.length; j++) {
+                offsets[i][j] = enc.position();
+                enc.writeLesson(lessons[j]);
+            }
+        }
+
+        int index = enc.position();
+        enc.writeVarint(u.length);
+        for(int i = 0; i < u.length; i++) {
+            Lesson[] lessons = u[i].getLessons();
+            enc.writeString(u[i].getName());
+            enc.writeVarint(lessons.length);
+            for(int j = 0; j < lessons.length; j++) {
+                enc.writeString(lessons[j].getName());
+                enc.writeByte(lessons[j] instanceof VisualLesson ? VISUAL_LESSON : CODE_LESSON);
+                enc.writeInt(offsets[i][j]);
+            }
+        }
+        enc.writeInt(index);
+        enc.writeInt(INDEXED_MAGIC);
+
+        try(FileOutputStream fos = new FileOutputStream(f)) {
+            enc.writeTo(fos);
+        }
+    }
+
+}
@@ -0,0 +1,145 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jackson Brienen
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.kentlakecs.data.io;
+
+import java.io.*;
+import java.util.ArrayList;
+
+import com.github.kentlakecs.data.*;
+import com.github.kentlakecs.data.factory.AbstractDataFactory;
+import com.google.gson.stream.*;
+
+/**
+ * {@link LessonSource} backed by a Json file written by {@link DataWriter}.
+ * A position is the index of the {@link Unit} in the upper 32 bits and the index of the {@link Lesson} within it in the lower 32 bits;
+ * reading a {@link Lesson} streams past the preceding values without instantiating them.
+ * 
+ * @author Jackson Brienen
+ * @version 1.0
+ */
+class JsonLessonSource implements LessonSource {
+
+    /**
+     * Constant Json Property names used for {@link JsonReader#nextName()}
+     */
+    private static final String NAME = "name",
+                                LESSONS = "lessons",
+                                VISUAL = "visual";
+
+    private final File file;
+    private final AbstractDataFactory adf;
+    private final LessonAdapter lessonAdapter;
+
+    /**
+     * Constructs a new {@link JsonLessonSource}
+     * @param file a Json file written by {@link DataWriter}
+     * @param adf DataFactory used to instantiate {@link Unit}s and materialized {@link Lesson}s
+     */
+    public JsonLessonSource(File file, AbstractDataFactory adf) {
+        this.file = file;
+        this.adf = adf;
+        lessonAdapter = new LessonAdapter(adf);
+    }
+
+    /**
+     * Reads the {@link Unit}s of the file, populated with {@link LazyLesson} handles holding only each {@link Lesson}'s name
+     * @return a {@link Unit}[] instantiated via the {@link AbstractDataFactory}
+     * @throws IOException if file or reading errors occur
+     */
+    public Unit[] readUnits() throws IOException {
+        try(JsonReader in = new JsonReader(new BufferedReader(new FileReader(file)))) {
+            ArrayList<Unit> units = new ArrayList<>();
+            in.beginArray();
+            while(in.hasNext()) {
+                String name = null;
+                Lesson[] lessons = null;
+
+                in.beginObject();
+                while(in.hasNext()) {
+                    switch(in.nextName()) {
+                        case NAME: name = Adapter.readString(in); break;
+                        case LESSONS: lessons = readHandles(in, units.size()); break;
+                        default: in.skipValue();
+                    }
+                }
+                in.endObject();
+
+                units.add(adf.unit(Adapter.require(name, NAME, in), Adapter.require(lessons, LESSONS, in)));
+            }
+            in.endArray();
+            return units.toArray(new Unit[0]);
+        }
+    }
+
+    private Lesson[] readHandles(JsonReader in, long unit) throws IOException {
+        ArrayList<Lesson> lessons = new ArrayList<>();
+        in.beginArray();
+        while(in.hasNext()) {
+            String name = null;
+            Boolean visual = null;
+
+            in.beginObject();
+            while(in.hasNext()) {
+                switch(in.nextName()) {
+                    case NAME: name = Adapter.readString(in); break;
+                    case VISUAL: visual = in.nextBoolean(); break;
+                    default: in.skipValue();
+                }
+            }
+            in.endObject();
+
+            long position = unit << 32 | lessons.size();
+            lessons.add(LazyLesson.of(Adapter.require(name, NAME, in), Adapter.require(visual, VISUAL, in), position, this));
+        }
+        in.endArray();
+        return lessons.toArray(new Lesson[0]);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Lesson load(long position) throws IOException {
+        int unit = (int)(position >>> 32), lesson = (int)position;
+
+        try(JsonReader in = new JsonReader(new BufferedReader(new FileReader(file)))) {
+            in.beginArray();
+            for(int i = 0; i < unit; i++) {
+                in.skipValue();
+            }
+
+            in.beginObject();
+            while(!in.nextName().equals(LESSONS)) {
+                in.skipValue();
+            }
+
+            in.beginArray();
+            for(int i = 0; i < lesson; i++) {
+                in.skipValue();
+            }
+            return lessonAdapter.read(in);
+        }
+    }
+
+}
@@ -0,0 +1,228 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jackson Brienen
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.kentlakecs.data.io;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.ref.SoftReference;
+
+import com.github.kentlakecs.data.*;
+import com.github.kentlakecs.data.util.DataUtils;
+import com.github.kentlakecs.data.util.Fingerprint;
+
+/**
+ * A lightweight {@link Lesson} handle holding only its name and position within a {@link LessonSource}.
+ * The full {@link Lesson} is read on first access of any other property and kept under a {@link SoftReference},
+ * being read again if it has since been reclaimed.
+ * 
+ * @author Jackson Brienen
+ * @version 1.0
+ */
+abstract class LazyLesson<L extends Lesson> implements Lesson {
+
+    private final String name;
+    private final long position;
+    private final LessonSource source;
+    private final Class<L> type;
+    private SoftReference<L> lesson;
+
+    /**
+     * Constructs a new {@link LazyLesson}
+     * @param name the name of the {@link Lesson}
+     * @param position the position of the {@link Lesson} within the source
+     * @param source the {@link LessonSource} used to read the full {@link Lesson}
+     * @param type the expected type of the read {@link Lesson}
+     */
+    LazyLesson(String name, long position, LessonSource source, Class<L> type) {
+        this.name = name;
+        this.position = position;
+        this.source = source;
+        this.type = type;
+    }
+
+    /**
+     * @return The full {@link Lesson}, reading it from the source if it is not currently held
+     * @throws UncheckedIOException if the {@link Lesson} could not be read
+     */
+    protected final synchronized L get() {
+        L l = lesson == null ? null : lesson.get();
+        if(l == null) {
+            Lesson read;
+            try {
+                read = source.load(position);
+            } catch(IOException e) {
+                throw new UncheckedIOException("Unable to read lesson '" + name + "'", e);
+            }
+            if(!type.isInstance(read)) {
+                throw new IllegalStateException("Lesson '" + name + "' is not a " + type.getSimpleName());
+            }
+            l = type.cast(read);
+            lesson = new SoftReference<>(l);
+        }
+        return l;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getStartingCode() {
+        return get().getStartingCode();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getDescription() {
+        return get().getDescription();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Materializes the lesson and returns its fingerprint.
+     */
+    @Override
+    public Fingerprint getFingerprint() {
+        return get().getFingerprint();
+    }
+
+    @Override
+    public int hashCode() {
+        return getFingerprint().hashCode();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return getName();
+    }
+
+    /**
+     * Creates a {@link LazyLesson} of the given kind
+     * @param name the name of the {@link Lesson}
+     * @param visual true if the {@link Lesson} is a {@link VisualLesson}; false if it is a {@link CodeLesson}
+     * @param position the position of the {@link Lesson} within the source
+     * @param source the {@link LessonSource} used to read the full {@link Lesson}
+     * @return a {@link LazyLesson} implementing either {@link VisualLesson} or {@link CodeLesson}
+     */
+    static Lesson of(String name, boolean visual, long position, LessonSource source) {
+        return visual ? new LazyVisualLesson(name, position, source) : new LazyCodeLesson(name, position, source);
+    }
+
+    /**
+     * Lazy {@link CodeLesson} handle
+     */
+    static final class LazyCodeLesson extends LazyLesson<CodeLesson> implements CodeLesson {
+
+        LazyCodeLesson(String name, long position, LessonSource source) {
+            super(name, position, source, CodeLesson.class);
+        }
+
+        @Override
+        public String getMethodName() {
+            return get().getMethodName();
+        }
+
+        @Override
+        public Parameter[] getParameters() {
+            return get().getParameters();
+        }
+
+        @Override
+        public Primitive getReturnType() {
+            return get().getReturnType();
+        }
+
+        @Override
+        public String getTest() {
+            return get().getTest();
+        }
+
+        @Override
+        public TestTable getTestTable() {
+            return get().getTestTable();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if(o instanceof CodeLesson) {
+                return o == this || DataUtils.equals(this, (CodeLesson)o);
+            }
+            return false;
+        }
+
+    }
+
+    /**
+     * Lazy {@link VisualLesson} handle
+     */
+    static final class LazyVisualLesson extends LazyLesson<VisualLesson> implements VisualLesson {
+
+        LazyVisualLesson(String name, long position, LessonSource source) {
+            super(name, position, source, VisualLesson.class);
+        }
+
+        @Override
+        public Method[] getAllowedMethods() {
+            return get().getAllowedMethods();
+        }
+
+        @Override
+        public String[] getRequiredStrings() {
+            return get().getRequiredStrings();
+        }
+
+        @Override
+        public Grid[] getStartingGrids() {
+            return get().getStartingGrids();
+        }
+
+        @Override
+        public Grid[] getEndingGrids() {
+            return get().getEndingGrids();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if(o instanceof VisualLesson) {
+                return o == this || DataUtils.equals(this, (VisualLesson)o);
+            }
+            return false;
+        }
+
+    }
+
+}
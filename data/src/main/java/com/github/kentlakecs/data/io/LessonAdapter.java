@@ -0,0 +1,185 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jackson Brienen
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.kentlakecs.data.io;
+
+import java.io.IOException;
+import com.github.kentlakecs.data.*;
+import com.github.kentlakecs.data.factory.AbstractDataFactory;
+import com.google.gson.stream.*;
+
+/**
+ * Streaming {@link Adapter} to read and write {@link Lesson}s using the same Json schema as {@link CodeLessonSerializer} and {@link VisualLessonSerializer}.
+ * The properties of both lesson types are collected in a single pass, so the "visual" property may appear anywhere within the object.
+ * 
+ * @author Jackson Brienen
+ * @version 1.0
+ */
+class LessonAdapter extends Adapter<Lesson> {
+
+    /**
+     * Constant Lesson Json Property names used for {@link JsonReader#nextName()} and {@link JsonWriter#name(String)}
+     */
+    private static final String NAME = "name",
+                                DESCRIPTION = "description",
+                                VISUAL = "visual",
+                                STARTING_CODE = "startingCode",
+                                METHOD_NAME = "methodName",
+                                PARAMETERS = "parameters",
+                                RETURN_TYPE = "returnType",
+                                TEST = "test",
+                                TEST_TABLE = "testTable",
+                                ALLOWED_METHODS = "allowedMethods",
+                                REQUIRED_STRINGS = "requiredStrings",
+                                STARTING_GRIDS = "startingGrids",
+                                ENDING_GRIDS = "endingGrids";
+
+    private final ParameterAdapter parameterAdapter;
+    private final GridAdapter gridAdapter;
+    private final TestTableAdapter testTableAdapter;
+
+    /**
+     * Constructs a new {@link LessonAdapter}
+     * @param adf DataFactory to be used to instantiate objects when {@link #read(JsonReader)} is called
+     */
+    public LessonAdapter(AbstractDataFactory adf) {
+        super(adf);
+        parameterAdapter = new ParameterAdapter(adf);
+        gridAdapter = new GridAdapter(adf);
+        testTableAdapter = new TestTableAdapter(adf);
+    }
+
+    /**
+     * Reads a {@link CodeLesson} or {@link VisualLesson} based on the "visual" property.
+     * Instantiating the {@link Lesson} via the given {@link AbstractDataFactory}
+     * @param in a {@link JsonReader} positioned at a {@link Lesson} object
+     * @return a read {@link CodeLesson} or {@link VisualLesson}
+     */
+    @Override
+    public Lesson read(JsonReader in) throws IOException {
+        Boolean visual = null;
+        String name = null, description = null, startingCode = null, methodName = null, test = null;
+        Parameter[] parameters = null;
+        Primitive returnType = null;
+        TestTable testTable = null;
+        Method[] allowedMethods = null;
+        String[] requiredStrings = null;
+        Grid[] startingGrids = null, endingGrids = null;
+
+        in.beginObject();
+        while(in.hasNext()) {
+            switch(in.nextName()) {
+                case NAME: name = readString(in); break;
+                case DESCRIPTION: description = readString(in); break;
+                case VISUAL: visual = in.nextBoolean(); break;
+                case STARTING_CODE: startingCode = readString(in); break;
+                case METHOD_NAME: methodName = readString(in); break;
+                case PARAMETERS: parameters = readArray(in, parameterAdapter::read, Parameter[]::new); break;
+                case RETURN_TYPE: returnType = readEnum(in, Primitive.class); break;
+                case TEST: test = readString(in); break;
+                case TEST_TABLE: testTable = testTableAdapter.read(in); break;
+                case ALLOWED_METHODS: allowedMethods = readArray(in, r -> readEnum(r, Method.class), Method[]::new); break;
+                case REQUIRED_STRINGS: requiredStrings = readArray(in, Adapter::readString, String[]::new); break;
+                case STARTING_GRIDS: startingGrids = readArray(in, gridAdapter::read, Grid[]::new); break;
+                case ENDING_GRIDS: endingGrids = readArray(in, gridAdapter::read, Grid[]::new); break;
+                default: in.skipValue();
+            }
+        }
+        in.endObject();
+
+        if(require(visual, VISUAL, in)) {
+            return adf.visualLesson(
+                require(name, NAME, in),
+                require(startingCode, STARTING_CODE, in),
+                require(description, DESCRIPTION, in),
+                require(allowedMethods, ALLOWED_METHODS, in),
+                require(requiredStrings, REQUIRED_STRINGS, in),
+                require(startingGrids, STARTING_GRIDS, in),
+                require(endingGrids, ENDING_GRIDS, in));
+        }
+
+        return adf.codeLesson(
+            require(name, NAME, in),
+            require(startingCode, STARTING_CODE, in),
+            require(description, DESCRIPTION, in),
+            require(methodName, METHOD_NAME, in),
+            require(parameters, PARAMETERS, in),
+            require(returnType, RETURN_TYPE, in),
+            require(test, TEST, in),
+            testTable);
+    }
+
+    /**
+     * Writes the given {@link CodeLesson} or {@link VisualLesson} with the same properties as {@link CodeLessonSerializer} or {@link VisualLessonSerializer}
+     * @param out the {@link JsonWriter} to write to
+     * @param src a {@link CodeLesson} or {@link VisualLesson}
+     * @throws IllegalArgumentException if src is neither a {@link CodeLesson} or {@link VisualLesson}
+     */
+    @Override
+    public void write(JsonWriter out, Lesson src) throws IOException {
+        if(src == null) {
+            out.nullValue();
+            return;
+        }
+
+        if(!(src instanceof VisualLesson) && !(src instanceof CodeLesson)) {
+            throw new IllegalArgumentException("Unknown Lesson type '" + src.getClass().getName() + "'");
+        }
+        boolean visual = src instanceof VisualLesson;
+
+        out.beginObject();
+
+        // Lesson
+        out.name(NAME).value(src.getName());
+        out.name(DESCRIPTION).value(src.getDescription());
+        out.name(VISUAL).value(visual);
+        out.name(STARTING_CODE).value(src.getStartingCode());
+
+        if(visual) {
+            VisualLesson vl = (VisualLesson)src;
+            out.name(ALLOWED_METHODS);
+            writeArray(out, vl.getAllowedMethods(), Adapter::writeEnum);
+            out.name(REQUIRED_STRINGS);
+            writeArray(out, vl.getRequiredStrings(), JsonWriter::value);
+            out.name(STARTING_GRIDS);
+            writeArray(out, vl.getStartingGrids(), gridAdapter::write);
+            out.name(ENDING_GRIDS);
+            writeArray(out, vl.getEndingGrids(), gridAdapter::write);
+        } else {
+            CodeLesson cl = (CodeLesson)src;
+            out.name(METHOD_NAME).value(cl.getMethodName());
+            out.name(PARAMETERS);
+            writeArray(out, cl.getParameters(), parameterAdapter::write);
+            out.name(RETURN_TYPE);
+            writeEnum(out, cl.getReturnType());
+            out.name(TEST).value(cl.getTest());
+            if(cl.getTestTable() != null) {
+                out.name(TEST_TABLE);
+                testTableAdapter.write(out, cl.getTestTable());
+            }
+        }
+
+        out.endObject();
+    }
+
+}
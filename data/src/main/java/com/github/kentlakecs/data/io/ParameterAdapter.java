@@ -0,0 +1,96 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jackson Brienen
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.kentlakecs.data.io;
+
+import java.io.IOException;
+import com.github.kentlakecs.data.*;
+import com.github.kentlakecs.data.factory.AbstractDataFactory;
+import com.google.gson.stream.*;
+
+/**
+ * Streaming {@link Adapter} to read and write {@link Parameter}s using the same Json schema as {@link ParameterSerializer}
+ * 
+ * @author Jackson Brienen
+ * @version 1.0
+ */
+class ParameterAdapter extends Adapter<Parameter> {
+
+    /**
+     * Constant Parameter Json Property names used for {@link JsonReader#nextName()} and {@link JsonWriter#name(String)}
+     */
+    private static final String TYPE = "type",
+                                NAME = "name";
+
+    /**
+     * Constructs a new {@link ParameterAdapter}
+     * @param adf DataFactory to be used to instantiate objects when {@link #read(JsonReader)} is called
+     */
+    public ParameterAdapter(AbstractDataFactory adf) {
+        super(adf);
+    }
+
+    /**
+     * Reads a {@link Parameter} that has been serialized via the {@link ParameterSerializer}.
+     * Instantiating the {@link Parameter} via the given {@link AbstractDataFactory}
+     * @param in a {@link JsonReader} positioned at a {@link Parameter} object
+     * @return a read {@link Parameter}
+     */
+    @Override
+    public Parameter read(JsonReader in) throws IOException {
+        Primitive type = null;
+        String name = null;
+
+        in.beginObject();
+        while(in.hasNext()) {
+            switch(in.nextName()) {
+                case TYPE: type = readEnum(in, Primitive.class); break;
+                case NAME: name = readString(in); break;
+                default: in.skipValue();
+            }
+        }
+        in.endObject();
+
+        return adf.parameter(require(type, TYPE, in), require(name, NAME, in));
+    }
+
+    /**
+     * Writes the given {@link Parameter} with the same properties as {@link ParameterSerializer}
+     * @param out the {@link JsonWriter} to write to
+     * @param src a {@link Parameter}
+     */
+    @Override
+    public void write(JsonWriter out, Parameter src) throws IOException {
+        if(src == null) {
+            out.nullValue();
+            return;
+        }
+
+        out.beginObject();
+        out.name(TYPE);
+        writeEnum(out, src.getType());
+        out.name(NAME).value(src.getName());
+        out.endObject();
+    }
+
+}
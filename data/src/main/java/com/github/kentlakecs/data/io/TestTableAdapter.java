@@ -0,0 +1,381 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jackson Brienen
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.kentlakecs.data.io;
+
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.util.Arrays;
+
+import com.github.kentlakecs.data.*;
+import com.github.kentlakecs.data.factory.AbstractDataFactory;
+import com.github.kentlakecs.data.util.DataUtils;
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.*;
+
+/**
+ * Streaming {@link Adapter} to read and write {@link TestTable}s, used by both the streaming and tree based Json readers and writers.
+ * <p>
+ * The table is an object of its "parameterTypes", "returnType" and "size", followed by the "arguments", an array of one array per parameter,
+ * and the "expected" array, which is null for a void return type. Each column is read straight in to an array of its type, so no value is boxed.
+ * Numbers are written as Json numbers, except for non-finite floating point values which are written as the Strings "NaN", "Infinity" and "-Infinity".
+ * A char is written as a String of length 1, and a char[] as a String.
+ *
+ * @author Jackson Brienen
+ * @version 1.0
+ */
+class TestTableAdapter extends Adapter<TestTable> {
+
+    /**
+     * Constant TestTable Json Property names used for {@link JsonReader#nextName()} and {@link JsonWriter#name(String)}
+     */
+    private static final String PARAMETER_TYPES = "parameterTypes",
+                                RETURN_TYPE = "returnType",
+                                SIZE = "size",
+                                ARGUMENTS = "arguments",
+                                EXPECTED = "expected";
+
+    /**
+     * Constructs a new {@link TestTableAdapter}
+     * @param adf the {@link AbstractDataFactory} of the enclosing reader, tables are not instantiated by it
+     */
+    public TestTableAdapter(AbstractDataFactory adf) {
+        super(adf);
+    }
+
+    /**
+     * Reads a {@link TestTable}, or null
+     * @param in a {@link JsonReader} positioned at a {@link TestTable} object
+     * @return the read {@link TestTable}
+     * @throws JsonParseException if the columns appear before the types and size, or do not match them
+     */
+    @Override
+    public TestTable read(JsonReader in) throws IOException {
+        if(in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+
+        Primitive[] parameterTypes = null;
+        Primitive returnType = null;
+        Integer size = null;
+        Object[] arguments = null;
+        Object expected = null;
+
+        in.beginObject();
+        while(in.hasNext()) {
+            switch(in.nextName()) {
+                case PARAMETER_TYPES: parameterTypes = readArray(in, r -> readEnum(r, Primitive.class), Primitive[]::new); break;
+                case RETURN_TYPE: returnType = readEnum(in, Primitive.class); break;
+                case SIZE: size = in.nextInt(); break;
+                case ARGUMENTS:
+                    require(parameterTypes, PARAMETER_TYPES, in);
+                    require(size, SIZE, in);
+                    arguments = new Object[parameterTypes.length];
+                    in.beginArray();
+                    for(int i = 0; i < arguments.length; i++) {
+                        arguments[i] = readColumn(in, parameterTypes[i], size);
+                    }
+                    in.endArray();
+                    break;
+                case EXPECTED:
+                    require(returnType, RETURN_TYPE, in);
+                    require(size, SIZE, in);
+                    if(in.peek() == JsonToken.NULL) {
+                        in.nextNull();
+                    } else {
+                        expected = readColumn(in, returnType, size);
+                    }
+                    break;
+                default: in.skipValue();
+            }
+        }
+        in.endObject();
+
+        try {
+            return new TestTable(require(parameterTypes, PARAMETER_TYPES, in), require(returnType, RETURN_TYPE, in), require(size, SIZE, in),
+                require(arguments, ARGUMENTS, in), expected);
+        } catch(IllegalArgumentException e) {
+            throw new JsonParseException("Invalid test table ending at " + in.getPath() + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Reads an array of values of the given type
+     * @param in the {@link JsonReader} positioned at the array
+     * @param type the {@link Primitive} type of each value
+     * @param size the required length, or -1 for any length
+     * @return the column, see {@link TestTable#columnType(Primitive)}
+     */
+    private static Object readColumn(JsonReader in, Primitive type, int size) throws IOException {
+        int n = 0, capacity = Math.max(size, 4);
+        Object column;
+        in.beginArray();
+        switch(type) {
+            case STRING: {
+                String[] a = new String[capacity];
+                for(; in.hasNext(); n++) {
+                    a = n == a.length ? Arrays.copyOf(a, n * 2) : a;
+                    a[n] = readString(in);
+                }
+                column = n == a.length ? a : Arrays.copyOf(a, n);
+                break;
+            }
+            case CHAR: {
+                char[] a = new char[capacity];
+                for(; in.hasNext(); n++) {
+                    a = n == a.length ? Arrays.copyOf(a, n * 2) : a;
+                    String s = in.nextString();
+                    if(s.length() != 1) {
+                        throw new JsonParseException("Expected a single character at " + in.getPath());
+                    }
+                    a[n] = s.charAt(0);
+                }
+                column = n == a.length ? a : Arrays.copyOf(a, n);
+                break;
+            }
+            case BYTE: {
+                byte[] a = new byte[capacity];
+                for(; in.hasNext(); n++) {
+                    a = n == a.length ? Arrays.copyOf(a, n * 2) : a;
+                    a[n] = (byte)nextInt(in, Byte.MIN_VALUE, Byte.MAX_VALUE);
+                }
+                column = n == a.length ? a : Arrays.copyOf(a, n);
+                break;
+            }
+            case SHORT: {
+                short[] a = new short[capacity];
+                for(; in.hasNext(); n++) {
+                    a = n == a.length ? Arrays.copyOf(a, n * 2) : a;
+                    a[n] = (short)nextInt(in, Short.MIN_VALUE, Short.MAX_VALUE);
+                }
+                column = n == a.length ? a : Arrays.copyOf(a, n);
+                break;
+            }
+            case INT: {
+                int[] a = new int[capacity];
+                for(; in.hasNext(); n++) {
+                    a = n == a.length ? Arrays.copyOf(a, n * 2) : a;
+                    a[n] = in.nextInt();
+                }
+                column = n == a.length ? a : Arrays.copyOf(a, n);
+                break;
+            }
+            case LONG: {
+                long[] a = new long[capacity];
+                for(; in.hasNext(); n++) {
+                    a = n == a.length ? Arrays.copyOf(a, n * 2) : a;
+                    a[n] = in.nextLong();
+                }
+                column = n == a.length ? a : Arrays.copyOf(a, n);
+                break;
+            }
+            case FLOAT: {
+                float[] a = new float[capacity];
+                for(; in.hasNext(); n++) {
+                    a = n == a.length ? Arrays.copyOf(a, n * 2) : a;
+                    a[n] = (float)nextDouble(in);
+                }
+                column = n == a.length ? a : Arrays.copyOf(a, n);
+                break;
+            }
+            case DOUBLE: {
+                double[] a = new double[capacity];
+                for(; in.hasNext(); n++) {
+                    a = n == a.length ? Arrays.copyOf(a, n * 2) : a;
+                    a[n] = nextDouble(in);
+                }
+                column = n == a.length ? a : Arrays.copyOf(a, n);
+                break;
+            }
+            case BOOLEAN: {
+                boolean[] a = new boolean[capacity];
+                for(; in.hasNext(); n++) {
+                    a = n == a.length ? Arrays.copyOf(a, n * 2) : a;
+                    a[n] = in.nextBoolean();
+                }
+                column = n == a.length ? a : Arrays.copyOf(a, n);
+                break;
+            }
+            case VOID:
+                throw new JsonParseException("A column cannot be of type void at " + in.getPath());
+            default: {
+                // A column of an array type holds one array of the component type per row, or a String per row for char[]
+                Primitive component = DataUtils.componentType(type);
+                Object[] a = (Object[])Array.newInstance(type.getType(), capacity);
+                for(; in.hasNext(); n++) {
+                    a = n == a.length ? Arrays.copyOf(a, n * 2) : a;
+                    if(in.peek() == JsonToken.NULL) {
+                        in.nextNull();
+                    } else if(type == Primitive.CHAR_ARRAY) {
+                        a[n] = in.nextString().toCharArray();
+                    } else {
+                        a[n] = readColumn(in, component, -1);
+                    }
+                }
+                column = n == a.length ? a : Arrays.copyOf(a, n);
+            }
+        }
+        in.endArray();
+
+        if(size >= 0 && n != size) {
+            throw new JsonParseException("Expected " + size + " values in the column ending at " + in.getPath() + ", found " + n);
+        }
+        return column;
+    }
+
+    private static int nextInt(JsonReader in, int min, int max) throws IOException {
+        int v = in.nextInt();
+        if(v < min || v > max) {
+            throw new JsonParseException("Value " + v + " out of range at " + in.getPath());
+        }
+        return v;
+    }
+
+    private static double nextDouble(JsonReader in) throws IOException {
+        if(in.peek() == JsonToken.STRING) {
+            String s = in.nextString();
+            try {
+                return Double.parseDouble(s);
+            } catch(NumberFormatException e) {
+                throw new JsonParseException("Expected a number at " + in.getPath() + " but was '" + s + "'", e);
+            }
+        }
+        return in.nextDouble();
+    }
+
+    /**
+     * Writes the given {@link TestTable}, or null
+     * @param out the {@link JsonWriter} to write to
+     * @param src a {@link TestTable}
+     */
+    @Override
+    public void write(JsonWriter out, TestTable src) throws IOException {
+        if(src == null) {
+            out.nullValue();
+            return;
+        }
+
+        out.beginObject();
+        out.name(PARAMETER_TYPES);
+        out.beginArray();
+        for(int i = 0; i < src.getParameterCount(); i++) {
+            writeEnum(out, src.getParameterType(i));
+        }
+        out.endArray();
+        out.name(RETURN_TYPE);
+        writeEnum(out, src.getReturnType());
+        out.name(SIZE).value(src.size());
+        out.name(ARGUMENTS);
+        out.beginArray();
+        for(int i = 0; i < src.getParameterCount(); i++) {
+            writeColumn(out, src.getParameterType(i), src.getArguments(i));
+        }
+        out.endArray();
+        out.name(EXPECTED);
+        if(src.getExpected() == null) {
+            out.nullValue();
+        } else {
+            writeColumn(out, src.getReturnType(), src.getExpected());
+        }
+        out.endObject();
+    }
+
+    private static void writeColumn(JsonWriter out, Primitive type, Object column) throws IOException {
+        out.beginArray();
+        switch(type) {
+            case STRING:
+                for(String v: (String[])column) {
+                    out.value(v);
+                }
+                break;
+            case CHAR:
+                for(char v: (char[])column) {
+                    out.value(String.valueOf(v));
+                }
+                break;
+            case BYTE:
+                for(byte v: (byte[])column) {
+                    out.value(v);
+                }
+                break;
+            case SHORT:
+                for(short v: (short[])column) {
+                    out.value(v);
+                }
+                break;
+            case INT:
+                for(int v: (int[])column) {
+                    out.value(v);
+                }
+                break;
+            case LONG:
+                for(long v: (long[])column) {
+                    out.value(v);
+                }
+                break;
+            case FLOAT:
+                for(float v: (float[])column) {
+                    if(Float.isNaN(v) || Float.isInfinite(v)) {
+                        writeDouble(out, v);
+                    } else {
+                        out.value(v);
+                    }
+                }
+                break;
+            case DOUBLE:
+                for(double v: (double[])column) {
+                    writeDouble(out, v);
+                }
+                break;
+            case BOOLEAN:
+                for(boolean v: (boolean[])column) {
+                    out.value(v);
+                }
+                break;
+            case VOID:
+                break;
+            default:
+                Primitive component = DataUtils.componentType(type);
+                for(Object row: (Object[])column) {
+                    if(row == null) {
+                        out.nullValue();
+                    } else if(type == Primitive.CHAR_ARRAY) {
+                        out.value(new String((char[])row));
+                    } else {
+                        writeColumn(out, component, row);
+                    }
+                }
+        }
+        out.endArray();
+    }
+
+    private static void writeDouble(JsonWriter out, double v) throws IOException {
+        if(Double.isNaN(v) || Double.isInfinite(v)) {
+            out.value(Double.toString(v));
+        } else {
+            out.value(v);
+        }
+    }
+
+}
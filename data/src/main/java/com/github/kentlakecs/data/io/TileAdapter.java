@@ -0,0 +1,121 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jackson Brienen
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.kentlakecs.data.io;
+
+import java.io.IOException;
+import com.github.kentlakecs.data.Tile;
+import com.github.kentlakecs.data.factory.AbstractDataFactory;
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.*;
+
+/**
+ * Streaming {@link Adapter} to read and write {@link Tile}s using the same Json schema as {@link TileSerializer}
+ * 
+ * @author Jackson Brienen
+ * @version 1.0
+ */
+class TileAdapter extends Adapter<Tile> {
+
+    /**
+     * Constant Tile Json Property names used for {@link JsonReader#nextName()} and {@link JsonWriter#name(String)}
+     */
+    private static final String COLOR = "color",
+                                BARRIER_TOP = "barrierTop",
+                                BARRIER_RIGHT = "barrierRight",
+                                BARRIER_BOTTOM = "barrierBottom",
+                                BARRIER_LEFT = "barrierLeft",
+                                BALLS = "balls";
+
+    /**
+     * Bit flags marking which required properties have been read
+     */
+    private static final int SEEN_TOP = 1, SEEN_RIGHT = 2, SEEN_BOTTOM = 4, SEEN_LEFT = 8, SEEN_BALLS = 16, SEEN_ALL = 31;
+
+    /**
+     * Constructs a new {@link TileAdapter}
+     * @param adf DataFactory to be used to instantiate objects when {@link #read(JsonReader)} is called
+     */
+    public TileAdapter(AbstractDataFactory adf) {
+        super(adf);
+    }
+
+    /**
+     * Reads a {@link Tile} that has been serialized via the {@link TileSerializer}.
+     * Instantiating the {@link Tile} via the given {@link AbstractDataFactory}
+     * @param in a {@link JsonReader} positioned at a {@link Tile} object
+     * @return a read {@link Tile}
+     */
+    @Override
+    public Tile read(JsonReader in) throws IOException {
+        boolean colored = false;
+        int argb = Tile.DEFAULT_ARGB;
+        boolean barrierTop = false, barrierRight = false, barrierBottom = false, barrierLeft = false;
+        int balls = 0, seen = 0;
+
+        in.beginObject();
+        while(in.hasNext()) {
+            switch(in.nextName()) {
+                case COLOR: argb = in.nextInt(); colored = true; break;
+                case BARRIER_TOP: barrierTop = in.nextBoolean(); seen |= SEEN_TOP; break;
+                case BARRIER_RIGHT: barrierRight = in.nextBoolean(); seen |= SEEN_RIGHT; break;
+                case BARRIER_BOTTOM: barrierBottom = in.nextBoolean(); seen |= SEEN_BOTTOM; break;
+                case BARRIER_LEFT: barrierLeft = in.nextBoolean(); seen |= SEEN_LEFT; break;
+                case BALLS: balls = in.nextInt(); seen |= SEEN_BALLS; break;
+                default: in.skipValue();
+            }
+        }
+        in.endObject();
+
+        if(seen != SEEN_ALL) {
+            throw new JsonParseException("Missing Tile property in object ending at " + in.getPath());
+        }
+
+        return adf.tile(colored, argb, barrierTop, barrierRight, barrierBottom, barrierLeft, balls);
+    }
+
+    /**
+     * Writes the given {@link Tile} with the same properties as {@link TileSerializer}
+     * @param out the {@link JsonWriter} to write to
+     * @param src a {@link Tile}
+     */
+    @Override
+    public void write(JsonWriter out, Tile src) throws IOException {
+        if(src == null) {
+            out.nullValue();
+            return;
+        }
+
+        out.beginObject();
+        if(src.hasColor()) {
+            out.name(COLOR).value(src.getArgb());
+        }
+        out.name(BARRIER_TOP).value(src.getBarrierTop());
+        out.name(BARRIER_RIGHT).value(src.getBarrierRight());
+        out.name(BARRIER_BOTTOM).value(src.getBarrierBottom());
+        out.name(BARRIER_LEFT).value(src.getBarrierLeft());
+        out.name(BALLS).value(src.getBalls());
+        out.endObject();
+    }
+
+}
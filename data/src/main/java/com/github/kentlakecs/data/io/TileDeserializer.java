@@ -28,7 +28,6 @@ import java.lang.reflect.Type;
 import com.github.kentlakecs.data.Tile;
 import com.github.kentlakecs.data.factory.AbstractDataFactory;
 import com.google.gson.*;
-import java.awt.Color;
 
 /**
  * {@link JsonDeserializer} to deserialize serialized Json created via {@link TileSerializer} in to a {@link Tile}
@@ -67,7 +66,8 @@ class TileDeserializer extends Deserializer<Tile> {
     public Tile deserialize(JsonElement json, Type typeOfT, JsonDeserializationContext context) throws JsonParseException {
         JsonObject o = json.getAsJsonObject();
         return adf.tile(
-            o.has(COLOR) ? new Color(o.get(COLOR).getAsInt(), true) : null, 
+            o.has(COLOR),
+            o.has(COLOR) ? o.get(COLOR).getAsInt() : Tile.DEFAULT_ARGB,
             o.get(BARRIER_TOP).getAsBoolean(),
             o.get(BARRIER_RIGHT).getAsBoolean(),
             o.get(BARRIER_BOTTOM).getAsBoolean(),
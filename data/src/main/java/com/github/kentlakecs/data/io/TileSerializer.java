@@ -57,8 +57,8 @@ class TileSerializer implements JsonSerializer<Tile> {
     public JsonElement serialize(Tile src, Type typeOfSrc, JsonSerializationContext context) {
         JsonObject o = new JsonObject();
 
-        if(src.getColor() != null) {
-            o.addProperty(COLOR, src.getColor().getRGB());
+        if(src.hasColor()) {
+            o.addProperty(COLOR, src.getArgb());
         }
 
         o.addProperty(BARRIER_TOP, src.getBarrierTop());
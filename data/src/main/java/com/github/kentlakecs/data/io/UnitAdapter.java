@@ -0,0 +1,119 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jackson Brienen
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.kentlakecs.data.io;
+
+import java.io.IOException;
+import com.github.kentlakecs.data.*;
+import com.github.kentlakecs.data.factory.AbstractDataFactory;
+import com.google.gson.stream.*;
+
+/**
+ * Streaming {@link Adapter} to read and write {@link Unit}s using the same Json schema as {@link UnitSerializer}
+ * 
+ * @author Jackson Brienen
+ * @version 1.0
+ */
+class UnitAdapter extends Adapter<Unit> {
+
+    /**
+     * Constant Unit Json Property names used for {@link JsonReader#nextName()} and {@link JsonWriter#name(String)}
+     */
+    private static final String NAME = "name",
+                                LESSONS = "lessons";
+
+    private final LessonAdapter lessonAdapter;
+
+    /**
+     * Constructs a new {@link UnitAdapter}
+     * @param adf DataFactory to be used to instantiate objects when {@link #read(JsonReader)} is called
+     */
+    public UnitAdapter(AbstractDataFactory adf) {
+        super(adf);
+        lessonAdapter = new LessonAdapter(adf);
+    }
+
+    /**
+     * Reads a {@link Unit} that has been serialized via the {@link UnitSerializer}.
+     * Instantiating the {@link Unit} and its {@link Lesson}s via the given {@link AbstractDataFactory}
+     * @param in a {@link JsonReader} positioned at a {@link Unit} object
+     * @return a read {@link Unit}
+     */
+    @Override
+    public Unit read(JsonReader in) throws IOException {
+        String name = null;
+        Lesson[] lessons = null;
+
+        in.beginObject();
+        while(in.hasNext()) {
+            switch(in.nextName()) {
+                case NAME: name = readString(in); break;
+                case LESSONS: lessons = readArray(in, lessonAdapter::read, Lesson[]::new); break;
+                default: in.skipValue();
+            }
+        }
+        in.endObject();
+
+        return adf.unit(require(name, NAME, in), require(lessons, LESSONS, in));
+    }
+
+    /**
+     * Reads a Json array of {@link Unit}s
+     * @param in a {@link JsonReader} positioned at the array
+     * @return a read {@link Unit}[], or null if a Json null was read
+     * @throws IOException if reading errors occur
+     */
+    public Unit[] readUnits(JsonReader in) throws IOException {
+        return readArray(in, this::read, Unit[]::new);
+    }
+
+    /**
+     * Writes the given {@link Unit} with the same properties as {@link UnitSerializer}
+     * @param out the {@link JsonWriter} to write to
+     * @param src a {@link Unit}
+     */
+    @Override
+    public void write(JsonWriter out, Unit src) throws IOException {
+        if(src == null) {
+            out.nullValue();
+            return;
+        }
+
+        out.beginObject();
+        out.name(NAME).value(src.getName());
+        out.name(LESSONS);
+        writeArray(out, src.getLessons(), lessonAdapter::write);
+        out.endObject();
+    }
+
+    /**
+     * Writes the given {@link Unit}[] as a Json array
+     * @param out the {@link JsonWriter} to write to
+     * @param units a {@link Unit}[]
+     * @throws IOException if writing errors occur
+     */
+    public void writeUnits(JsonWriter out, Unit[] units) throws IOException {
+        writeArray(out, units, this::write);
+    }
+
+}
@@ -23,7 +23,9 @@
  */
 package com.github.kentlakecs.data.util;
 
+import java.lang.reflect.Array;
 import java.util.Arrays;
+import java.util.Objects;
 
 import com.github.kentlakecs.data.*;
 
@@ -37,9 +39,359 @@ public final class DataUtils {
     
     private DataUtils() {}
 
+    /**
+     * Constant mixed in to {@link #playerHash(int, int, int, Direction)} so it is distinct from any cell
+     */
+    private static final long PLAYER_SEED = 0x5DEECE66DL;
+
+    /**
+     * Values added first to each {@link Fingerprint} so different kinds of objects never share a fingerprint
+     */
+    private static final int CODE_LESSON_TAG = 1, VISUAL_LESSON_TAG = 2, UNIT_TAG = 3, TEST_TABLE_TAG = 4;
+
+    /**
+     * Finalizes a 64 bit value such that every input bit affects every output bit (the SplitMix64 finalizer)
+     * @param z a value
+     * @return the mixed value
+     */
+    public static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Generates the Zobrist key of a single {@link Grid} cell in the given state.
+     * A {@link Grid#contentHash()} is the exclusive or of the key of each cell and {@link #playerHash(int, int, int, Direction)},
+     * so changing a cell from state a to state b changes the hash by {@code cellHash(a) ^ cellHash(b)}.
+     * @param index the index of the cell, {@code y * size + x}
+     * @param barriers the barrier bits of the cell as returned by {@link Tile#getBarriers()}
+     * @param balls the number of balls in the cell
+     * @param argb the packed ARGB background color of the cell
+     * @return the key for the cell
+     */
+    public static long cellHash(int index, int barriers, int balls, int argb) {
+        long h = mix((index + 1) * 0x9E3779B97F4A7C15L ^ (argb & 0xFFFFFFFFL));
+        return mix(h ^ ((long)balls << 4 | (barriers & 0xF)));
+    }
+
+    /**
+     * Generates the Zobrist key of a {@link Grid}'s size and player
+     * @param size the size of the {@link Grid}
+     * @param playerX the x coordinate of the player
+     * @param playerY the y coordinate of the player
+     * @param direction the direction of the player
+     * @return the key for the player
+     */
+    public static long playerHash(int size, int playerX, int playerY, Direction direction) {
+        long p = (long)size << 45 ^ (long)playerX << 24 ^ (long)playerY << 3 ^ (direction == null ? 4 : direction.getValue());
+        return mix(p ^ PLAYER_SEED);
+    }
+
+
+    /**
+     * Computes the directions in which Falco cannot move out of each cell of a grid.
+     * A move is blocked by a barrier on the side of the current cell, a barrier on the facing side of the neighbouring cell, or the edge of the grid.
+     * @param cells the barrier bits of each cell, indexed as {@code y * size + x}, as used by {@link PackedGrid}
+     * @param size the size of the grid
+     * @param blocked receives the blocked directions of each cell, the bit for each direction being {@code 1 << direction.getValue()}
+     */
+    public static void blockedMoves(byte[] cells, int size, byte[] blocked) {
+        for(int y = 0, i = 0; y < size; y++) {
+            for(int x = 0; x < size; x++, i++) {
+                int b = cells[i] & 0xF;
+                if(y == 0 || (cells[i - size] & PackedGrid.BARRIER_BOTTOM) != 0) {
+                    b |= PackedGrid.BARRIER_TOP;
+                }
+                if(x == size - 1 || (cells[i + 1] & PackedGrid.BARRIER_LEFT) != 0) {
+                    b |= PackedGrid.BARRIER_RIGHT;
+                }
+                if(y == size - 1 || (cells[i + size] & PackedGrid.BARRIER_TOP) != 0) {
+                    b |= PackedGrid.BARRIER_BOTTOM;
+                }
+                if(x == 0 || (cells[i - 1] & PackedGrid.BARRIER_RIGHT) != 0) {
+                    b |= PackedGrid.BARRIER_LEFT;
+                }
+                blocked[i] = (byte)b;
+            }
+        }
+    }
+
+    /**
+     * Generates the {@link Fingerprint} of the given {@link Lesson}
+     * @param l
+     * @return The generated {@link Fingerprint}
+     */
+    public static Fingerprint fingerprint(Lesson l) {
+        if(l instanceof CodeLesson) {
+            return fingerprint((CodeLesson)l);
+        } else if(l instanceof VisualLesson) {
+            return fingerprint((VisualLesson)l);
+        }
+        throw new IllegalArgumentException("Unknown lesson type " + l.getClass().getName());
+    }
+
+    /**
+     * Generates the {@link Fingerprint} of the given {@link CodeLesson}
+     * @param cl
+     * @return The generated {@link Fingerprint}
+     */
+    public static Fingerprint fingerprint(CodeLesson cl) {
+        Fingerprint.Hasher h = codeLessonHasher(cl);
+        Parameter[] parameters = cl.getParameters();
+        h.putInt(parameters.length);
+        for(Parameter p: parameters) {
+            hash(h, p);
+        }
+        return h.finish();
+    }
+
+    /**
+     * Generates the {@link Fingerprint} of the given {@link VisualLesson}
+     * @param vl
+     * @return The generated {@link Fingerprint}
+     */
+    public static Fingerprint fingerprint(VisualLesson vl) {
+        Fingerprint.Hasher h = visualLessonHasher(vl);
+        Method[] allowedMethods = vl.getAllowedMethods();
+        h.putInt(allowedMethods.length);
+        for(Method m: allowedMethods) {
+            h.putEnum(m);
+        }
+        String[] requiredStrings = vl.getRequiredStrings();
+        h.putInt(requiredStrings.length);
+        for(String s: requiredStrings) {
+            h.putString(s);
+        }
+        hash(h, vl.getStartingGrids());
+        hash(h, vl.getEndingGrids());
+        return h.finish();
+    }
+
+    /**
+     * Generates the {@link Fingerprint} of the given {@link Unit} from its name and the fingerprint of each of its {@link Lesson}s
+     * @param u
+     * @return The generated {@link Fingerprint}
+     */
+    public static Fingerprint fingerprint(Unit u) {
+        Fingerprint.Hasher h = unitHasher(u);
+        Lesson[] lessons = u.getLessons();
+        h.putInt(lessons.length);
+        for(Lesson l: lessons) {
+            h.putFingerprint(l.getFingerprint());
+        }
+        return h.finish();
+    }
+
+    /**
+     * Creates a {@link Fingerprint.Hasher} containing the single valued properties of the given {@link CodeLesson}, the parameters are not included.
+     * Mutable implementations may keep the result and add their parameters to a {@link Fingerprint.Hasher#copy()} of it.
+     * @param cl
+     * @return The {@link Fingerprint.Hasher}
+     */
+    public static Fingerprint.Hasher codeLessonHasher(CodeLesson cl) {
+        Fingerprint.Hasher h = new Fingerprint.Hasher()
+                .putInt(CODE_LESSON_TAG)
+                .putString(cl.getName())
+                .putString(cl.getStartingCode())
+                .putString(cl.getDescription())
+                .putString(cl.getMethodName())
+                .putEnum(cl.getReturnType())
+                .putString(cl.getTest());
+        TestTable table = cl.getTestTable();
+        if(table == null) {
+            h.putInt(0);
+        } else {
+            h.putInt(1).putFingerprint(table.getFingerprint());
+        }
+        return h;
+    }
+
+    /**
+     * Creates a {@link Fingerprint.Hasher} containing the single valued properties of the given {@link VisualLesson}, the methods, strings and grids are not included.
+     * Mutable implementations may keep the result and add their lists to a {@link Fingerprint.Hasher#copy()} of it.
+     * @param vl
+     * @return The {@link Fingerprint.Hasher}
+     */
+    public static Fingerprint.Hasher visualLessonHasher(VisualLesson vl) {
+        return new Fingerprint.Hasher()
+                .putInt(VISUAL_LESSON_TAG)
+                .putString(vl.getName())
+                .putString(vl.getStartingCode())
+                .putString(vl.getDescription());
+    }
+
+    /**
+     * Creates a {@link Fingerprint.Hasher} containing the name of the given {@link Unit}, the lessons are not included
+     * @param u
+     * @return The {@link Fingerprint.Hasher}
+     */
+    public static Fingerprint.Hasher unitHasher(Unit u) {
+        return new Fingerprint.Hasher().putInt(UNIT_TAG).putString(u.getName());
+    }
+
+    /**
+     * Generates the {@link Fingerprint} of the given {@link TestTable} from its types and every value of each column
+     * @param t
+     * @return The generated {@link Fingerprint}
+     */
+    public static Fingerprint fingerprint(TestTable t) {
+        Fingerprint.Hasher h = new Fingerprint.Hasher().putInt(TEST_TABLE_TAG).putInt(t.size()).putInt(t.getParameterCount());
+        for(int i = 0; i < t.getParameterCount(); i++) {
+            h.putEnum(t.getParameterType(i));
+            hash(h, t.getParameterType(i), t.getArguments(i));
+        }
+        h.putEnum(t.getReturnType());
+        if(t.getExpected() != null) {
+            hash(h, t.getReturnType(), t.getExpected());
+        }
+        return h.finish();
+    }
+
+    /**
+     * Adds every value of a {@link TestTable} column to a {@link Fingerprint.Hasher} without boxing them.
+     * Floating point values are added by their bits, and a null array or String is distinct from an empty one.
+     * @param h
+     * @param type the {@link Primitive} type of the column
+     * @param column the column, see {@link TestTable#columnType(Primitive)}
+     */
+    public static void hash(Fingerprint.Hasher h, Primitive type, Object column) {
+        switch(type) {
+            case STRING:
+                for(String v: (String[])column) {
+                    h.putString(v);
+                }
+                break;
+            case CHAR:
+                for(char v: (char[])column) {
+                    h.putInt(v);
+                }
+                break;
+            case BYTE:
+                for(byte v: (byte[])column) {
+                    h.putInt(v);
+                }
+                break;
+            case SHORT:
+                for(short v: (short[])column) {
+                    h.putInt(v);
+                }
+                break;
+            case INT:
+                for(int v: (int[])column) {
+                    h.putInt(v);
+                }
+                break;
+            case LONG:
+                for(long v: (long[])column) {
+                    h.putLong(v);
+                }
+                break;
+            case FLOAT:
+                for(float v: (float[])column) {
+                    h.putInt(Float.floatToIntBits(v));
+                }
+                break;
+            case DOUBLE:
+                for(double v: (double[])column) {
+                    h.putLong(Double.doubleToLongBits(v));
+                }
+                break;
+            case BOOLEAN:
+                for(boolean v: (boolean[])column) {
+                    h.putInt(v ? 1 : 0);
+                }
+                break;
+            case VOID:
+                break;
+            default:
+                // Each row of an array column is itself a column of the component type
+                for(Object row: (Object[])column) {
+                    if(row == null) {
+                        h.putInt(-1);
+                    } else {
+                        h.putInt(Array.getLength(row));
+                        hash(h, componentType(type), row);
+                    }
+                }
+        }
+    }
+
+    /**
+     * @param type an array {@link Primitive} such as {@link Primitive#INT_ARRAY}
+     * @return the {@link Primitive} of its elements such as {@link Primitive#INT}
+     * @throws IllegalArgumentException if the type is not an array
+     */
+    public static Primitive componentType(Primitive type) {
+        switch(type) {
+            case STRING_ARRAY: return Primitive.STRING;
+            case CHAR_ARRAY: return Primitive.CHAR;
+            case BYTE_ARRAY: return Primitive.BYTE;
+            case SHORT_ARRAY: return Primitive.SHORT;
+            case INT_ARRAY: return Primitive.INT;
+            case LONG_ARRAY: return Primitive.LONG;
+            case FLOAT_ARRAY: return Primitive.FLOAT;
+            case DOUBLE_ARRAY: return Primitive.DOUBLE;
+            case BOOLEAN_ARRAY: return Primitive.BOOLEAN;
+            default: throw new IllegalArgumentException(type + " is not an array type");
+        }
+    }
+
+    /**
+     * Ensures the types of a {@link TestTable} match the method of a {@link CodeLesson}
+     * @param t the nullable {@link TestTable}
+     * @param parameters the parameters of the method
+     * @param returnType the return type of the method
+     * @throws IllegalArgumentException if the table is not null and its types do not match
+     */
+    public static void checkTestTable(TestTable t, Parameter[] parameters, Primitive returnType) {
+        if(t == null) {
+            return;
+        }
+        boolean matches = t.getParameterCount() == parameters.length && t.getReturnType() == returnType;
+        for(int i = 0; matches && i < parameters.length; i++) {
+            matches = t.getParameterType(i) == parameters[i].getType();
+        }
+        if(!matches) {
+            throw new IllegalArgumentException("The types of " + t + " do not match the parameters and return type of the method");
+        }
+    }
+
+    /**
+     * @param parameters a {@link Parameter}[]
+     * @return the {@link Primitive} type of each parameter
+     */
+    public static Primitive[] parameterTypes(Parameter[] parameters) {
+        Primitive[] types = new Primitive[parameters.length];
+        for(int i = 0; i < types.length; i++) {
+            types[i] = parameters[i].getType();
+        }
+        return types;
+    }
 
     /**
-     * Compares the two given {@link Lesson}s
+     * Adds the given {@link Parameter} to a {@link Fingerprint.Hasher}
+     * @param h
+     * @param p
+     */
+    public static void hash(Fingerprint.Hasher h, Parameter p) {
+        h.putEnum(p.getType()).putString(p.getName());
+    }
+
+    /**
+     * Adds the given {@link Grid}s to a {@link Fingerprint.Hasher} by their {@link Grid#contentHash()}
+     * @param h
+     * @param grids
+     */
+    public static void hash(Fingerprint.Hasher h, Grid[] grids) {
+        h.putInt(grids.length);
+        for(Grid g: grids) {
+            h.putLong(g.contentHash());
+        }
+    }
+
+    /**
+     * Compares the two given {@link Lesson}s, rejecting those with differing {@link Lesson#getFingerprint()}s first
      * @param l1
      * @param l2
      * @return if l1 is equal to l2
@@ -73,29 +425,38 @@ public final class DataUtils {
     }
 
     /**
-     * Compares the two given {@link CodeLesson}s
+     * Compares the two given {@link CodeLesson}s, rejecting those with differing {@link Lesson#getFingerprint()}s first
      * @param l1
      * @param l2
      * @return if l1 is equal to l2
      */
     public static boolean equals(CodeLesson l1, CodeLesson l2) {
-        return l1.getDescription().equals(l2.getDescription())      &&
-                l1.getMethodName().equals(l2.getMethodName())       &&
-                l1.getTest().equals(l2.getTest())                   &&
-                l1.getName().equals(l2.getName())                   &&
-                l1.getReturnType() == l2.getReturnType()            &&
-                l1.getStartingCode().equals(l2.getStartingCode())   &&
-                Arrays.equals(l1.getParameters(), l2.getParameters());
+        if(l1 == l2) {
+            return true;
+        }
+        return l1.getFingerprint().equals(l2.getFingerprint())              &&
+                l1.getDescription().equals(l2.getDescription())             &&
+                l1.getMethodName().equals(l2.getMethodName())               &&
+                l1.getTest().equals(l2.getTest())                           &&
+                l1.getName().equals(l2.getName())                           &&
+                l1.getReturnType() == l2.getReturnType()                    &&
+                l1.getStartingCode().equals(l2.getStartingCode())           &&
+                Arrays.equals(l1.getParameters(), l2.getParameters())       &&
+                Objects.equals(l1.getTestTable(), l2.getTestTable());
     }
 
     /**
-     * Compares the two given {@link VisualLesson}s
+     * Compares the two given {@link VisualLesson}s, rejecting those with differing {@link Lesson#getFingerprint()}s first
      * @param l1
      * @param l2
      * @return if l1 is equal to l2
      */
     public static boolean equals(VisualLesson l1, VisualLesson l2) {
-        return l1.getDescription().equals(l2.getDescription())                  &&
+        if(l1 == l2) {
+            return true;
+        }
+        return l1.getFingerprint().equals(l2.getFingerprint())                  &&
+                l1.getDescription().equals(l2.getDescription())                 &&
                 l1.getName().equals(l2.getName())                               &&
                 l1.getStartingCode().equals(l2.getStartingCode())               &&
                 Arrays.equals(l1.getRequiredStrings(), l2.getRequiredStrings()) &&
@@ -105,13 +466,16 @@ public final class DataUtils {
     }
 
     /**
-     * Compares the two given {@link Unit}s
+     * Compares the two given {@link Unit}s, rejecting those with differing {@link Unit#getFingerprint()}s first
      * @param u1
      * @param u2
      * @return if u1 is equal to u2
      */
     public static boolean equals(Unit u1, Unit u2) {
-        return u1.getName().equals(u2.getName()) && equals(u1.getLessons(), u2.getLessons());
+        if(u1 == u2) {
+            return true;
+        }
+        return u1.getFingerprint().equals(u2.getFingerprint()) && u1.getName().equals(u2.getName()) && equals(u1.getLessons(), u2.getLessons());
     }
 
     /**
@@ -0,0 +1,190 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jackson Brienen
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.kentlakecs.data.util;
+
+/**
+ * An immutable 128 bit content fingerprint.
+ * Fingerprints are stable between runs and machines, so they may be stored and compared later to detect changes.
+ *
+ * @author Jackson Brienen
+ * @version 1.0
+ * @see Hasher
+ */
+public final class Fingerprint {
+
+    private final long high, low;
+
+    /**
+     * Constructs a new {@link Fingerprint}
+     * @param high the upper 64 bits
+     * @param low the lower 64 bits
+     */
+    public Fingerprint(long high, long low) {
+        this.high = high;
+        this.low = low;
+    }
+
+    /**
+     * @return The upper 64 bits of this Fingerprint
+     */
+    public long getHigh() {
+        return high;
+    }
+
+    /**
+     * @return The lower 64 bits of this Fingerprint
+     */
+    public long getLow() {
+        return low;
+    }
+
+    public boolean equals(Object o) {
+        if(o instanceof Fingerprint) {
+            Fingerprint f = (Fingerprint)o;
+            return high == f.high && low == f.low;
+        }
+        return false;
+    }
+
+    public int hashCode() {
+        return (int)(low ^ low >>> 32);
+    }
+
+    /**
+     * @return The Fingerprint as 32 hexadecimal digits
+     */
+    public String toString() {
+        return String.format("%016x%016x", high, low);
+    }
+
+    /**
+     * Accumulates values into a {@link Fingerprint}.
+     * Values are absorbed into two independently seeded 64 bit lanes, and the result depends on the order in which they are given.
+     */
+    public static final class Hasher {
+
+        private static final long SEED_HIGH = 0x243F6A8885A308D3L, SEED_LOW = 0x13198A2E03707344L;
+        private static final long MULTIPLIER_HIGH = 0x9E3779B97F4A7C15L, MULTIPLIER_LOW = 0xC2B2AE3D27D4EB4FL;
+
+        private long high, low, count;
+
+        /**
+         * Constructs a new empty {@link Hasher}
+         */
+        public Hasher() {
+            high = SEED_HIGH;
+            low = SEED_LOW;
+        }
+
+        private Hasher(Hasher h) {
+            high = h.high;
+            low = h.low;
+            count = h.count;
+        }
+
+        /**
+         * @return A new {@link Hasher} with the same state as this Hasher, such that values may be added to either independently
+         */
+        public Hasher copy() {
+            return new Hasher(this);
+        }
+
+        /**
+         * Adds a long value
+         * @param v the value
+         * @return this Hasher
+         */
+        public Hasher putLong(long v) {
+            high = Long.rotateLeft(high ^ DataUtils.mix(v ^ SEED_HIGH), 31) * MULTIPLIER_HIGH;
+            low = Long.rotateLeft(low ^ DataUtils.mix(v + SEED_LOW), 27) * MULTIPLIER_LOW;
+            count++;
+            return this;
+        }
+
+        /**
+         * Adds an int value
+         * @param v the value
+         * @return this Hasher
+         */
+        public Hasher putInt(int v) {
+            return putLong(v);
+        }
+
+        /**
+         * Adds a String, or null.
+         * The length is added before the characters so consecutive Strings cannot be confused with one another.
+         * @param s the String, may be null
+         * @return this Hasher
+         */
+        public Hasher putString(String s) {
+            if(s == null) {
+                return putLong(-1);
+            }
+
+            putLong(s.length());
+            long packed = 0;
+            for(int i = 0; i < s.length(); i++) {
+                packed = packed << 16 | s.charAt(i);
+                if((i & 3) == 3) {
+                    putLong(packed);
+                    packed = 0;
+                }
+            }
+            if((s.length() & 3) != 0) {
+                putLong(packed);
+            }
+            return this;
+        }
+
+        /**
+         * Adds an enum constant, or null, by its name so the result does not depend on declaration order
+         * @param e the enum constant, may be null
+         * @return this Hasher
+         */
+        public Hasher putEnum(Enum<?> e) {
+            return putString(e == null ? null : e.name());
+        }
+
+        /**
+         * Adds another {@link Fingerprint}
+         * @param f the Fingerprint
+         * @return this Hasher
+         */
+        public Hasher putFingerprint(Fingerprint f) {
+            return putLong(f.high).putLong(f.low);
+        }
+
+        /**
+         * Generates the {@link Fingerprint} of the values added so far, the Hasher may continue to be used afterwards
+         * @return the Fingerprint
+         */
+        public Fingerprint finish() {
+            long h = DataUtils.mix(high ^ count);
+            long l = DataUtils.mix(low ^ h);
+            return new Fingerprint(h, l);
+        }
+
+    }
+
+}
@@ -0,0 +1,289 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jackson Brienen
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.kentlakecs.data.util;
+
+import java.util.Collections;
+import java.util.EnumSet;
+
+import com.github.kentlakecs.data.*;
+
+/**
+ * The states Falco can reach while changing one {@link Grid} into another using a set of {@link Method}s, each packed into the bits of a single long,
+ * for searching for the sequences of actions which lead from one grid to the other.
+ * <p>
+ * A state is Falco's position and direction, the number of balls on each tile whose count differs between the two grids,
+ * and whether each tile whose color differs has been painted. Every other tile can be left as it is by a shortest sequence of actions,
+ * as can the balls of a tile be kept between their starting and ending counts and a tile only be painted its ending color.
+ * Tiles are compared as by {@link Tile#equals(Object)}, so a tile only needs painting if its ARGB color differs, whether or not either tile has a color.
+ * <p>
+ * Each action is identified by the {@link Method#ordinal()} of its method, {@link Method#PAINT} painting Falco's tile its color in the ending grid.
+ * Methods which do not change the grid are ignored.
+ *
+ * @author Jackson Brienen
+ * @version 1.0
+ */
+public final class StateSpace {
+
+    /**
+     * The most states reached from a single state by one action each
+     */
+    public static final int MAX_ACTIONS = 6;
+
+    private final boolean move, turnLeft, turnRight, place, take, paint;
+    private final int size, dirShift;
+    private final long posMask;
+    private final int[] steps;
+    private final byte[] blocked;
+    private final int[] ballShift, ballMax, ballGoal, paintShift;
+    private final int[] targets;
+    private final boolean possible, packed;
+    private final long start, goal;
+    private final double bound;
+
+    /**
+     * Constructs the {@link StateSpace} between two {@link Grid}s
+     * @param start the starting {@link Grid}
+     * @param end the ending {@link Grid}
+     * @param allowed the {@link Method}s which may be used
+     */
+    public StateSpace(Grid start, Grid end, Method[] allowed) {
+        EnumSet<Method> methods = EnumSet.noneOf(Method.class);
+        Collections.addAll(methods, allowed);
+        move = methods.contains(Method.MOVE);
+        turnLeft = methods.contains(Method.TURN_LEFT);
+        turnRight = methods.contains(Method.TURN_RIGHT);
+        place = methods.contains(Method.PLACE_BALL);
+        take = methods.contains(Method.TAKE_BALL);
+        paint = methods.contains(Method.PAINT);
+
+        size = start.getSize();
+        int cellCount = size * size;
+        byte[] cells = new byte[cellCount];
+        blocked = new byte[cellCount];
+        ballShift = new int[cellCount];
+        ballMax = new int[cellCount];
+        ballGoal = new int[cellCount];
+        paintShift = new int[cellCount];
+        int[] differing = new int[cellCount];
+        int posBits = Math.max(1, 32 - Integer.numberOfLeadingZeros(cellCount - 1));
+        posMask = (1L << posBits) - 1;
+        dirShift = posBits;
+        steps = new int[]{-size, 1, size, -1};
+
+        int bits = posBits + 2, count = 0;
+        long s = start.getPlayerY() * size + start.getPlayerX() | (long)start.getPlayerDirection().getValue() << dirShift;
+        long g = end.getPlayerY() * size + end.getPlayerX() | (long)end.getPlayerDirection().getValue() << dirShift;
+        double states = cellCount * 4.0;
+        boolean ok = end.getSize() == size, fits = true;
+        Tile[][] startTiles = start instanceof PackedGrid ? null : start.getTiles();
+        Tile[][] endTiles = end instanceof PackedGrid ? null : end.getTiles();
+        for(int y = 0, i = 0; ok && fits && y < size; y++) {
+            for(int x = 0; ok && fits && x < size; x++, i++) {
+                int barriers = barriers(start, startTiles, x, y);
+                ok = barriers == barriers(end, endTiles, x, y);
+                cells[i] = (byte)barriers;
+
+                ballShift[i] = -1;
+                int from = start.ballsAt(x, y), to = end.ballsAt(x, y);
+                if(from != to) {
+                    ok &= to > from ? place : take;
+                    int low = Math.min(from, to);
+                    ballMax[i] = Math.max(from, to) - low;
+                    ballGoal[i] = to - low;
+                    ballShift[i] = bits;
+                    s |= (long)(from - low) << bits;
+                    g |= (long)(to - low) << bits;
+                    bits += 32 - Integer.numberOfLeadingZeros(ballMax[i]);
+                    states *= ballMax[i] + 1;
+                }
+
+                paintShift[i] = -1;
+                if(start.colorAt(x, y) != end.colorAt(x, y)) {
+                    ok &= paint;
+                    paintShift[i] = bits;
+                    g |= 1L << bits;
+                    bits++;
+                    states *= 2;
+                }
+
+                if(ballShift[i] >= 0 || paintShift[i] >= 0) {
+                    differing[count++] = i;
+                }
+                fits = bits <= 63;
+            }
+        }
+        DataUtils.blockedMoves(cells, size, blocked);
+
+        possible = ok;
+        packed = fits;
+        this.start = s;
+        goal = g;
+        bound = states;
+        targets = new int[count];
+        System.arraycopy(differing, 0, targets, 0, count);
+    }
+
+    private static int barriers(Grid g, Tile[][] tiles, int x, int y) {
+        return tiles == null ? ((PackedGrid)g).cellAt(x, y) & 0xF : tiles[y][x].getBarriers();
+    }
+
+    /**
+     * @return false if the ending grid can never be reached, as the grids differ in size or barriers or a method needed to change a tile is not allowed
+     */
+    public boolean isPossible() {
+        return possible;
+    }
+
+    /**
+     * The states are only valid if this returns true and the ending grid is possible to reach,
+     * the tiles after those which no longer fit being left unchecked
+     * @return false if there are too many differing tiles for a state to fit in a long
+     */
+    public boolean isPacked() {
+        return packed;
+    }
+
+    /**
+     * @return The starting state
+     */
+    public long getStart() {
+        return start;
+    }
+
+    /**
+     * @return The state of the ending grid
+     */
+    public long getGoal() {
+        return goal;
+    }
+
+    /**
+     * @return The number of states there could be, which may be far more than can be reached
+     */
+    public double getBound() {
+        return bound;
+    }
+
+    /**
+     * @return The size of the grids
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * @param state a state
+     * @return Falco's position in the state, {@code y * size + x}
+     */
+    public int position(long state) {
+        return (int)(state & posMask);
+    }
+
+    /**
+     * @param state a state
+     * @return the {@link Direction#getValue()} of Falco's direction in the state
+     */
+    public int direction(long state) {
+        return (int)(state >>> dirShift) & 3;
+    }
+
+    /**
+     * @param position a position, {@code y * size + x}
+     * @param direction a {@link Direction#getValue()}
+     * @return the position moved to from the given position in the given direction, or -1 if the move is blocked
+     */
+    public int neighbour(int position, int direction) {
+        return (blocked[position] & 1 << direction) == 0 ? position + steps[direction] : -1;
+    }
+
+    /**
+     * @return A copy of the positions of the tiles which differ between the grids
+     */
+    public int[] getTargets() {
+        return targets.clone();
+    }
+
+    /**
+     * @param state a state
+     * @param position the position of a tile
+     * @return the number of balls still to be placed or taken and paints still to be made on the tile to reach the ending grid
+     */
+    public int remaining(long state, int position) {
+        int left = 0;
+        if(ballShift[position] >= 0) {
+            left += Math.abs((int)((state >>> ballShift[position]) & ballMask(position)) - ballGoal[position]);
+        }
+        if(paintShift[position] >= 0 && (state & 1L << paintShift[position]) == 0) {
+            left++;
+        }
+        return left;
+    }
+
+    private long ballMask(int position) {
+        return (1L << (32 - Integer.numberOfLeadingZeros(ballMax[position]))) - 1;
+    }
+
+    /**
+     * Finds every state reached from the given state by a single allowed action
+     * @param state a state
+     * @param next receives the reached states, with a length of at least {@value #MAX_ACTIONS}
+     * @param actions receives the {@link Method#ordinal()} of the action reaching each state, with a length of at least {@value #MAX_ACTIONS}
+     * @return the number of states reached
+     */
+    public int expand(long state, long[] next, byte[] actions) {
+        int pos = position(state), dir = direction(state);
+        int n = 0;
+        if(move && (blocked[pos] & 1 << dir) == 0) {
+            next[n] = state - pos + (pos + steps[dir]);
+            actions[n++] = (byte)Method.MOVE.ordinal();
+        }
+        if(turnLeft) {
+            next[n] = state & ~(3L << dirShift) | (long)((dir + 3) & 3) << dirShift;
+            actions[n++] = (byte)Method.TURN_LEFT.ordinal();
+        }
+        if(turnRight) {
+            next[n] = state & ~(3L << dirShift) | (long)((dir + 1) & 3) << dirShift;
+            actions[n++] = (byte)Method.TURN_RIGHT.ordinal();
+        }
+        int shift = ballShift[pos];
+        if(shift >= 0) {
+            long balls = (state >>> shift) & ballMask(pos);
+            if(place && balls < ballMax[pos]) {
+                next[n] = state + (1L << shift);
+                actions[n++] = (byte)Method.PLACE_BALL.ordinal();
+            }
+            if(take && balls > 0) {
+                next[n] = state - (1L << shift);
+                actions[n++] = (byte)Method.TAKE_BALL.ordinal();
+            }
+        }
+        shift = paintShift[pos];
+        if(paint && shift >= 0 && (state & 1L << shift) == 0) {
+            next[n] = state | 1L << shift;
+            actions[n++] = (byte)Method.PAINT.ordinal();
+        }
+        return n;
+    }
+
+}
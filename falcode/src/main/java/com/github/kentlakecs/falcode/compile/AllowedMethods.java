@@ -0,0 +1,168 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jackson Brienen
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.kentlakecs.falcode.compile;
+
+import java.util.*;
+
+import com.github.kentlakecs.data.Method;
+import com.github.kentlakecs.falcode.world.Falco;
+
+/**
+ * Finds calls to {@link Falco} methods which a lesson does not allow, from the tokens of a submission.
+ * <p>
+ * A call is an identifier naming one of the {@link Method}s followed by <code>(</code>, either unqualified or qualified by
+ * <code>this</code> or <code>super</code>. Calls on other objects are not Falco API calls and are ignored. As the {@link Falco} methods
+ * are final, a method the student declares with the same name, a declaration of the same form followed by a body, is an overload, so a call
+ * is only taken to be to the student's method if its number of arguments matches the method and differs from that of the Falco method.
+ *
+ * @author Jackson Brienen
+ * @version 1.0
+ */
+final class AllowedMethods {
+
+    private static final Map<String, Method> NAMES = new HashMap<>();
+    private static final int[] ARITIES = new int[Method.values().length];
+
+    static {
+        for(Method m: Method.values()) {
+            String header = m.getHeader();
+            NAMES.put(header.substring(header.indexOf(' ') + 1, header.indexOf('(')), m);
+            String parameters = header.substring(header.indexOf('(') + 1, header.lastIndexOf(')')).trim();
+            ARITIES[m.ordinal()] = parameters.isEmpty() ? 0 : parameters.split(",").length;
+        }
+    }
+
+    private final EnumSet<Method> allowed;
+
+    /**
+     * @param allowed the methods a lesson allows
+     */
+    AllowedMethods(Method[] allowed) {
+        this.allowed = EnumSet.noneOf(Method.class);
+        Collections.addAll(this.allowed, allowed);
+    }
+
+    /**
+     * Finds every call to a method that is not allowed
+     * @param tokens the tokenized source code
+     * @return the index of the identifier token of each call, in order
+     */
+    List<Integer> disallowed(SourceTokens tokens) {
+        List<Integer> calls = null;
+        Map<String, Set<Integer>> declared = null;
+        for(int i = 0; i < tokens.count(); i++) {
+            if(tokens.kind(i) != SourceTokens.IDENTIFIER || !tokens.is(i + 1, '(')) {
+                continue;
+            }
+            Method m = NAMES.get(tokens.text(i));
+            if(m == null || allowed.contains(m)) {
+                continue;
+            }
+            if((tokens.is(i - 1, '.') && !tokens.is(i - 2, "this") && !tokens.is(i - 2, "super")) || declaration(tokens, i)) {
+                continue;
+            }
+            if(calls == null) {
+                calls = new ArrayList<>();
+                declared = declared(tokens);
+            }
+            int arguments = arity(tokens, i + 1, false);
+            if(arguments == ARITIES[m.ordinal()] || !declares(declared.get(tokens.text(i)), arguments)) {
+                calls.add(i);
+            }
+        }
+        return calls == null ? Collections.emptyList() : calls;
+    }
+
+    /**
+     * @return the number of parameters of each method declared in the source code by name, those with a variable number of parameters
+     * being stored as the negated number of parameters they require
+     */
+    private static Map<String, Set<Integer>> declared(SourceTokens tokens) {
+        Map<String, Set<Integer>> methods = new HashMap<>();
+        for(int i = 1; i < tokens.count(); i++) {
+            if(tokens.kind(i) != SourceTokens.IDENTIFIER || !tokens.is(i + 1, '(')) {
+                continue;
+            }
+            if(declaration(tokens, i)) {
+                int close = tokens.matching(i + 1), parameters = arity(tokens, i + 1, true);
+                boolean variable = false;
+                for(int j = i + 2; j < close; j++) {
+                    variable |= tokens.is(j, '.') && tokens.is(j + 1, '.') && tokens.is(j + 2, '.');
+                }
+                methods.computeIfAbsent(tokens.text(i), k -> new HashSet<>()).add(variable ? -parameters : parameters);
+            }
+        }
+        return methods;
+    }
+
+    /**
+     * @param i the index of an identifier followed by <code>(</code>
+     * @return true if the identifier is the name of a method being declared, being preceded by a type and followed by a body
+     */
+    private static boolean declaration(SourceTokens tokens, int i) {
+        boolean typed = (i > 0 && tokens.kind(i - 1) == SourceTokens.IDENTIFIER) || tokens.is(i - 1, ']') || tokens.is(i - 1, '>');
+        int close = tokens.matching(i + 1);
+        return typed && close > 0 && (tokens.is(close + 1, '{') || tokens.is(close + 1, "throws"));
+    }
+
+    /**
+     * @return true if any of the given declarations accepts the number of arguments
+     */
+    private static boolean declares(Set<Integer> declarations, int arguments) {
+        if(declarations == null) {
+            return false;
+        }
+        for(int d: declarations) {
+            if(d == arguments || (d < 0 && arguments >= -d - 1)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Counts the arguments of a call or the parameters of a declaration
+     * @param open the index of the opening <code>(</code>
+     * @param generics true if <code>&lt;</code> and <code>&gt;</code> enclose type arguments, rather than being comparisons
+     * @return the number of top level comma separated parts between the parentheses, 0 if they are unmatched
+     */
+    private static int arity(SourceTokens tokens, int open, boolean generics) {
+        int close = tokens.matching(open);
+        if(close <= open + 1) {
+            return 0;
+        }
+        int count = 1, depth = 0;
+        for(int j = open + 1; j < close; j++) {
+            if(tokens.is(j, '(') || tokens.is(j, '[') || tokens.is(j, '{') || (generics && tokens.is(j, '<'))) {
+                depth++;
+            } else if(tokens.is(j, ')') || tokens.is(j, ']') || tokens.is(j, '}') || (generics && tokens.is(j, '>'))) {
+                depth--;
+            } else if(depth == 0 && tokens.is(j, ',')) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+}
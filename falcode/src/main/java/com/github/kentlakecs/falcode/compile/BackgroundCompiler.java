@@ -0,0 +1,198 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jackson Brienen
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.kentlakecs.falcode.compile;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+
+import javax.tools.*;
+
+import com.github.kentlakecs.data.CodeLesson;
+import com.github.kentlakecs.data.Lesson;
+import com.github.kentlakecs.data.VisualLesson;
+
+/**
+ * Compiles code as it is being written to report its diagnostics, on a thread of its own so that an editor is never held up by the compiler.
+ * <p>
+ * Each {@link #submit(Lesson, String, Consumer)} waits for the delay before compiling, and is replaced by any later submission made in the meantime,
+ * so code being typed is only compiled once typing pauses. Diagnostics are only ever delivered for the latest submission.
+ * <p>
+ * One {@link JavaCompiler} and one file manager are kept for every compilation. Code for a {@link VisualLesson} is compiled against stubs of
+ * {@link com.github.kentlakecs.falcode.world.Falco} and its exceptions generated from the {@link com.github.kentlakecs.data.Method}s,
+ * which are compiled once, rather than against the class path of the application. The code is also checked by a {@link SourceChecker},
+ * its positioned diagnostics being reported along with those of the compiler.
+ * The code is not instrumented and no classes are kept, use {@link SubmissionCompiler} for code that is to be run.
+ *
+ * @author Jackson Brienen
+ * @version 1.0
+ */
+public final class BackgroundCompiler implements AutoCloseable {
+
+    /**
+     * The delay in milliseconds used by {@link #BackgroundCompiler()}
+     */
+    public static final long DEFAULT_DELAY_MILLIS = 300;
+
+    private static final List<String> OPTIONS = Collections.unmodifiableList(Arrays.asList("-proc:none", "-g:none", "-implicit:none"));
+
+    /* Compiled once and shared by every BackgroundCompiler */
+    private static Map<String, byte[]> stubs;
+
+    private final long delay;
+    private final ScheduledExecutorService executor;
+    private final SourceChecker checker = new SourceChecker();
+    private ScheduledFuture<?> pending;
+    private long latest;
+
+    /* Only accessed by the executor */
+    private JavaCompiler compiler;
+    private StandardJavaFileManager files;
+
+    /**
+     * Constructs a new {@link BackgroundCompiler} waiting {@value #DEFAULT_DELAY_MILLIS} milliseconds before compiling
+     */
+    public BackgroundCompiler() {
+        this(DEFAULT_DELAY_MILLIS);
+    }
+
+    /**
+     * Constructs a new {@link BackgroundCompiler}
+     * @param delayMillis the time in milliseconds to wait after a submission before compiling it
+     * @throws IllegalStateException if no {@link JavaCompiler} is available, as is the case when running on a JRE
+     */
+    public BackgroundCompiler(long delayMillis) {
+        if(delayMillis < 0) {
+            throw new IllegalArgumentException("Argument delayMillis must be greater than or equal to 0");
+        }
+        if(ToolProvider.getSystemJavaCompiler() == null) {
+            throw new IllegalStateException("No Java compiler is available, Falcode must be run with a JDK");
+        }
+        delay = delayMillis;
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "Falcode Background Compiler");
+            t.setDaemon(true);
+            t.setPriority(Thread.MIN_PRIORITY);
+            return t;
+        });
+        // Loads the compiler and compiles the stubs while the student is still reading the lesson
+        executor.execute(this::init);
+    }
+
+    private void init() {
+        if(compiler != null) {
+            return;
+        }
+        JavaCompiler c = ToolProvider.getSystemJavaCompiler();
+        files = c.getStandardFileManager(null, null, StandardCharsets.UTF_8);
+        try {
+            files.setLocation(StandardLocation.CLASS_PATH, Collections.emptyList());
+        } catch(IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        synchronized(BackgroundCompiler.class) {
+            if(stubs == null) {
+                stubs = StubFileManager.compileStubs(c, files);
+            }
+        }
+        compiler = c;
+    }
+
+    /**
+     * Compiles the given code after the delay, unless other code is submitted before then
+     * @param lesson the {@link VisualLesson} or {@link CodeLesson} the code is written for
+     * @param source the code written by the student
+     * @param listener given the diagnostics of the code on the compiler's thread, only if no other code has been submitted since
+     * @throws IllegalArgumentException if the lesson is neither a {@link VisualLesson} or {@link CodeLesson}
+     */
+    public void submit(Lesson lesson, String source, Consumer<? super List<CompileDiagnostic>> listener) {
+        if(!(lesson instanceof VisualLesson) && !(lesson instanceof CodeLesson)) {
+            throw new IllegalArgumentException("Unknown lesson type " + lesson.getClass().getName());
+        }
+        synchronized(this) {
+            if(pending != null) {
+                pending.cancel(false);
+            }
+            long submission = ++latest;
+            pending = executor.schedule(() -> {
+                List<CompileDiagnostic> diagnostics = diagnose(lesson, source);
+                if(isLatest(submission)) {
+                    listener.accept(diagnostics);
+                }
+            }, delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Cancels the latest submission, if its diagnostics have not yet been delivered
+     */
+    public synchronized void cancel() {
+        latest++;
+        if(pending != null) {
+            pending.cancel(false);
+            pending = null;
+        }
+    }
+
+    private synchronized boolean isLatest(long submission) {
+        return submission == latest;
+    }
+
+    private List<CompileDiagnostic> diagnose(Lesson lesson, String source) {
+        init();
+        List<CompileDiagnostic> diagnostics = new ArrayList<>();
+        if(lesson instanceof VisualLesson) {
+            for(CompileDiagnostic d: checker.check((VisualLesson)lesson, source)) {
+                if(d.getLine() >= 0) {
+                    diagnostics.add(d);
+                }
+            }
+        }
+
+        // Not closed, as that would close the shared file manager
+        DiagnosticCollector<JavaFileObject> collector = new DiagnosticCollector<>();
+        Map<String, byte[]> compiledStubs;
+        synchronized(BackgroundCompiler.class) {
+            compiledStubs = stubs;
+        }
+        StubFileManager stubbed = new StubFileManager(files, compiledStubs);
+        compiler.getTask(null, stubbed, collector, OPTIONS, null,
+            Collections.singletonList(MemoryFileManager.source(SubmissionCompiler.CLASS_NAME, SubmissionCompiler.unit(lesson, source)))).call();
+        diagnostics.addAll(SubmissionCompiler.diagnostics(collector, lesson, source, null));
+        return diagnostics;
+    }
+
+    /**
+     * Stops compiling, after which nothing more may be submitted
+     */
+    @Override
+    public void close() {
+        cancel();
+        executor.shutdownNow();
+    }
+
+}
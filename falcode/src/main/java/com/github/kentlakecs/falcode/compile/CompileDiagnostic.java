@@ -0,0 +1,101 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jackson Brienen
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.kentlakecs.falcode.compile;
+
+import javax.tools.Diagnostic;
+
+/**
+ * A message produced while compiling a submission, with its position mapped back to the code it was found in
+ *
+ * @author Jackson Brienen
+ * @version 1.0
+ */
+public final class CompileDiagnostic {
+
+    /**
+     * The code a {@link CompileDiagnostic} was found in
+     */
+    public enum Origin {
+        /** The code written by the student */
+        SUBMISSION,
+        /** The test code of a {@link com.github.kentlakecs.data.CodeLesson} */
+        TEST,
+        /** The code surrounding the submission, or no code at all */
+        TEMPLATE
+    }
+
+    private final Diagnostic.Kind kind;
+    private final Origin origin;
+    private final long line, column;
+    private final String message;
+
+    CompileDiagnostic(Diagnostic.Kind kind, Origin origin, long line, long column, String message) {
+        this.kind = kind;
+        this.origin = origin;
+        this.line = line;
+        this.column = column;
+        this.message = message;
+    }
+
+    /**
+     * @return The {@link Diagnostic.Kind} of this diagnostic
+     */
+    public Diagnostic.Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * @return The {@link Origin} of the code this diagnostic was found in
+     */
+    public Origin getOrigin() {
+        return origin;
+    }
+
+    /**
+     * @return The 1 based line within the code given by {@link #getOrigin()}, or -1 if there is no position
+     */
+    public long getLine() {
+        return line;
+    }
+
+    /**
+     * @return The 1 based column within the line, or -1 if there is no position
+     */
+    public long getColumn() {
+        return column;
+    }
+
+    /**
+     * @return The message of this diagnostic
+     */
+    public String getMessage() {
+        return message;
+    }
+
+    @Override
+    public String toString() {
+        return kind + (line < 0 ? "" : " at " + origin.name().toLowerCase() + " line " + line + ":" + column) + ": " + message;
+    }
+
+}
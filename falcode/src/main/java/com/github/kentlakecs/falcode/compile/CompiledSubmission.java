@@ -0,0 +1,160 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jackson Brienen
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.kentlakecs.falcode.compile;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * The result of compiling a submission with a {@link SubmissionCompiler}.
+ * The class files are held in memory and are immutable, so a CompiledSubmission may be shared between threads and served from a cache.
+ *
+ * @author Jackson Brienen
+ * @version 1.0
+ */
+public final class CompiledSubmission {
+
+    private final String className;
+    private final Map<String, byte[]> classes;
+    private final List<CompileDiagnostic> diagnostics;
+    private final boolean succeeded;
+
+    CompiledSubmission(String className, Map<String, byte[]> classes, List<CompileDiagnostic> diagnostics, boolean succeeded) {
+        this.className = className;
+        this.classes = Collections.unmodifiableMap(classes);
+        this.diagnostics = Collections.unmodifiableList(diagnostics);
+        this.succeeded = succeeded;
+    }
+
+    /**
+     * Creates a successful {@link CompiledSubmission} of classes compiled elsewhere, such as those sent to another process
+     * @param className the binary name of the class wrapping the submission
+     * @param classes the bytes of each compiled class by binary name
+     * @return the {@link CompiledSubmission}
+     */
+    public static CompiledSubmission of(String className, Map<String, byte[]> classes) {
+        return new CompiledSubmission(className, new HashMap<>(classes), new ArrayList<>(), true);
+    }
+
+    /**
+     * @return true if the submission compiled without errors
+     */
+    public boolean succeeded() {
+        return succeeded;
+    }
+
+    /**
+     * @return The errors and warnings produced by the compiler
+     */
+    public List<CompileDiagnostic> getDiagnostics() {
+        return diagnostics;
+    }
+
+    /**
+     * @return The binary name of the class wrapping the submission
+     */
+    public String getClassName() {
+        return className;
+    }
+
+    /**
+     * @return The bytes of each compiled class by binary name, empty if the submission did not compile. The arrays must not be modified.
+     */
+    public Map<String, byte[]> getClasses() {
+        return classes;
+    }
+
+    /**
+     * Defines the compiled classes in a new {@link ClassLoader}.
+     * Each call defines the classes again, so static state is never shared between two loads of the same submission.
+     * @return the class wrapping the submission
+     * @throws IllegalStateException if the submission did not compile
+     */
+    public Class<?> load() {
+        if(!succeeded) {
+            throw new IllegalStateException("The submission did not compile");
+        }
+
+        try {
+            return new MemoryClassLoader(classes).loadClass(className);
+        } catch(ClassNotFoundException e) {
+            throw new IllegalStateException("Compiled class " + className + " is missing", e);
+        }
+    }
+
+    /**
+     * Loads the submission once and creates a {@link Supplier} of new instances of it
+     * @param type the type the submission extends
+     * @return a {@link Supplier} constructing a new instance on each call
+     * @throws IllegalStateException if the submission did not compile
+     * @throws ClassCastException if the submission does not extend type
+     */
+    public <T> Supplier<T> instances(Class<T> type) {
+        Class<? extends T> c = load().asSubclass(type);
+        return () -> {
+            try {
+                return c.getDeclaredConstructor().newInstance();
+            } catch(InvocationTargetException e) {
+                if(e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException)e.getCause();
+                }
+                if(e.getCause() instanceof Error) {
+                    throw (Error)e.getCause();
+                }
+                throw new IllegalStateException(e.getCause());
+            } catch(ReflectiveOperationException e) {
+                throw new IllegalStateException("Unable to construct " + className, e);
+            }
+        };
+    }
+
+    /**
+     * {@link ClassLoader} defining classes from their bytes, delegating to the loader of the falcode classes first
+     */
+    private static final class MemoryClassLoader extends ClassLoader {
+
+        private final Map<String, byte[]> classes;
+
+        MemoryClassLoader(Map<String, byte[]> classes) {
+            super(CompiledSubmission.class.getClassLoader());
+            this.classes = classes;
+        }
+
+        @Override
+        protected Class<?> findClass(String name) throws ClassNotFoundException {
+            byte[] b = classes.get(name);
+            if(b == null) {
+                throw new ClassNotFoundException(name);
+            }
+            return defineClass(name, b, 0, b.length);
+        }
+
+    }
+
+}
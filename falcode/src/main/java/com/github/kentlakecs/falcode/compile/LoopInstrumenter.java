@@ -0,0 +1,142 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jackson Brienen
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.kentlakecs.falcode.compile;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.github.kentlakecs.falcode.world.StepBudget;
+
+/**
+ * Rewrites Java source code so every iteration of every loop takes a step from the current {@link StepBudget}.
+ * <ul>
+ * <li>{@code while(c)} and {@code do ... while(c)} become {@code while(TICK && (c))}</li>
+ * <li>{@code for(i; c; u)} becomes {@code for(i; TICK && (c); u)}, or {@code for(i; TICK; u)} without a condition</li>
+ * <li>{@code for(T t : e) s} becomes {@code for(T t : e) if(!TICK) {} else s}</li>
+ * </ul>
+ * Where {@code TICK} is a call to {@link StepBudget#tick()}, which always returns true or throws.
+ * Code is only ever inserted within a line, so line numbers are unchanged and {@link #originalColumn(long, long)} maps columns back.
+ *
+ * @author Jackson Brienen
+ * @version 1.0
+ */
+final class LoopInstrumenter {
+
+    private static final String TICK = StepBudget.class.getName() + ".tick()";
+
+    private final String source;
+    private final List<int[]> insertions = new ArrayList<>();
+
+    /**
+     * Instruments the given source code
+     * @param t the tokenized Java source code
+     */
+    LoopInstrumenter(SourceTokens t) {
+        String original = t.getSource();
+        List<Object[]> edits = new ArrayList<>();
+        for(int i = 0; i < t.count(); i++) {
+            if(t.kind(i) != SourceTokens.IDENTIFIER || !t.is(i + 1, '(')) {
+                continue;
+            }
+            int close = t.matching(i + 1);
+            if(close < 0) {
+                continue;
+            }
+
+            if(t.is(i, "while")) {
+                edits.add(new Object[]{t.end(i + 1), TICK + " && ("});
+                edits.add(new Object[]{t.start(close), ")"});
+            } else if(t.is(i, "for")) {
+                int first = -1, second = -1, depth = 0;
+                for(int j = i + 1; j < close; j++) {
+                    if(t.is(j, '(') || t.is(j, '[') || t.is(j, '{')) {
+                        depth++;
+                    } else if(t.is(j, ')') || t.is(j, ']') || t.is(j, '}')) {
+                        depth--;
+                    } else if(depth == 1 && t.is(j, ';')) {
+                        if(first < 0) {
+                            first = j;
+                        } else {
+                            second = j;
+                            break;
+                        }
+                    }
+                }
+
+                if(second < 0) {
+                    // An if with an else of its own, so an else following the loop still belongs to the statement it was written for
+                    edits.add(new Object[]{t.end(close), " if(!" + TICK + ") {} else"});
+                } else if(second == first + 1) {
+                    edits.add(new Object[]{t.end(first), " " + TICK});
+                } else {
+                    edits.add(new Object[]{t.end(first), " " + TICK + " && ("});
+                    edits.add(new Object[]{t.start(second), ")"});
+                }
+            }
+        }
+
+        edits.sort((a, b) -> Integer.compare((Integer)a[0], (Integer)b[0]));
+        StringBuilder out = new StringBuilder(original.length() + edits.size() * TICK.length());
+        int copied = 0, line = 1, lineStart = 0;
+        for(Object[] e: edits) {
+            int at = (Integer)e[0];
+            String text = (String)e[1];
+            for(int k = copied; k < at; k++) {
+                if(original.charAt(k) == '\n') {
+                    line++;
+                    lineStart = k + 1;
+                }
+            }
+            out.append(original, copied, at).append(text);
+            copied = at;
+            insertions.add(new int[]{line, at - lineStart + 1, text.length()});
+        }
+        out.append(original, copied, original.length());
+        source = out.toString();
+    }
+
+    /**
+     * @return The instrumented source code
+     */
+    String getSource() {
+        return source;
+    }
+
+    /**
+     * Maps a position within the instrumented source code to the original source code
+     * @param line the 1 based line
+     * @param column the 1 based column within the instrumented source code
+     * @return the 1 based column within the original source code
+     */
+    long originalColumn(long line, long column) {
+        long shift = 0;
+        for(int[] insertion: insertions) {
+            if(insertion[0] == line && insertion[1] + shift < column) {
+                shift += insertion[2];
+            }
+        }
+        return Math.max(1, column - shift);
+    }
+
+}
@@ -0,0 +1,234 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jackson Brienen
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.kentlakecs.falcode.compile;
+
+import java.util.*;
+
+/**
+ * An Aho-Corasick automaton finding which of a lesson's required strings appear in a submission, in a single pass over its tokens.
+ * <p>
+ * Both the required strings and the submission are read as {@link SourceTokens}, so comments are ignored, any amount of whitespace
+ * between tokens is equivalent, and the contents of string and character literals are never matched,
+ * a literal within a required string matching any literal.
+ * A required string must match whole tokens, so <code>if</code> is not found within <code>notify</code>.
+ *
+ * @author Jackson Brienen
+ * @version 1.0
+ */
+final class RequiredStrings {
+
+    /* Stands in for every literal in the normalized text */
+    private static final char LITERAL = '\0';
+
+    private final String[] strings;
+    private final int[] lengths;
+    private final int[] ascii = new int[128];
+    private final char[] others;
+    private final int alphabet;
+    private final int[] delta;
+    private final int[][] outputs;
+
+    /**
+     * Builds the automaton of the given required strings
+     * @param strings the required strings of a lesson
+     */
+    RequiredStrings(String[] strings) {
+        this.strings = strings.clone();
+        String[] patterns = new String[strings.length];
+        lengths = new int[strings.length];
+        TreeSet<Character> chars = new TreeSet<>();
+        for(int i = 0; i < strings.length; i++) {
+            patterns[i] = normalize(new SourceTokens(strings[i]), null, null);
+            lengths[i] = patterns[i].length();
+            for(int j = 0; j < lengths[i]; j++) {
+                chars.add(patterns[i].charAt(j));
+            }
+        }
+
+        Arrays.fill(ascii, -1);
+        List<Character> nonAscii = new ArrayList<>();
+        int index = 0;
+        for(char c: chars) {
+            if(c < 128) {
+                ascii[c] = index++;
+            } else {
+                nonAscii.add(c);
+            }
+        }
+        others = new char[nonAscii.size()];
+        for(int i = 0; i < others.length; i++) {
+            others[i] = nonAscii.get(i);
+        }
+        alphabet = index + others.length;
+
+        // Trie of the patterns, -1 marking a missing edge
+        int capacity = 1;
+        for(int length: lengths) {
+            capacity += length;
+        }
+        int[] trie = new int[capacity * Math.max(alphabet, 1)];
+        Arrays.fill(trie, -1);
+        List<List<Integer>> ends = new ArrayList<>();
+        ends.add(new ArrayList<>());
+        int states = 1;
+        for(int i = 0; i < patterns.length; i++) {
+            int state = 0;
+            for(int j = 0; j < lengths[i]; j++) {
+                int edge = state * alphabet + symbol(patterns[i].charAt(j));
+                if(trie[edge] < 0) {
+                    trie[edge] = states++;
+                    ends.add(new ArrayList<>());
+                }
+                state = trie[edge];
+            }
+            ends.get(state).add(i);
+        }
+
+        // Breadth first, completing the missing edges from the failure links so the scan takes exactly one transition per character
+        delta = Arrays.copyOf(trie, states * alphabet);
+        outputs = new int[states][];
+        int[] fail = new int[states];
+        int[] queue = new int[states];
+        int head = 0, tail = 0;
+        outputs[0] = toArray(ends.get(0));
+        for(int a = 0; a < alphabet; a++) {
+            int next = delta[a];
+            if(next < 0) {
+                delta[a] = 0;
+            } else {
+                fail[next] = 0;
+                queue[tail++] = next;
+            }
+        }
+        while(head < tail) {
+            int state = queue[head++];
+            List<Integer> out = ends.get(state);
+            for(int k: outputs[fail[state]]) {
+                out.add(k);
+            }
+            outputs[state] = toArray(out);
+            for(int a = 0; a < alphabet; a++) {
+                int edge = state * alphabet + a;
+                int next = delta[edge];
+                if(next < 0) {
+                    delta[edge] = delta[fail[state] * alphabet + a];
+                } else {
+                    fail[next] = delta[fail[state] * alphabet + a];
+                    queue[tail++] = next;
+                }
+            }
+        }
+    }
+
+    private static int[] toArray(List<Integer> list) {
+        int[] array = new int[list.size()];
+        for(int i = 0; i < array.length; i++) {
+            array[i] = list.get(i);
+        }
+        return array;
+    }
+
+    /**
+     * @return the index of the character within the alphabet, or -1 if no required string contains it
+     */
+    private int symbol(char c) {
+        if(c < 128) {
+            return ascii[c];
+        }
+        int i = Arrays.binarySearch(others, c);
+        return i < 0 ? -1 : alphabet - others.length + i;
+    }
+
+    /**
+     * Joins the tokens into text with a single space only between adjacent words, and a placeholder for each literal,
+     * optionally marking the offsets in the text at which each token starts and ends
+     */
+    private static String normalize(SourceTokens tokens, BitSet starts, BitSet ends) {
+        StringBuilder text = new StringBuilder(tokens.getSource().length());
+        boolean word = false;
+        for(int i = 0; i < tokens.count(); i++) {
+            byte kind = tokens.kind(i);
+            boolean isWord = kind == SourceTokens.IDENTIFIER || kind == SourceTokens.NUMBER;
+            if(word && isWord) {
+                text.append(' ');
+            }
+            if(starts != null) {
+                starts.set(text.length());
+            }
+            if(kind == SourceTokens.STRING || kind == SourceTokens.CHARACTER) {
+                text.append(LITERAL);
+            } else {
+                text.append(tokens.getSource(), tokens.start(i), tokens.end(i));
+            }
+            if(ends != null) {
+                ends.set(text.length());
+            }
+            word = isWord;
+        }
+        return text.toString();
+    }
+
+    /**
+     * Finds the required strings missing from the given source code
+     * @param tokens the tokenized source code
+     * @return the missing required strings in the order they were given, empty if every one was found
+     */
+    List<String> missing(SourceTokens tokens) {
+        boolean[] found = new boolean[strings.length];
+        int remaining = strings.length;
+        for(int i = 0; i < strings.length; i++) {
+            if(lengths[i] == 0) {
+                found[i] = true;
+                remaining--;
+            }
+        }
+
+        BitSet starts = new BitSet(), ends = new BitSet();
+        String text = normalize(tokens, starts, ends);
+        int state = 0;
+        for(int p = 0; p < text.length() && remaining > 0; p++) {
+            int a = symbol(text.charAt(p));
+            state = a < 0 ? 0 : delta[state * alphabet + a];
+            int[] out = outputs[state];
+            if(out.length == 0 || !ends.get(p + 1)) {
+                continue;
+            }
+            for(int k: out) {
+                if(!found[k] && starts.get(p + 1 - lengths[k])) {
+                    found[k] = true;
+                    remaining--;
+                }
+            }
+        }
+
+        List<String> missing = new ArrayList<>(remaining);
+        for(int i = 0; i < strings.length && missing.size() < remaining; i++) {
+            if(!found[i]) {
+                missing.add(strings[i]);
+            }
+        }
+        return missing;
+    }
+
+}
@@ -0,0 +1,113 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jackson Brienen
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.kentlakecs.falcode.compile;
+
+import java.util.*;
+
+import javax.tools.Diagnostic;
+
+import com.github.kentlakecs.data.VisualLesson;
+import com.github.kentlakecs.falcode.world.Falco;
+
+/**
+ * Checks a submission against the rules of its {@link VisualLesson} from its source code alone, before any time is spent compiling or running it.
+ * <p>
+ * Every required string of the lesson must appear in the submission outside of comments and literals, see {@link VisualLesson#getRequiredStrings()}.
+ * The required strings of a lesson are searched for together in a single pass, the automaton doing so being built once per lesson and kept
+ * for as long as the lesson is.
+ * <p>
+ * Every call to a {@link Falco} method must be one of the lesson's allowed methods, see {@link VisualLesson#getAllowedMethods()}.
+ * Methods declared by the student are their own and may be called freely.
+ * <p>
+ * A SourceChecker may be shared between threads.
+ *
+ * @author Jackson Brienen
+ * @version 1.0
+ */
+public final class SourceChecker {
+
+    private final Map<VisualLesson, Rules> rules = new WeakHashMap<>();
+
+    /**
+     * Checks the given code against the rules of the given {@link VisualLesson}
+     * @param lesson the {@link VisualLesson} the code was written for
+     * @param source the code written by the student
+     * @return a {@link CompileDiagnostic} of kind {@link Diagnostic.Kind#ERROR} for each rule broken, empty if none were
+     */
+    public List<CompileDiagnostic> check(VisualLesson lesson, String source) {
+        return check(lesson, new SourceTokens(source));
+    }
+
+    /**
+     * Checks the given already tokenized code against the rules of the given {@link VisualLesson}
+     */
+    List<CompileDiagnostic> check(VisualLesson lesson, SourceTokens tokens) {
+        Rules r = rules(lesson);
+        List<CompileDiagnostic> diagnostics = new ArrayList<>();
+        String source = tokens.getSource();
+        int line = 1, lineStart = 0, offset = 0;
+        for(int i: r.allowed.disallowed(tokens)) {
+            for(; offset < tokens.start(i); offset++) {
+                if(source.charAt(offset) == '\n') {
+                    line++;
+                    lineStart = offset + 1;
+                }
+            }
+            diagnostics.add(new CompileDiagnostic(Diagnostic.Kind.ERROR, CompileDiagnostic.Origin.SUBMISSION, line, offset - lineStart + 1,
+                "The method '" + tokens.text(i) + "' is not allowed in this lesson"));
+        }
+        for(String s: r.required.missing(tokens)) {
+            diagnostics.add(new CompileDiagnostic(Diagnostic.Kind.ERROR, CompileDiagnostic.Origin.SUBMISSION, -1, -1,
+                "The submission must use '" + s + "'"));
+        }
+        return diagnostics;
+    }
+
+    private Rules rules(VisualLesson lesson) {
+        synchronized(rules) {
+            Rules r = rules.get(lesson);
+            if(r == null) {
+                r = new Rules(new RequiredStrings(lesson.getRequiredStrings()), new AllowedMethods(lesson.getAllowedMethods()));
+                rules.put(lesson, r);
+            }
+            return r;
+        }
+    }
+
+    /**
+     * The checks built for a lesson
+     */
+    private static final class Rules {
+
+        private final RequiredStrings required;
+        private final AllowedMethods allowed;
+
+        Rules(RequiredStrings required, AllowedMethods allowed) {
+            this.required = required;
+            this.allowed = allowed;
+        }
+
+    }
+
+}
@@ -0,0 +1,211 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jackson Brienen
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.kentlakecs.falcode.compile;
+
+import java.util.Arrays;
+
+/**
+ * A lightweight tokenization of Java source code, sufficient to find keywords, identifiers and brackets outside of comments and literals.
+ * Tokens are held in parallel arrays of their kind and of their start and end offsets within the source.
+ * Comments and whitespace are skipped, and every symbol is a token of one character.
+ *
+ * @author Jackson Brienen
+ * @version 1.0
+ */
+final class SourceTokens {
+
+    /**
+     * Token kinds
+     */
+    static final byte IDENTIFIER = 0, NUMBER = 1, STRING = 2, CHARACTER = 3, SYMBOL = 4;
+
+    private final String source;
+    private byte[] kinds = new byte[64];
+    private int[] starts = new int[64], ends = new int[64];
+    private int count;
+
+    /**
+     * Tokenizes the given source code
+     * @param source Java source code
+     */
+    SourceTokens(String source) {
+        this.source = source;
+        int i = 0, n = source.length();
+        while(i < n) {
+            char c = source.charAt(i);
+            int start = i;
+            if(Character.isWhitespace(c)) {
+                i++;
+                continue;
+            } else if(c == '/' && i + 1 < n && source.charAt(i + 1) == '/') {
+                while(i < n && source.charAt(i) != '\n') {
+                    i++;
+                }
+                continue;
+            } else if(c == '/' && i + 1 < n && source.charAt(i + 1) == '*') {
+                int close = source.indexOf("*/", i + 2);
+                i = close < 0 ? n : close + 2;
+                continue;
+            } else if(source.startsWith("\"\"\"", i)) {
+                int close = i + 3;
+                while((close = source.indexOf("\"\"\"", close)) > 0 && escaped(close)) {
+                    close++;
+                }
+                i = close < 0 ? n : close + 3;
+                add(STRING, start, i);
+            } else if(c == '"' || c == '\'') {
+                i++;
+                while(i < n && source.charAt(i) != c && source.charAt(i) != '\n') {
+                    i += source.charAt(i) == '\\' ? 2 : 1;
+                }
+                i = Math.min(i + 1, n);
+                add(c == '"' ? STRING : CHARACTER, start, i);
+            } else if(Character.isJavaIdentifierStart(c)) {
+                while(i < n && Character.isJavaIdentifierPart(source.charAt(i))) {
+                    i++;
+                }
+                add(IDENTIFIER, start, i);
+            } else if(Character.isDigit(c) || (c == '.' && i + 1 < n && Character.isDigit(source.charAt(i + 1)))) {
+                i++;
+                while(i < n) {
+                    char d = source.charAt(i);
+                    char prev = source.charAt(i - 1);
+                    if(Character.isJavaIdentifierPart(d) || d == '.' || ((d == '+' || d == '-') && (prev == 'e' || prev == 'E' || prev == 'p' || prev == 'P'))) {
+                        i++;
+                    } else {
+                        break;
+                    }
+                }
+                add(NUMBER, start, i);
+            } else {
+                i++;
+                add(SYMBOL, start, i);
+            }
+        }
+    }
+
+    private boolean escaped(int index) {
+        int backslashes = 0;
+        while(index - backslashes - 1 >= 0 && source.charAt(index - backslashes - 1) == '\\') {
+            backslashes++;
+        }
+        return (backslashes & 1) != 0;
+    }
+
+    private void add(byte kind, int start, int end) {
+        if(count == kinds.length) {
+            kinds = Arrays.copyOf(kinds, count * 2);
+            starts = Arrays.copyOf(starts, count * 2);
+            ends = Arrays.copyOf(ends, count * 2);
+        }
+        kinds[count] = kind;
+        starts[count] = start;
+        ends[count] = end;
+        count++;
+    }
+
+    /**
+     * @return The tokenized source code
+     */
+    String getSource() {
+        return source;
+    }
+
+    /**
+     * @return The number of tokens
+     */
+    int count() {
+        return count;
+    }
+
+    /**
+     * @param i the index of a token
+     * @return the kind of the token
+     */
+    byte kind(int i) {
+        return kinds[i];
+    }
+
+    /**
+     * @param i the index of a token
+     * @return the offset of the first character of the token
+     */
+    int start(int i) {
+        return starts[i];
+    }
+
+    /**
+     * @param i the index of a token
+     * @return the offset after the last character of the token
+     */
+    int end(int i) {
+        return ends[i];
+    }
+
+    /**
+     * @param i the index of a token
+     * @return the text of the token
+     */
+    String text(int i) {
+        return source.substring(starts[i], ends[i]);
+    }
+
+    /**
+     * @param i the index of a token, which may be out of range
+     * @param text the text to compare to
+     * @return true if a token exists at the index with the given text
+     */
+    boolean is(int i, String text) {
+        return i >= 0 && i < count && ends[i] - starts[i] == text.length() && source.startsWith(text, starts[i]);
+    }
+
+    /**
+     * @param i the index of a token, which may be out of range
+     * @param symbol the symbol to compare to
+     * @return true if a token exists at the index and is the given symbol
+     */
+    boolean is(int i, char symbol) {
+        return i >= 0 && i < count && kinds[i] == SYMBOL && source.charAt(starts[i]) == symbol;
+    }
+
+    /**
+     * Finds the bracket closing the bracket at the given index, brackets of other kinds are not considered
+     * @param open the index of a '(', '[' or '{' token
+     * @return the index of the matching closing token, or -1 if it is not closed
+     */
+    int matching(int open) {
+        char o = source.charAt(starts[open]);
+        char c = o == '(' ? ')' : o == '[' ? ']' : '}';
+        int depth = 0;
+        for(int i = open; i < count; i++) {
+            if(is(i, o)) {
+                depth++;
+            } else if(is(i, c) && --depth == 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+}
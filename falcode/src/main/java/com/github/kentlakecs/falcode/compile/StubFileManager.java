@@ -0,0 +1,136 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jackson Brienen
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.kentlakecs.falcode.compile;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.*;
+
+import javax.tools.*;
+
+import com.github.kentlakecs.data.Method;
+import com.github.kentlakecs.falcode.world.BallNotFoundException;
+import com.github.kentlakecs.falcode.world.Falco;
+import com.github.kentlakecs.falcode.world.RanIntoBarrierException;
+
+/**
+ * {@link MemoryFileManager} which provides stubs of the classes a submission may use from the package of {@link Falco}, in place of the real classes.
+ * <p>
+ * The stub of {@link Falco} declares each {@link Method} from its {@link Method#getHeader()}, with an empty body, and the stubs of its exceptions
+ * only their superclass. They are enough to compile submissions against without the real classes or anything they depend on on the class path.
+ *
+ * @author Jackson Brienen
+ * @version 1.0
+ */
+final class StubFileManager extends MemoryFileManager {
+
+    private static final String PACKAGE = Falco.class.getPackage().getName();
+
+    private final Map<String, byte[]> stubs;
+
+    /**
+     * Constructs a new {@link StubFileManager}
+     * @param fileManager the {@link StandardJavaFileManager} used to find every other class
+     * @param stubs the compiled stubs, see {@link #compileStubs(JavaCompiler, StandardJavaFileManager)}
+     */
+    StubFileManager(StandardJavaFileManager fileManager, Map<String, byte[]> stubs) {
+        super(fileManager);
+        this.stubs = stubs;
+    }
+
+    /**
+     * Compiles the stubs
+     * @param compiler the {@link JavaCompiler} to compile with
+     * @param fileManager the {@link StandardJavaFileManager} used to find the classes of the platform
+     * @return the bytes of each stub by binary name
+     * @throws IllegalStateException if the stubs do not compile
+     */
+    static Map<String, byte[]> compileStubs(JavaCompiler compiler, StandardJavaFileManager fileManager) {
+        StringBuilder falco = new StringBuilder("package ").append(PACKAGE).append("; import java.awt.Color; public abstract class ")
+            .append(Falco.class.getSimpleName()).append(" { public abstract void run();");
+        for(Method m: Method.values()) {
+            String header = m.getHeader();
+            falco.append(" protected final ").append(header).append(header.startsWith("boolean ") ? " { return false; }" : " { }");
+        }
+        falco.append(" }");
+
+        List<JavaFileObject> sources = new ArrayList<>();
+        sources.add(source(Falco.class.getName(), falco.toString()));
+        for(Class<?> c: new Class<?>[]{RanIntoBarrierException.class, BallNotFoundException.class}) {
+            sources.add(source(c.getName(), "package " + PACKAGE + "; public class " + c.getSimpleName() + " extends " + c.getSuperclass().getName() + " { }"));
+        }
+
+        // Not closed, as that would close the shared file manager
+        DiagnosticCollector<JavaFileObject> collector = new DiagnosticCollector<>();
+        MemoryFileManager files = new MemoryFileManager(fileManager);
+        if(!compiler.getTask(null, files, collector, Arrays.asList("-proc:none", "-g:none"), null, sources).call()) {
+            throw new IllegalStateException("Unable to compile the Falco stubs: " + collector.getDiagnostics());
+        }
+        return Collections.unmodifiableMap(files.getClasses());
+    }
+
+    @Override
+    public Iterable<JavaFileObject> list(Location location, String packageName, Set<JavaFileObject.Kind> kinds, boolean recurse) throws IOException {
+        Iterable<JavaFileObject> listed = super.list(location, packageName, kinds, recurse);
+        if(location != StandardLocation.CLASS_PATH || !kinds.contains(JavaFileObject.Kind.CLASS) || !packageName.equals(PACKAGE)) {
+            return listed;
+        }
+        List<JavaFileObject> files = new ArrayList<>();
+        listed.forEach(files::add);
+        stubs.forEach((name, bytes) -> files.add(new Stub(name, bytes)));
+        return files;
+    }
+
+    @Override
+    public String inferBinaryName(Location location, JavaFileObject file) {
+        if(file instanceof Stub) {
+            return ((Stub)file).name;
+        }
+        return super.inferBinaryName(location, file);
+    }
+
+    /**
+     * The class file of a compiled stub
+     */
+    private static final class Stub extends SimpleJavaFileObject {
+
+        private final String name;
+        private final byte[] bytes;
+
+        Stub(String name, byte[] bytes) {
+            super(URI.create("stub:///" + name.replace('.', '/') + JavaFileObject.Kind.CLASS.extension), JavaFileObject.Kind.CLASS);
+            this.name = name;
+            this.bytes = bytes;
+        }
+
+        @Override
+        public InputStream openInputStream() {
+            return new ByteArrayInputStream(bytes);
+        }
+
+    }
+
+}
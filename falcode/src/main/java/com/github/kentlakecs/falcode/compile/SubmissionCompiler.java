@@ -0,0 +1,243 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jackson Brienen
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.kentlakecs.falcode.compile;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+import javax.tools.*;
+
+import com.github.kentlakecs.data.CodeLesson;
+import com.github.kentlakecs.data.Lesson;
+import com.github.kentlakecs.data.VisualLesson;
+import com.github.kentlakecs.data.util.Fingerprint;
+import com.github.kentlakecs.falcode.util.FalcodeUtils;
+import com.github.kentlakecs.falcode.util.Memoizer;
+import com.github.kentlakecs.falcode.world.BallNotFoundException;
+import com.github.kentlakecs.falcode.world.Falco;
+import com.github.kentlakecs.falcode.world.RanIntoBarrierException;
+import com.github.kentlakecs.falcode.world.StepBudget;
+
+/**
+ * Compiles student submissions in process with the system {@link JavaCompiler}, keeping the class files in memory.
+ * <p>
+ * The code for a {@link VisualLesson} is placed within a class extending {@link Falco}.
+ * The code for a {@link CodeLesson} is placed within a class along with the lesson's {@link CodeLesson#getTest()} code.
+ * In both cases the class is named {@value #CLASS_NAME} and is in the default package.
+ * <p>
+ * Every loop within the student's code is instrumented to take a step from the current {@link StepBudget},
+ * so that code which never ends is stopped by its budget rather than by a timeout. Test code is not instrumented.
+ * Code for a {@link VisualLesson} is first checked by a {@link SourceChecker}, and is not compiled at all if it breaks the lesson's rules.
+ * <p>
+ * Results are cached by the {@link Lesson#getFingerprint()} of the lesson and a fingerprint of the submitted code,
+ * keeping the most recently used results up to the cache size.
+ * Byte identical submissions to the same lesson are compiled once, including submissions made while the first is still compiling.
+ *
+ * @author Jackson Brienen
+ * @version 1.0
+ */
+public final class SubmissionCompiler {
+
+    /**
+     * The name of the class each submission is compiled as
+     */
+    public static final String CLASS_NAME = "Submission";
+
+    /**
+     * The number of results cached by {@link #SubmissionCompiler()}
+     */
+    public static final int DEFAULT_CACHE_SIZE = 256;
+
+    /* Each template is a single line so submission lines are offset by exactly one, importing only the classes a submission is meant to use */
+    private static final String VISUAL_TEMPLATE = "import java.awt.Color; import " + Falco.class.getName() + "; import " + RanIntoBarrierException.class.getName()
+        + "; import " + BallNotFoundException.class.getName() + "; public class " + CLASS_NAME + " extends Falco {";
+    private static final String CODE_TEMPLATE = "public class " + CLASS_NAME + " {";
+
+    private final JavaCompiler compiler;
+    private final List<String> options;
+    private final Memoizer<Key, CompiledSubmission> cache;
+    private final SourceChecker checker = new SourceChecker();
+
+    /**
+     * Constructs a new {@link SubmissionCompiler} caching up to {@value #DEFAULT_CACHE_SIZE} results
+     */
+    public SubmissionCompiler() {
+        this(DEFAULT_CACHE_SIZE);
+    }
+
+    /**
+     * Constructs a new {@link SubmissionCompiler}
+     * @param cacheSize the maximum number of results to cache, 0 to disable caching
+     * @throws IllegalStateException if no {@link JavaCompiler} is available, as is the case when running on a JRE
+     */
+    public SubmissionCompiler(int cacheSize) {
+        cache = new Memoizer<>(cacheSize);
+        compiler = ToolProvider.getSystemJavaCompiler();
+        if(compiler == null) {
+            throw new IllegalStateException("No Java compiler is available, Falcode must be run with a JDK");
+        }
+
+        // The falcode classes are added in case they were not loaded from the class path
+        options = Arrays.asList("-classpath", FalcodeUtils.classpath(Falco.class), "-proc:none", "-g");
+    }
+
+    /**
+     * Compiles the given code for the given {@link Lesson}, or returns the cached result of compiling it before
+     * @param lesson the {@link VisualLesson} or {@link CodeLesson} the code was written for
+     * @param source the code written by the student
+     * @return the {@link CompiledSubmission}
+     * @throws IllegalArgumentException if the lesson is neither a {@link VisualLesson} or {@link CodeLesson}
+     */
+    public CompiledSubmission compile(Lesson lesson, String source) {
+        if(!(lesson instanceof VisualLesson) && !(lesson instanceof CodeLesson)) {
+            throw new IllegalArgumentException("Unknown lesson type " + lesson.getClass().getName());
+        }
+
+        Key key = new Key(lesson.getFingerprint(), new Fingerprint.Hasher().putString(source).finish());
+        return cache.get(key, () -> compileNow(lesson, source));
+    }
+
+    private CompiledSubmission compileNow(Lesson lesson, String source) {
+        SourceTokens tokens = new SourceTokens(source);
+        if(lesson instanceof VisualLesson) {
+            List<CompileDiagnostic> broken = checker.check((VisualLesson)lesson, tokens);
+            if(!broken.isEmpty()) {
+                return new CompiledSubmission(CLASS_NAME, new HashMap<>(), broken, false);
+            }
+        }
+
+        LoopInstrumenter instrumented = new LoopInstrumenter(tokens);
+        DiagnosticCollector<JavaFileObject> collector = new DiagnosticCollector<>();
+        try(MemoryFileManager files = new MemoryFileManager(compiler.getStandardFileManager(collector, null, StandardCharsets.UTF_8))) {
+            boolean succeeded = compiler.getTask(null, files, collector, options, null,
+                Collections.singletonList(MemoryFileManager.source(CLASS_NAME, unit(lesson, instrumented.getSource())))).call();
+            List<CompileDiagnostic> diagnostics = diagnostics(collector, lesson, source, instrumented);
+            return new CompiledSubmission(CLASS_NAME, succeeded ? files.getClasses() : new HashMap<>(), diagnostics, succeeded);
+        } catch(IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Places code within the class it is compiled in for the given {@link Lesson}
+     * @param lesson the {@link VisualLesson} or {@link CodeLesson} the code was written for
+     * @param source the code written by the student, instrumented or not
+     * @return the source of the compilation unit
+     */
+    static String unit(Lesson lesson, String source) {
+        String test = lesson instanceof CodeLesson ? ((CodeLesson)lesson).getTest() : null;
+        StringBuilder unit = new StringBuilder(lesson instanceof VisualLesson ? VISUAL_TEMPLATE : CODE_TEMPLATE)
+            .append('\n').append(source).append('\n');
+        if(test != null) {
+            unit.append(test).append('\n');
+        }
+        return unit.append("}\n").toString();
+    }
+
+    /**
+     * Maps the diagnostics of compiling a unit from {@link #unit(Lesson, String)} back to the code they were found in
+     * @param collector the diagnostics of compiling the unit
+     * @param lesson the {@link Lesson} the unit was made for
+     * @param source the code written by the student
+     * @param instrumented the instrumented code the unit was made from, or null if it was made from the code as written
+     * @return the {@link CompileDiagnostic}s
+     */
+    static List<CompileDiagnostic> diagnostics(DiagnosticCollector<JavaFileObject> collector, Lesson lesson, String source, LoopInstrumenter instrumented) {
+        String test = lesson instanceof CodeLesson ? ((CodeLesson)lesson).getTest() : null;
+        long submissionLines = lines(source), testLines = test == null ? 0 : lines(test);
+        List<CompileDiagnostic> diagnostics = new ArrayList<>();
+        for(Diagnostic<? extends JavaFileObject> d: collector.getDiagnostics()) {
+            long line = d.getLineNumber() - 1;
+            CompileDiagnostic.Origin origin = CompileDiagnostic.Origin.TEMPLATE;
+            if(line >= 1 && line <= submissionLines) {
+                origin = CompileDiagnostic.Origin.SUBMISSION;
+            } else if(line > submissionLines && line <= submissionLines + testLines) {
+                origin = CompileDiagnostic.Origin.TEST;
+                line -= submissionLines;
+            }
+            long column = d.getColumnNumber();
+            if(origin == CompileDiagnostic.Origin.SUBMISSION && column > 0 && instrumented != null) {
+                column = instrumented.originalColumn(line, column);
+            }
+            boolean positioned = origin != CompileDiagnostic.Origin.TEMPLATE;
+            diagnostics.add(new CompileDiagnostic(d.getKind(), origin, positioned ? line : -1, positioned ? column : -1, d.getMessage(null)));
+        }
+        return diagnostics;
+    }
+
+    private static long lines(String s) {
+        long lines = 1;
+        for(int i = 0; i < s.length(); i++) {
+            if(s.charAt(i) == '\n') {
+                lines++;
+            }
+        }
+        return lines;
+    }
+
+    /**
+     * @return The number of results currently cached
+     */
+    public int getCachedCount() {
+        return cache.size();
+    }
+
+    /**
+     * Removes every cached result
+     */
+    public void clearCache() {
+        cache.clear();
+    }
+
+    /**
+     * Cache key of a lesson and submitted code
+     */
+    private static final class Key {
+
+        private final Fingerprint lesson, source;
+
+        Key(Fingerprint lesson, Fingerprint source) {
+            this.lesson = lesson;
+            this.source = source;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if(o instanceof Key) {
+                Key k = (Key)o;
+                return lesson.equals(k.lesson) && source.equals(k.source);
+            }
+            return false;
+        }
+
+        @Override
+        public int hashCode() {
+            return lesson.hashCode() * 31 + source.hashCode();
+        }
+
+    }
+
+}
@@ -0,0 +1,334 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jackson Brienen
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.kentlakecs.falcode.grading;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.Objects;
+
+import com.github.kentlakecs.data.CodeLesson;
+import com.github.kentlakecs.data.Primitive;
+import com.github.kentlakecs.data.TestTable;
+
+/**
+ * Runs the cases of a {@link TestTable}, or of raw argument and expected columns, against the method of a loaded submission through a single {@link MethodHandle}.
+ * <p>
+ * The handle takes an instance of the submission and the index of a case. It reads each argument from its column, calls the method,
+ * and compares the result to the expected column, so no value is boxed and no reflection happens per case.
+ * Array arguments are copied for each call, so that a method changing its argument never changes the table.
+ * A handle is built once per loaded submission and table, then reused for every case.
+ *
+ * @author Jackson Brienen
+ * @version 1.0
+ */
+final class CaseHarness {
+
+    /**
+     * The relative difference allowed between an expected and an actual double, and float
+     */
+    static final double DOUBLE_TOLERANCE = 1e-9, FLOAT_TOLERANCE = 1e-6;
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private final TestTable table;
+    private final Object expected;
+    private final MethodHandle invoke, check, actual, constructor;
+
+    /**
+     * Constructs a new {@link CaseHarness}
+     * @param submission the loaded class of the submission
+     * @param lesson the {@link CodeLesson} the submission was written for
+     * @param table the {@link TestTable} to run
+     * @throws ReflectiveOperationException if the submission does not declare the method of the lesson, or cannot be constructed
+     */
+    CaseHarness(Class<?> submission, CodeLesson lesson, TestTable table) throws ReflectiveOperationException {
+        this(submission, lesson, table, parameterTypes(table), table.getReturnType(), arguments(table), table.getExpected());
+    }
+
+    /**
+     * Constructs a new {@link CaseHarness} over raw columns, as laid out by a {@link TestTable}.
+     * Unlike a table, the expected column may be filled in while the harness is in use, as each case reads it when run.
+     * @param submission the loaded class of the submission
+     * @param lesson the {@link CodeLesson} the submission was written for
+     * @param types the {@link Primitive} type of each parameter
+     * @param returnType the {@link Primitive} return type
+     * @param arguments the column of arguments for each parameter
+     * @param expected the column of expected values, or null if the return type is {@link Primitive#VOID}
+     * @throws ReflectiveOperationException if the submission does not declare the method of the lesson, or cannot be constructed
+     */
+    CaseHarness(Class<?> submission, CodeLesson lesson, Primitive[] types, Primitive returnType, Object[] arguments, Object expected)
+            throws ReflectiveOperationException {
+        this(submission, lesson, null, types, returnType, arguments, expected);
+    }
+
+    private CaseHarness(Class<?> submission, CodeLesson lesson, TestTable table, Primitive[] types, Primitive returnType, Object[] arguments,
+            Object expected) throws ReflectiveOperationException {
+        this.table = table;
+        this.expected = expected;
+        Class<?>[] parameters = new Class<?>[types.length];
+        for(int i = 0; i < parameters.length; i++) {
+            parameters[i] = types[i].getType();
+        }
+        Method m = submission.getDeclaredMethod(lesson.getMethodName(), parameters);
+        if(m.getReturnType() != returnType.getType()) {
+            throw new NoSuchMethodException(lesson.getMethodName() + " must return " + returnType.getValue());
+        }
+        m.setAccessible(true);
+
+        // (Object instance, P0 ... Pn)R, the instance being ignored by a static method
+        MethodHandle method = LOOKUP.unreflect(m);
+        if(Modifier.isStatic(m.getModifiers())) {
+            method = MethodHandles.dropArguments(method, 0, Object.class);
+            constructor = null;
+        } else {
+            method = method.asType(method.type().changeParameterType(0, Object.class));
+            Constructor<?> c = submission.getDeclaredConstructor();
+            c.setAccessible(true);
+            constructor = LOOKUP.unreflectConstructor(c).asType(MethodType.methodType(Object.class));
+        }
+
+        // (Object instance, int row)R, each argument read from its column
+        if(parameters.length == 0) {
+            invoke = MethodHandles.dropArguments(method, 1, int.class);
+        } else {
+            MethodHandle[] getters = new MethodHandle[parameters.length];
+            MethodHandle copy = LOOKUP.findStatic(CaseHarness.class, "copy", MethodType.methodType(Object.class, Object.class));
+            for(int i = 0; i < getters.length; i++) {
+                getters[i] = MethodHandles.arrayElementGetter(TestTable.columnType(types[i])).bindTo(arguments[i]);
+                // Arrays are passed as a copy, so a method changing its argument cannot change the table for later cases
+                if(parameters[i].isArray()) {
+                    getters[i] = MethodHandles.filterReturnValue(getters[i], copy.asType(MethodType.methodType(parameters[i], parameters[i])));
+                }
+            }
+            int[] reorder = new int[parameters.length + 1];
+            Arrays.fill(reorder, 1, reorder.length, 1);
+            invoke = MethodHandles.permuteArguments(MethodHandles.filterArguments(method, 1, getters),
+                MethodType.methodType(method.type().returnType(), Object.class, int.class), reorder);
+        }
+
+        // (Object instance, int row)boolean, true if the result matches the expected value of the row
+        if(returnType == Primitive.VOID) {
+            check = MethodHandles.foldArguments(MethodHandles.dropArguments(MethodHandles.constant(boolean.class, true), 0, Object.class, int.class), invoke);
+            actual = MethodHandles.foldArguments(MethodHandles.dropArguments(MethodHandles.constant(Object.class, null), 0, Object.class, int.class), invoke);
+        } else {
+            MethodHandle column = MethodHandles.arrayElementGetter(TestTable.columnType(returnType)).bindTo(expected);
+            MethodHandle matches = MethodHandles.filterArguments(equality(returnType), 0, column);
+            check = MethodHandles.permuteArguments(MethodHandles.collectArguments(matches, 1, invoke),
+                MethodType.methodType(boolean.class, Object.class, int.class), 1, 0, 1);
+            actual = invoke.asType(MethodType.methodType(Object.class, Object.class, int.class));
+        }
+    }
+
+    private static Primitive[] parameterTypes(TestTable table) {
+        Primitive[] types = new Primitive[table.getParameterCount()];
+        for(int i = 0; i < types.length; i++) {
+            types[i] = table.getParameterType(i);
+        }
+        return types;
+    }
+
+    private static Object[] arguments(TestTable table) {
+        Object[] arguments = new Object[table.getParameterCount()];
+        for(int i = 0; i < arguments.length; i++) {
+            arguments[i] = table.getArguments(i);
+        }
+        return arguments;
+    }
+
+    /**
+     * @return The {@link TestTable} this harness runs, or null if it was constructed over raw columns
+     */
+    TestTable getTable() {
+        return table;
+    }
+
+    /**
+     * Gets a single expected value, boxing it if it is primitive, intended for reporting a case
+     * @param row the index of a case
+     * @return the expected value, or null if the return type is {@link Primitive#VOID}
+     */
+    Object getExpected(int row) {
+        return expected == null ? null : Array.get(expected, row);
+    }
+
+    /**
+     * @return A new instance of the submission, or null if its method is static
+     */
+    Object instance() throws Throwable {
+        return constructor == null ? null : (Object)constructor.invokeExact();
+    }
+
+    /**
+     * Runs a single case
+     * @param instance the instance of the submission from {@link #instance()}
+     * @param row the index of the case
+     * @return true if the method returned the expected value
+     * @throws Throwable anything thrown by the method
+     */
+    boolean check(Object instance, int row) throws Throwable {
+        return (boolean)check.invokeExact(instance, row);
+    }
+
+    /**
+     * Creates a handle which runs a single case and stores the result in the given column, used to fill the expected column from a reference solution.
+     * The handle takes the instance of the submission from {@link #instance()} and the index of the case, returning nothing.
+     * @param results a column of the return type with a row for each case, or null if the return type is {@link Primitive#VOID}
+     * @return the handle
+     */
+    MethodHandle recorder(Object results) {
+        if(results == null) {
+            return invoke;
+        }
+        MethodHandle setter = MethodHandles.arrayElementSetter(results.getClass()).bindTo(results);
+        return MethodHandles.permuteArguments(MethodHandles.collectArguments(setter, 1, invoke),
+            MethodType.methodType(void.class, Object.class, int.class), 1, 0, 1);
+    }
+
+    /**
+     * Runs a single case again to find what it returned, intended for reporting a failed case
+     * @param instance the instance of the submission from {@link #instance()}
+     * @param row the index of the case
+     * @return the value returned by the method, boxed if primitive, or null if it is void
+     * @throws Throwable anything thrown by the method
+     */
+    Object actual(Object instance, int row) throws Throwable {
+        return (Object)actual.invokeExact(instance, row);
+    }
+
+    /**
+     * @param array an array argument, or null
+     * @return a shallow copy of the array, or null
+     */
+    static Object copy(Object array) {
+        if(array == null) {
+            return null;
+        }
+        int length = Array.getLength(array);
+        Object copy = Array.newInstance(array.getClass().getComponentType(), length);
+        System.arraycopy(array, 0, copy, 0, length);
+        return copy;
+    }
+
+    /**
+     * @return A (T expected, T actual)boolean handle comparing values of the given type
+     */
+    private static MethodHandle equality(Primitive type) throws ReflectiveOperationException {
+        return LOOKUP.findStatic(CaseHarness.class, "equal", MethodType.methodType(boolean.class, type.getType(), type.getType()));
+    }
+
+    static boolean equal(String expected, String actual) {
+        return Objects.equals(expected, actual);
+    }
+
+    static boolean equal(char expected, char actual) {
+        return expected == actual;
+    }
+
+    static boolean equal(byte expected, byte actual) {
+        return expected == actual;
+    }
+
+    static boolean equal(short expected, short actual) {
+        return expected == actual;
+    }
+
+    static boolean equal(int expected, int actual) {
+        return expected == actual;
+    }
+
+    static boolean equal(long expected, long actual) {
+        return expected == actual;
+    }
+
+    static boolean equal(float expected, float actual) {
+        return Float.compare(expected, actual) == 0 || Math.abs(expected - actual) <= FLOAT_TOLERANCE * Math.max(1, Math.abs(expected));
+    }
+
+    static boolean equal(double expected, double actual) {
+        return Double.compare(expected, actual) == 0 || Math.abs(expected - actual) <= DOUBLE_TOLERANCE * Math.max(1, Math.abs(expected));
+    }
+
+    static boolean equal(boolean expected, boolean actual) {
+        return expected == actual;
+    }
+
+    static boolean equal(String[] expected, String[] actual) {
+        return Arrays.equals(expected, actual);
+    }
+
+    static boolean equal(char[] expected, char[] actual) {
+        return Arrays.equals(expected, actual);
+    }
+
+    static boolean equal(byte[] expected, byte[] actual) {
+        return Arrays.equals(expected, actual);
+    }
+
+    static boolean equal(short[] expected, short[] actual) {
+        return Arrays.equals(expected, actual);
+    }
+
+    static boolean equal(int[] expected, int[] actual) {
+        return Arrays.equals(expected, actual);
+    }
+
+    static boolean equal(long[] expected, long[] actual) {
+        return Arrays.equals(expected, actual);
+    }
+
+    static boolean equal(float[] expected, float[] actual) {
+        if(expected == null || actual == null || expected.length != actual.length) {
+            return expected == actual;
+        }
+        for(int i = 0; i < expected.length; i++) {
+            if(!equal(expected[i], actual[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static boolean equal(double[] expected, double[] actual) {
+        if(expected == null || actual == null || expected.length != actual.length) {
+            return expected == actual;
+        }
+        for(int i = 0; i < expected.length; i++) {
+            if(!equal(expected[i], actual[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static boolean equal(boolean[] expected, boolean[] actual) {
+        return Arrays.equals(expected, actual);
+    }
+
+}
@@ -0,0 +1,117 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jackson Brienen
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.kentlakecs.falcode.grading;
+
+/**
+ * The result of running a program against a single case of the {@link com.github.kentlakecs.data.TestTable} of a {@link com.github.kentlakecs.data.CodeLesson}
+ *
+ * @author Jackson Brienen
+ * @version 1.0
+ */
+public final class CaseResult {
+
+    /**
+     * The outcome of running a program against a single case
+     */
+    public enum Status {
+        /** The method returned the expected value */
+        PASSED,
+        /** The method returned a value other than the expected value */
+        FAILED,
+        /** The method threw before returning */
+        ERROR,
+        /** The method exceeded its step limit before returning */
+        TOO_MANY_STEPS
+    }
+
+    private final int index;
+    private final Status status;
+    private final Object expected, actual;
+    private final Throwable error;
+    private final long steps;
+
+    CaseResult(int index, Status status, Object expected, Object actual, Throwable error, long steps) {
+        this.index = index;
+        this.status = status;
+        this.expected = expected;
+        this.actual = actual;
+        this.error = error;
+        this.steps = steps;
+    }
+
+    /**
+     * @return The index of the case within the {@link com.github.kentlakecs.data.TestTable}
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * @return The {@link Status} of this result
+     */
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * @return true if the {@link Status} is {@link Status#PASSED}
+     */
+    public boolean passed() {
+        return status == Status.PASSED;
+    }
+
+    /**
+     * @return The expected value, boxed if primitive, or null if the method is void
+     */
+    public Object getExpected() {
+        return expected;
+    }
+
+    /**
+     * @return The value returned by the method, boxed if primitive, or null if the case passed or did not return
+     */
+    public Object getActual() {
+        return actual;
+    }
+
+    /**
+     * @return The {@link Throwable} thrown by the program if the {@link Status} is {@link Status#ERROR} or {@link Status#TOO_MANY_STEPS}; otherwise null
+     */
+    public Throwable getError() {
+        return error;
+    }
+
+    /**
+     * @return The number of loop iterations the method took
+     */
+    public long getSteps() {
+        return steps;
+    }
+
+    @Override
+    public String toString() {
+        return "Case " + index + ": " + status + (error == null ? "" : " (" + error + ")");
+    }
+
+}
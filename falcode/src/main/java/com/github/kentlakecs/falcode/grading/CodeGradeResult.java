@@ -0,0 +1,77 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jackson Brienen
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.kentlakecs.falcode.grading;
+
+/**
+ * The result of grading a program against every case of the {@link com.github.kentlakecs.data.TestTable} of a {@link com.github.kentlakecs.data.CodeLesson}
+ *
+ * @author Jackson Brienen
+ * @version 1.0
+ */
+public final class CodeGradeResult {
+
+    private final CaseResult[] results;
+    private final boolean passed;
+
+    CodeGradeResult(CaseResult[] results) {
+        this.results = results;
+        boolean passed = true;
+        for(CaseResult r: results) {
+            passed &= r.passed();
+        }
+        this.passed = passed;
+    }
+
+    /**
+     * @return true if every case passed
+     */
+    public boolean passed() {
+        return passed;
+    }
+
+    /**
+     * @return The {@link CaseResult} of each case, in the order of the table
+     */
+    public CaseResult[] getResults() {
+        return results.clone();
+    }
+
+    /**
+     * @return The first {@link CaseResult} which did not pass, or null if there is none
+     */
+    public CaseResult getFirstFailure() {
+        for(CaseResult r: results) {
+            if(!r.passed()) {
+                return r;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        return (passed ? "Passed " : "Failed ") + results.length + " case(s)";
+    }
+
+}
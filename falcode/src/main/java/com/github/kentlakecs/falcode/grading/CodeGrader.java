@@ -0,0 +1,152 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jackson Brienen
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.kentlakecs.falcode.grading;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.function.ToLongFunction;
+
+import com.github.kentlakecs.data.CodeLesson;
+import com.github.kentlakecs.data.TestTable;
+import com.github.kentlakecs.falcode.compile.CompiledSubmission;
+import com.github.kentlakecs.falcode.world.StepBudget;
+import com.github.kentlakecs.falcode.world.StepLimitExceededError;
+
+/**
+ * Grades a compiled submission against the {@link TestTable} of a {@link CodeLesson}, without compiling any test code.
+ * <p>
+ * The submission is loaded once and its method is bound to the table in a {@link CaseHarness}, which is cached for as long as the
+ * {@link CompiledSubmission} is reachable, so grading the same submission again only runs the cases.
+ * Each case runs on a new instance of the submission with its own {@link StepBudget}, so instance fields start fresh for each case,
+ * but the class is loaded once, so a method relying on static state may see that left by an earlier case.
+ *
+ * @author Jackson Brienen
+ * @version 1.0
+ */
+public final class CodeGrader {
+
+    private final ToLongFunction<? super CodeLesson> stepLimit;
+    private final Map<CompiledSubmission, CaseHarness> harnesses = new WeakHashMap<>();
+
+    /**
+     * Constructs a new {@link CodeGrader} limiting each case to {@link StepBudget#DEFAULT_LIMIT} steps
+     */
+    public CodeGrader() {
+        this(lesson -> StepBudget.DEFAULT_LIMIT);
+    }
+
+    /**
+     * Constructs a new {@link CodeGrader}
+     * @param stepLimit gives the maximum number of steps a method may take on each case of a lesson
+     */
+    public CodeGrader(ToLongFunction<? super CodeLesson> stepLimit) {
+        this.stepLimit = stepLimit;
+    }
+
+    /**
+     * Grades a compiled submission against every case of the {@link TestTable} of the given {@link CodeLesson}
+     * @param lesson the {@link CodeLesson} to grade against
+     * @param submission the submission compiled for the lesson
+     * @return the {@link CodeGradeResult}; every case is {@link CaseResult.Status#ERROR} if the submission does not declare the method of the lesson
+     * @throws IllegalArgumentException if the lesson has no {@link TestTable}
+     * @throws IllegalStateException if the submission did not compile
+     */
+    public CodeGradeResult grade(CodeLesson lesson, CompiledSubmission submission) {
+        TestTable table = lesson.getTestTable();
+        if(table == null) {
+            throw new IllegalArgumentException("Lesson '" + lesson.getName() + "' has no test table");
+        }
+
+        CaseHarness harness;
+        try {
+            harness = harness(lesson, table, submission);
+        } catch(ReflectiveOperationException e) {
+            CaseResult[] results = new CaseResult[table.size()];
+            for(int i = 0; i < results.length; i++) {
+                results[i] = new CaseResult(i, CaseResult.Status.ERROR, table.getExpected(i), null, e, 0);
+            }
+            return new CodeGradeResult(results);
+        }
+
+        long limit = stepLimit.applyAsLong(lesson);
+        CaseResult[] results = new CaseResult[table.size()];
+        for(int i = 0; i < results.length; i++) {
+            results[i] = run(harness, i, limit);
+        }
+        return new CodeGradeResult(results);
+    }
+
+    private CaseHarness harness(CodeLesson lesson, TestTable table, CompiledSubmission submission) throws ReflectiveOperationException {
+        synchronized(harnesses) {
+            CaseHarness harness = harnesses.get(submission);
+            if(harness == null || harness.getTable() != table) {
+                harness = new CaseHarness(submission.load(), lesson, table);
+                harnesses.put(submission, harness);
+            }
+            return harness;
+        }
+    }
+
+    /**
+     * Runs a single case of a harness on a new instance with its own {@link StepBudget}
+     */
+    static CaseResult run(CaseHarness harness, int row, long limit) {
+        StepBudget budget = new StepBudget(limit);
+        boolean[] passed = new boolean[1];
+        Throwable[] error = new Throwable[1];
+        budget.run(() -> {
+            try {
+                passed[0] = harness.check(harness.instance(), row);
+            } catch(Throwable t) {
+                error[0] = t;
+            }
+        });
+
+        if(error[0] == null && budget.isExceeded()) {
+            // The method caught the error and carried on
+            error[0] = new StepLimitExceededError(limit);
+        }
+        if(error[0] instanceof StepLimitExceededError) {
+            return new CaseResult(row, CaseResult.Status.TOO_MANY_STEPS, harness.getExpected(row), null, error[0], budget.getSteps());
+        }
+        if(error[0] != null) {
+            return new CaseResult(row, CaseResult.Status.ERROR, harness.getExpected(row), null, error[0], budget.getSteps());
+        }
+        if(passed[0]) {
+            return new CaseResult(row, CaseResult.Status.PASSED, harness.getExpected(row), null, null, budget.getSteps());
+        }
+
+        // Only a failed case pays for boxing its result, it is run again on a new instance so it sees the same state
+        Object[] actual = new Object[1];
+        new StepBudget(limit).run(() -> {
+            try {
+                actual[0] = harness.actual(harness.instance(), row);
+            } catch(Throwable t) {
+                actual[0] = null;
+            }
+        });
+        return new CaseResult(row, CaseResult.Status.FAILED, harness.getExpected(row), actual[0], null, budget.getSteps());
+    }
+
+}
@@ -0,0 +1,102 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jackson Brienen
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.kentlakecs.falcode.grading;
+
+import java.util.Arrays;
+
+/**
+ * The result of fuzzing a submission against a reference solution with a {@link Fuzzer}
+ *
+ * @author Jackson Brienen
+ * @version 1.0
+ */
+public final class FuzzResult {
+
+    private final int cases, skipped, shrinks;
+    private final Object[] arguments;
+    private final CaseResult failure;
+
+    FuzzResult(int cases, int skipped, Object[] arguments, CaseResult failure, int shrinks) {
+        this.cases = cases;
+        this.skipped = skipped;
+        this.arguments = arguments;
+        this.failure = failure;
+        this.shrinks = shrinks;
+    }
+
+    /**
+     * @return true if the submission matched the reference on every input
+     */
+    public boolean passed() {
+        return failure == null;
+    }
+
+    /**
+     * @return The number of inputs the submission was run on
+     */
+    public int getCases() {
+        return cases;
+    }
+
+    /**
+     * @return The number of inputs skipped as the reference threw or exceeded its step limit on them
+     */
+    public int getSkipped() {
+        return skipped;
+    }
+
+    /**
+     * @return The smallest failing input found, one argument per parameter boxed if primitive,
+     *  or null if every input passed or the submission does not declare the method of the lesson
+     */
+    public Object[] getArguments() {
+        return arguments == null ? null : arguments.clone();
+    }
+
+    /**
+     * @return The {@link CaseResult} of the submission on {@link #getArguments()}, whose expected value is that of the reference, or null if every input passed
+     */
+    public CaseResult getFailure() {
+        return failure;
+    }
+
+    /**
+     * @return The number of times the failing input was simplified
+     */
+    public int getShrinks() {
+        return shrinks;
+    }
+
+    @Override
+    public String toString() {
+        if(failure == null) {
+            return "Passed " + cases + " input(s)";
+        }
+        String input = arguments == null ? "" : " on " + Arrays.deepToString(arguments);
+        return "Failed" + input + " after " + cases + " input(s): " + failure.getStatus()
+            + (failure.getError() == null ? ", expected " + Arrays.deepToString(new Object[]{failure.getExpected()}) + " but was "
+                + Arrays.deepToString(new Object[]{failure.getActual()}) : " (" + failure.getError() + ")");
+    }
+
+}
@@ -0,0 +1,248 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jackson Brienen
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.kentlakecs.falcode.grading;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.ToLongFunction;
+
+import com.github.kentlakecs.data.CodeLesson;
+import com.github.kentlakecs.data.Primitive;
+import com.github.kentlakecs.data.TestTable;
+import com.github.kentlakecs.data.util.DataUtils;
+import com.github.kentlakecs.falcode.compile.CompiledSubmission;
+import com.github.kentlakecs.falcode.world.StepBudget;
+
+/**
+ * Compares a submission to a reference solution of a {@link CodeLesson} on random inputs from an {@link InputGenerator}.
+ * <p>
+ * Inputs are generated in chunks, each a column of random arguments for every parameter laid out as in a {@link TestTable},
+ * whose expected values are recorded by running the reference, then run against the submission through a {@link CaseHarness}, so no test code is compiled and no argument is boxed.
+ * Chunks run concurrently on an {@link ExecutorService}, and once any chunk fails, chunks which have not yet started are skipped.
+ * Inputs on which the reference throws or exceeds its step limit are outside what the lesson asks for and are skipped.
+ * <p>
+ * The first failing input is then shrunk: each round runs every simpler variant proposed by the {@link Shrinker} as a single set of columns,
+ * continuing from the first which still fails, until none do. The same seed always generates the same inputs.
+ * <p>
+ * The reference and submission are each loaded once per run and shared by every chunk, so a method relying on static state
+ * may see that of another input.
+ *
+ * @author Jackson Brienen
+ * @version 1.0
+ */
+public final class Fuzzer {
+
+    /**
+     * The number of inputs run when none is given
+     */
+    public static final int DEFAULT_CASES = 10_000;
+
+    private static final int CHUNK_SIZE = 256, MAX_SHRINK_ROUNDS = 1000;
+
+    private final ExecutorService executor;
+    private final InputGenerator generator;
+    private final ToLongFunction<? super CodeLesson> stepLimit;
+
+    /**
+     * Constructs a new {@link Fuzzer} using the {@link ForkJoinPool#commonPool()} and {@link InputGenerator#DEFAULT},
+     * limiting each input to {@link StepBudget#DEFAULT_LIMIT} steps
+     */
+    public Fuzzer() {
+        this(ForkJoinPool.commonPool(), InputGenerator.DEFAULT, lesson -> StepBudget.DEFAULT_LIMIT);
+    }
+
+    /**
+     * Constructs a new {@link Fuzzer}
+     * @param executor the {@link ExecutorService} used to run chunks of inputs, it is not shut down by the fuzzer
+     * @param generator the {@link InputGenerator} of the inputs
+     * @param stepLimit gives the maximum number of steps the reference and submission may take on each input of a lesson
+     */
+    public Fuzzer(ExecutorService executor, InputGenerator generator, ToLongFunction<? super CodeLesson> stepLimit) {
+        this.executor = executor;
+        this.generator = generator;
+        this.stepLimit = stepLimit;
+    }
+
+    /**
+     * Runs {@link #DEFAULT_CASES} random inputs, see {@link #fuzz(CodeLesson, CompiledSubmission, CompiledSubmission, int, long)}
+     */
+    public FuzzResult fuzz(CodeLesson lesson, CompiledSubmission reference, CompiledSubmission submission) throws InterruptedException {
+        return fuzz(lesson, reference, submission, DEFAULT_CASES, ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * Compares a submission to a reference solution on random inputs, shrinking the first failing input found
+     * @param lesson the {@link CodeLesson} both were written for
+     * @param reference the reference solution compiled for the lesson
+     * @param submission the submission compiled for the lesson
+     * @param cases the number of inputs to generate
+     * @param seed the seed of the inputs
+     * @return the {@link FuzzResult}; it fails with an {@link CaseResult.Status#ERROR} if the submission does not declare the method of the lesson
+     * @throws IllegalArgumentException if the reference does not declare the method of the lesson
+     * @throws IllegalStateException if either did not compile
+     * @throws InterruptedException if interrupted while waiting for chunks to finish
+     */
+    public FuzzResult fuzz(CodeLesson lesson, CompiledSubmission reference, CompiledSubmission submission, int cases, long seed) throws InterruptedException {
+        Primitive[] types = DataUtils.parameterTypes(lesson.getParameters());
+        long limit = stepLimit.applyAsLong(lesson);
+        Class<?> referenceClass = reference.load(), submissionClass = submission.load();
+
+        // An empty run finds a missing method before anything is generated
+        try {
+            firstFailure(referenceClass, submissionClass, lesson, generator.columns(types, 0, new SplittableRandom(seed)), 0, limit, new int[2]);
+        } catch(ReflectiveOperationException e) {
+            return new FuzzResult(0, 0, null, new CaseResult(0, CaseResult.Status.ERROR, null, null, e, 0), 0);
+        }
+
+        SplittableRandom random = new SplittableRandom(seed);
+        AtomicBoolean failed = new AtomicBoolean();
+        List<Callable<Chunk>> tasks = new ArrayList<>();
+        for(int start = 0; start < cases; start += CHUNK_SIZE) {
+            SplittableRandom chunkRandom = random.split();
+            int size = Math.min(CHUNK_SIZE, cases - start);
+            tasks.add(() -> failed.get() ? null : chunk(referenceClass, submissionClass, lesson, types, size, limit, chunkRandom, failed));
+        }
+
+        int run = 0, skipped = 0;
+        Chunk failing = null;
+        for(Future<Chunk> f: executor.invokeAll(tasks)) {
+            Chunk c;
+            try {
+                c = f.get();
+            } catch(ExecutionException e) {
+                throw new IllegalStateException("Fuzzing failed unexpectedly", e.getCause());
+            }
+            if(c != null) {
+                run += c.counts[0];
+                skipped += c.counts[1];
+                failing = failing == null && c.failure != null ? c : failing;
+            }
+        }
+        if(failing == null) {
+            return new FuzzResult(run, skipped, null, null, 0);
+        }
+
+        Object[] arguments = failing.arguments;
+        CaseResult failure = failing.failure;
+        int shrinks = 0;
+        try {
+            for(; shrinks < MAX_SHRINK_ROUNDS; shrinks++) {
+                List<Object[]> candidates = Shrinker.candidates(types, arguments);
+                CaseResult r = candidates.isEmpty() ? null
+                    : firstFailure(referenceClass, submissionClass, lesson, Shrinker.columns(types, candidates), candidates.size(), limit, new int[2]);
+                if(r == null) {
+                    break;
+                }
+                arguments = candidates.get(r.getIndex());
+            }
+            // Run alone so that the result is of the only case
+            CaseResult alone = firstFailure(referenceClass, submissionClass, lesson,
+                Shrinker.columns(types, Collections.singletonList(arguments)), 1, limit, new int[2]);
+            failure = alone == null ? failure : alone;
+        } catch(ReflectiveOperationException e) {
+            throw new IllegalStateException("Shrinking failed unexpectedly", e);
+        }
+        return new FuzzResult(run, skipped, arguments, failure, shrinks);
+    }
+
+    private Chunk chunk(Class<?> referenceClass, Class<?> submissionClass, CodeLesson lesson, Primitive[] types, int size, long limit,
+            SplittableRandom random, AtomicBoolean failed) throws ReflectiveOperationException {
+        Object[] columns = generator.columns(types, size, random);
+        Chunk c = new Chunk();
+        c.failure = firstFailure(referenceClass, submissionClass, lesson, columns, size, limit, c.counts);
+        if(c.failure != null) {
+            failed.set(true);
+            c.arguments = new Object[types.length];
+            for(int i = 0; i < types.length; i++) {
+                c.arguments[i] = Array.get(columns[i], c.failure.getIndex());
+            }
+        }
+        return c;
+    }
+
+    /**
+     * Runs the reference then the submission on each row of the given arguments, stopping at the first row the submission fails.
+     * Both are run through a {@link CaseHarness}, which passes each its own copy of every array argument, so a reference
+     * changing its input cannot change the input the submission is run on or the input which is shrunk.
+     * @param counts incremented at 0 by the number of rows run, and at 1 by the number of rows skipped
+     * @return the {@link CaseResult} of the first failing row, or null if none failed
+     * @throws ReflectiveOperationException if the submission does not declare the method of the lesson
+     */
+    private static CaseResult firstFailure(Class<?> referenceClass, Class<?> submissionClass, CodeLesson lesson, Object[] arguments, int size,
+            long limit, int[] counts) throws ReflectiveOperationException {
+        Primitive returnType = lesson.getReturnType();
+        Primitive[] types = DataUtils.parameterTypes(lesson.getParameters());
+        Object expected = returnType == Primitive.VOID ? null : Array.newInstance(returnType.getType(), size);
+        // Each expected value is recorded by the reference before the submission reads it, so the columns are never wrapped in a table
+        CaseHarness reference;
+        try {
+            reference = new CaseHarness(referenceClass, lesson, types, returnType, arguments, expected);
+        } catch(ReflectiveOperationException e) {
+            throw new IllegalArgumentException("The reference does not declare the method of lesson '" + lesson.getName() + "'", e);
+        }
+        CaseHarness submission = new CaseHarness(submissionClass, lesson, types, returnType, arguments, expected);
+        MethodHandle record = reference.recorder(expected);
+
+        for(int i = 0; i < size; i++) {
+            int row = i;
+            StepBudget budget = new StepBudget(limit);
+            boolean[] recorded = new boolean[1];
+            budget.run(() -> {
+                try {
+                    record.invokeExact(reference.instance(), row);
+                    recorded[0] = true;
+                } catch(Throwable t) {
+                    recorded[0] = false;
+                }
+            });
+            if(!recorded[0] || budget.isExceeded()) {
+                counts[1]++;
+                continue;
+            }
+
+            counts[0]++;
+            CaseResult r = CodeGrader.run(submission, row, limit);
+            if(!r.passed()) {
+                return r;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The outcome of a chunk of inputs
+     */
+    private static final class Chunk {
+        final int[] counts = new int[2];
+        CaseResult failure;
+        Object[] arguments;
+    }
+
+}
@@ -0,0 +1,77 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jackson Brienen
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.kentlakecs.falcode.grading;
+
+/**
+ * The result of grading a program against every starting grid of a {@link com.github.kentlakecs.data.VisualLesson}
+ *
+ * @author Jackson Brienen
+ * @version 1.0
+ */
+public final class GradeResult {
+
+    private final GridResult[] results;
+    private final boolean passed;
+
+    GradeResult(GridResult[] results) {
+        this.results = results;
+        boolean passed = true;
+        for(GridResult r: results) {
+            passed &= r.passed();
+        }
+        this.passed = passed;
+    }
+
+    /**
+     * @return true if every grid passed
+     */
+    public boolean passed() {
+        return passed;
+    }
+
+    /**
+     * @return The {@link GridResult} of each starting grid, in the order of the starting grids
+     */
+    public GridResult[] getResults() {
+        return results.clone();
+    }
+
+    /**
+     * @return The first {@link GridResult} with a {@link GridResult.Status#FAILED} or {@link GridResult.Status#ERROR} status, or null if there is none
+     */
+    public GridResult getFirstFailure() {
+        for(GridResult r: results) {
+            if(r.getStatus() == GridResult.Status.FAILED || r.getStatus() == GridResult.Status.ERROR) {
+                return r;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        return (passed ? "Passed " : "Failed ") + results.length + " grid(s)";
+    }
+
+}
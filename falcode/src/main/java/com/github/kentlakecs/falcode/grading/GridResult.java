@@ -0,0 +1,121 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jackson Brienen
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.kentlakecs.falcode.grading;
+
+import com.github.kentlakecs.data.Grid;
+
+/**
+ * The result of running a program against a single starting {@link Grid} of a {@link com.github.kentlakecs.data.VisualLesson}
+ *
+ * @author Jackson Brienen
+ * @version 1.0
+ */
+public final class GridResult {
+
+    /**
+     * The outcome of running a program against a single {@link Grid}
+     */
+    public enum Status {
+        /** The final state matched the ending grid */
+        PASSED,
+        /** The program finished but the final state did not match the ending grid */
+        FAILED,
+        /** The program threw before finishing */
+        ERROR,
+        /** The program exceeded its step limit before finishing */
+        TOO_MANY_STEPS,
+        /** The grid was not run as another grid had already failed */
+        SKIPPED
+    }
+
+    private final int index;
+    private final Status status;
+    private final Grid expected, actual;
+    private final Throwable error;
+    private final long steps;
+
+    GridResult(int index, Status status, Grid expected, Grid actual, Throwable error, long steps) {
+        this.index = index;
+        this.status = status;
+        this.expected = expected;
+        this.actual = actual;
+        this.error = error;
+        this.steps = steps;
+    }
+
+    /**
+     * @return The index of the starting grid within {@link com.github.kentlakecs.data.VisualLesson#getStartingGrids()}
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * @return The {@link Status} of this result
+     */
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * @return true if the {@link Status} is {@link Status#PASSED}
+     */
+    public boolean passed() {
+        return status == Status.PASSED;
+    }
+
+    /**
+     * @return The ending grid the final state was compared to
+     */
+    public Grid getExpected() {
+        return expected;
+    }
+
+    /**
+     * @return The final state, or null if the grid passed or was skipped
+     */
+    public Grid getActual() {
+        return actual;
+    }
+
+    /**
+     * @return The {@link Throwable} thrown by the program if the {@link Status} is {@link Status#ERROR} or {@link Status#TOO_MANY_STEPS}; otherwise null
+     */
+    public Throwable getError() {
+        return error;
+    }
+
+    /**
+     * @return The number of steps the program took, 0 if the grid was skipped
+     */
+    public long getSteps() {
+        return steps;
+    }
+
+    @Override
+    public String toString() {
+        return "Grid " + index + ": " + status + (error == null ? "" : " (" + error + ")");
+    }
+
+}
@@ -0,0 +1,115 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jackson Brienen
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.kentlakecs.falcode.grading;
+
+import java.util.Arrays;
+
+import com.github.kentlakecs.data.Method;
+
+/**
+ * The actions suggested to a student for reaching the ending grid from the current state of their world, see {@link HintEngine}
+ *
+ * @author Jackson Brienen
+ * @version 1.0
+ */
+public final class Hint {
+
+    /**
+     * The outcome of searching for a hint
+     */
+    public enum Status {
+        /** A shortest sequence of actions to the ending grid was found */
+        REACHABLE,
+        /** The ending grid cannot be reached from the current state with the allowed methods */
+        UNREACHABLE,
+        /** The search was stopped upon reaching the maximum number of states, the ending grid may or may not be reachable */
+        TOO_LARGE
+    }
+
+    private final Status status;
+    private final Method[] actions;
+
+    Hint(Status status, Method[] actions) {
+        this.status = status;
+        this.actions = actions;
+    }
+
+    /**
+     * @return The {@link Status} of the search
+     */
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * @return true if the ending grid can be reached
+     */
+    public boolean isReachable() {
+        return status == Status.REACHABLE;
+    }
+
+    /**
+     * @return true if the world already matches the ending grid
+     */
+    public boolean isComplete() {
+        return status == Status.REACHABLE && actions.length == 0;
+    }
+
+    /**
+     * @return The next action to take, or null if there is none
+     */
+    public Method getNext() {
+        return actions == null || actions.length == 0 ? null : actions[0];
+    }
+
+    /**
+     * Each {@link Method#PAINT} paints Falco's tile the color it has in the ending grid
+     * @param max the maximum number of actions to return
+     * @return A copy of the next actions to take, at most max of them, empty if there are none
+     */
+    public Method[] getActions(int max) {
+        if(max < 0) {
+            throw new IllegalArgumentException("Argument max must be greater than or equal to 0");
+        }
+        return actions == null ? new Method[0] : Arrays.copyOf(actions, Math.min(max, actions.length));
+    }
+
+    /**
+     * @return The number of actions left before the ending grid is reached, or -1 if no sequence was found,
+     * as it cannot be reached or the search was {@link Status#TOO_LARGE}
+     */
+    public int getRemaining() {
+        return actions == null ? -1 : actions.length;
+    }
+
+    @Override
+    public String toString() {
+        switch(status) {
+            case REACHABLE: return actions.length == 0 ? "Complete" : "Next " + actions[0] + ", " + actions.length + " action(s) remaining";
+            case UNREACHABLE: return "Unreachable";
+            default: return "Too large to search";
+        }
+    }
+
+}
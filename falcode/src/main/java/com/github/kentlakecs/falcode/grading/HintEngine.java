@@ -0,0 +1,483 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jackson Brienen
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.kentlakecs.falcode.grading;
+
+import java.util.*;
+
+import com.github.kentlakecs.data.*;
+import com.github.kentlakecs.data.util.DataUtils;
+import com.github.kentlakecs.data.util.StateSpace;
+import com.github.kentlakecs.falcode.util.Memoizer;
+import com.github.kentlakecs.falcode.world.World;
+
+/**
+ * Suggests the next actions a student could take to reach the ending grid of a {@link VisualLesson} from the current state of their {@link World},
+ * by an A* search for a shortest sequence of the lesson's allowed methods.
+ * <p>
+ * States are packed into a single long by a {@link StateSpace}, the same way as by the reachability solver of the data builder,
+ * so a tile needs painting exactly when the grader would find its color wrong. The estimate of the actions left from a state never overestimates, so the first sequence found is a shortest one. It is the number of balls still to be placed
+ * or taken and tiles still to be painted, plus the moves needed either to cross the box spanned by those tiles or to pass by the farthest of them
+ * on the way to Falco's ending position, plus the turns needed to face each direction crossing the box takes and then the ending direction.
+ * <p>
+ * Hints are cached by the state of the world, the ending grid, and the allowed methods, comparing grids by their {@link Grid#contentHash()} first,
+ * keeping the most recently used hints up to the cache size. Every state along a found sequence is cached as well, so a student
+ * following hints is answered from the cache, and identical requests made while the first is still searching are searched once.
+ *
+ * @author Jackson Brienen
+ * @version 1.0
+ */
+public final class HintEngine {
+
+    /**
+     * The number of hints cached by {@link #HintEngine()}
+     */
+    public static final int DEFAULT_CACHE_SIZE = 4096;
+
+    /**
+     * The maximum number of states searched by {@link #HintEngine()}
+     */
+    public static final int DEFAULT_MAX_STATES = 1 << 16;
+
+    private final int cacheSize, maxStates;
+    private final Memoizer<Key, Hint> cache;
+
+    /**
+     * Constructs a new {@link HintEngine} caching up to {@value #DEFAULT_CACHE_SIZE} hints and searching at most {@value #DEFAULT_MAX_STATES} states for each
+     */
+    public HintEngine() {
+        this(DEFAULT_CACHE_SIZE, DEFAULT_MAX_STATES);
+    }
+
+    /**
+     * Constructs a new {@link HintEngine}
+     * @param cacheSize the maximum number of hints to cache, 0 to disable caching
+     * @param maxStates the maximum number of states searched for each hint, which bounds the memory used by a search at around 60 bytes per state
+     */
+    public HintEngine(int cacheSize, int maxStates) {
+        if(cacheSize < 0) {
+            throw new IllegalArgumentException("Argument cacheSize must be greater than or equal to 0");
+        }
+        if(maxStates < 1 || maxStates > 1 << 24) {
+            throw new IllegalArgumentException("Argument maxStates must be between 1 and 2^24");
+        }
+        this.cacheSize = cacheSize;
+        this.maxStates = maxStates;
+        cache = new Memoizer<>(cacheSize);
+    }
+
+    /**
+     * Suggests the actions leading from the given {@link World} to an ending grid of the given {@link VisualLesson}
+     * @param lesson the {@link VisualLesson} being solved
+     * @param index the index of the starting grid the world was loaded from, selecting its ending grid
+     * @param world the current state of the student's {@link World}, which is not modified
+     * @return the {@link Hint}
+     */
+    public Hint hint(VisualLesson lesson, int index, World world) {
+        Grid[] ending = lesson.getEndingGrids();
+        return hint(world, ending.length == 1 ? ending[0] : ending[index], lesson.getAllowedMethods());
+    }
+
+    /**
+     * Suggests the actions leading from the given {@link World} to the given {@link Grid}, or returns the cached hint for the same state
+     * @param world the current state of the student's {@link World}, which is not modified
+     * @param end the ending {@link Grid}
+     * @param allowed the {@link Method}s which may be used, those which do not change the grid being ignored
+     * @return the {@link Hint}
+     */
+    public Hint hint(World world, Grid end, Method[] allowed) {
+        EnumSet<Method> methods = EnumSet.noneOf(Method.class);
+        Collections.addAll(methods, allowed);
+        Key key = new Key(world.toGrid(), end, methods);
+        return cache.get(key, () -> {
+            Hint hint = search(world, end, methods);
+            if(hint.getRemaining() > 1) {
+                cacheFollowing(world, end, methods, hint);
+            }
+            return hint;
+        });
+    }
+
+    /**
+     * Caches the rest of the sequence for each state reached by following the given hint, as every part of a shortest sequence is itself a shortest sequence
+     */
+    private void cacheFollowing(World world, Grid end, EnumSet<Method> methods, Hint hint) {
+        if(cacheSize == 0) {
+            return;
+        }
+        Method[] actions = hint.getActions(hint.getRemaining());
+        World w = new World(world);
+        for(int i = 1; i < actions.length; i++) {
+            switch(actions[i - 1]) {
+                case MOVE: w.move(); break;
+                case TURN_LEFT: w.turnLeft(); break;
+                case TURN_RIGHT: w.turnRight(); break;
+                case PLACE_BALL: w.placeBall(); break;
+                case TAKE_BALL: w.takeBall(); break;
+                case PAINT: w.paint(end.colorAt(w.getX(), w.getY())); break;
+                default: throw new IllegalStateException("Unexpected action " + actions[i - 1]);
+            }
+            cache.putIfAbsent(new Key(w.toGrid(), end, methods), new Hint(Hint.Status.REACHABLE, Arrays.copyOfRange(actions, i, actions.length)));
+        }
+    }
+
+    private Hint search(World world, Grid end, EnumSet<Method> methods) {
+        StateSpace space = new StateSpace(world.toGrid(), end, methods.toArray(new Method[0]));
+        if(!space.isPossible()) {
+            return new Hint(Hint.Status.UNREACHABLE, null);
+        }
+        if(!space.isPacked()) {
+            return new Hint(Hint.Status.TOO_LARGE, null);
+        }
+
+        // Sized by the number of states there could be, so that small searches do not allocate a table for the maximum
+        Search search = new Search(space, methods, (int)Math.min(maxStates, space.getBound()));
+        Method[] actions = search.run(space.getStart());
+        if(actions == null) {
+            return new Hint(search.full ? Hint.Status.TOO_LARGE : Hint.Status.UNREACHABLE, null);
+        }
+        return new Hint(Hint.Status.REACHABLE, actions);
+    }
+
+    /**
+     * A single A* search, with its own table of the states reached and queue of the states yet to be expanded
+     */
+    private static final class Search {
+
+        private static final long EMPTY = -1;
+
+        private final StateSpace space;
+        private final boolean move;
+        private final int size, goalX, goalY, goalDir;
+        private final long goal;
+        private final int[] targets;
+        /* The fewest moves from each tile to the ending tile and to each target tile, -1 if it cannot be reached */
+        private final int[] toGoal;
+        private final int[][] toTarget;
+        /* The fewest turns from a direction to another which face every direction of a set on the way, -1 if it cannot be done */
+        private final int[] turns = new int[4 * 16 * 4];
+
+        /* Open addressing table of every state reached, with the actions taken to reach it and the estimate of the actions left */
+        private final int capacity, mask;
+        private final long[] keys;
+        private final int[] costs, estimates, parents;
+        private final byte[] actions;
+        private int count;
+        private boolean full;
+
+        /* Binary heap of slots ordered by their estimated total, preferring those reached by more actions */
+        private long[] order = new long[64];
+        private int[] queued = new int[64];
+        private int queueSize;
+
+        Search(StateSpace space, EnumSet<Method> methods, int capacity) {
+            this.space = space;
+            move = methods.contains(Method.MOVE);
+            boolean turnLeft = methods.contains(Method.TURN_LEFT), turnRight = methods.contains(Method.TURN_RIGHT);
+            size = space.getSize();
+            targets = space.getTargets();
+            toTarget = new int[targets.length][];
+            for(int k = 0; k < targets.length; k++) {
+                toTarget[k] = distances(targets[k]);
+            }
+            goal = space.getGoal();
+            int goalPos = space.position(goal);
+            goalX = goalPos % size;
+            goalY = goalPos / size;
+            goalDir = space.direction(goal);
+            toGoal = distances(goalPos);
+            // Breadth first search over Falco's direction and the set of directions faced so far, from each starting direction
+            Arrays.fill(turns, -1);
+            int[] fewest = new int[64], queue = new int[64];
+            for(int from = 0; from < 4; from++) {
+                Arrays.fill(fewest, -1);
+                int head = 0, tail = 0;
+                queue[tail++] = from * 16 + (1 << from);
+                fewest[from * 16 + (1 << from)] = 0;
+                while(head < tail) {
+                    int state = queue[head++], dir = state >>> 4, faced = state & 15;
+                    for(int k = 0; k < 16; k++) {
+                        if((faced & k) == k && turns[(from * 16 + k) * 4 + dir] < 0) {
+                            turns[(from * 16 + k) * 4 + dir] = fewest[state];
+                        }
+                    }
+                    for(int next: new int[]{turnLeft ? (dir + 3) & 3 : -1, turnRight ? (dir + 1) & 3 : -1}) {
+                        int s = next < 0 ? -1 : next * 16 + (faced | 1 << next);
+                        if(s >= 0 && fewest[s] < 0) {
+                            fewest[s] = fewest[state] + 1;
+                            queue[tail++] = s;
+                        }
+                    }
+                }
+            }
+
+            this.capacity = capacity;
+            int slots = Integer.highestOneBit(Math.max(capacity, 1) * 2 - 1) << 1;
+            mask = slots - 1;
+            keys = new long[slots];
+            Arrays.fill(keys, EMPTY);
+            costs = new int[slots];
+            estimates = new int[slots];
+            parents = new int[slots];
+            actions = new byte[slots];
+        }
+
+        /**
+         * @return the shortest sequence of actions from the start to the goal, or null if there is none or the table filled up
+         */
+        Method[] run(long start) {
+            int h = estimate(start);
+            if(h < 0) {
+                return null;
+            }
+            int slot = slot(start);
+            claim(slot, start, h);
+            costs[slot] = 0;
+            parents[slot] = -1;
+            actions[slot] = -1;
+            push(slot, h, 0);
+
+            long[] candidates = new long[StateSpace.MAX_ACTIONS];
+            byte[] taken = new byte[StateSpace.MAX_ACTIONS];
+            while(queueSize > 0) {
+                long top = order[0];
+                slot = pop();
+                int cost = Integer.MAX_VALUE - (int)top;
+                if(cost != costs[slot]) {
+                    // Reached by fewer actions since it was queued
+                    continue;
+                }
+                long s = keys[slot];
+                if(s == goal) {
+                    return path(slot);
+                }
+
+                int n = space.expand(s, candidates, taken);
+                for(int c = 0; c < n; c++) {
+                    long next = candidates[c];
+                    int at = slot(next);
+                    if(keys[at] == EMPTY) {
+                        int e = estimate(next);
+                        if(e < 0) {
+                            continue;
+                        }
+                        if(count >= capacity) {
+                            full = true;
+                            return null;
+                        }
+                        claim(at, next, e);
+                    } else if(cost + 1 >= costs[at]) {
+                        continue;
+                    }
+                    costs[at] = cost + 1;
+                    parents[at] = slot;
+                    actions[at] = taken[c];
+                    push(at, cost + 1 + estimates[at], cost + 1);
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Estimates the actions left from a state without ever overestimating, as every ball, paint, move, and turn is a separate action.
+         * The tiles left to visit, along with Falco's tile and ending tile, span a box whose width and height must each be crossed,
+         * which also decides the directions Falco must move in and so face. Around barriers, passing by the farthest of those tiles
+         * on the way to the ending tile may take more moves than crossing the box.
+         * @return the estimate, or -1 if Falco can never face the directions needed
+         */
+        private int estimate(long s) {
+            int pos = space.position(s), dir = space.direction(s);
+            int x = pos % size, y = pos / size;
+            int minX = Math.min(x, goalX), maxX = Math.max(x, goalX), minY = Math.min(y, goalY), maxY = Math.max(y, goalY);
+            int work = 0;
+            int path = toGoal[pos];
+            if(path < 0) {
+                return -1;
+            }
+            for(int k = 0; k < targets.length; k++) {
+                int t = targets[k];
+                int left = space.remaining(s, t);
+                if(left > 0) {
+                    if(toTarget[k][pos] < 0) {
+                        return -1;
+                    }
+                    work += left;
+                    path = Math.max(path, toTarget[k][pos] + toGoal[t]);
+                    int tx = t % size, ty = t / size;
+                    minX = Math.min(minX, tx);
+                    maxX = Math.max(maxX, tx);
+                    minY = Math.min(minY, ty);
+                    maxY = Math.max(maxY, ty);
+                }
+            }
+
+            int moves = Math.max(path, cross(minX, maxX, x, goalX) + cross(minY, maxY, y, goalY));
+            int directions = (minY < y || maxY > goalY ? 1 << Direction.TOP.getValue() : 0)
+                           | (maxX > x || minX < goalX ? 1 << Direction.RIGHT.getValue() : 0)
+                           | (maxY > y || minY < goalY ? 1 << Direction.BOTTOM.getValue() : 0)
+                           | (minX < x || maxX > goalX ? 1 << Direction.LEFT.getValue() : 0);
+            int turn = turns[(dir * 16 + directions) * 4 + goalDir];
+            return turn < 0 ? -1 : work + moves + turn;
+        }
+
+        /**
+         * @return the fewest moves from each tile to the given tile, -1 for those it cannot be reached from
+         */
+        private int[] distances(int to) {
+            int[] distance = new int[size * size], queue = new int[size * size];
+            Arrays.fill(distance, -1);
+            distance[to] = 0;
+            if(!move) {
+                return distance;
+            }
+            queue[0] = to;
+            // Moves between two tiles are blocked in both directions or neither, so moving out from the tile finds the same distances
+            for(int head = 0, tail = 1; head < tail; head++) {
+                int at = queue[head];
+                for(int d = 0; d < 4; d++) {
+                    int from = space.neighbour(at, d);
+                    if(from >= 0 && distance[from] < 0) {
+                        distance[from] = distance[at] + 1;
+                        queue[tail++] = from;
+                    }
+                }
+            }
+            return distance;
+        }
+
+        /**
+         * @return the fewest moves along one axis which start at from, reach both min and max, and end at to
+         */
+        private static int cross(int min, int max, int from, int to) {
+            return max - min + Math.min(Math.abs(from - min) + Math.abs(to - max), Math.abs(from - max) + Math.abs(to - min));
+        }
+
+        /**
+         * @return the slot holding the state, or the empty slot it would be claimed in
+         */
+        private int slot(long state) {
+            int i = (int)DataUtils.mix(state) & mask;
+            while(keys[i] != EMPTY && keys[i] != state) {
+                i = (i + 1) & mask;
+            }
+            return i;
+        }
+
+        private void claim(int slot, long state, int estimate) {
+            keys[slot] = state;
+            estimates[slot] = estimate;
+            costs[slot] = Integer.MAX_VALUE;
+            count++;
+        }
+
+        private Method[] path(int slot) {
+            List<Method> path = new ArrayList<>();
+            Method[] values = Method.values();
+            for(; actions[slot] >= 0; slot = parents[slot]) {
+                path.add(values[actions[slot]]);
+            }
+            Collections.reverse(path);
+            return path.toArray(new Method[0]);
+        }
+
+        private void push(int slot, int total, int cost) {
+            if(queueSize == order.length) {
+                order = Arrays.copyOf(order, queueSize * 2);
+                queued = Arrays.copyOf(queued, queueSize * 2);
+            }
+            long key = (long)total << 32 | (Integer.MAX_VALUE - cost);
+            int i = queueSize++;
+            while(i > 0) {
+                int parent = (i - 1) >>> 1;
+                if(order[parent] <= key) {
+                    break;
+                }
+                order[i] = order[parent];
+                queued[i] = queued[parent];
+                i = parent;
+            }
+            order[i] = key;
+            queued[i] = slot;
+        }
+
+        private int pop() {
+            int top = queued[0];
+            long key = order[--queueSize];
+            int slot = queued[queueSize];
+            int i = 0;
+            while(true) {
+                int child = i * 2 + 1;
+                if(child >= queueSize) {
+                    break;
+                }
+                if(child + 1 < queueSize && order[child + 1] < order[child]) {
+                    child++;
+                }
+                if(key <= order[child]) {
+                    break;
+                }
+                order[i] = order[child];
+                queued[i] = queued[child];
+                i = child;
+            }
+            order[i] = key;
+            queued[i] = slot;
+            return top;
+        }
+
+    }
+
+    /**
+     * Identifies a hint by the state of the world, the ending grid, and the allowed methods
+     */
+    private static final class Key {
+
+        private final PackedGrid current;
+        private final Grid end;
+        private final EnumSet<Method> methods;
+        private final int hash;
+
+        Key(PackedGrid current, Grid end, EnumSet<Method> methods) {
+            this.current = current;
+            this.end = end;
+            this.methods = methods;
+            hash = (int)DataUtils.mix(current.contentHash() * 31 + end.contentHash()) * 31 + methods.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if(!(o instanceof Key)) {
+                return false;
+            }
+            Key k = (Key)o;
+            return hash == k.hash && methods.equals(k.methods) && current.equals(k.current) && end.equals(k.end);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+    }
+
+}
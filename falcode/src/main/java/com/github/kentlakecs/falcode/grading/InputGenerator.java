@@ -0,0 +1,244 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jackson Brienen
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.kentlakecs.falcode.grading;
+
+import java.lang.reflect.Array;
+import java.util.SplittableRandom;
+
+import com.github.kentlakecs.data.Primitive;
+import com.github.kentlakecs.data.TestTable;
+import com.github.kentlakecs.data.util.DataUtils;
+
+/**
+ * Generates random argument columns for the parameters of a {@link com.github.kentlakecs.data.CodeLesson}, in the layout of a {@link TestTable}.
+ * <p>
+ * Numbers are uniform within plus or minus the range, except that with the edge probability a number is instead one of the values
+ * most likely to expose a mistake: 0, 1, -1, or the minimum or maximum of its type. Lengths of arrays and Strings are skewed towards short,
+ * up to the maximum length, and are 0 with the edge probability. Characters are lowercase letters, digits and spaces.
+ * Values are written straight in to primitive arrays, so nothing is boxed.
+ * <p>
+ * A generator is immutable and may be shared between threads, each using its own {@link SplittableRandom}.
+ *
+ * @author Jackson Brienen
+ * @version 1.0
+ */
+public final class InputGenerator {
+
+    /**
+     * A generator of arrays and Strings up to 16 long, numbers within 1000 of 0, and edge values one time in 10
+     */
+    public static final InputGenerator DEFAULT = new InputGenerator(16, 1000, 0.1);
+
+    private static final String CHARACTERS = "abcdefghijklmnopqrstuvwxyz0123456789 ";
+
+    private final int maxLength;
+    private final long range;
+    private final double edgeProbability;
+
+    /**
+     * Constructs a new {@link InputGenerator}
+     * @param maxLength the maximum length of generated arrays and Strings
+     * @param range the maximum magnitude of generated numbers, other than edge values
+     * @param edgeProbability the probability of a number being an edge value, or a length being 0
+     */
+    public InputGenerator(int maxLength, long range, double edgeProbability) {
+        if(maxLength < 0) {
+            throw new IllegalArgumentException("Argument maxLength must be greater than or equal to 0");
+        }
+        if(range < 0) {
+            throw new IllegalArgumentException("Argument range must be greater than or equal to 0");
+        }
+        if(!(edgeProbability >= 0 && edgeProbability <= 1)) {
+            throw new IllegalArgumentException("Argument edgeProbability must be between 0 and 1");
+        }
+        this.maxLength = maxLength;
+        this.range = range;
+        this.edgeProbability = edgeProbability;
+    }
+
+    /**
+     * @return The maximum length of generated arrays and Strings
+     */
+    public int getMaxLength() {
+        return maxLength;
+    }
+
+    /**
+     * @return The maximum magnitude of generated numbers, other than edge values
+     */
+    public long getRange() {
+        return range;
+    }
+
+    /**
+     * @return The probability of a number being an edge value, or a length being 0
+     */
+    public double getEdgeProbability() {
+        return edgeProbability;
+    }
+
+    /**
+     * Generates a column of arguments for each of the given types
+     * @param types the {@link Primitive} type of each parameter
+     * @param size the number of rows
+     * @param random the source of randomness
+     * @return one column per type, see {@link TestTable#columnType(Primitive)}
+     */
+    public Object[] columns(Primitive[] types, int size, SplittableRandom random) {
+        Object[] columns = new Object[types.length];
+        for(int i = 0; i < columns.length; i++) {
+            columns[i] = column(types[i], size, random);
+        }
+        return columns;
+    }
+
+    /**
+     * Generates a column of random values
+     * @param type the {@link Primitive} type of the values, other than {@link Primitive#VOID}
+     * @param size the number of values
+     * @param random the source of randomness
+     * @return the column, see {@link TestTable#columnType(Primitive)}
+     */
+    public Object column(Primitive type, int size, SplittableRandom random) {
+        switch(type) {
+            case STRING: {
+                String[] a = new String[size];
+                for(int i = 0; i < size; i++) {
+                    a[i] = new String(characters(length(random), random));
+                }
+                return a;
+            }
+            case CHAR:
+                return characters(size, random);
+            case BYTE: {
+                byte[] a = new byte[size];
+                for(int i = 0; i < size; i++) {
+                    a[i] = (byte)nextLong(random, Byte.MIN_VALUE, Byte.MAX_VALUE);
+                }
+                return a;
+            }
+            case SHORT: {
+                short[] a = new short[size];
+                for(int i = 0; i < size; i++) {
+                    a[i] = (short)nextLong(random, Short.MIN_VALUE, Short.MAX_VALUE);
+                }
+                return a;
+            }
+            case INT: {
+                int[] a = new int[size];
+                for(int i = 0; i < size; i++) {
+                    a[i] = (int)nextLong(random, Integer.MIN_VALUE, Integer.MAX_VALUE);
+                }
+                return a;
+            }
+            case LONG: {
+                long[] a = new long[size];
+                for(int i = 0; i < size; i++) {
+                    a[i] = nextLong(random, Long.MIN_VALUE, Long.MAX_VALUE);
+                }
+                return a;
+            }
+            case FLOAT: {
+                float[] a = new float[size];
+                for(int i = 0; i < size; i++) {
+                    a[i] = (float)nextDouble(random, Float.MAX_VALUE);
+                }
+                return a;
+            }
+            case DOUBLE: {
+                double[] a = new double[size];
+                for(int i = 0; i < size; i++) {
+                    a[i] = nextDouble(random, Double.MAX_VALUE);
+                }
+                return a;
+            }
+            case BOOLEAN: {
+                boolean[] a = new boolean[size];
+                for(int i = 0; i < size; i++) {
+                    a[i] = random.nextBoolean();
+                }
+                return a;
+            }
+            case VOID:
+                throw new IllegalArgumentException("A column cannot be of type void");
+            default: {
+                Primitive component = DataUtils.componentType(type);
+                Object[] a = (Object[])Array.newInstance(type.getType(), size);
+                for(int i = 0; i < size; i++) {
+                    a[i] = column(component, length(random), random);
+                }
+                return a;
+            }
+        }
+    }
+
+    private char[] characters(int length, SplittableRandom random) {
+        char[] a = new char[length];
+        for(int i = 0; i < length; i++) {
+            a[i] = CHARACTERS.charAt(random.nextInt(CHARACTERS.length()));
+        }
+        return a;
+    }
+
+    /**
+     * @return A length skewed towards short, as the length is uniform below a uniform bound
+     */
+    private int length(SplittableRandom random) {
+        if(maxLength == 0 || random.nextDouble() < edgeProbability) {
+            return 0;
+        }
+        return random.nextInt(random.nextInt(maxLength) + 1) + 1;
+    }
+
+    private long nextLong(SplittableRandom random, long min, long max) {
+        if(random.nextDouble() < edgeProbability) {
+            switch(random.nextInt(5)) {
+                case 0: return 0;
+                case 1: return 1;
+                case 2: return -1;
+                case 3: return min;
+                default: return max;
+            }
+        }
+        long bound = Math.min(range, max);
+        if(bound == Long.MAX_VALUE) {
+            return random.nextLong();
+        }
+        return random.nextLong(-bound, bound + 1);
+    }
+
+    private double nextDouble(SplittableRandom random, double max) {
+        if(random.nextDouble() < edgeProbability) {
+            switch(random.nextInt(5)) {
+                case 0: return 0;
+                case 1: return 1;
+                case 2: return -1;
+                case 3: return -max;
+                default: return max;
+            }
+        }
+        return range == 0 ? 0 : random.nextDouble(-(double)range, range);
+    }
+
+}
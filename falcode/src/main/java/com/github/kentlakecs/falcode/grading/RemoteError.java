@@ -0,0 +1,59 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jackson Brienen
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.kentlakecs.falcode.grading;
+
+/**
+ * Stands in for a {@link Throwable} thrown in a worker process of a {@link WorkerPool}, or for the loss of the worker itself.
+ * The original cannot be sent as its class may only exist within the worker, so only its class name and message are kept.
+ *
+ * @author Jackson Brienen
+ * @version 1.0
+ */
+public final class RemoteError extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String remoteClassName;
+
+    RemoteError(String remoteClassName, String message) {
+        super(message, null, false, false);
+        this.remoteClassName = remoteClassName;
+    }
+
+    /**
+     * @return The name of the class of the original {@link Throwable}, or null if the worker itself was lost
+     */
+    public String getRemoteClassName() {
+        return remoteClassName;
+    }
+
+    @Override
+    public String toString() {
+        if(remoteClassName == null) {
+            return getMessage();
+        }
+        return getMessage() == null ? remoteClassName : remoteClassName + ": " + getMessage();
+    }
+
+}
@@ -0,0 +1,224 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jackson Brienen
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.kentlakecs.falcode.grading;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.github.kentlakecs.data.Primitive;
+import com.github.kentlakecs.data.TestTable;
+import com.github.kentlakecs.data.util.DataUtils;
+
+/**
+ * Proposes simpler variants of a failing input, used by {@link Fuzzer} to find a small input which still fails.
+ * <p>
+ * Each candidate differs from the input in a single argument, which is made strictly simpler: a number moves towards 0,
+ * a character towards 'a', a boolean to false, and an array or String loses elements before its elements are simplified.
+ * Candidates are ordered from the largest simplification to the smallest, and as each is strictly simpler, repeatedly replacing
+ * the input with its first failing candidate always ends.
+ *
+ * @author Jackson Brienen
+ * @version 1.0
+ */
+final class Shrinker {
+
+    /**
+     * The longest array or String whose elements are removed one at a time, longer ones are only halved
+     */
+    private static final int MAX_REMOVALS = 32;
+
+    private Shrinker() {}
+
+    /**
+     * Proposes simpler variants of the given input
+     * @param types the {@link Primitive} type of each argument
+     * @param arguments the arguments, boxed if primitive
+     * @return the candidates, each a copy of the arguments with one argument simplified
+     */
+    static List<Object[]> candidates(Primitive[] types, Object[] arguments) {
+        List<Object[]> candidates = new ArrayList<>();
+        for(int i = 0; i < arguments.length; i++) {
+            for(Object simpler: simplify(types[i], arguments[i])) {
+                Object[] candidate = arguments.clone();
+                candidate[i] = simpler;
+                candidates.add(candidate);
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * Builds the argument columns of a {@link TestTable} with one row per candidate
+     * @param types the {@link Primitive} type of each argument
+     * @param candidates the candidates
+     * @return one column per argument, see {@link TestTable#columnType(Primitive)}
+     */
+    static Object[] columns(Primitive[] types, List<Object[]> candidates) {
+        Object[] columns = new Object[types.length];
+        for(int i = 0; i < columns.length; i++) {
+            columns[i] = Array.newInstance(types[i].getType(), candidates.size());
+            for(int row = 0; row < candidates.size(); row++) {
+                Array.set(columns[i], row, candidates.get(row)[i]);
+            }
+        }
+        return columns;
+    }
+
+    /**
+     * @return The simpler variants of a single value, boxed if primitive
+     */
+    private static List<Object> simplify(Primitive type, Object value) {
+        List<Object> simpler = new ArrayList<>();
+        if(value == null) {
+            return simpler;
+        }
+        switch(type) {
+            case STRING:
+                for(Object chars: simplify(Primitive.CHAR_ARRAY, ((String)value).toCharArray())) {
+                    simpler.add(new String((char[])chars));
+                }
+                break;
+            case CHAR: {
+                char c = (Character)value;
+                if(c != 'a') {
+                    simpler.add('a');
+                    if(c > 'a' && (c - 'a') / 2 > 0) {
+                        simpler.add((char)('a' + (c - 'a') / 2));
+                    }
+                }
+                break;
+            }
+            case BYTE:
+                for(long v: integers((Byte)value, Byte.MIN_VALUE)) {
+                    simpler.add((byte)v);
+                }
+                break;
+            case SHORT:
+                for(long v: integers((Short)value, Short.MIN_VALUE)) {
+                    simpler.add((short)v);
+                }
+                break;
+            case INT:
+                for(long v: integers((Integer)value, Integer.MIN_VALUE)) {
+                    simpler.add((int)v);
+                }
+                break;
+            case LONG:
+                for(long v: integers((Long)value, Long.MIN_VALUE)) {
+                    simpler.add(v);
+                }
+                break;
+            case FLOAT:
+                for(double v: decimals((Float)value)) {
+                    simpler.add((float)v);
+                }
+                break;
+            case DOUBLE:
+                for(double v: decimals((Double)value)) {
+                    simpler.add(v);
+                }
+                break;
+            case BOOLEAN:
+                if((Boolean)value) {
+                    simpler.add(false);
+                }
+                break;
+            case VOID:
+                break;
+            default:
+                simplifyArray(DataUtils.componentType(type), value, simpler);
+        }
+        return simpler;
+    }
+
+    private static void simplifyArray(Primitive component, Object array, List<Object> simpler) {
+        int length = Array.getLength(array);
+        if(length == 0) {
+            return;
+        }
+        simpler.add(slice(array, 0, 0));
+        if(length > 1) {
+            simpler.add(slice(array, 0, length / 2));
+            simpler.add(slice(array, length / 2, length));
+        }
+        if(length <= MAX_REMOVALS) {
+            for(int i = 0; i < length; i++) {
+                Object removed = Array.newInstance(array.getClass().getComponentType(), length - 1);
+                System.arraycopy(array, 0, removed, 0, i);
+                System.arraycopy(array, i + 1, removed, i, length - i - 1);
+                simpler.add(removed);
+            }
+        }
+        for(int i = 0; i < length; i++) {
+            for(Object element: simplify(component, Array.get(array, i))) {
+                Object copy = slice(array, 0, length);
+                Array.set(copy, i, element);
+                simpler.add(copy);
+            }
+        }
+    }
+
+    private static Object slice(Object array, int from, int to) {
+        Object slice = Array.newInstance(array.getClass().getComponentType(), to - from);
+        System.arraycopy(array, from, slice, 0, to - from);
+        return slice;
+    }
+
+    /**
+     * @return The magnitude of the value if negative, then values from 0 up to one less than the value in magnitude,
+     *  each closer to the value than the last by half the remaining distance, so that a failing boundary is found in few rounds
+     */
+    private static long[] integers(long v, long min) {
+        if(v == 0) {
+            return new long[0];
+        }
+        List<Long> candidates = new ArrayList<>();
+        // The magnitude of the minimum value does not fit its type
+        if(v < 0 && v != min) {
+            candidates.add(-v);
+        }
+        candidates.add(0L);
+        for(long distance = v / 2; distance != 0; distance /= 2) {
+            candidates.add(v - distance);
+        }
+        return candidates.stream().mapToLong(Long::longValue).filter(c -> c != v).distinct().toArray();
+    }
+
+    /**
+     * @return 0, the value truncated to an integer, and half the value while it is at least 1, finite and distinct from the value
+     */
+    private static double[] decimals(double v) {
+        if(v == 0) {
+            return new double[0];
+        }
+        if(Double.isNaN(v) || Double.isInfinite(v)) {
+            return new double[]{0};
+        }
+        return Arrays.stream(new double[]{0, (long)v, Math.abs(v) >= 1 ? v / 2 : 0})
+            .filter(c -> Math.abs(c) < Math.abs(v)).distinct().toArray();
+    }
+
+}
@@ -0,0 +1,181 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jackson Brienen
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.kentlakecs.falcode.grading;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+import com.github.kentlakecs.data.Grid;
+import com.github.kentlakecs.data.VisualLesson;
+import com.github.kentlakecs.falcode.world.Falco;
+import com.github.kentlakecs.falcode.world.StepBudget;
+import com.github.kentlakecs.falcode.world.StepLimitExceededError;
+import com.github.kentlakecs.falcode.world.World;
+
+/**
+ * Grades a program against every starting grid of a {@link VisualLesson}, running the grids concurrently on an {@link ExecutorService}.
+ * Each grid is run in its own {@link World} by a new {@link Falco} from the given {@link Supplier}, then compared to the matching ending grid,
+ * or the only ending grid if the lesson has one.
+ * <p>
+ * When short circuiting, grading returns as soon as any grid fails, and grids which have not yet started are {@link GridResult.Status#SKIPPED}.
+ * Grids which are running are interrupted, but as programs do not check for interruption they keep running on the executor
+ * until they end or reach their step budget, their results being discarded.
+ * <p>
+ * Each grid is run with its own {@link StepBudget}, so a program which never ends is {@link GridResult.Status#TOO_MANY_STEPS}
+ * once it has taken the step limit of the lesson, regardless of how busy the machine is.
+ *
+ * @author Jackson Brienen
+ * @version 1.0
+ */
+public final class VisualGrader {
+
+    private final ExecutorService executor;
+    private final boolean shortCircuit;
+    private final ToLongFunction<? super VisualLesson> stepLimit;
+
+    /**
+     * Constructs a new {@link VisualGrader} which short circuits using the {@link ForkJoinPool#commonPool()}
+     */
+    public VisualGrader() {
+        this(ForkJoinPool.commonPool(), true);
+    }
+
+    /**
+     * Constructs a new {@link VisualGrader}
+     * @param executor the {@link ExecutorService} used to run grids, it is not shut down by the grader
+     * @param shortCircuit true if grading should stop once any grid fails; false if every grid should be run
+     */
+    public VisualGrader(ExecutorService executor, boolean shortCircuit) {
+        this(executor, shortCircuit, lesson -> StepBudget.DEFAULT_LIMIT);
+    }
+
+    /**
+     * Constructs a new {@link VisualGrader}
+     * @param executor the {@link ExecutorService} used to run grids, it is not shut down by the grader
+     * @param shortCircuit true if grading should stop once any grid fails; false if every grid should be run
+     * @param stepLimit gives the maximum number of steps a program may take on each grid of a lesson
+     */
+    public VisualGrader(ExecutorService executor, boolean shortCircuit, ToLongFunction<? super VisualLesson> stepLimit) {
+        this.executor = executor;
+        this.shortCircuit = shortCircuit;
+        this.stepLimit = stepLimit;
+    }
+
+    /**
+     * @return true if grading stops once any grid fails
+     */
+    public boolean isShortCircuit() {
+        return shortCircuit;
+    }
+
+    /**
+     * Grades a program against every starting grid of the given {@link VisualLesson}
+     * @param lesson the {@link VisualLesson} to grade against
+     * @param program supplies a new instance of the program for each grid, called concurrently
+     * @return the {@link GradeResult}
+     * @throws InterruptedException if interrupted while waiting for grids to finish
+     */
+    public GradeResult grade(VisualLesson lesson, Supplier<? extends Falco> program) throws InterruptedException {
+        Grid[] starting = lesson.getStartingGrids(), ending = lesson.getEndingGrids();
+        GridResult[] results = new GridResult[starting.length];
+        AtomicBoolean failed = new AtomicBoolean();
+        long limit = stepLimit.applyAsLong(lesson);
+
+        // A single grid gains nothing from another thread
+        if(starting.length == 1) {
+            results[0] = run(0, starting[0], ending[0], limit, program, failed);
+            return new GradeResult(results);
+        }
+
+        CompletionService<GridResult> completion = new ExecutorCompletionService<>(executor);
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Future<GridResult>[] futures = new Future[starting.length];
+        try {
+            for(int i = 0; i < starting.length; i++) {
+                int index = i;
+                Grid end = ending.length == 1 ? ending[0] : ending[i];
+                futures[i] = completion.submit(() -> run(index, starting[index], end, limit, program, failed));
+            }
+
+            for(int done = 0; done < starting.length; done++) {
+                GridResult r;
+                try {
+                    r = completion.take().get();
+                } catch(ExecutionException e) {
+                    throw new IllegalStateException("Grading failed unexpectedly", e.getCause());
+                }
+                results[r.getIndex()] = r;
+                if(shortCircuit && !r.passed()) {
+                    break;
+                }
+            }
+        } finally {
+            for(Future<GridResult> f: futures) {
+                if(f != null) {
+                    f.cancel(true);
+                }
+            }
+        }
+
+        for(int i = 0; i < results.length; i++) {
+            if(results[i] == null) {
+                results[i] = new GridResult(i, GridResult.Status.SKIPPED, ending.length == 1 ? ending[0] : ending[i], null, null, 0);
+            }
+        }
+        return new GradeResult(results);
+    }
+
+    private GridResult run(int index, Grid start, Grid end, long limit, Supplier<? extends Falco> program, AtomicBoolean failed) {
+        if(shortCircuit && failed.get()) {
+            return new GridResult(index, GridResult.Status.SKIPPED, end, null, null, 0);
+        }
+
+        World world = new World(start);
+        StepBudget budget = new StepBudget(limit);
+        world.setStepBudget(budget);
+        GridResult r;
+        try {
+            world.run(program.get());
+            if(budget.isExceeded()) {
+                // The program caught the error and carried on
+                throw new StepLimitExceededError(limit);
+            }
+            r = world.matches(end)
+                ? new GridResult(index, GridResult.Status.PASSED, end, null, null, budget.getSteps())
+                : new GridResult(index, GridResult.Status.FAILED, end, world.toGrid(), null, budget.getSteps());
+        } catch(StepLimitExceededError e) {
+            r = new GridResult(index, GridResult.Status.TOO_MANY_STEPS, end, world.toGrid(), e, budget.getSteps());
+        } catch(Throwable t) {
+            r = new GridResult(index, GridResult.Status.ERROR, end, world.toGrid(), t, budget.getSteps());
+        }
+
+        if(!r.passed()) {
+            failed.set(true);
+        }
+        return r;
+    }
+
+}
@@ -0,0 +1,134 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jackson Brienen
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.kentlakecs.falcode.grading;
+
+import java.io.*;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import com.github.kentlakecs.data.util.Fingerprint;
+
+import static com.github.kentlakecs.falcode.grading.WorkerProtocol.*;
+
+/**
+ * The pool's side of a single {@link WorkerMain} process, used by one thread at a time
+ *
+ * @author Jackson Brienen
+ * @version 1.0
+ */
+final class Worker implements AutoCloseable {
+
+    private final Process process;
+    private final DataInputStream in;
+    private final DataOutputStream out;
+    private final Set<Fingerprint> lessons = new HashSet<>();
+    private boolean ready;
+    private volatile boolean killed;
+    private int runs;
+
+    /**
+     * Starts a new worker process, without waiting for it to be ready
+     * @param command the command starting the process
+     * @throws IOException if the process cannot be started
+     */
+    Worker(List<String> command) throws IOException {
+        process = new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+        in = new DataInputStream(new BufferedInputStream(process.getInputStream()));
+        out = new DataOutputStream(new BufferedOutputStream(process.getOutputStream()));
+    }
+
+    /**
+     * Sends a request and waits for its response, first waiting for the worker to be ready if it has not yet been used
+     * @param request the request frame
+     * @return the response frame
+     * @throws IOException if the worker exited or was killed
+     */
+    byte[] call(byte[] request) throws IOException {
+        if(!ready) {
+            DataInputStream hello = new DataInputStream(new ByteArrayInputStream(readFrame(in)));
+            int version = hello.readByte() == HELLO ? hello.readInt() : -1;
+            if(version != VERSION) {
+                throw new IOException("Worker protocol version " + version + " does not match " + VERSION);
+            }
+            ready = true;
+        }
+        writeFrame(out, request);
+        byte[] response = readFrame(in);
+        runs++;
+        return response;
+    }
+
+    /**
+     * @param lesson the fingerprint of a lesson
+     * @return true if the lesson has been sent to this worker
+     */
+    boolean knows(Fingerprint lesson) {
+        return lessons.contains(lesson);
+    }
+
+    /**
+     * Records that a lesson has been sent to this worker
+     * @param lesson the fingerprint of the lesson
+     */
+    void learned(Fingerprint lesson) {
+        lessons.add(lesson);
+    }
+
+    /**
+     * @return The number of requests answered
+     */
+    int getRuns() {
+        return runs;
+    }
+
+    /**
+     * Kills the process from another thread, ending any call in progress
+     */
+    void kill() {
+        killed = true;
+        process.destroyForcibly();
+    }
+
+    /**
+     * @return true if the process was killed by {@link #kill()}
+     */
+    boolean wasKilled() {
+        return killed;
+    }
+
+    /**
+     * Ends the process, closing its stdin so it may exit on its own before it is destroyed
+     */
+    @Override
+    public void close() {
+        try {
+            out.close();
+        } catch(IOException e) {
+            // Destroyed below regardless
+        }
+        process.destroyForcibly();
+    }
+
+}
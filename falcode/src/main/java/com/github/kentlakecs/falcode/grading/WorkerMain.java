@@ -0,0 +1,192 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jackson Brienen
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.kentlakecs.falcode.grading;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import com.github.kentlakecs.data.*;
+import com.github.kentlakecs.data.io.BinaryDataReader;
+import com.github.kentlakecs.data.io.BinaryDataWriter;
+import com.github.kentlakecs.data.factory.DataFactory;
+import com.github.kentlakecs.data.util.Fingerprint;
+import com.github.kentlakecs.falcode.compile.CompiledSubmission;
+import com.github.kentlakecs.falcode.world.Falco;
+import com.github.kentlakecs.falcode.world.World;
+
+import static com.github.kentlakecs.falcode.grading.WorkerProtocol.*;
+
+/**
+ * The entry point of a worker process started by a {@link WorkerPool}, not intended to be run directly.
+ * <p>
+ * The worker reads {@link WorkerProtocol} requests from stdin and writes responses to stdout until stdin is closed.
+ * Before anything else the real streams are taken and System.in, System.out and System.err are replaced,
+ * so nothing a submission reads or prints can interfere with the protocol. Lessons are kept by fingerprint, so each is only sent once.
+ *
+ * @author Jackson Brienen
+ * @version 1.0
+ */
+public final class WorkerMain {
+
+    private final BinaryDataReader reader = new BinaryDataReader();
+    private final BinaryDataWriter writer = new BinaryDataWriter();
+    private final Map<Fingerprint, Lesson> lessons = new HashMap<>();
+
+    private WorkerMain() {}
+
+    /**
+     * Runs the worker
+     * @param args unused
+     * @throws IOException if the pool's streams fail
+     */
+    public static void main(String[] args) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(FileDescriptor.in)));
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(FileDescriptor.out)));
+        PrintStream discard = new PrintStream(new OutputStream() {
+            @Override
+            public void write(int b) {}
+
+            @Override
+            public void write(byte[] b, int off, int len) {}
+        });
+        System.setIn(new ByteArrayInputStream(new byte[0]));
+        System.setOut(discard);
+        System.setErr(discard);
+
+        WorkerMain worker = new WorkerMain();
+        warmUp();
+        ByteArrayOutputStream hello = new ByteArrayOutputStream();
+        DataOutputStream h = new DataOutputStream(hello);
+        h.writeByte(HELLO);
+        h.writeInt(VERSION);
+        writeFrame(out, hello.toByteArray());
+
+        while(true) {
+            byte[] request;
+            try {
+                request = readFrame(in);
+            } catch(EOFException e) {
+                return;
+            }
+            writeFrame(out, worker.handle(request));
+        }
+    }
+
+    /**
+     * Loads and initializes the classes used to grade before the worker reports it is ready, which would otherwise slow its first submission
+     */
+    private static void warmUp() {
+        Class<?>[] classes = {VisualGrader.class, CodeGrader.class, CaseHarness.class, GradeResult.class, CodeGradeResult.class,
+            Falco.class, World.class, TestTable.class, DataFactory.class, Primitive.class};
+        for(Class<?> c: classes) {
+            try {
+                Class.forName(c.getName(), true, c.getClassLoader());
+            } catch(ClassNotFoundException | LinkageError e) {
+                // Loaded on first use instead
+            }
+        }
+        new VisualGrader(ForkJoinPool.commonPool(), true, l -> 0L);
+        new CodeGrader(l -> 0L);
+    }
+
+    private byte[] handle(byte[] request) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(request));
+            if(in.readByte() != GRADE) {
+                throw new IOException("Unknown request");
+            }
+            Fingerprint id = new Fingerprint(in.readLong(), in.readLong());
+            if(in.readBoolean()) {
+                lessons.put(id, reader.decodeLesson(ByteBuffer.wrap(readBytes(in))));
+            }
+            Lesson lesson = lessons.get(id);
+            if(lesson == null) {
+                throw new IOException("Unknown lesson " + id);
+            }
+            long stepLimit = in.readLong();
+            String className = in.readUTF();
+            Map<String, byte[]> classes = new HashMap<>();
+            for(int i = in.readInt(); i > 0; i--) {
+                classes.put(in.readUTF(), readBytes(in));
+            }
+            CompiledSubmission submission = CompiledSubmission.of(className, classes);
+
+            if(lesson instanceof VisualLesson) {
+                GradeResult result = new VisualGrader(ForkJoinPool.commonPool(), true, l -> stepLimit)
+                    .grade((VisualLesson)lesson, submission.instances(Falco.class));
+                GridResult[] results = result.getResults();
+                writeHeader(out, RESULT, results.length);
+                for(GridResult r: results) {
+                    writeResult(out, r.getStatus().ordinal(), r.getSteps(), r.getError(), r.getActual() == null ? null : writer.encode(r.getActual()));
+                }
+            } else {
+                CodeLesson cl = (CodeLesson)lesson;
+                CaseResult[] results = new CodeGrader(l -> stepLimit).grade(cl, submission).getResults();
+                writeHeader(out, RESULT, results.length);
+                for(CaseResult r: results) {
+                    byte[] actual = null;
+                    if(r.getActual() != null) {
+                        actual = writer.encode(new TestTable.Builder(new Primitive[0], cl.getReturnType()).add(r.getActual()).build());
+                    }
+                    writeResult(out, r.getStatus().ordinal(), r.getSteps(), r.getError(), actual);
+                }
+            }
+        } catch(Exception | LinkageError e) {
+            bytes.reset();
+            writeHeader(out, FAILURE, 0);
+            writeString(out, e.toString());
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private static void writeHeader(DataOutputStream out, byte kind, int count) throws IOException {
+        Runtime rt = Runtime.getRuntime();
+        out.writeByte(kind);
+        out.writeLong(rt.totalMemory() - rt.freeMemory());
+        if(kind == RESULT) {
+            out.writeInt(count);
+        }
+    }
+
+    private static void writeResult(DataOutputStream out, int status, long steps, Throwable error, byte[] actual) throws IOException {
+        out.writeByte(status);
+        out.writeLong(steps);
+        out.writeBoolean(error != null);
+        if(error != null) {
+            out.writeUTF(error.getClass().getName());
+            writeString(out, error.getMessage());
+        }
+        out.writeBoolean(actual != null);
+        if(actual != null) {
+            writeBytes(out, actual);
+        }
+    }
+
+}
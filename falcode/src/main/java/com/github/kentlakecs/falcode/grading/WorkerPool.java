@@ -0,0 +1,357 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jackson Brienen
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.kentlakecs.falcode.grading;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.util.*;
+import java.util.concurrent.*;
+
+import com.github.kentlakecs.data.*;
+import com.github.kentlakecs.data.io.BinaryDataReader;
+import com.github.kentlakecs.data.io.BinaryDataWriter;
+import com.github.kentlakecs.falcode.compile.CompiledSubmission;
+import com.github.kentlakecs.falcode.util.FalcodeUtils;
+
+import static com.github.kentlakecs.falcode.grading.WorkerProtocol.*;
+
+/**
+ * Grades compiled submissions in a pool of separate JVMs, so that nothing a submission does can affect the grading JVM.
+ * <p>
+ * Each worker is a {@link WorkerMain} process started ahead of time, so the cost of starting a JVM is paid while the pool is idle rather than
+ * on each submission. A submission is sent as its compiled class bytes along with the fingerprint of its lesson, the lesson itself
+ * only being sent the first time a worker sees it, over the length prefixed binary {@link WorkerProtocol}.
+ * The results are rebuilt as the same {@link GradeResult} and {@link CodeGradeResult} returned by grading in process,
+ * except that errors are {@link RemoteError}s.
+ * <p>
+ * A worker is replaced once it has graded the maximum number of runs, or when the heap in use after a run exceeds the maximum heap,
+ * and also when it exits or takes longer than the timeout, in which case every result is an {@link GridResult.Status#ERROR}
+ * or {@link CaseResult.Status#ERROR}. Replacements are started straight away, so they are ready by the time they are needed.
+ * <p>
+ * A pool may be used by many threads at once, each submission taking a worker of its own.
+ *
+ * @author Jackson Brienen
+ * @version 1.0
+ */
+public final class WorkerPool implements AutoCloseable {
+
+    /**
+     * The number of runs after which a worker is replaced, when none is given
+     */
+    public static final int DEFAULT_MAX_RUNS = 200;
+
+    /**
+     * The heap in use in bytes after which a worker is replaced, when none is given
+     */
+    public static final long DEFAULT_MAX_HEAP = 256L << 20;
+
+    /**
+     * The time in milliseconds after which a worker is killed, when none is given
+     */
+    public static final long DEFAULT_TIMEOUT_MILLIS = 30_000;
+
+    /**
+     * The options of each worker JVM, when none are given
+     */
+    public static final List<String> DEFAULT_JVM_OPTIONS = Collections.unmodifiableList(Arrays.asList(
+        "-XX:+UseSerialGC", "-Xshare:auto", "-Djava.awt.headless=true"));
+
+    private final int maxRuns;
+    private final long maxHeap, timeout;
+    private final List<String> command;
+    private final BlockingQueue<Worker> idle = new LinkedBlockingQueue<>();
+    private final Set<Worker> workers = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService watchdog;
+    private final BinaryDataWriter writer = new BinaryDataWriter();
+    private final BinaryDataReader reader = new BinaryDataReader();
+    private volatile boolean closed;
+
+    /**
+     * Constructs a new {@link WorkerPool} with the default limits, starting its workers
+     * @param size the number of workers
+     * @throws IOException if a worker cannot be started
+     */
+    public WorkerPool(int size) throws IOException {
+        this(size, DEFAULT_MAX_RUNS, DEFAULT_MAX_HEAP, DEFAULT_TIMEOUT_MILLIS, DEFAULT_JVM_OPTIONS);
+    }
+
+    /**
+     * Constructs a new {@link WorkerPool}, starting its workers
+     * @param size the number of workers
+     * @param maxRuns the number of runs after which a worker is replaced
+     * @param maxHeap the heap in use in bytes after which a worker is replaced
+     * @param timeoutMillis the time in milliseconds a single submission may take before its worker is killed
+     * @param jvmOptions the options of each worker JVM
+     * @throws IOException if a worker cannot be started
+     */
+    public WorkerPool(int size, int maxRuns, long maxHeap, long timeoutMillis, List<String> jvmOptions) throws IOException {
+        if(size < 1) {
+            throw new IllegalArgumentException("Argument size must be greater than 0");
+        }
+        if(maxRuns < 1) {
+            throw new IllegalArgumentException("Argument maxRuns must be greater than 0");
+        }
+        this.maxRuns = maxRuns;
+        this.maxHeap = maxHeap;
+        this.timeout = timeoutMillis;
+
+        List<String> command = new ArrayList<>();
+        command.add(new File(new File(System.getProperty("java.home"), "bin"), "java").getPath());
+        command.addAll(jvmOptions);
+        command.add("-cp");
+        // The falcode and data classes are added in case they were not loaded from the class path
+        command.add(FalcodeUtils.classpath(WorkerMain.class, Lesson.class));
+        command.add(WorkerMain.class.getName());
+        this.command = Collections.unmodifiableList(command);
+
+        watchdog = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "Falcode Worker Watchdog");
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            for(int i = 0; i < size; i++) {
+                idle.add(start());
+            }
+        } catch(IOException e) {
+            close();
+            throw e;
+        }
+    }
+
+    private Worker start() throws IOException {
+        Worker w = new Worker(command);
+        workers.add(w);
+        return w;
+    }
+
+    /**
+     * Grades a submission against every starting grid of the given {@link VisualLesson} in a worker, see {@link VisualGrader}
+     * @param lesson the {@link VisualLesson} to grade against
+     * @param submission the submission compiled for the lesson
+     * @param stepLimit the maximum number of steps the program may take on each grid
+     * @return the {@link GradeResult}
+     * @throws IllegalStateException if the submission did not compile, the pool is closed, or the worker could not grade it
+     * @throws InterruptedException if interrupted while waiting for a worker
+     */
+    public GradeResult grade(VisualLesson lesson, CompiledSubmission submission, long stepLimit) throws InterruptedException {
+        Grid[] ending = lesson.getEndingGrids();
+        Response r = run(lesson, submission, stepLimit);
+        GridResult[] results = new GridResult[lesson.getStartingGrids().length];
+        try {
+            for(int i = 0; i < results.length; i++) {
+                Grid end = ending.length == 1 ? ending[0] : ending[i];
+                if(r.lost != null) {
+                    results[i] = new GridResult(i, GridResult.Status.ERROR, end, null, r.lost, 0);
+                    continue;
+                }
+                GridResult.Status status = GridResult.Status.values()[r.in.readByte()];
+                long steps = r.in.readLong();
+                RemoteError error = readError(r.in);
+                Grid actual = r.in.readBoolean() ? reader.decodeGrid(ByteBuffer.wrap(readBytes(r.in))) : null;
+                results[i] = new GridResult(i, status, end, actual, error, steps);
+            }
+        } catch(IOException | IndexOutOfBoundsException e) {
+            throw new IllegalStateException("Invalid response from worker", e);
+        }
+        return new GradeResult(results);
+    }
+
+    /**
+     * Grades a submission against every case of the {@link TestTable} of the given {@link CodeLesson} in a worker, see {@link CodeGrader}
+     * @param lesson the {@link CodeLesson} to grade against
+     * @param submission the submission compiled for the lesson
+     * @param stepLimit the maximum number of steps the method may take on each case
+     * @return the {@link CodeGradeResult}
+     * @throws IllegalArgumentException if the lesson has no {@link TestTable}
+     * @throws IllegalStateException if the submission did not compile, the pool is closed, or the worker could not grade it
+     * @throws InterruptedException if interrupted while waiting for a worker
+     */
+    public CodeGradeResult grade(CodeLesson lesson, CompiledSubmission submission, long stepLimit) throws InterruptedException {
+        TestTable table = lesson.getTestTable();
+        if(table == null) {
+            throw new IllegalArgumentException("Lesson '" + lesson.getName() + "' has no test table");
+        }
+        Response r = run(lesson, submission, stepLimit);
+        CaseResult[] results = new CaseResult[table.size()];
+        try {
+            for(int i = 0; i < results.length; i++) {
+                if(r.lost != null) {
+                    results[i] = new CaseResult(i, CaseResult.Status.ERROR, table.getExpected(i), null, r.lost, 0);
+                    continue;
+                }
+                CaseResult.Status status = CaseResult.Status.values()[r.in.readByte()];
+                long steps = r.in.readLong();
+                RemoteError error = readError(r.in);
+                Object actual = r.in.readBoolean() ? reader.decodeTestTable(ByteBuffer.wrap(readBytes(r.in))).getExpected(0) : null;
+                results[i] = new CaseResult(i, status, table.getExpected(i), actual, error, steps);
+            }
+        } catch(IOException | IndexOutOfBoundsException e) {
+            throw new IllegalStateException("Invalid response from worker", e);
+        }
+        return new CodeGradeResult(results);
+    }
+
+    private static RemoteError readError(DataInputStream in) throws IOException {
+        return in.readBoolean() ? new RemoteError(in.readUTF(), readString(in)) : null;
+    }
+
+    /**
+     * Sends a submission to an idle worker and waits for the response, replacing the worker if it is due to be replaced
+     */
+    private Response run(Lesson lesson, CompiledSubmission submission, long stepLimit) throws InterruptedException {
+        if(!submission.succeeded()) {
+            throw new IllegalStateException("The submission did not compile");
+        }
+        Worker w = take();
+        boolean keep = false;
+        try {
+            boolean sendLesson = !w.knows(lesson.getFingerprint());
+            byte[] request = request(lesson, submission, stepLimit, sendLesson);
+            byte[] response;
+            ScheduledFuture<?> kill = watchdog.schedule(w::kill, timeout, TimeUnit.MILLISECONDS);
+            boolean expired = false;
+            try {
+                response = w.call(request);
+            } catch(IOException e) {
+                String message = w.wasKilled() ? "The worker took longer than " + timeout + " ms" : "The worker exited unexpectedly";
+                return new Response(null, new RemoteError(null, message));
+            } finally {
+                // A kill which could not be cancelled has run or is running, even if the response arrived first
+                expired = !kill.cancel(false);
+            }
+            if(sendLesson) {
+                w.learned(lesson.getFingerprint());
+            }
+
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(response));
+            byte kind = in.readByte();
+            long heap = in.readLong();
+            keep = !expired && !w.wasKilled() && w.getRuns() < maxRuns && heap < maxHeap;
+            if(kind == FAILURE) {
+                throw new IllegalStateException("The worker could not grade the submission: " + readString(in));
+            }
+            if(kind != RESULT || in.readInt() < 0) {
+                throw new IllegalStateException("Invalid response from worker");
+            }
+            return new Response(in, null);
+        } catch(IOException e) {
+            throw new IllegalStateException("Invalid response from worker", e);
+        } finally {
+            release(w, keep);
+        }
+    }
+
+    private Worker take() throws InterruptedException {
+        while(true) {
+            if(closed) {
+                throw new IllegalStateException("The worker pool is closed");
+            }
+            Worker w = idle.poll(100, TimeUnit.MILLISECONDS);
+            if(w != null) {
+                return w;
+            }
+            if(workers.isEmpty()) {
+                try {
+                    return start();
+                } catch(IOException e) {
+                    throw new IllegalStateException("Unable to start a worker", e);
+                }
+            }
+        }
+    }
+
+    private void release(Worker w, boolean keep) {
+        if(keep && !closed) {
+            idle.add(w);
+            return;
+        }
+        workers.remove(w);
+        w.close();
+        if(!closed) {
+            try {
+                idle.add(start());
+            } catch(IOException e) {
+                // The pool is one worker smaller until take finds it empty and tries again
+            }
+        }
+    }
+
+    private byte[] request(Lesson lesson, CompiledSubmission submission, long stepLimit, boolean sendLesson) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(GRADE);
+        out.writeLong(lesson.getFingerprint().getHigh());
+        out.writeLong(lesson.getFingerprint().getLow());
+        out.writeBoolean(sendLesson);
+        if(sendLesson) {
+            writeBytes(out, writer.encode(lesson));
+        }
+        out.writeLong(stepLimit);
+        out.writeUTF(submission.getClassName());
+        Map<String, byte[]> classes = submission.getClasses();
+        out.writeInt(classes.size());
+        for(Map.Entry<String, byte[]> e: classes.entrySet()) {
+            out.writeUTF(e.getKey());
+            writeBytes(out, e.getValue());
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    /**
+     * @return The number of workers currently running, idle or busy
+     */
+    public int getWorkerCount() {
+        return workers.size();
+    }
+
+    /**
+     * Ends every worker process, after which the pool can no longer be used
+     */
+    @Override
+    public void close() {
+        closed = true;
+        watchdog.shutdownNow();
+        for(Worker w: workers) {
+            w.close();
+        }
+        workers.clear();
+        idle.clear();
+    }
+
+    /**
+     * The results of a response positioned after its header, or the error standing in for every result if the worker was lost
+     */
+    private static final class Response {
+        final DataInputStream in;
+        final RemoteError lost;
+
+        Response(DataInputStream in, RemoteError lost) {
+            this.in = in;
+            this.lost = lost;
+        }
+    }
+
+}
@@ -0,0 +1,135 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jackson Brienen
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.kentlakecs.falcode.grading;
+
+import java.io.*;
+
+/**
+ * The framing and field encodings shared by {@link WorkerPool} and the {@link WorkerMain} processes it talks to over their stdin and stdout.
+ * <p>
+ * Every message is a frame of a 4 byte big-endian length followed by that many bytes, the first of which is the kind of message.
+ * A worker sends {@link #HELLO} and the {@link #VERSION} once it has started. Each {@link #GRADE} request is then answered by a
+ * {@link #RESULT} or {@link #FAILURE}, one request at a time.
+ * <p>
+ * A {@link #GRADE} request is the lesson's fingerprint, a boolean followed by the binary encoded lesson the first time it is sent to a worker,
+ * the step limit, the name of the submission's class, and the name and bytes of each compiled class.
+ * A {@link #RESULT} is the heap in use by the worker, the number of results, and for each its status ordinal, steps,
+ * the error if any as its class name and message, and the actual value if any as the bytes of a grid or single row test table.
+ * A {@link #FAILURE} is the heap in use and a message.
+ *
+ * @author Jackson Brienen
+ * @version 1.0
+ */
+final class WorkerProtocol {
+
+    /**
+     * The version of the protocol, sent by a worker to check it matches the pool
+     */
+    static final int VERSION = 1;
+
+    /**
+     * Message kinds
+     */
+    static final byte HELLO = 0, GRADE = 1, RESULT = 2, FAILURE = 3;
+
+    /**
+     * The largest frame accepted, larger lengths being treated as a corrupt stream
+     */
+    static final int MAX_FRAME = 64 << 20;
+
+    /**
+     * The longest error message sent, longer ones are truncated
+     */
+    private static final int MAX_MESSAGE = 4096;
+
+    private WorkerProtocol() {}
+
+    /**
+     * Writes a frame and flushes it
+     * @param out the {@link DataOutputStream} to write to
+     * @param payload the bytes of the message
+     * @throws IOException if writing errors occur
+     */
+    static void writeFrame(DataOutputStream out, byte[] payload) throws IOException {
+        out.writeInt(payload.length);
+        out.write(payload);
+        out.flush();
+    }
+
+    /**
+     * Reads a frame
+     * @param in the {@link DataInputStream} to read from
+     * @return the bytes of the message
+     * @throws EOFException if the stream ended before a frame
+     * @throws IOException if reading errors occur or the length is invalid
+     */
+    static byte[] readFrame(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if(length < 1 || length > MAX_FRAME) {
+            throw new IOException("Invalid worker frame length " + length);
+        }
+        byte[] payload = new byte[length];
+        in.readFully(payload);
+        return payload;
+    }
+
+    /**
+     * Writes a nullable String, truncated to {@value #MAX_MESSAGE} characters
+     */
+    static void writeString(DataOutputStream out, String s) throws IOException {
+        out.writeBoolean(s != null);
+        if(s != null) {
+            out.writeUTF(s.length() > MAX_MESSAGE ? s.substring(0, MAX_MESSAGE) : s);
+        }
+    }
+
+    /**
+     * Reads a String written by {@link #writeString(DataOutputStream, String)}
+     */
+    static String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    /**
+     * Writes a length prefixed byte array
+     */
+    static void writeBytes(DataOutputStream out, byte[] b) throws IOException {
+        out.writeInt(b.length);
+        out.write(b);
+    }
+
+    /**
+     * Reads a byte array written by {@link #writeBytes(DataOutputStream, byte[])}
+     */
+    static byte[] readBytes(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if(length < 0 || length > MAX_FRAME) {
+            throw new IOException("Invalid worker field length " + length);
+        }
+        byte[] b = new byte[length];
+        in.readFully(b);
+        return b;
+    }
+
+}
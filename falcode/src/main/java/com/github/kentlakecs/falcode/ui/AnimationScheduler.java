@@ -0,0 +1,244 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jackson Brienen
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.kentlakecs.falcode.ui;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import javax.swing.SwingUtilities;
+
+import com.github.kentlakecs.data.Grid;
+import com.github.kentlakecs.falcode.world.*;
+
+/**
+ * Animates a program in a {@link GridView} without running it on the event dispatch thread.
+ * <p>
+ * On {@link #play(Grid, Falco, long, Consumer)} the program is run to completion on a worker thread, recording a {@link Trace},
+ * which is then replayed on the same thread at the current speed. Once per frame the worker copies the latest state to a snapshot
+ * and hands it to the event dispatch thread. If the previous snapshot has not yet been displayed it is replaced, so the event dispatch
+ * thread receives at most one pending update whatever the speed, and intermediate steps are never drawn.
+ * Snapshots are recycled between the two threads, so no more than three {@link World}s are used.
+ * <p>
+ * The speed may be anything from 0, paused, where {@link #step()} advances one step at a time, to {@link #INSTANT},
+ * where only the final state is drawn.
+ *
+ * @author Jackson Brienen
+ * @version 1.0
+ */
+public final class AnimationScheduler implements AutoCloseable {
+
+    /**
+     * The speed at which only the final state is drawn
+     */
+    public static final double INSTANT = Double.POSITIVE_INFINITY;
+
+    /**
+     * The number of frames published per second while playing
+     */
+    public static final int FRAMES_PER_SECOND = 60;
+
+    private final GridView view;
+    private final ScheduledExecutorService worker;
+    private final AtomicReference<World> pending = new AtomicReference<>(), spare = new AtomicReference<>();
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+    private volatile double speed;
+
+    /* Only accessed by the worker */
+    private TracePlayer player;
+    private World back;
+    private double progress;
+    private long lastFrame;
+    private ScheduledFuture<?> frames;
+    private Runnable onFinished;
+
+    /**
+     * Constructs a new {@link AnimationScheduler}
+     * @param view the {@link GridView} to animate in
+     * @param stepsPerSecond the initial speed
+     */
+    public AnimationScheduler(GridView view, double stepsPerSecond) {
+        this.view = view;
+        setSpeed(stepsPerSecond);
+        worker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "Falcode Animation");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Sets the speed of the animation, taking effect from the next frame
+     * @param stepsPerSecond the number of steps per second, 0 to pause, or {@link #INSTANT}
+     */
+    public void setSpeed(double stepsPerSecond) {
+        if(!(stepsPerSecond >= 0)) {
+            throw new IllegalArgumentException("Argument stepsPerSecond must be greater than or equal to 0");
+        }
+        speed = stepsPerSecond;
+    }
+
+    /**
+     * @return The number of steps per second
+     */
+    public double getSpeed() {
+        return speed;
+    }
+
+    /**
+     * Stops any current animation, then runs the given program from the given {@link Grid} and animates it
+     * @param start the starting {@link Grid}
+     * @param program the program to run
+     * @param stepLimit the maximum number of steps the program may take
+     * @param finished called on the event dispatch thread once the final state has been displayed,
+     *  with the {@link Throwable} that ended the program or null if it finished normally
+     */
+    public void play(Grid start, Falco program, long stepLimit, Consumer<? super Throwable> finished) {
+        worker.execute(() -> {
+            stopNow();
+            World world = new World(start);
+            Trace trace = new Trace(world);
+            world.setTrace(trace);
+            world.setStepBudget(new StepBudget(stepLimit));
+            Throwable error = null;
+            try {
+                world.run(program);
+            } catch(Throwable t) {
+                error = t;
+            }
+            world.setTrace(null);
+
+            Throwable result = error;
+            onFinished = () -> SwingUtilities.invokeLater(() -> finished.accept(result));
+            player = new TracePlayer(trace);
+            progress = 0;
+            lastFrame = System.nanoTime();
+            publish();
+            frames = worker.scheduleAtFixedRate(this::frame, 0, 1_000_000_000L / FRAMES_PER_SECOND, TimeUnit.NANOSECONDS);
+        });
+    }
+
+    /**
+     * Advances the current animation by one step, intended for use while paused
+     */
+    public void step() {
+        worker.execute(() -> {
+            if(player != null && player.next()) {
+                publish();
+                if(player.isFinished()) {
+                    finish();
+                }
+            }
+        });
+    }
+
+    /**
+     * Stops the current animation, leaving its current state displayed
+     */
+    public void stop() {
+        worker.execute(this::stopNow);
+    }
+
+    private void stopNow() {
+        if(frames != null) {
+            frames.cancel(false);
+            frames = null;
+        }
+        player = null;
+        onFinished = null;
+    }
+
+    private void frame() {
+        long now = System.nanoTime();
+        double elapsed = (now - lastFrame) / 1e9;
+        lastFrame = now;
+        if(player == null) {
+            return;
+        }
+
+        int length = player.getTrace().length();
+        double s = speed;
+        int target;
+        if(s == INSTANT) {
+            target = length;
+        } else {
+            // Steps taken by step() while paused count as progress
+            progress = Math.min(length, Math.max(progress, player.getStep()) + s * elapsed);
+            target = (int)progress;
+        }
+        if(target != player.getStep()) {
+            player.seek(target);
+            publish();
+        }
+        if(player.isFinished()) {
+            finish();
+        }
+    }
+
+    private void finish() {
+        Runnable r = onFinished;
+        stopNow();
+        if(r != null) {
+            // Queued after the final state is displayed
+            r.run();
+        }
+    }
+
+    /**
+     * Hands a copy of the player's state to the event dispatch thread, replacing any copy it has not yet displayed
+     */
+    private void publish() {
+        if(back == null) {
+            back = spare.getAndSet(null);
+        }
+        if(back == null) {
+            back = new World(player.getWorld());
+        } else {
+            back.copyFrom(player.getWorld());
+        }
+        back = pending.getAndSet(back);
+        if(drainScheduled.compareAndSet(false, true)) {
+            SwingUtilities.invokeLater(this::drain);
+        }
+    }
+
+    private void drain() {
+        drainScheduled.set(false);
+        World w = pending.getAndSet(null);
+        if(w != null) {
+            view.display(w);
+            spare.set(w);
+        }
+    }
+
+    /**
+     * Stops the worker thread, after which this scheduler can no longer be used
+     */
+    @Override
+    public void close() {
+        worker.shutdownNow();
+    }
+
+}
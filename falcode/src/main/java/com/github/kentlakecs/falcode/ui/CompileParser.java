@@ -0,0 +1,140 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jackson Brienen
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.kentlakecs.falcode.ui;
+
+import java.util.Collections;
+import java.util.List;
+
+import javax.swing.SwingUtilities;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Element;
+import javax.tools.Diagnostic;
+
+import org.fife.ui.rsyntaxtextarea.RSyntaxDocument;
+import org.fife.ui.rsyntaxtextarea.RSyntaxTextArea;
+import org.fife.ui.rsyntaxtextarea.parser.*;
+
+import com.github.kentlakecs.data.Lesson;
+import com.github.kentlakecs.falcode.compile.BackgroundCompiler;
+import com.github.kentlakecs.falcode.compile.CompileDiagnostic;
+
+/**
+ * {@link Parser} which shows the diagnostics of compiling the code in an {@link RSyntaxTextArea} as it is written, without compiling on the event dispatch thread.
+ * <p>
+ * When the text area asks for the code to be parsed, the code is handed to a {@link BackgroundCompiler} and the notices of the
+ * last diagnostics received are returned straight away. Once the compiler delivers the diagnostics of the latest code,
+ * the text area is asked to parse again, which then only returns the new notices.
+ * <p>
+ * Add the parser with {@link RSyntaxTextArea#addParser(Parser)} once {@link #setLesson(Lesson)} has been called.
+ *
+ * @author Jackson Brienen
+ * @version 1.0
+ */
+public final class CompileParser extends AbstractParser {
+
+    private final RSyntaxTextArea textArea;
+    private final BackgroundCompiler compiler;
+
+    /* Only accessed on the event dispatch thread */
+    private Lesson lesson;
+    private String submitted;
+    private List<CompileDiagnostic> diagnostics = Collections.emptyList();
+
+    /**
+     * Constructs a new {@link CompileParser}
+     * @param textArea the {@link RSyntaxTextArea} the code is written in
+     * @param compiler the {@link BackgroundCompiler} to compile with, which may be shared with other parsers
+     */
+    public CompileParser(RSyntaxTextArea textArea, BackgroundCompiler compiler) {
+        this.textArea = textArea;
+        this.compiler = compiler;
+    }
+
+    /**
+     * Sets the {@link Lesson} the code is written for, clearing the current notices. Must be called on the event dispatch thread.
+     * @param lesson the {@link com.github.kentlakecs.data.VisualLesson} or {@link com.github.kentlakecs.data.CodeLesson}, or null to stop compiling
+     */
+    public void setLesson(Lesson lesson) {
+        this.lesson = lesson;
+        submitted = null;
+        diagnostics = Collections.emptyList();
+        compiler.cancel();
+        textArea.forceReparsing(this);
+    }
+
+    @Override
+    public ParseResult parse(RSyntaxDocument doc, String style) {
+        DefaultParseResult result = new DefaultParseResult(this);
+        Element root = doc.getDefaultRootElement();
+        result.setParsedLines(0, root.getElementCount() - 1);
+        if(lesson == null) {
+            return result;
+        }
+
+        String code;
+        try {
+            code = doc.getText(0, doc.getLength());
+        } catch(BadLocationException e) {
+            result.setError(e);
+            return result;
+        }
+        if(!code.equals(submitted)) {
+            submitted = code;
+            compiler.submit(lesson, code, d -> SwingUtilities.invokeLater(() -> received(code, d)));
+        }
+
+        for(CompileDiagnostic d: diagnostics) {
+            if(d.getOrigin() == CompileDiagnostic.Origin.SUBMISSION && d.getLine() >= 1 && d.getLine() <= root.getElementCount()) {
+                result.addNotice(notice(doc, root, (int)d.getLine() - 1, d));
+            }
+        }
+        return result;
+    }
+
+    private void received(String code, List<CompileDiagnostic> received) {
+        if(code.equals(submitted)) {
+            diagnostics = received;
+            textArea.forceReparsing(this);
+        }
+    }
+
+    private ParserNotice notice(RSyntaxDocument doc, Element root, int index, CompileDiagnostic d) {
+        Element line = root.getElement(index);
+        int start = line.getStartOffset(), end = line.getEndOffset() - 1;
+        int offset = (int)Math.min(start + Math.max(d.getColumn(), 1) - 1, end);
+        int length = 0;
+        try {
+            String text = doc.getText(offset, end - offset);
+            while(length < text.length() && Character.isJavaIdentifierPart(text.charAt(length))) {
+                length++;
+            }
+        } catch(BadLocationException e) {
+            // Marked with a length of one
+        }
+        DefaultParserNotice notice = new DefaultParserNotice(this, d.getMessage(), index, offset, Math.max(length, 1));
+        notice.setLevel(d.getKind() == Diagnostic.Kind.ERROR ? ParserNotice.Level.ERROR : ParserNotice.Level.WARNING);
+        return notice;
+    }
+
+}
@@ -0,0 +1,182 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jackson Brienen
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.kentlakecs.falcode.ui;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+
+import javax.swing.JComponent;
+
+import com.github.kentlakecs.data.Grid;
+import com.github.kentlakecs.falcode.world.World;
+
+/**
+ * Draws the state of a {@link World} or {@link Grid}, redrawing only the tiles which changed since it was last shown.
+ * <p>
+ * The view keeps a frame image of the whole grid and the sprite key of each tile drawn to it.
+ * When shown a new state, only tiles whose key changed are drawn to the frame, each from a {@link TileAtlas} sprite,
+ * and only their rectangles are repainted, so painting is a copy of the clip from the frame.
+ * When the state is known to have changed in only a few tiles, as after a single step, {@link #displayTile(World, int, int)} avoids comparing every tile.
+ * <p>
+ * As with any Swing component, a GridView must only be used on the event dispatch thread.
+ *
+ * @author Jackson Brienen
+ * @version 1.0
+ */
+public class GridView extends JComponent {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The preferred width and height of each tile in pixels
+     */
+    public static final int PREFERRED_TILE_SIZE = 32;
+
+    private int size;
+    private long[] keys = new long[0];
+    private transient BufferedImage frame;
+    private transient TileAtlas atlas;
+    private int offsetX, offsetY;
+
+    /**
+     * Constructs a new empty {@link GridView}
+     */
+    public GridView() {
+        setOpaque(true);
+    }
+
+    /**
+     * Shows the given {@link Grid}
+     * @param g the {@link Grid} to show
+     */
+    public void display(Grid g) {
+        display(new World(g));
+    }
+
+    /**
+     * Shows the state of the given {@link World}, redrawing each tile which changed since the last state shown
+     * @param w the {@link World} to show
+     */
+    public void display(World w) {
+        if(w.getSize() != size) {
+            size = w.getSize();
+            keys = new long[size * size];
+            Arrays.fill(keys, -1);
+            frame = null;
+            revalidate();
+            repaint();
+        }
+        for(int y = 0; y < size; y++) {
+            for(int x = 0; x < size; x++) {
+                update(w, x, y);
+            }
+        }
+    }
+
+    /**
+     * Shows the state of a single tile of the given {@link World}, which must be the size of the state last shown.
+     * After a step, only the tiles Falco was on before and after the step can have changed.
+     * @param w the {@link World} to show
+     * @param x the x coordinate of the tile
+     * @param y the y coordinate of the tile
+     */
+    public void displayTile(World w, int x, int y) {
+        if(w.getSize() != size) {
+            display(w);
+        } else {
+            update(w, x, y);
+        }
+    }
+
+    private void update(World w, int x, int y) {
+        int falco = w.getX() == x && w.getY() == y ? w.getDirection().getValue() : -1;
+        long key = TileAtlas.key(w.colorAt(x, y), w.cellAt(x, y), w.ballsAt(x, y), falco);
+        int i = y * size + x;
+        if(keys[i] == key) {
+            return;
+        }
+        keys[i] = key;
+        if(frame != null) {
+            Graphics g = frame.getGraphics();
+            int tile = atlas.getTileSize();
+            atlas.draw(g, key, x * tile, y * tile);
+            g.dispose();
+            repaint(offsetX + x * tile, offsetY + y * tile, tile, tile);
+        }
+    }
+
+    /**
+     * Creates the frame and redraws every tile to it if the size of the tiles has changed
+     */
+    private void layoutFrame() {
+        int tile = Math.max(1, Math.min(getWidth(), getHeight()) / Math.max(1, size));
+        offsetX = (getWidth() - tile * size) / 2;
+        offsetY = (getHeight() - tile * size) / 2;
+        if(frame != null && atlas.getTileSize() == tile) {
+            return;
+        }
+
+        GraphicsConfiguration configuration = getGraphicsConfiguration();
+        if(atlas == null || atlas.getTileSize() != tile) {
+            atlas = new TileAtlas(tile, configuration);
+        }
+        int pixels = Math.max(1, tile * size);
+        frame = configuration == null ? new BufferedImage(pixels, pixels, BufferedImage.TYPE_INT_RGB) : configuration.createCompatibleImage(pixels, pixels);
+        Graphics g = frame.getGraphics();
+        for(int i = 0; i < keys.length; i++) {
+            atlas.draw(g, keys[i], i % size * tile, i / size * tile);
+        }
+        g.dispose();
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        Rectangle clip = g.getClipBounds();
+        if(clip == null) {
+            clip = new Rectangle(0, 0, getWidth(), getHeight());
+        }
+        if(size > 0) {
+            layoutFrame();
+        }
+
+        // Only the margin around the frame needs filling
+        if(frame == null || !new Rectangle(offsetX, offsetY, frame.getWidth(), frame.getHeight()).contains(clip)) {
+            g.setColor(getBackground());
+            g.fillRect(clip.x, clip.y, clip.width, clip.height);
+        }
+        if(frame != null) {
+            g.drawImage(frame, offsetX, offsetY, null);
+        }
+    }
+
+    @Override
+    public Dimension getPreferredSize() {
+        if(isPreferredSizeSet() || size == 0) {
+            return super.getPreferredSize();
+        }
+        return new Dimension(size * PREFERRED_TILE_SIZE, size * PREFERRED_TILE_SIZE);
+    }
+
+}
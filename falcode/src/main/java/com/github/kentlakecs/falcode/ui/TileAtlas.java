@@ -0,0 +1,201 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jackson Brienen
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.kentlakecs.falcode.ui;
+
+import java.awt.*;
+import java.awt.geom.Path2D;
+import java.awt.image.BufferedImage;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.github.kentlakecs.data.Direction;
+
+/**
+ * Pre-rendered sprites of tiles of a single size, held in one {@link BufferedImage} and keyed by the state of the tile they show.
+ * A key packs the ARGB background, the barrier bits, the ball count up to {@value #MAX_BALLS}, and the direction of Falco if present.
+ * Sprites are rendered the first time their key is drawn, and every sprite is discarded once {@value #MAX_SPRITES} have been rendered.
+ *
+ * @author Jackson Brienen
+ * @version 1.0
+ */
+final class TileAtlas {
+
+    /**
+     * Ball counts above this are drawn as the same sprite
+     */
+    static final int MAX_BALLS = 100;
+
+    private static final int COLUMNS = 16, MAX_SPRITES = 1024;
+    private static final Color GRID_LINE = new Color(0x808080), BARRIER = new Color(0x202020),
+        BALL = new Color(0x1E3A8A), BALL_TEXT = Color.WHITE, FALCO = new Color(0xE07010), FALCO_OUTLINE = new Color(0x603000);
+
+    private final int tile;
+    private final GraphicsConfiguration configuration;
+    private final Map<Long, Integer> slots = new HashMap<>();
+    private BufferedImage image;
+
+    /**
+     * Constructs a new empty {@link TileAtlas}
+     * @param tile the width and height of each sprite in pixels
+     * @param configuration the {@link GraphicsConfiguration} the sprites will be drawn to, or null if unknown
+     */
+    TileAtlas(int tile, GraphicsConfiguration configuration) {
+        this.tile = tile;
+        this.configuration = configuration;
+    }
+
+    /**
+     * Packs the state of a tile in to a sprite key
+     * @param argb the packed ARGB background color
+     * @param barriers the barrier bits
+     * @param balls the number of balls
+     * @param falco the value of the {@link Direction} Falco is facing, or -1 if Falco is not on the tile
+     * @return the key
+     */
+    static long key(int argb, int barriers, int balls, int falco) {
+        return (argb & 0xFFFFFFFFL) | (long)(barriers & 0xF) << 32 | (long)Math.min(balls, MAX_BALLS) << 36 | (long)(falco + 1) << 43;
+    }
+
+    /**
+     * @return The width and height of each sprite in pixels
+     */
+    int getTileSize() {
+        return tile;
+    }
+
+    /**
+     * Draws the sprite for the given key, rendering it first if needed
+     * @param g the {@link Graphics} to draw to
+     * @param key the key of the tile
+     * @param x the x pixel to draw at
+     * @param y the y pixel to draw at
+     */
+    void draw(Graphics g, long key, int x, int y) {
+        Integer slot = slots.get(key);
+        if(slot == null) {
+            slot = add(key);
+        }
+        int sx = slot % COLUMNS * tile, sy = slot / COLUMNS * tile;
+        g.drawImage(image, x, y, x + tile, y + tile, sx, sy, sx + tile, sy + tile, null);
+    }
+
+    private int add(long key) {
+        if(slots.size() == MAX_SPRITES) {
+            slots.clear();
+        }
+        int slot = slots.size();
+        int rows = slot / COLUMNS + 1;
+        if(image == null || image.getHeight() < rows * tile) {
+            BufferedImage grown = create(COLUMNS * tile, Math.min(MAX_SPRITES / COLUMNS, Math.max(rows, image == null ? 1 : image.getHeight() / tile * 2)) * tile);
+            if(image != null) {
+                Graphics g = grown.getGraphics();
+                g.drawImage(image, 0, 0, null);
+                g.dispose();
+            }
+            image = grown;
+        }
+
+        Graphics2D g = image.createGraphics();
+        g.translate(slot % COLUMNS * tile, slot / COLUMNS * tile);
+        g.clipRect(0, 0, tile, tile);
+        paint(g, key, tile);
+        g.dispose();
+        slots.put(key, slot);
+        return slot;
+    }
+
+    private BufferedImage create(int width, int height) {
+        return configuration == null ? new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB) : configuration.createCompatibleImage(width, height);
+    }
+
+    /**
+     * Renders a tile
+     * @param g the {@link Graphics2D} to render to, translated to the top left of the tile
+     * @param key the key of the tile
+     * @param size the width and height of the tile in pixels
+     */
+    static void paint(Graphics2D g, long key, int size) {
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+
+        int argb = (int)key;
+        int barriers = (int)(key >>> 32) & 0xF;
+        int balls = (int)(key >>> 36) & 0x7F;
+        int falco = (int)(key >>> 43) - 1;
+
+        g.setColor(Color.WHITE);
+        g.fillRect(0, 0, size, size);
+        g.setColor(new Color(argb, true));
+        g.fillRect(0, 0, size, size);
+        g.setColor(GRID_LINE);
+        g.drawRect(0, 0, size - 1, size - 1);
+
+        g.setColor(BARRIER);
+        int t = Math.max(2, size / 10);
+        if((barriers & 1 << Direction.TOP.getValue()) != 0) {
+            g.fillRect(0, 0, size, t);
+        }
+        if((barriers & 1 << Direction.RIGHT.getValue()) != 0) {
+            g.fillRect(size - t, 0, t, size);
+        }
+        if((barriers & 1 << Direction.BOTTOM.getValue()) != 0) {
+            g.fillRect(0, size - t, size, t);
+        }
+        if((barriers & 1 << Direction.LEFT.getValue()) != 0) {
+            g.fillRect(0, 0, t, size);
+        }
+
+        if(balls > 0) {
+            int d = size / 2;
+            g.setColor(BALL);
+            g.fillOval((size - d) / 2, (size - d) / 2, d, d);
+            if(balls > 1) {
+                String label = balls >= MAX_BALLS ? (MAX_BALLS - 1) + "+" : Integer.toString(balls);
+                g.setFont(g.getFont().deriveFont(Font.BOLD, Math.max(6f, d * (label.length() > 2 ? 0.4f : 0.55f))));
+                FontMetrics m = g.getFontMetrics();
+                g.setColor(BALL_TEXT);
+                g.drawString(label, (size - m.stringWidth(label)) / 2, (size - m.getHeight()) / 2 + m.getAscent());
+            }
+        }
+
+        if(falco >= 0) {
+            double c = size / 2.0, r = size * 0.38;
+            Path2D.Double arrow = new Path2D.Double();
+            arrow.moveTo(c, c - r);
+            arrow.lineTo(c + r * 0.8, c + r * 0.8);
+            arrow.lineTo(c, c + r * 0.4);
+            arrow.lineTo(c - r * 0.8, c + r * 0.8);
+            arrow.closePath();
+            Graphics2D a = (Graphics2D)g.create();
+            a.rotate(Math.PI / 2 * falco, c, c);
+            a.setColor(balls > 0 ? new Color(FALCO.getRGB() & 0xFFFFFF | 0xC0 << 24, true) : FALCO);
+            a.fill(arrow);
+            a.setColor(FALCO_OUTLINE);
+            a.setStroke(new BasicStroke(Math.max(1f, size / 24f)));
+            a.draw(arrow);
+            a.dispose();
+        }
+    }
+
+}
@@ -0,0 +1,61 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jackson Brienen
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.kentlakecs.falcode.util;
+
+import java.io.File;
+import java.net.URISyntaxException;
+import java.security.CodeSource;
+
+/**
+ * Utility class to assist with the Falcode application
+ *
+ * @author Jackson Brienen
+ * @version 1.0
+ */
+public final class FalcodeUtils {
+
+    private FalcodeUtils() {}
+
+    /**
+     * Finds the class path of the running application, along with the location each of the given classes was loaded from,
+     * in case they were not loaded from the class path
+     * @param classes the classes whose locations are added
+     * @return the class path
+     */
+    public static String classpath(Class<?>... classes) {
+        StringBuilder classpath = new StringBuilder(System.getProperty("java.class.path"));
+        for(Class<?> c: classes) {
+            CodeSource source = c.getProtectionDomain().getCodeSource();
+            if(source != null) {
+                try {
+                    classpath.append(File.pathSeparator).append(new File(source.getLocation().toURI()).getPath());
+                } catch(URISyntaxException | IllegalArgumentException e) {
+                    // The class path alone is used
+                }
+            }
+        }
+        return classpath.toString();
+    }
+
+}
@@ -0,0 +1,146 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jackson Brienen
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.kentlakecs.falcode.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Caches the results of an expensive computation by key, keeping the most recently used results up to the cache size.
+ * Identical requests made while the first is still being computed wait for its result, so each is computed once.
+ * A computation which throws is not cached, its exception being rethrown to every request waiting on it.
+ *
+ * @author Jackson Brienen
+ * @version 1.0
+ * @param <K> the type of the keys, which must implement {@link Object#equals(Object)} and {@link Object#hashCode()}
+ * @param <V> the type of the results
+ */
+public final class Memoizer<K, V> {
+
+    private final Map<K, FutureTask<V>> cache;
+
+    /**
+     * Constructs a new {@link Memoizer}
+     * @param cacheSize the maximum number of results to cache, 0 to disable caching
+     */
+    public Memoizer(int cacheSize) {
+        if(cacheSize < 0) {
+            throw new IllegalArgumentException("Argument cacheSize must be greater than or equal to 0");
+        }
+        cache = new LinkedHashMap<K, FutureTask<V>>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, FutureTask<V>> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached result for the given key, computing it on the calling thread if there is none.
+     * Waiting for another thread's computation is not interruptible, the interrupt status being restored once the result is ready.
+     * @param key the key
+     * @param computation computes the result if it is not cached
+     * @return the result
+     * @throws IllegalStateException if the computation threw a checked exception, runtime exceptions and errors being rethrown as is
+     */
+    public V get(K key, Callable<V> computation) {
+        FutureTask<V> task;
+        boolean owner = false;
+        synchronized(cache) {
+            task = cache.get(key);
+            if(task == null) {
+                task = new FutureTask<>(computation);
+                cache.put(key, task);
+                owner = true;
+            }
+        }
+
+        if(owner) {
+            task.run();
+        }
+
+        boolean interrupted = false;
+        try {
+            while(true) {
+                try {
+                    return task.get();
+                } catch(InterruptedException e) {
+                    interrupted = true;
+                } catch(ExecutionException e) {
+                    synchronized(cache) {
+                        cache.remove(key, task);
+                    }
+                    if(e.getCause() instanceof RuntimeException) {
+                        throw (RuntimeException)e.getCause();
+                    }
+                    if(e.getCause() instanceof Error) {
+                        throw (Error)e.getCause();
+                    }
+                    throw new IllegalStateException(e.getCause());
+                }
+            }
+        } finally {
+            if(interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Caches an already known result, unless the key already has one
+     * @param key the key
+     * @param value the result
+     */
+    public void putIfAbsent(K key, V value) {
+        FutureTask<V> done = new FutureTask<>(() -> value);
+        done.run();
+        synchronized(cache) {
+            cache.putIfAbsent(key, done);
+        }
+    }
+
+    /**
+     * @return The number of results currently cached, including those still being computed
+     */
+    public int size() {
+        synchronized(cache) {
+            return cache.size();
+        }
+    }
+
+    /**
+     * Removes every cached result, computations already running still completing for the requests waiting on them
+     */
+    public void clear() {
+        synchronized(cache) {
+            cache.clear();
+        }
+    }
+
+}
@@ -0,0 +1,63 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jackson Brienen
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.kentlakecs.falcode.world;
+
+/**
+ * Thrown when Falco attempts to take a ball from a tile without any balls
+ *
+ * @author Jackson Brienen
+ * @version 1.0
+ */
+public class BallNotFoundException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int x, y;
+
+    /**
+     * Constructs a new {@link BallNotFoundException}
+     * @param x the x coordinate of the empty tile
+     * @param y the y coordinate of the empty tile
+     */
+    public BallNotFoundException(int x, int y) {
+        super(String.format("No ball is present at (%d, %d)", x, y));
+        this.x = x;
+        this.y = y;
+    }
+
+    /**
+     * @return The x coordinate of the empty tile
+     */
+    public int getX() {
+        return x;
+    }
+
+    /**
+     * @return The y coordinate of the empty tile
+     */
+    public int getY() {
+        return y;
+    }
+
+}
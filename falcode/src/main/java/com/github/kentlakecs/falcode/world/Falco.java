@@ -0,0 +1,116 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jackson Brienen
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.kentlakecs.falcode.world;
+
+import java.awt.Color;
+
+import com.github.kentlakecs.data.Method;
+
+/**
+ * Base class of the code written for a {@link com.github.kentlakecs.data.VisualLesson}.
+ * Each {@link Method} is provided as a method of this class and forwards to the {@link World} Falco is run in by {@link World#run(Falco)}.
+ *
+ * @author Jackson Brienen
+ * @version 1.0
+ */
+public abstract class Falco {
+
+    World world;
+
+    /**
+     * The code to run within the {@link World}
+     */
+    public abstract void run();
+
+    /**
+     * @see Method#MOVE
+     */
+    protected final void move() {
+        world.move();
+    }
+
+    /**
+     * @see Method#TURN_LEFT
+     */
+    protected final void turnLeft() {
+        world.turnLeft();
+    }
+
+    /**
+     * @see Method#TURN_RIGHT
+     */
+    protected final void turnRight() {
+        world.turnRight();
+    }
+
+    /**
+     * @see Method#PLACE_BALL
+     */
+    protected final void placeBall() {
+        world.placeBall();
+    }
+
+    /**
+     * @see Method#TAKE_BALL
+     */
+    protected final void takeBall() {
+        world.takeBall();
+    }
+
+    /**
+     * @see Method#BALL_IS_PRESENT
+     */
+    protected final boolean ballIsPresent() {
+        return world.ballIsPresent();
+    }
+
+    /**
+     * @see Method#PAINT
+     */
+    protected final void paint(Color color) {
+        world.paint(color.getRGB());
+    }
+
+    /**
+     * @see Method#FRONT_IS_CLEAR
+     */
+    protected final boolean frontIsClear() {
+        return world.frontIsClear();
+    }
+
+    /**
+     * @see Method#LEFT_IS_CLEAR
+     */
+    protected final boolean leftIsClear() {
+        return world.leftIsClear();
+    }
+
+    /**
+     * @see Method#RIGHT_IS_CLEAR
+     */
+    protected final boolean rightIsClear() {
+        return world.rightIsClear();
+    }
+
+}
@@ -0,0 +1,75 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jackson Brienen
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.kentlakecs.falcode.world;
+
+import com.github.kentlakecs.data.Direction;
+
+/**
+ * Thrown when Falco moves into a barrier or the edge of the grid
+ *
+ * @author Jackson Brienen
+ * @version 1.0
+ */
+public class RanIntoBarrierException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int x, y;
+    private final Direction direction;
+
+    /**
+     * Constructs a new {@link RanIntoBarrierException}
+     * @param x the x coordinate Falco attempted to move from
+     * @param y the y coordinate Falco attempted to move from
+     * @param direction the direction Falco attempted to move in
+     */
+    public RanIntoBarrierException(int x, int y, Direction direction) {
+        super(String.format("Falco ran into a barrier at (%d, %d) moving %s", x, y, direction));
+        this.x = x;
+        this.y = y;
+        this.direction = direction;
+    }
+
+    /**
+     * @return The x coordinate Falco attempted to move from
+     */
+    public int getX() {
+        return x;
+    }
+
+    /**
+     * @return The y coordinate Falco attempted to move from
+     */
+    public int getY() {
+        return y;
+    }
+
+    /**
+     * @return The {@link Direction} Falco attempted to move in
+     */
+    public Direction getDirection() {
+        return direction;
+    }
+
+}
@@ -0,0 +1,150 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jackson Brienen
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.kentlakecs.falcode.world;
+
+/**
+ * Limits the number of steps a single run of a program may take, ending the run with a {@link StepLimitExceededError} once the limit is exceeded.
+ * A step is taken by each call to a {@link com.github.kentlakecs.data.Method} of a {@link World}, and by each iteration of a loop within compiled submissions,
+ * whose loops are instrumented to call {@link #tick()}.
+ * <p>
+ * A StepBudget is used by a single thread at a time. Running a budget within another never widens the enclosing budget,
+ * each step being taken from every budget running on the thread, so a submission cannot escape its limit by running its own.
+ *
+ * @author Jackson Brienen
+ * @version 1.0
+ */
+public final class StepBudget {
+
+    /**
+     * The step limit used when none is given for a lesson
+     */
+    public static final long DEFAULT_LIMIT = 1_000_000;
+
+    private static final ThreadLocal<StepBudget> CURRENT = new ThreadLocal<>();
+
+    private final long limit;
+    private long steps;
+    private boolean exceeded;
+    /* The budget running on the thread when this one started running, which is charged for each step as well */
+    private StepBudget outer;
+
+    /**
+     * Constructs a new {@link StepBudget}
+     * @param limit the maximum number of steps, {@link Long#MAX_VALUE} for no limit
+     */
+    public StepBudget(long limit) {
+        if(limit < 0) {
+            throw new IllegalArgumentException("Argument limit must be greater than or equal to 0");
+        }
+        this.limit = limit;
+    }
+
+    /**
+     * Takes a step from this budget and every budget it is running within
+     * @throws StepLimitExceededError if the limit of any of them has been exceeded
+     */
+    public void step() {
+        for(StepBudget b = this; b != null; b = b.outer) {
+            b.take();
+        }
+    }
+
+    private void take() {
+        if(++steps > limit) {
+            steps = limit;
+            exceeded = true;
+            throw new StepLimitExceededError(limit);
+        }
+    }
+
+    /**
+     * @return The number of steps taken
+     */
+    public long getSteps() {
+        return steps;
+    }
+
+    /**
+     * @return true if a step was taken beyond the limit, even if the resulting {@link StepLimitExceededError} was caught
+     */
+    public boolean isExceeded() {
+        return exceeded;
+    }
+
+    /**
+     * @return The maximum number of steps
+     */
+    public long getLimit() {
+        return limit;
+    }
+
+    /**
+     * Runs the given code with this as the budget used by {@link #tick()} on the current thread.
+     * If another budget is already running, it is still charged for every step taken within the code.
+     * @param r the code to run
+     */
+    public void run(Runnable r) {
+        StepBudget previous = CURRENT.get();
+        for(StepBudget b = previous; b != null; b = b.outer) {
+            if(b == this) {
+                // Already charged for every step
+                r.run();
+                return;
+            }
+        }
+        StepBudget enclosing = outer;
+        outer = previous;
+        CURRENT.set(this);
+        try {
+            r.run();
+        } finally {
+            outer = enclosing;
+            if(previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Takes a step from the budget of the current thread, if any.
+     * Calls to this method are inserted in to each loop of a compiled submission.
+     * @return true, so that it may be used within a loop condition
+     * @throws StepLimitExceededError if the limit has been exceeded
+     */
+    public static boolean tick() {
+        StepBudget b = CURRENT.get();
+        if(b != null) {
+            b.step();
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return steps + "/" + limit + " steps";
+    }
+
+}
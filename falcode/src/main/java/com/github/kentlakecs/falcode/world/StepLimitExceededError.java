@@ -0,0 +1,55 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jackson Brienen
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.kentlakecs.falcode.world;
+
+/**
+ * Thrown when a program exceeds the limit of its {@link StepBudget}.
+ * This is an {@link Error} so that it is not caught by student code catching {@link Exception}.
+ *
+ * @author Jackson Brienen
+ * @version 1.0
+ */
+public class StepLimitExceededError extends Error {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long limit;
+
+    /**
+     * Constructs a new {@link StepLimitExceededError}
+     * @param limit the limit which was exceeded
+     */
+    public StepLimitExceededError(long limit) {
+        super("Too many steps, the limit of " + limit + " steps was reached");
+        this.limit = limit;
+    }
+
+    /**
+     * @return The limit which was exceeded
+     */
+    public long getLimit() {
+        return limit;
+    }
+
+}
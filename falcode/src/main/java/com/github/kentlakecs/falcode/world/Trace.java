@@ -0,0 +1,173 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jackson Brienen
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.kentlakecs.falcode.world;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.github.kentlakecs.data.Method;
+
+/**
+ * A record of every operation completed by a {@link World} while it has this Trace set, from which a {@link TracePlayer} replays the run.
+ * Each operation is held as one byte, the ordinal of its {@link Method}, with the colors of {@link Method#PAINT} operations held separately.
+ * A copy of the {@link World} is kept as a checkpoint every {@link #getCheckpointInterval()} operations so that any step is reached quickly.
+ * <p>
+ * A Trace must not be read while it is being recorded.
+ *
+ * @author Jackson Brienen
+ * @version 1.0
+ */
+public final class Trace {
+
+    /**
+     * The number of operations between checkpoints used by {@link #Trace(World)}
+     */
+    public static final int DEFAULT_CHECKPOINT_INTERVAL = 4096;
+
+    private static final Method[] METHODS = Method.values();
+
+    private final int interval;
+    private byte[] operations = new byte[256];
+    private int length;
+    private int[] colors = new int[16];
+    private int paints;
+    private final List<World> checkpoints = new ArrayList<>();
+    private int[] checkpointPaints = new int[16];
+
+    /**
+     * Constructs a new {@link Trace} starting from the current state of the given {@link World}
+     * @param start the {@link World} which will be traced
+     */
+    public Trace(World start) {
+        this(start, DEFAULT_CHECKPOINT_INTERVAL);
+    }
+
+    /**
+     * Constructs a new {@link Trace} starting from the current state of the given {@link World}
+     * @param start the {@link World} which will be traced
+     * @param checkpointInterval the number of operations between copies of the {@link World}
+     */
+    public Trace(World start, int checkpointInterval) {
+        if(checkpointInterval <= 0) {
+            throw new IllegalArgumentException("Argument checkpointInterval must be greater than 0");
+        }
+        interval = checkpointInterval;
+        checkpoints.add(new World(start));
+    }
+
+    /**
+     * Records a completed operation
+     * @param world the {@link World} after the operation
+     * @param m the {@link Method} of the operation
+     */
+    void record(World world, Method m) {
+        if(length == operations.length) {
+            if(length == Integer.MAX_VALUE) {
+                throw new IllegalStateException("Trace is full");
+            }
+            operations = Arrays.copyOf(operations, (int)Math.min(Integer.MAX_VALUE, length * 2L));
+        }
+        operations[length++] = (byte)m.ordinal();
+        if(length % interval == 0) {
+            int c = checkpoints.size();
+            if(c == checkpointPaints.length) {
+                checkpointPaints = Arrays.copyOf(checkpointPaints, c * 2);
+            }
+            checkpointPaints[c] = paints;
+            checkpoints.add(new World(world));
+        }
+    }
+
+    /**
+     * Records a completed {@link Method#PAINT} operation
+     * @param world the {@link World} after the operation
+     * @param argb the packed ARGB color painted
+     */
+    void recordPaint(World world, int argb) {
+        if(paints == colors.length) {
+            colors = Arrays.copyOf(colors, paints * 2);
+        }
+        colors[paints++] = argb;
+        record(world, Method.PAINT);
+    }
+
+    /**
+     * @return The number of operations recorded
+     */
+    public int length() {
+        return length;
+    }
+
+    /**
+     * @param i the index of an operation
+     * @return the {@link Method} of the operation
+     */
+    public Method getOperation(int i) {
+        if(i < 0 || i >= length) {
+            throw new IndexOutOfBoundsException("Operation " + i + " is outside of a trace of length " + length);
+        }
+        return METHODS[operations[i]];
+    }
+
+    /**
+     * @return The number of operations between checkpoints
+     */
+    public int getCheckpointInterval() {
+        return interval;
+    }
+
+    /**
+     * @return The number of bytes held by the recorded operations and colors, not including checkpoints
+     */
+    public long getRecordedBytes() {
+        return length + paints * 4L;
+    }
+
+    int color(int paint) {
+        return colors[paint];
+    }
+
+    /**
+     * @param step a step within the trace
+     * @return the {@link World} at the last checkpoint at or before the step
+     */
+    World checkpoint(int step) {
+        return checkpoints.get(step / interval);
+    }
+
+    /**
+     * @param step a step within the trace
+     * @return the number of paint operations before the last checkpoint at or before the step
+     */
+    int checkpointPaints(int step) {
+        return checkpointPaints[step / interval];
+    }
+
+    @Override
+    public String toString() {
+        return "Trace[length=" + length + ", checkpoints=" + checkpoints.size() + "]";
+    }
+
+}
@@ -0,0 +1,160 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jackson Brienen
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.kentlakecs.falcode.world;
+
+import com.github.kentlakecs.data.Method;
+
+/**
+ * Replays a {@link Trace} in its own {@link World}, without running the program again.
+ * Step n is the state after the first n operations, from step 0, the starting state, to step {@link Trace#length()}.
+ * Seeking restores the nearest checkpoint at or before the step, unless the step is ahead of the current step and no further checkpoint is passed,
+ * then applies at most {@link Trace#getCheckpointInterval()} operations.
+ *
+ * @author Jackson Brienen
+ * @version 1.0
+ */
+public final class TracePlayer {
+
+    private final Trace trace;
+    private final World world;
+    private int step, paints;
+
+    /**
+     * Constructs a new {@link TracePlayer} at step 0
+     * @param trace the {@link Trace} to replay
+     */
+    public TracePlayer(Trace trace) {
+        this.trace = trace;
+        world = new World(trace.checkpoint(0));
+    }
+
+    /**
+     * @return The {@link Trace} being replayed
+     */
+    public Trace getTrace() {
+        return trace;
+    }
+
+    /**
+     * @return The {@link World} in the state of the current step, which must not be modified
+     */
+    public World getWorld() {
+        return world;
+    }
+
+    /**
+     * @return The current step
+     */
+    public int getStep() {
+        return step;
+    }
+
+    /**
+     * @return true if the current step is the last
+     */
+    public boolean isFinished() {
+        return step == trace.length();
+    }
+
+    /**
+     * @return The {@link Method} of the operation which led to the current step, or null at step 0
+     */
+    public Method getLastOperation() {
+        return step == 0 ? null : trace.getOperation(step - 1);
+    }
+
+    /**
+     * Advances by one step
+     * @return false if already at the last step
+     */
+    public boolean next() {
+        if(isFinished()) {
+            return false;
+        }
+        apply(step++);
+        return true;
+    }
+
+    /**
+     * Goes back by one step
+     * @return false if already at step 0
+     */
+    public boolean previous() {
+        if(step == 0) {
+            return false;
+        }
+        seek(step - 1);
+        return true;
+    }
+
+    /**
+     * Moves to the given step
+     * @param target the step from 0 to {@link Trace#length()}
+     */
+    public void seek(int target) {
+        if(target < 0 || target > trace.length()) {
+            throw new IndexOutOfBoundsException("Step " + target + " is outside of a trace of length " + trace.length());
+        }
+        int interval = trace.getCheckpointInterval();
+        if(target < step || target / interval > step / interval) {
+            world.copyFrom(trace.checkpoint(target));
+            paints = trace.checkpointPaints(target);
+            step = target - target % interval;
+        }
+        while(step < target) {
+            apply(step++);
+        }
+    }
+
+    private void apply(int i) {
+        switch(trace.getOperation(i)) {
+            case MOVE:
+                world.move();
+                break;
+            case TURN_LEFT:
+                world.turnLeft();
+                break;
+            case TURN_RIGHT:
+                world.turnRight();
+                break;
+            case PLACE_BALL:
+                world.placeBall();
+                break;
+            case TAKE_BALL:
+                world.takeBall();
+                break;
+            case PAINT:
+                world.paint(trace.color(paints++));
+                break;
+            default:
+                // Queries do not change the state
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "TracePlayer[step=" + step + "/" + trace.length() + "]";
+    }
+
+}
@@ -0,0 +1,397 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jackson Brienen
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.kentlakecs.falcode.world;
+
+import com.github.kentlakecs.data.*;
+import com.github.kentlakecs.data.util.DataUtils;
+
+/**
+ * The mutable state of a {@link Grid} while Falco runs within it, and the implementation of each {@link Method}.
+ * State is held in primitive arrays using the cell layout of {@link PackedGrid}, cells being indexed as {@code y * size + x},
+ * so a World is loaded from and saved to a {@link PackedGrid} with bulk array copies, and no operation allocates unless it throws.
+ * The directions Falco cannot move from each cell are computed once on {@link #load(Grid)} as barriers do not change while Falco runs.
+ * Each operation takes a step from the World's {@link StepBudget}, which has no limit unless one is set,
+ * and each completed operation is recorded to the World's {@link Trace}, if one is set.
+ * <p>
+ * A World is not thread safe, but any number of Worlds may be run at once.
+ *
+ * @author Jackson Brienen
+ * @version 1.0
+ */
+public final class World {
+
+    /* The barrier bits of a cell, without PackedGrid.COLORED */
+    private static final int BARRIERS = PackedGrid.BARRIER_TOP | PackedGrid.BARRIER_RIGHT | PackedGrid.BARRIER_BOTTOM | PackedGrid.BARRIER_LEFT;
+
+    private static final Direction[] DIRECTIONS = {Direction.TOP, Direction.RIGHT, Direction.BOTTOM, Direction.LEFT};
+
+    private int size;
+    private byte[] cells, blocked;
+    private int[] balls, colors;
+    private final int[] steps = new int[4];
+    private int position, direction;
+    private StepBudget budget = new StepBudget(Long.MAX_VALUE);
+    private Trace trace;
+
+    /**
+     * Constructs a new {@link World} in the state of the given {@link Grid}
+     * @param g the {@link Grid} to load
+     */
+    public World(Grid g) {
+        load(g);
+    }
+
+    /**
+     * Constructs a new {@link World} in the same state as the given {@link World}
+     * @param w the {@link World} to copy
+     */
+    public World(World w) {
+        copyFrom(w);
+    }
+
+    /**
+     * Sets the state of this World to that of the given {@link Grid}, reusing this World's arrays if the size is unchanged
+     * @param g the {@link Grid} to load
+     */
+    public void load(Grid g) {
+        resize(g.getSize());
+        if(g instanceof PackedGrid) {
+            ((PackedGrid)g).copyTo(cells, balls, colors);
+        } else {
+            Tile[][] tiles = g.getTiles();
+            for(int y = 0, i = 0; y < size; y++) {
+                for(int x = 0; x < size; x++, i++) {
+                    Tile t = tiles[y][x];
+                    cells[i] = (byte)(t.getBarriers() | (t.hasColor() ? PackedGrid.COLORED : 0));
+                    balls[i] = t.getBalls();
+                    colors[i] = t.getArgb();
+                }
+            }
+        }
+        DataUtils.blockedMoves(cells, size, blocked);
+        position = g.getPlayerY() * size + g.getPlayerX();
+        direction = g.getPlayerDirection().getValue();
+    }
+
+    /**
+     * Sets the state of this World to that of the given {@link World}, reusing this World's arrays if the size is unchanged
+     * @param w the {@link World} to copy
+     */
+    public void copyFrom(World w) {
+        resize(w.size);
+        System.arraycopy(w.cells, 0, cells, 0, cells.length);
+        System.arraycopy(w.blocked, 0, blocked, 0, blocked.length);
+        System.arraycopy(w.balls, 0, balls, 0, balls.length);
+        System.arraycopy(w.colors, 0, colors, 0, colors.length);
+        position = w.position;
+        direction = w.direction;
+    }
+
+    private void resize(int size) {
+        if(cells == null || this.size != size) {
+            this.size = size;
+            cells = new byte[size * size];
+            blocked = new byte[size * size];
+            balls = new int[size * size];
+            colors = new int[size * size];
+            steps[Direction.TOP.getValue()] = -size;
+            steps[Direction.RIGHT.getValue()] = 1;
+            steps[Direction.BOTTOM.getValue()] = size;
+            steps[Direction.LEFT.getValue()] = -1;
+        }
+    }
+
+    /**
+     * @return A {@link PackedGrid} of the current state of this World
+     */
+    public PackedGrid toGrid() {
+        return new PackedGrid(size, cells, balls, colors, getX(), getY(), getDirection());
+    }
+
+    /**
+     * Compares the current state of this World to the given {@link Grid} without allocating.
+     * Cells are compared as by {@link Tile#equals(Object)}, so an unpainted cell matches one painted {@link Tile#DEFAULT_ARGB}.
+     * @param g a {@link Grid}
+     * @return true if the size, player, and every cell of this World is equal to that of the {@link Grid}
+     */
+    public boolean matches(Grid g) {
+        if(g.getSize() != size || g.getPlayerX() != getX() || g.getPlayerY() != getY() || g.getPlayerDirection() != getDirection()) {
+            return false;
+        }
+
+        if(g instanceof PackedGrid) {
+            PackedGrid p = (PackedGrid)g;
+            for(int y = 0, i = 0; y < size; y++) {
+                for(int x = 0; x < size; x++, i++) {
+                    if((p.cellAt(x, y) & BARRIERS) != (cells[i] & BARRIERS) || p.ballsAt(x, y) != balls[i] || p.colorAt(x, y) != colors[i]) {
+                        return false;
+                    }
+                }
+            }
+        } else {
+            Tile[][] tiles = g.getTiles();
+            for(int y = 0, i = 0; y < size; y++) {
+                for(int x = 0; x < size; x++, i++) {
+                    Tile t = tiles[y][x];
+                    if(t.getBarriers() != (cells[i] & BARRIERS) || t.getBalls() != balls[i] || t.getArgb() != colors[i]) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return The size of this World
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * @return The x coordinate of Falco
+     */
+    public int getX() {
+        return position % size;
+    }
+
+    /**
+     * @return The y coordinate of Falco
+     */
+    public int getY() {
+        return position / size;
+    }
+
+    /**
+     * @return The {@link Direction} Falco is facing
+     */
+    public Direction getDirection() {
+        return DIRECTIONS[direction];
+    }
+
+    /**
+     * @param x the x coordinate of a cell
+     * @param y the y coordinate of a cell
+     * @return the number of balls in the cell
+     */
+    public int ballsAt(int x, int y) {
+        return balls[index(x, y)];
+    }
+
+    /**
+     * @param x the x coordinate of a cell
+     * @param y the y coordinate of a cell
+     * @return the packed ARGB color of the cell, {@link Tile#DEFAULT_ARGB} if it has not been colored
+     */
+    public int colorAt(int x, int y) {
+        return colors[index(x, y)];
+    }
+
+    /**
+     * @param x the x coordinate of a cell
+     * @param y the y coordinate of a cell
+     * @return the barrier and {@link PackedGrid#COLORED} bits of the cell
+     */
+    public int cellAt(int x, int y) {
+        return cells[index(x, y)];
+    }
+
+    private int index(int x, int y) {
+        if(x < 0 || x >= size || y < 0 || y >= size) {
+            throw new IndexOutOfBoundsException(String.format("(%d, %d) is outside of a world of size %d", x, y, size));
+        }
+        return y * size + x;
+    }
+
+    /**
+     * Moves Falco forward once
+     * @throws RanIntoBarrierException if a barrier or the edge of the grid is in front of Falco
+     * @see Method#MOVE
+     */
+    public void move() {
+        budget.step();
+        if((blocked[position] & 1 << direction) != 0) {
+            throw new RanIntoBarrierException(getX(), getY(), getDirection());
+        }
+        position += steps[direction];
+        record(Method.MOVE);
+    }
+
+    /**
+     * Turns Falco counter-clockwise
+     * @see Method#TURN_LEFT
+     */
+    public void turnLeft() {
+        budget.step();
+        direction = (direction + 3) & 3;
+        record(Method.TURN_LEFT);
+    }
+
+    /**
+     * Turns Falco clockwise
+     * @see Method#TURN_RIGHT
+     */
+    public void turnRight() {
+        budget.step();
+        direction = (direction + 1) & 3;
+        record(Method.TURN_RIGHT);
+    }
+
+    /**
+     * Places one ball on Falco's tile
+     * @see Method#PLACE_BALL
+     */
+    public void placeBall() {
+        budget.step();
+        balls[position]++;
+        record(Method.PLACE_BALL);
+    }
+
+    /**
+     * Takes one ball from Falco's tile
+     * @throws BallNotFoundException if no ball is present
+     * @see Method#TAKE_BALL
+     */
+    public void takeBall() {
+        budget.step();
+        if(balls[position] == 0) {
+            throw new BallNotFoundException(getX(), getY());
+        }
+        balls[position]--;
+        record(Method.TAKE_BALL);
+    }
+
+    /**
+     * @return true if a ball is present on Falco's tile
+     * @see Method#BALL_IS_PRESENT
+     */
+    public boolean ballIsPresent() {
+        budget.step();
+        record(Method.BALL_IS_PRESENT);
+        return balls[position] != 0;
+    }
+
+    /**
+     * Paints Falco's tile
+     * @param argb the packed ARGB color
+     * @see Method#PAINT
+     */
+    public void paint(int argb) {
+        budget.step();
+        cells[position] |= PackedGrid.COLORED;
+        colors[position] = argb;
+        if(trace != null) {
+            trace.recordPaint(this, argb);
+        }
+    }
+
+    /**
+     * @return true if Falco can move forward
+     * @see Method#FRONT_IS_CLEAR
+     */
+    public boolean frontIsClear() {
+        budget.step();
+        record(Method.FRONT_IS_CLEAR);
+        return (blocked[position] & 1 << direction) == 0;
+    }
+
+    /**
+     * @return true if Falco could move forward after turning left
+     * @see Method#LEFT_IS_CLEAR
+     */
+    public boolean leftIsClear() {
+        budget.step();
+        record(Method.LEFT_IS_CLEAR);
+        return (blocked[position] & 1 << ((direction + 3) & 3)) == 0;
+    }
+
+    /**
+     * @return true if Falco could move forward after turning right
+     * @see Method#RIGHT_IS_CLEAR
+     */
+    public boolean rightIsClear() {
+        budget.step();
+        record(Method.RIGHT_IS_CLEAR);
+        return (blocked[position] & 1 << ((direction + 1) & 3)) == 0;
+    }
+
+    /**
+     * Sets the {@link StepBudget} each operation takes a step from
+     * @param budget the {@link StepBudget}
+     */
+    public void setStepBudget(StepBudget budget) {
+        this.budget = budget;
+    }
+
+    /**
+     * @return The {@link StepBudget} each operation takes a step from
+     */
+    public StepBudget getStepBudget() {
+        return budget;
+    }
+
+    private void record(Method m) {
+        if(trace != null) {
+            trace.record(this, m);
+        }
+    }
+
+    /**
+     * Sets the {@link Trace} each completed operation is recorded to
+     * @param trace the {@link Trace}, or null to stop recording
+     */
+    public void setTrace(Trace trace) {
+        this.trace = trace;
+    }
+
+    /**
+     * @return The {@link Trace} each completed operation is recorded to, or null if none is set
+     */
+    public Trace getTrace() {
+        return trace;
+    }
+
+    /**
+     * Runs the given {@link Falco} within this World, its loops taking steps from this World's {@link StepBudget}
+     * @param falco the {@link Falco} to run
+     * @throws RanIntoBarrierException if Falco runs into a barrier
+     * @throws BallNotFoundException if Falco takes a ball from an empty tile
+     * @throws StepLimitExceededError if the {@link StepBudget} is exhausted
+     */
+    public void run(Falco falco) {
+        falco.world = this;
+        try {
+            budget.run(falco::run);
+        } finally {
+            falco.world = null;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("World[size=%d, x=%d, y=%d, direction=%s]", size, getX(), getY(), getDirection());
+    }
+
+}
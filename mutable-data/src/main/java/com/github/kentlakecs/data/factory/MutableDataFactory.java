@@ -26,6 +26,7 @@ package com.github.kentlakecs.data.factory;
 import java.awt.Color;
 import com.github.kentlakecs.data.*;
 import com.github.kentlakecs.data.mutable.*;
+import com.github.kentlakecs.data.util.DataUtils;
 
 /**
  * {@link AbstractDataFactory} to instantiate mutable extends of the data classes
@@ -43,6 +44,14 @@ public final class MutableDataFactory implements AbstractDataFactory {
         return new MutableParameter(type, name);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public MutableTile tile(boolean colored, int argb, boolean barrierTop, boolean barrierRight, boolean barrierBottom, boolean barrierLeft, int balls) {
+        return new MutableTile(colored, argb, barrierTop, barrierRight, barrierBottom, barrierLeft, balls);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -62,7 +71,7 @@ public final class MutableDataFactory implements AbstractDataFactory {
         
         MutableTile[][] t = new MutableTile[tiles.length][tiles[0].length];
         for(int r = 0; r < t.length; r++) {
-            for(int c = 0; c < t[0].length; r++) {
+            for(int c = 0; c < t[0].length; c++) {
                 t[r][c] = new MutableTile(tiles[r][c]);
             }
         }
@@ -99,15 +108,24 @@ public final class MutableDataFactory implements AbstractDataFactory {
      */
     @Override
     public MutableCodeLesson codeLesson(String name, String startingCode, String description, String methodName, Parameter[] parameters, Primitive returnType, String test) {
+        return codeLesson(name, startingCode, description, methodName, parameters, returnType, test, null);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public MutableCodeLesson codeLesson(String name, String startingCode, String description, String methodName, Parameter[] parameters, Primitive returnType, String test, TestTable testTable) {
+        DataUtils.checkTestTable(testTable, parameters, returnType);
         if(parameters.getClass().equals(MutableParameter[].class)) {
-            return new MutableCodeLesson(name, startingCode, description, methodName, (MutableParameter[])parameters, returnType, test);
+            return new MutableCodeLesson(name, startingCode, description, methodName, (MutableParameter[])parameters, returnType, test, testTable);
         }
         
         MutableParameter[] p = new MutableParameter[parameters.length];
         for(int i = 0; i < p.length; i++) {
             p[i] = new MutableParameter(parameters[i]);
         }
-        return new MutableCodeLesson(name, startingCode, description, methodName, p, returnType, test);
+        return new MutableCodeLesson(name, startingCode, description, methodName, p, returnType, test, testTable);
     }
 
     /**
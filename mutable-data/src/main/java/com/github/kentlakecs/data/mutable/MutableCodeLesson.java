@@ -28,6 +28,7 @@ import java.util.Collections;
 
 import com.github.kentlakecs.data.*;
 import com.github.kentlakecs.data.util.DataUtils;
+import com.github.kentlakecs.data.util.Fingerprint;
 
 /**
  * Mutable version of the {@link CodeLesson} class
@@ -40,6 +41,8 @@ public class MutableCodeLesson implements CodeLesson, MutableLesson {
     private String name, startingCode, description, methodName, test;
     private ArrayList<MutableParameter> parameters;
     private Primitive returnType;
+    private TestTable testTable;
+    private Fingerprint.Hasher hasher;
 
     /**
      * Constructs a new {@link MutableCodeLesson}
@@ -52,6 +55,21 @@ public class MutableCodeLesson implements CodeLesson, MutableLesson {
      * @param test The code used to test the user written method
      */
     public MutableCodeLesson(String name, String startingCode, String description, String methodName, MutableParameter[] parameters, Primitive returnType, String test) {
+        this(name, startingCode, description, methodName, parameters, returnType, test, null);
+    }
+
+    /**
+     * Constructs a new {@link MutableCodeLesson}
+     * @param name The name of the lesson
+     * @param startingCode the starting code given to the user for this lesson
+     * @param description The description for the lesson
+     * @param methodName The name of the method written by the user
+     * @param parameters The list of parameters in the method written by the user
+     * @param returnType The primitive return type, or void, of the method written by the user
+     * @param test The code used to test the user written method
+     * @param testTable The nullable {@link TestTable} of cases the user written method is run against
+     */
+    public MutableCodeLesson(String name, String startingCode, String description, String methodName, MutableParameter[] parameters, Primitive returnType, String test, TestTable testTable) {
         this.name = name;
         this.startingCode = startingCode;
         this.description = description;
@@ -60,6 +78,7 @@ public class MutableCodeLesson implements CodeLesson, MutableLesson {
         this.parameters = new ArrayList<>();
         Collections.addAll(this.parameters, parameters);
         this.returnType = returnType;
+        this.testTable = testTable;
     }
 
     /**
@@ -77,6 +96,7 @@ public class MutableCodeLesson implements CodeLesson, MutableLesson {
             parameters.add(new MutableParameter(cl.getParameters()[i]));
         }
         this.returnType = cl.getReturnType();
+        this.testTable = cl.getTestTable();
     }
 
     /**
@@ -93,6 +113,7 @@ public class MutableCodeLesson implements CodeLesson, MutableLesson {
     @Override
     public void setName(String name) {
         this.name = name;
+        hasher = null;
     }
 
     /**
@@ -109,6 +130,7 @@ public class MutableCodeLesson implements CodeLesson, MutableLesson {
     @Override
     public void setDescription(String description) {
         this.description = description;
+        hasher = null;
     } 
 
     /**
@@ -125,6 +147,7 @@ public class MutableCodeLesson implements CodeLesson, MutableLesson {
      */
     public void setMethodName(String methodName) {
         this.methodName = methodName;
+        hasher = null;
     }
 
     /**
@@ -156,6 +179,7 @@ public class MutableCodeLesson implements CodeLesson, MutableLesson {
      */
     public void setReturnType(Primitive returnType) {
         this.returnType = returnType;
+        hasher = null;
     }
 
     /**
@@ -172,6 +196,25 @@ public class MutableCodeLesson implements CodeLesson, MutableLesson {
      */
     public void setTest(String test) {
         this.test = test;
+        hasher = null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public TestTable getTestTable() {
+        return testTable;
+    }
+
+    /**
+     * Sets the {@link TestTable} of the {@link CodeLesson}.
+     * The table is not checked against the parameters and return type, as they may be changed afterwards.
+     * @param testTable the nullable testTable to be set
+     */
+    public void setTestTable(TestTable testTable) {
+        this.testTable = testTable;
+        hasher = null;
     }
 
     /**
@@ -188,6 +231,25 @@ public class MutableCodeLesson implements CodeLesson, MutableLesson {
     @Override
     public void setStartingCode(String startingCode) {
         this.startingCode = startingCode;
+        hasher = null;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The single valued properties are hashed again only after they are set, the parameters are hashed on every call.
+     */
+    @Override
+    public Fingerprint getFingerprint() {
+        if(hasher == null) {
+            hasher = DataUtils.codeLessonHasher(this);
+        }
+        Fingerprint.Hasher h = hasher.copy();
+        h.putInt(parameters.size());
+        for(MutableParameter p: parameters) {
+            DataUtils.hash(h, p);
+        }
+        return h.finish();
     }
 
     /**
@@ -201,6 +263,14 @@ public class MutableCodeLesson implements CodeLesson, MutableLesson {
         return false;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode() {
+        return getFingerprint().hashCode();
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -24,9 +24,12 @@
 package com.github.kentlakecs.data.mutable;
 
 import com.github.kentlakecs.data.*;
+import com.github.kentlakecs.data.util.DataUtils;
 
 /**
- * Mutable version of the {@link Grid} class
+ * Mutable version of the {@link Grid} class.
+ * The {@link #contentHash()} is maintained incrementally as the grid and its {@link MutableTile}s are modified.
+ * A {@link MutableTile} may only belong to one grid at a time, tiles already belonging to another grid are copied when given to a grid.
  * 
  * @author Jackson Brienen
  * @version 1.0
@@ -36,6 +39,7 @@ public class MutableGrid extends Grid {
     private MutableTile[][] tiles;
     private int size, playerX, playerY;
     private Direction playerDirection;
+    private long hash;
 
     /**
      * Constructs a new {@MutableGrid} with default tiles with the player in the top right and facing right
@@ -56,6 +60,7 @@ public class MutableGrid extends Grid {
                 tiles[r][c] = new MutableTile();
             }
         }
+        adopt();
     }
 
     /**
@@ -88,6 +93,7 @@ public class MutableGrid extends Grid {
         this.playerX = playerX;
         this.playerY = playerY;
         this.playerDirection = playerDirection;
+        adopt();
     }
 
     /**
@@ -96,13 +102,14 @@ public class MutableGrid extends Grid {
      */
     public MutableGrid(Grid g) {
         
-        if(g.getTiles().getClass().equals(MutableTile[][].class)) {
-            tiles = (MutableTile[][])g.getTiles();
+        Tile[][] source = g.getTiles();
+        if(source.getClass().equals(MutableTile[][].class)) {
+            tiles = (MutableTile[][])source;
         } else {
-            tiles = new MutableTile[g.getTiles().length][g.getTiles()[0].length];
+            tiles = new MutableTile[source.length][source[0].length];
             for(int r = 0; r < tiles.length; r++) {
                 for(int c = 0; c < tiles[0].length; c++) {
-                    tiles[r][c] = new MutableTile(g.getTiles()[r][c]);
+                    tiles[r][c] = new MutableTile(source[r][c]);
                 }
             }
         }
@@ -111,14 +118,125 @@ public class MutableGrid extends Grid {
         playerX = g.getPlayerX();
         playerY = g.getPlayerY();
         playerDirection = g.getPlayerDirection();
+        adopt();
+    }
+
+    /**
+     * Takes ownership of every tile and recomputes the content hash.
+     * Each tile is claimed as it is reached, so a tile which belongs to another grid or appears more than once is copied,
+     * the tile array being copied first so the caller's array is not modified.
+     */
+    private void adopt() {
+        boolean copied = false;
+        hash = DataUtils.playerHash(size, playerX, playerY, playerDirection);
+        for(int r = 0; r < size; r++) {
+            for(int c = 0; c < size; c++) {
+                MutableTile t = tiles[r][c];
+                if(t.grid != null && (t.grid != this || t.index != r * size + c)) {
+                    if(!copied) {
+                        tiles = copyOf(tiles);
+                        copied = true;
+                    }
+                    t = new MutableTile(t);
+                    tiles[r][c] = t;
+                }
+                t.grid = this;
+                t.index = r * size + c;
+                hash ^= t.cellHash();
+            }
+        }
+    }
+
+    private static MutableTile[][] copyOf(MutableTile[][] tiles) {
+        MutableTile[][] copy = new MutableTile[tiles.length][];
+        for(int r = 0; r < tiles.length; r++) {
+            copy[r] = tiles[r].clone();
+        }
+        return copy;
+    }
+
+    /**
+     * Called by a {@link MutableTile} within this grid when its state changes
+     * @param delta the exclusive or of the tile's Zobrist keys before and after the change
+     */
+    void cellChanged(long delta) {
+        hash ^= delta;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The hash is updated as changes are made, so this is a constant time operation.
+     */
+    @Override
+    public long contentHash() {
+        return hash;
+    }
+
+    /**
+     * Replaces the {@link MutableTile} at the given coordinates, copying it if it already belongs to another grid.
+     * @param x the x coordinate of the tile
+     * @param y the y coordinate of the tile
+     * @param tile the new tile
+     */
+    public void setTile(int x, int y, MutableTile tile) {
+        MutableTile old = tiles[y][x];
+        if(old == tile) {
+            return;
+        }
+        if(tile.grid != null) {
+            tile = new MutableTile(tile);
+        }
+
+        hash ^= old.cellHash();
+        old.grid = null;
+        tiles[y][x] = tile;
+        tile.grid = this;
+        tile.index = y * size + x;
+        hash ^= tile.cellHash();
     }
 
     /**
      * {@inheritDoc}
+     * <p>
+     * The returned array is a copy, so tiles can only be replaced with {@link #setTile(int, int, MutableTile)},
+     * while changes made to the returned {@link MutableTile}s are still reflected in this grid.
      */
     @Override
     public MutableTile[][] getTiles() {
-        return (MutableTile[][])tiles;
+        return copyOf(tiles);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean barrierAt(int x, int y, Direction direction) {
+        return (tiles[y][x].getBarriers() & 1 << direction.getValue()) != 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int ballsAt(int x, int y) {
+        return tiles[y][x].getBalls();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean hasColorAt(int x, int y) {
+        return tiles[y][x].hasColor();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int colorAt(int x, int y) {
+        return tiles[y][x].getArgb();
     }
 
     /**
@@ -143,25 +261,22 @@ public class MutableGrid extends Grid {
         }
 
         MutableTile[][] newTiles = new MutableTile[size][size];
-        for(int r = 0; r < (size < this.size ? size : this.size); r++) {
-            System.arraycopy(tiles[r], 0, newTiles, 0, size < this.size ? size : this.size);
+        for(int r = 0; r < size; r++) {
+            for(int c = 0; c < size; c++) {
+                newTiles[r][c] = r < this.size && c < this.size ? tiles[r][c] : new MutableTile();
+            }
         }
 
-        if(size > this.size) {
-            for(int r = 0; r < this.size; r++) {
-                for(int c = this.size; c < size; c++) {
-                    tiles[r][c] = new MutableTile();
-                }
-            }
-            for(int r = this.size; r < size; r++) {
-                for(int c = 0; c < size; c++) {
-                    tiles[r][c] = new MutableTile();
-                }
+        // Tiles are re-indexed for the new size, and removed tiles no longer belong to this grid
+        for(MutableTile[] row: tiles) {
+            for(MutableTile t: row) {
+                t.grid = null;
             }
         }
 
         tiles = newTiles;
         this.size = size;
+        adopt();
     }
 
     /**
@@ -177,7 +292,9 @@ public class MutableGrid extends Grid {
      * @param playerX 
      */
     public void setPlayerX(int playerX) {
+        hash ^= DataUtils.playerHash(size, this.playerX, this.playerY, this.playerDirection);
         this.playerX = playerX;
+        hash ^= DataUtils.playerHash(size, playerX, playerY, playerDirection);
     }
 
     /**
@@ -193,7 +310,9 @@ public class MutableGrid extends Grid {
      * @param playerY 
      */
     public void setPlayerY(int playerY) {
+        hash ^= DataUtils.playerHash(size, this.playerX, this.playerY, this.playerDirection);
         this.playerY = playerY;
+        hash ^= DataUtils.playerHash(size, playerX, playerY, playerDirection);
     }
 
     /**
@@ -209,7 +328,9 @@ public class MutableGrid extends Grid {
      * @param playerDirection
      */
     public void setPlayerDirection(Direction playerDirection) {
+        hash ^= DataUtils.playerHash(size, this.playerX, this.playerY, this.playerDirection);
         this.playerDirection = playerDirection;
+        hash ^= DataUtils.playerHash(size, playerX, playerY, playerDirection);
     }
     
 }
@@ -25,6 +25,7 @@ package com.github.kentlakecs.data.mutable;
 
 import java.awt.Color;
 import com.github.kentlakecs.data.Tile;
+import com.github.kentlakecs.data.util.DataUtils;
 
 /**
  * Mutable version of the {@link Tile} class
@@ -34,10 +35,15 @@ import com.github.kentlakecs.data.Tile;
  */
 public class MutableTile extends Tile {
 
-    private Color c;
+    private boolean colored;
+    private int argb = DEFAULT_ARGB;
     private boolean barrierTop, barrierRight, barrierBottom, barrierLeft;
     private int balls;
 
+    /* The grid containing this tile and the tile's index within it, used to maintain the grid's content hash */
+    MutableGrid grid;
+    int index;
+
     /**
      * Constructs a new {@link MutableTile} with the default of no {@link Color}, barriers, or balls
      */
@@ -53,7 +59,7 @@ public class MutableTile extends Tile {
      * @param barrierLeft
      */
     public MutableTile(boolean barrierTop, boolean barrierRight, boolean barrierBottom, boolean barrierLeft) {
-        this(null, barrierTop, barrierRight, barrierBottom, barrierLeft, 0);
+        this(false, DEFAULT_ARGB, barrierTop, barrierRight, barrierBottom, barrierLeft, 0);
     }
 
     /**
@@ -66,11 +72,26 @@ public class MutableTile extends Tile {
      * @param balls number of balls in the tile, must be 0 or greater
      */
     public MutableTile(Color c, boolean barrierTop, boolean barrierRight, boolean barrierBottom, boolean barrierLeft, int balls) {
+        this(c != null, c == null ? DEFAULT_ARGB : c.getRGB(), barrierTop, barrierRight, barrierBottom, barrierLeft, balls);
+    }
+
+    /**
+     * Constructs a new {@link MutableTile} with the given properties
+     * @param colored true if the tile has a background color
+     * @param argb packed ARGB background color, ignored if colored is false
+     * @param barrierTop
+     * @param barrierRight
+     * @param barrierBottom
+     * @param barrierLeft
+     * @param balls number of balls in the tile, must be 0 or greater
+     */
+    public MutableTile(boolean colored, int argb, boolean barrierTop, boolean barrierRight, boolean barrierBottom, boolean barrierLeft, int balls) {
         if(balls < 0) {
             throw new IllegalArgumentException("Argument balls must be greater than or equal to 1");
         }
         
-        this.c = c;
+        this.colored = colored;
+        this.argb = colored ? argb : DEFAULT_ARGB;
         this.barrierTop = barrierTop;
         this.barrierRight = barrierRight;
         this.barrierBottom = barrierBottom;
@@ -83,7 +104,8 @@ public class MutableTile extends Tile {
      * @param t
      */
     public MutableTile(Tile t) {
-        c = t.getColor();
+        colored = t.hasColor();
+        argb = t.getArgb();
         barrierTop = t.getBarrierTop();
         barrierRight = t.getBarrierRight();
         barrierBottom = t.getBarrierBottom();
@@ -95,8 +117,37 @@ public class MutableTile extends Tile {
      * {@inheritDoc}
      */
     @Override
-    public Color getColor() {
-        return c;
+    public boolean hasColor() {
+        return colored;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getArgb() {
+        return argb;
+    }
+
+    /**
+     * Sets the background color of this {@link Tile}
+     * @param argb packed ARGB color
+     */
+    public void setArgb(int argb) {
+        long before = cellHash();
+        this.colored = true;
+        this.argb = argb;
+        changed(before);
+    }
+
+    /**
+     * Removes the background color of this {@link Tile} so that {@link Tile#DEFAULT_ARGB} is used
+     */
+    public void clearColor() {
+        long before = cellHash();
+        this.colored = false;
+        this.argb = DEFAULT_ARGB;
+        changed(before);
     }
 
     /**
@@ -104,7 +155,11 @@ public class MutableTile extends Tile {
      * @param c nullable {@link Color}
      */
     public void setColor(Color c) {
-        this.c = c;
+        if(c == null) {
+            clearColor();
+        } else {
+            setArgb(c.getRGB());
+        }
     }
 
     /**
@@ -120,7 +175,9 @@ public class MutableTile extends Tile {
      * @param barrierTop
      */
     public void setBarrierTop(boolean barrierTop) {
+        long before = cellHash();
         this.barrierTop = barrierTop;
+        changed(before);
     }
 
     /**
@@ -136,7 +193,9 @@ public class MutableTile extends Tile {
      * @param barrierRight
      */
     public void setBarrierRight(boolean barrierRight) {
+        long before = cellHash();
         this.barrierRight = barrierRight;
+        changed(before);
     }
 
     /**
@@ -152,7 +211,9 @@ public class MutableTile extends Tile {
      * @param barrierBottom
      */
     public void setBarrierBottom(boolean barrierBottom) {
+        long before = cellHash();
         this.barrierBottom = barrierBottom;
+        changed(before);
     }
 
     /**
@@ -168,7 +229,9 @@ public class MutableTile extends Tile {
      * @param barrierLeft
      */
     public void setBarrierLeft(boolean barrierLeft) {
+        long before = cellHash();
         this.barrierLeft = barrierLeft;
+        changed(before);
     }
 
     /**
@@ -179,10 +242,12 @@ public class MutableTile extends Tile {
      * @param barrierLeft true if a left barrier should be present; false if otherwise
      */
     public void setBarriers(boolean barrierTop, boolean barrierRight, boolean barrierBottom, boolean barrierLeft) {
+        long before = cellHash();
         this.barrierTop = barrierTop;
         this.barrierRight = barrierRight;
         this.barrierBottom = barrierBottom;
         this.barrierLeft = barrierLeft;
+        changed(before);
     }
 
     /**
@@ -201,7 +266,26 @@ public class MutableTile extends Tile {
         if(balls < 0) {
             throw new IllegalArgumentException("Argument balls must be greater than or equal to 1");
         }
+        long before = cellHash();
         this.balls = balls;
+        changed(before);
+    }
+
+    /**
+     * @return the Zobrist key of this tile's current state at its index, or 0 if it is not within a {@link MutableGrid}
+     */
+    long cellHash() {
+        return grid == null ? 0 : DataUtils.cellHash(index, getBarriers(), balls, argb);
+    }
+
+    /**
+     * Updates the content hash of the containing {@link MutableGrid}
+     * @param before the value of {@link #cellHash()} before the change
+     */
+    private void changed(long before) {
+        if(grid != null) {
+            grid.cellChanged(before ^ cellHash());
+        }
     }
     
 }
@@ -28,6 +28,7 @@ import java.util.Collections;
 
 import com.github.kentlakecs.data.*;
 import com.github.kentlakecs.data.util.DataUtils;
+import com.github.kentlakecs.data.util.Fingerprint;
 
 /**
  * Mutable version of the {@link Unit} class
@@ -39,6 +40,7 @@ public class MutableUnit implements Unit {
 
     private String name;
     private ArrayList<MutableLesson> lessons;
+    private Fingerprint.Hasher hasher;
 
     public MutableUnit(String name, MutableLesson[] lessons) {
         this.name = name;
@@ -60,6 +62,7 @@ public class MutableUnit implements Unit {
      */
     public void setName(String name) {
         this.name = name;
+        hasher = null;
     }
 
     /**
@@ -77,6 +80,24 @@ public class MutableUnit implements Unit {
         return lessons;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The name is hashed again only after it is set, the fingerprint of each lesson is taken on every call.
+     */
+    @Override
+    public Fingerprint getFingerprint() {
+        if(hasher == null) {
+            hasher = DataUtils.unitHasher(this);
+        }
+        Fingerprint.Hasher h = hasher.copy();
+        h.putInt(lessons.size());
+        for(MutableLesson l: lessons) {
+            h.putFingerprint(l.getFingerprint());
+        }
+        return h.finish();
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -88,6 +109,14 @@ public class MutableUnit implements Unit {
         return false;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode() {
+        return getFingerprint().hashCode();
+    }
+
     /**
      * {@inheritDoc}
      */
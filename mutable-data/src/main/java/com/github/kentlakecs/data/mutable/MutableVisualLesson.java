@@ -28,6 +28,7 @@ import java.util.Collections;
 
 import com.github.kentlakecs.data.*;
 import com.github.kentlakecs.data.util.DataUtils;
+import com.github.kentlakecs.data.util.Fingerprint;
 
 /**
  * Mutable version of the {@link VisualLesson} class
@@ -41,6 +42,7 @@ public class MutableVisualLesson implements VisualLesson, MutableLesson {
     private ArrayList<Method> allowedMethods;
     private ArrayList<String> requiredStrings;
     private ArrayList<MutableGrid> startingGrids, endingGrids;
+    private Fingerprint.Hasher hasher;
 
     /**
      * Constructs a new {@link MutableVisualLesson}
@@ -102,6 +104,7 @@ public class MutableVisualLesson implements VisualLesson, MutableLesson {
     @Override
     public void setName(String name) {
         this.name = name;
+        hasher = null;
     }
 
     /**
@@ -118,6 +121,7 @@ public class MutableVisualLesson implements VisualLesson, MutableLesson {
     @Override
     public void setStartingCode(String startingCode) {
         this.startingCode = startingCode;
+        hasher = null;
     }
 
     /**
@@ -134,6 +138,7 @@ public class MutableVisualLesson implements VisualLesson, MutableLesson {
     @Override
     public void setDescription(String description) {
         this.description = description;
+        hasher = null;
     }
 
     /**
@@ -197,6 +202,30 @@ public class MutableVisualLesson implements VisualLesson, MutableLesson {
     }
 
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The single valued properties are hashed again only after they are set, the lists are hashed on every call using each {@link MutableGrid#contentHash()}.
+     */
+    @Override
+    public Fingerprint getFingerprint() {
+        if(hasher == null) {
+            hasher = DataUtils.visualLessonHasher(this);
+        }
+        Fingerprint.Hasher h = hasher.copy();
+        h.putInt(allowedMethods.size());
+        for(Method m: allowedMethods) {
+            h.putEnum(m);
+        }
+        h.putInt(requiredStrings.size());
+        for(String s: requiredStrings) {
+            h.putString(s);
+        }
+        hash(h, startingGrids);
+        hash(h, endingGrids);
+        return h.finish();
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -208,6 +237,24 @@ public class MutableVisualLesson implements VisualLesson, MutableLesson {
         return false;
     }
 
+    /**
+     * Adds the given grids to a {@link Fingerprint.Hasher} in the same manner as {@link DataUtils#hash(Fingerprint.Hasher, Grid[])}
+     */
+    private static void hash(Fingerprint.Hasher h, ArrayList<MutableGrid> grids) {
+        h.putInt(grids.size());
+        for(MutableGrid g: grids) {
+            h.putLong(g.contentHash());
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode() {
+        return getFingerprint().hashCode();
+    }
+
     /**
      * {@inheritDoc}
      */